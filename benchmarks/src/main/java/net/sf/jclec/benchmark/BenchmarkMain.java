@@ -0,0 +1,62 @@
+package net.sf.jclec.benchmark;
+
+import org.openjdk.jmh.Main;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks launcher. Accepts the same arguments as the JMH launcher but,
+ * unless other format or file are given (-rf, -rff), results are always
+ * written in JSON format to jmh-result.json, so that they can be stored
+ * and compared between versions.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class BenchmarkMain
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Default results file */
+
+	public static final String RESULT_FILE = "jmh-result.json";
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	private BenchmarkMain()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------ Class methods
+	/////////////////////////////////////////////////////////////////
+
+	public static void main(String [] args) throws Exception
+	{
+		CommandLineOptions options = new CommandLineOptions(args);
+		// Help and list requests are managed by JMH
+		if (options.shouldHelp() || options.shouldList() || options.shouldListProfilers()
+				|| options.shouldListResultFormats()) {
+			Main.main(args);
+			return;
+		}
+		ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+		if (!options.getResultFormat().hasValue()) {
+			builder.resultFormat(ResultFormatType.JSON);
+		}
+		if (!options.getResult().hasValue()) {
+			builder.result(RESULT_FILE);
+		}
+		new Runner(builder.build()).run();
+	}
+}
@@ -0,0 +1,75 @@
+package net.sf.jclec.benchmark;
+
+import java.util.Arrays;
+
+import net.sf.jclec.IProvider;
+import net.sf.jclec.ISpecies;
+import net.sf.jclec.ITool;
+
+import net.sf.jclec.binarray.BinArrayCreator;
+import net.sf.jclec.binarray.BinArrayIndividualSpecies;
+
+import org.apache.commons.configuration.Configuration;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Mutators and recombinators of the binarray package.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class BinArrayOperatorBenchmark extends OperatorBenchmark
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Parameters
+	/////////////////////////////////////////////////////////////////
+
+	/** Operator classname (relative to net.sf.jclec.binarray) */
+
+	@Param({"mut.OneLocusMutator", "mut.SeveralLociMutator", "mut.UniformMutator",
+		"rec.HUXCrossover", "rec.OnePointCrossover", "rec.TwoPointsCrossover", "rec.UniformCrossover"})
+	public String operator;
+
+	/** Genotype length */
+
+	@Param({"10", "100", "1000"})
+	public int genotypeLength;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public BinArrayOperatorBenchmark()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------- Overwriting OperatorBenchmark
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected ISpecies createSpecies()
+	{
+		// All loci are free
+		byte [] genotypeSchema = new byte[genotypeLength];
+		Arrays.fill(genotypeSchema, (byte) -1);
+		return new BinArrayIndividualSpecies(genotypeSchema);
+	}
+
+	@Override
+	protected IProvider createProvider()
+	{
+		return new BinArrayCreator();
+	}
+
+	@Override
+	protected ITool createOperator(Configuration settings)
+	{
+		settings.addProperty("[@number-of-mutation-points]", 2);
+		settings.addProperty("[@locus-mutation-prob]", 1.0 / genotypeLength);
+		settings.addProperty("[@locus-crossover-prob]", 0.5);
+		return newInstance("net.sf.jclec.binarray." + operator);
+	}
+}
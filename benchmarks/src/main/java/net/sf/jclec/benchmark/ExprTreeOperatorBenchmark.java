@@ -0,0 +1,93 @@
+package net.sf.jclec.benchmark;
+
+import net.sf.jclec.IProvider;
+import net.sf.jclec.ISpecies;
+import net.sf.jclec.ITool;
+
+import net.sf.jclec.benchmark.fun.Add;
+import net.sf.jclec.benchmark.fun.Mul;
+import net.sf.jclec.benchmark.fun.Sub;
+import net.sf.jclec.benchmark.fun.X;
+import net.sf.jclec.benchmark.fun.Y;
+
+import net.sf.jclec.exprtree.ExprTreeCreator;
+import net.sf.jclec.exprtree.ExprTreeIndividualSpecies;
+import net.sf.jclec.exprtree.ExprTreeMutator;
+import net.sf.jclec.exprtree.ExprTreeRecombinator;
+import net.sf.jclec.exprtree.IMutateExprTree;
+import net.sf.jclec.exprtree.IPrimitive;
+
+import org.apache.commons.configuration.Configuration;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Mutators and recombinators of the exprtree package. Individuals are
+ * arithmetic expressions of two variables, with sizes between treeSize/2
+ * and treeSize.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class ExprTreeOperatorBenchmark extends OperatorBenchmark
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Parameters
+	/////////////////////////////////////////////////////////////////
+
+	/** Base operator classname (relative to net.sf.jclec.exprtree) */
+
+	@Param({"mut.AllNodesMutator", "mut.DemoteMutator", "mut.GrowMutator", "mut.OneNodeMutator",
+		"mut.PromoteMutator", "mut.SubtreeMutator", "mut.TruncMutator",
+		"rec.SubtreeCrossover", "rec.TreeCrossover"})
+	public String operator;
+
+	/** Maximum tree size */
+
+	@Param({"15", "63"})
+	public int treeSize;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ExprTreeOperatorBenchmark()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------- Overwriting OperatorBenchmark
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected ISpecies createSpecies()
+	{
+		ExprTreeIndividualSpecies species = new ExprTreeIndividualSpecies();
+		species.setMinTreeSize(treeSize / 2);
+		species.setMaxTreeSize(treeSize);
+		species.setRootType(Double.class);
+		species.setTerminals(new IPrimitive [] {new X(), new Y()});
+		species.setFunctions(new IPrimitive [] {new Add(), new Sub(), new Mul()});
+		return species;
+	}
+
+	@Override
+	protected IProvider createProvider()
+	{
+		return new ExprTreeCreator();
+	}
+
+	@Override
+	protected ITool createOperator(Configuration settings)
+	{
+		String baseOp = "net.sf.jclec.exprtree." + operator;
+		settings.addProperty("base-op[@type]", baseOp);
+		if (newInstance(baseOp) instanceof IMutateExprTree) {
+			return new ExprTreeMutator();
+		}
+		else {
+			return new ExprTreeRecombinator();
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package net.sf.jclec.benchmark;
+
+import net.sf.jclec.IProvider;
+import net.sf.jclec.ISpecies;
+import net.sf.jclec.ITool;
+
+import net.sf.jclec.ge.GEIndividualSpecies;
+import net.sf.jclec.ge.GESchema;
+import net.sf.jclec.ge.GESpecies;
+import net.sf.jclec.ge.cre.RampedHalfAndHalf;
+
+import net.sf.jclec.util.intset.Closure;
+import net.sf.jclec.util.intset.IIntegerSet;
+import net.sf.jclec.util.intset.Interval;
+
+import org.apache.commons.configuration.Configuration;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Mutators and recombinators of the ge package. Individuals are codons
+ * arrays, mapped with the ramped half-and-half method to derivations of
+ * the grammar used in SyntaxTreeOperatorBenchmark.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class GEOperatorBenchmark extends OperatorBenchmark
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Parameters
+	/////////////////////////////////////////////////////////////////
+
+	/** Operator classname (relative to net.sf.jclec.ge) */
+
+	@Param({"mut.OneLocusMutator", "rec.FLHomologousCrossover", "rec.RippleCrossover"})
+	public String operator;
+
+	/** Genotype length (number of codons) */
+
+	@Param({"50", "200"})
+	public int genotypeLength;
+
+	/** Maximum derivation tree depth */
+
+	@Param({"6", "12"})
+	public int treeDepth;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public GEOperatorBenchmark()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------- Overwriting OperatorBenchmark
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected ISpecies createSpecies()
+	{
+		GESchema schema = new GESchema();
+		schema.setTerminals(SyntaxTreeOperatorBenchmark.terminals());
+		schema.setNonTerminals(SyntaxTreeOperatorBenchmark.nonTerminals());
+		schema.setRootSymbol("expr");
+		schema.setMaxDepthSize(treeDepth);
+		IIntegerSet [] codons = new IIntegerSet[genotypeLength];
+		for (int i=0; i<genotypeLength; i++) {
+			codons[i] = new Interval(0, 255, Closure.ClosedClosed);
+		}
+		schema.setIndividualArrayGenotype(codons);
+		return new GEIndividualSpecies(schema);
+	}
+
+	@Override
+	protected IProvider createProvider()
+	{
+		RampedHalfAndHalf provider = new RampedHalfAndHalf();
+		// Species create new individuals through the provider
+		((GESpecies) context.getSpecies()).setProvider(provider);
+		return provider;
+	}
+
+	@Override
+	protected ITool createOperator(Configuration settings)
+	{
+		return newInstance("net.sf.jclec.ge." + operator);
+	}
+}
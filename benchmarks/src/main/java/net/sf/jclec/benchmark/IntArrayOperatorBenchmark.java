@@ -0,0 +1,79 @@
+package net.sf.jclec.benchmark;
+
+import net.sf.jclec.IProvider;
+import net.sf.jclec.ISpecies;
+import net.sf.jclec.ITool;
+
+import net.sf.jclec.intarray.IntArrayCreator;
+import net.sf.jclec.intarray.IntArrayIndividualSpecies;
+
+import net.sf.jclec.util.intset.Closure;
+import net.sf.jclec.util.intset.IIntegerSet;
+import net.sf.jclec.util.intset.Interval;
+
+import org.apache.commons.configuration.Configuration;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Mutators and recombinators of the intarray package.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class IntArrayOperatorBenchmark extends OperatorBenchmark
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Parameters
+	/////////////////////////////////////////////////////////////////
+
+	/** Operator classname (relative to net.sf.jclec.intarray) */
+
+	@Param({"mut.OneLocusMutator", "mut.SeveralLociMutator", "mut.UniformMutator",
+		"rec.OnePointCrossover", "rec.TwoPointsCrossover", "rec.UniformCrossover"})
+	public String operator;
+
+	/** Genotype length */
+
+	@Param({"10", "100", "1000"})
+	public int genotypeLength;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public IntArrayOperatorBenchmark()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------- Overwriting OperatorBenchmark
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected ISpecies createSpecies()
+	{
+		// All loci take values in [0,100]
+		IIntegerSet [] genotypeSchema = new IIntegerSet[genotypeLength];
+		for (int i=0; i<genotypeLength; i++) {
+			genotypeSchema[i] = new Interval(0, 100, Closure.ClosedClosed);
+		}
+		return new IntArrayIndividualSpecies(genotypeSchema);
+	}
+
+	@Override
+	protected IProvider createProvider()
+	{
+		return new IntArrayCreator();
+	}
+
+	@Override
+	protected ITool createOperator(Configuration settings)
+	{
+		settings.addProperty("[@number-of-mutation-points]", 2);
+		settings.addProperty("[@locus-mutation-prob]", 1.0 / genotypeLength);
+		settings.addProperty("[@locus-crossover-prob]", 0.5);
+		return newInstance("net.sf.jclec.intarray." + operator);
+	}
+}
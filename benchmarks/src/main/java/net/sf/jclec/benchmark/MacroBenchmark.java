@@ -0,0 +1,734 @@
+package net.sf.jclec.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import net.sf.jclec.IConfigure;
+
+import net.sf.jclec.algorithm.PopulationAlgorithm;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.commons.configuration.XMLConfiguration;
+
+/**
+ * End-to-end benchmark of complete algorithm executions.
+ *
+ * A suite file lists several experiment files (one process each) and, for
+ * every one of them, the population and genotype sizes to try. Each case
+ * is the experiment with these sizes and a number of evaluation threads
+ * (its evaluator must be an AbstractParallelEvaluator). The time reported
+ * is the median of several executions, after some warmup executions that
+ * are discarded. Only the execute() method is timed. Three kinds of cases
+ * are run for each benchmark:
+ *
+ * <ul>
+ * <li>size: all combinations of population and genotype sizes, with one
+ *     thread.</li>
+ * <li>strong: the largest population and genotype with each number of
+ *     threads. Speedup is the one thread time divided by the time, and
+ *     efficiency the speedup divided by the number of threads.</li>
+ * <li>weak: the smallest population multiplied by the number of threads,
+ *     and the largest genotype. Efficiency is the one thread time divided
+ *     by the time, and speedup the efficiency multiplied by the number of
+ *     threads (scaled speedup).</li>
+ * </ul>
+ *
+ * The genotype size is set in the species: genotype-length attribute,
+ * number of loci in the genotype schema (the first locus is replicated),
+ * maximum tree size or maximum derivation size, whichever is found first.
+ *
+ * Results are written as CSV (one line per case). If a baseline is given
+ * (a results file of a former run), a report compares each case with it:
+ * a case is slower (or faster) if its time changes more than a threshold.
+ * Cases whose number of evaluations changes are also reported, because
+ * their times are not comparable. Exit status is 1 if there are slower
+ * cases.
+ *
+ * <pre>
+ * java net.sf.jclec.benchmark.MacroBenchmark [-suite file] [-out file]
+ *      [-baseline file] [-report file] [-threshold percent]
+ * </pre>
+ *
+ * @author Sebastian Ventura
+ */
+
+public class MacroBenchmark implements IConfigure
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Default suite file (searched also in the classpath) */
+
+	public static final String SUITE_FILE = "macro/suite.xml";
+
+	/** Default results file */
+
+	public static final String RESULT_FILE = "macro-result.csv";
+
+	/** Default report file */
+
+	public static final String REPORT_FILE = "macro-report.txt";
+
+	/** Default threshold (in percent) for time changes */
+
+	public static final double THRESHOLD = 10.0;
+
+	/** Results file header */
+
+	public static final String HEADER = "benchmark,scaling,population-size,genotype-size,threads,"
+			+ "time-ms,evaluations,evaluations-per-second,speedup,efficiency";
+
+	/** Usage message */
+
+	private static final String USAGE_MES = "\tnet.sf.jclec.benchmark.MacroBenchmark [-suite <file>] "
+			+ "[-out <file>] [-baseline <file>] [-report <file>] [-threshold <percent>]";
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Measured executions of each case */
+
+	protected int repetitions = 5;
+
+	/** Discarded executions of each case */
+
+	protected int warmup = 2;
+
+	/** Numbers of threads of scaling cases */
+
+	protected int [] threads = {1};
+
+	/** Benchmarks (name, experiment file) */
+
+	protected final Map<String, String> benchmarks = new LinkedHashMap<String, String>();
+
+	/** Population sizes of each benchmark */
+
+	protected final Map<String, int []> populationSizes = new HashMap<String, int []>();
+
+	/** Genotype sizes of each benchmark */
+
+	protected final Map<String, int []> genotypeSizes = new HashMap<String, int []>();
+
+	/** Progress messages stream (null means no messages) */
+
+	protected PrintStream progress = System.out;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public MacroBenchmark()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	public final int getRepetitions()
+	{
+		return repetitions;
+	}
+
+	public final void setRepetitions(int repetitions)
+	{
+		this.repetitions = repetitions;
+	}
+
+	public final int getWarmup()
+	{
+		return warmup;
+	}
+
+	public final void setWarmup(int warmup)
+	{
+		this.warmup = warmup;
+	}
+
+	public final int [] getThreads()
+	{
+		return threads;
+	}
+
+	public final void setThreads(int [] threads)
+	{
+		this.threads = threads;
+	}
+
+	public final void setProgress(PrintStream progress)
+	{
+		this.progress = progress;
+	}
+
+	/**
+	 * Add a benchmark.
+	 *
+	 * @param name Benchmark name
+	 * @param config Experiment file (searched also in the classpath)
+	 * @param populationSizes Population sizes
+	 * @param genotypeSizes Genotype sizes
+	 */
+
+	public void addBenchmark(String name, String config, int [] populationSizes, int [] genotypeSizes)
+	{
+		int [] p = populationSizes.clone();
+		int [] g = genotypeSizes.clone();
+		Arrays.sort(p);
+		Arrays.sort(g);
+		this.benchmarks.put(name, config);
+		this.populationSizes.put(name, p);
+		this.genotypeSizes.put(name, g);
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for this benchmark are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>repetitions: int (default = 5)</code></p>
+	 * Measured executions of each case.
+	 * </li>
+	 * <li>
+	 * <code>warmup: int (default = 2)</code></p>
+	 * Discarded executions of each case.
+	 * </li>
+	 * <li>
+	 * <code>threads: int list (default = 1)</code></p>
+	 * Numbers of threads of scaling cases.
+	 * </li>
+	 * <li>
+	 * <code>benchmark: complex (list)</code></p>
+	 * Benchmark name and experiment file (<code>[@name], [@config]</code>),
+	 * and lists of sizes (<code>population-size, genotype-size</code>).
+	 * </li>
+	 * </ul>
+	 */
+
+	public void configure(Configuration settings)
+	{
+		setRepetitions(settings.getInt("repetitions", repetitions));
+		setWarmup(settings.getInt("warmup", warmup));
+		if (settings.containsKey("threads")) {
+			setThreads(toIntArray(settings.getList("threads")));
+		}
+		int numberOfBenchmarks = settings.getList("benchmark[@name]").size();
+		for (int i=0; i<numberOfBenchmarks; i++) {
+			String header = "benchmark("+i+")";
+			String name = settings.getString(header+"[@name]");
+			String config = settings.getString(header+"[@config]");
+			if (config == null) {
+				throw new ConfigurationRuntimeException("Experiment file not found for " + name);
+			}
+			int [] p = toIntArray(settings.getList(header+".population-size"));
+			int [] g = toIntArray(settings.getList(header+".genotype-size"));
+			if (p.length == 0 || g.length == 0) {
+				throw new ConfigurationRuntimeException("Population and genotype sizes needed for " + name);
+			}
+			addBenchmark(name, config, p, g);
+		}
+	}
+
+	/**
+	 * Run all benchmarks.
+	 *
+	 * @return Results of all cases
+	 */
+
+	public List<Result> run()
+	{
+		List<Result> results = new ArrayList<Result>();
+		for (String name : benchmarks.keySet()) {
+			XMLConfiguration config;
+			try {
+				config = new XMLConfiguration(benchmarks.get(name));
+			}
+			catch (ConfigurationException e) {
+				throw new ConfigurationRuntimeException("Illegal experiment file for " + name, e);
+			}
+			int [] p = populationSizes.get(name);
+			int [] g = genotypeSizes.get(name);
+			int pmin = p[0], pmax = p[p.length-1], gmax = g[g.length-1];
+			// Executions are shared between cases
+			Map<String, Result> measures = new HashMap<String, Result>();
+			// Problem size
+			for (int pi : p) {
+				for (int gi : g) {
+					Result r = measure(name, config, pi, gi, 1, measures);
+					results.add(r.as("size", Double.NaN, Double.NaN));
+				}
+			}
+			// Strong scaling
+			double t1 = measure(name, config, pmax, gmax, 1, measures).time;
+			for (int t : threads) {
+				Result r = measure(name, config, pmax, gmax, t, measures);
+				double speedup = t1 / r.time;
+				results.add(r.as("strong", speedup, speedup / t));
+			}
+			// Weak scaling
+			t1 = measure(name, config, pmin, gmax, 1, measures).time;
+			for (int t : threads) {
+				Result r = measure(name, config, pmin * t, gmax, t, measures);
+				double efficiency = t1 / r.time;
+				results.add(r.as("weak", efficiency * t, efficiency));
+			}
+		}
+		return results;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------ Class methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Write results in CSV format.
+	 *
+	 * @param results Results to write
+	 * @param file Results file
+	 *
+	 * @throws IOException If the file cannot be written
+	 */
+
+	public static void writeResults(List<Result> results, File file) throws IOException
+	{
+		PrintWriter out = new PrintWriter(new FileWriter(file));
+		try {
+			out.println(HEADER);
+			for (Result r : results) {
+				out.println(r.toCsv());
+			}
+		}
+		finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Read a results file.
+	 *
+	 * @param file Results file
+	 *
+	 * @return Results in this file
+	 *
+	 * @throws IOException If the file cannot be read
+	 */
+
+	public static List<Result> readResults(File file) throws IOException
+	{
+		List<Result> results = new ArrayList<Result>();
+		BufferedReader in = new BufferedReader(new FileReader(file));
+		try {
+			String line = in.readLine();
+			if (!HEADER.equals(line)) {
+				throw new IOException("Not a results file: " + file);
+			}
+			while ((line = in.readLine()) != null) {
+				if (line.length() > 0) {
+					results.add(Result.parse(line));
+				}
+			}
+		}
+		finally {
+			in.close();
+		}
+		return results;
+	}
+
+	/**
+	 * Compare results with a baseline.
+	 *
+	 * @param results Current results
+	 * @param baseline Baseline results
+	 * @param threshold Threshold (in percent) for time changes
+	 * @param out Report stream
+	 *
+	 * @return Number of slower cases
+	 */
+
+	public static int report(List<Result> results, List<Result> baseline, double threshold, PrintWriter out)
+	{
+		Map<String, Result> base = new LinkedHashMap<String, Result>();
+		for (Result r : baseline) {
+			base.put(r.key(), r);
+		}
+		int slower = 0, faster = 0, same = 0, changed = 0, added = 0;
+		out.println(String.format(Locale.US, "%-26s %-7s %8s %8s %7s %12s %12s %8s  %s",
+				"benchmark", "scaling", "pop", "genotype", "threads", "baseline-ms", "time-ms", "change", "status"));
+		for (Result r : results) {
+			Result b = base.remove(r.key());
+			if (b == null) {
+				added++;
+				out.println(String.format(Locale.US, "%-26s %-7s %8d %8d %7d %12s %12.1f %8s  %s",
+						r.benchmark, r.scaling, r.populationSize, r.genotypeSize, r.threads, "-", r.time, "-", "new"));
+				continue;
+			}
+			double change = 100.0 * (r.time - b.time) / b.time;
+			String status;
+			if (r.evaluations != b.evaluations) {
+				changed++;
+				status = "evaluations changed (" + b.evaluations + " -> " + r.evaluations + ")";
+			}
+			else if (change > threshold) {
+				slower++;
+				status = "SLOWER";
+			}
+			else if (change < -threshold) {
+				faster++;
+				status = "faster";
+			}
+			else {
+				same++;
+				status = "same";
+			}
+			out.println(String.format(Locale.US, "%-26s %-7s %8d %8d %7d %12.1f %12.1f %+7.1f%%  %s",
+					r.benchmark, r.scaling, r.populationSize, r.genotypeSize, r.threads, b.time, r.time, change, status));
+		}
+		for (Result b : base.values()) {
+			out.println(String.format(Locale.US, "%-26s %-7s %8d %8d %7d %12.1f %12s %8s  %s",
+					b.benchmark, b.scaling, b.populationSize, b.genotypeSize, b.threads, b.time, "-", "-", "missing"));
+		}
+		out.println();
+		out.println(String.format(Locale.US, "Threshold %.1f%%: %d slower, %d faster, %d same, "
+				+ "%d with other evaluations, %d new, %d missing", threshold, slower, faster, same,
+				changed, added, base.size()));
+		out.flush();
+		return slower;
+	}
+
+	/**
+	 * Main method.
+	 *
+	 * @param args Command line options
+	 */
+
+	public static void main(String [] args) throws Exception
+	{
+		String suite = SUITE_FILE, out = RESULT_FILE, baseline = null, report = REPORT_FILE;
+		double threshold = THRESHOLD;
+		for (int i=0; i<args.length; i++) {
+			if (i+1 == args.length) {
+				usage();
+			}
+			if ("-suite".equals(args[i])) {
+				suite = args[++i];
+			}
+			else if ("-out".equals(args[i])) {
+				out = args[++i];
+			}
+			else if ("-baseline".equals(args[i])) {
+				baseline = args[++i];
+			}
+			else if ("-report".equals(args[i])) {
+				report = args[++i];
+			}
+			else if ("-threshold".equals(args[i])) {
+				threshold = Double.parseDouble(args[++i]);
+			}
+			else {
+				usage();
+			}
+		}
+		MacroBenchmark benchmark = new MacroBenchmark();
+		benchmark.configure(new XMLConfiguration(suite));
+		List<Result> results = benchmark.run();
+		writeResults(results, new File(out));
+		System.out.println("Results written to " + out);
+		if (baseline != null) {
+			List<Result> base = readResults(new File(baseline));
+			PrintWriter console = new PrintWriter(System.out);
+			report(results, base, threshold, console);
+			PrintWriter file = new PrintWriter(new FileWriter(report));
+			int slower;
+			try {
+				slower = report(results, base, threshold, file);
+			}
+			finally {
+				file.close();
+			}
+			System.out.println("Report written to " + report);
+			if (slower > 0) {
+				System.exit(1);
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Measure a case, or return its former measure.
+	 *
+	 * @param name Benchmark name
+	 * @param config Experiment configuration
+	 * @param populationSize Population size
+	 * @param genotypeSize Genotype size
+	 * @param threads Number of threads
+	 * @param measures Former measures of this benchmark
+	 *
+	 * @return Case measure
+	 */
+
+	protected Result measure(String name, XMLConfiguration config, int populationSize, int genotypeSize,
+			int threads, Map<String, Result> measures)
+	{
+		String key = populationSize + "/" + genotypeSize + "/" + threads;
+		Result result = measures.get(key);
+		if (result != null) {
+			return result;
+		}
+		for (int i=0; i<warmup; i++) {
+			createAlgorithm(config, populationSize, genotypeSize, threads).execute();
+		}
+		long [] times = new long[Math.max(1, repetitions)];
+		long evaluations = 0;
+		for (int i=0; i<times.length; i++) {
+			PopulationAlgorithm algorithm = createAlgorithm(config, populationSize, genotypeSize, threads);
+			long start = System.nanoTime();
+			algorithm.execute();
+			times[i] = System.nanoTime() - start;
+			evaluations = algorithm.getEvaluator().getNumberOfEvaluations();
+		}
+		Arrays.sort(times);
+		double time = times[times.length/2] / 1.e6;
+		result = new Result(name, null, populationSize, genotypeSize, threads, time, evaluations,
+				1000.0 * evaluations / time, Double.NaN, Double.NaN);
+		measures.put(key, result);
+		if (progress != null) {
+			progress.println(String.format(Locale.US, "%s P=%d G=%d T=%d: %.1f ms, %.0f evaluations/s",
+					name, populationSize, genotypeSize, threads, time, result.evaluationsPerSecond));
+		}
+		return result;
+	}
+
+	/**
+	 * Create and configure the algorithm of a case.
+	 *
+	 * @param config Experiment configuration (not modified)
+	 * @param populationSize Population size
+	 * @param genotypeSize Genotype size
+	 * @param threads Number of threads
+	 *
+	 * @return Algorithm ready to be executed
+	 */
+
+	protected PopulationAlgorithm createAlgorithm(XMLConfiguration config, int populationSize, int genotypeSize,
+			int threads)
+	{
+		XMLConfiguration job = (XMLConfiguration) config.clone();
+		HierarchicalConfiguration process = job.configurationAt("process");
+		process.setProperty("population-size", populationSize);
+		process.setProperty("evaluator.number-of-threads", threads);
+		setGenotypeSize(process.configurationAt("species"), genotypeSize);
+		PopulationAlgorithm algorithm = OperatorBenchmark.newInstance(process.getString("[@algorithm-type]"));
+		algorithm.configure(process);
+		return algorithm;
+	}
+
+	/**
+	 * Set the genotype size in species settings.
+	 *
+	 * @param species Species settings
+	 * @param genotypeSize Genotype size
+	 */
+
+	protected void setGenotypeSize(HierarchicalConfiguration species, int genotypeSize)
+	{
+		String locus = "genotype-schema.locus";
+		if (species.containsKey("[@genotype-length]")) {
+			species.setProperty("[@genotype-length]", genotypeSize);
+		}
+		else if (!species.getList(locus+"[@type]").isEmpty()) {
+			// Replicate the first locus
+			Configuration first = species.subset(locus+"(0)");
+			Map<String, Object> attributes = new LinkedHashMap<String, Object>();
+			for (Iterator<?> keys = first.getKeys(); keys.hasNext(); ) {
+				String key = (String) keys.next();
+				attributes.put(key, first.getProperty(key));
+			}
+			species.clearTree(locus);
+			for (int i=0; i<genotypeSize; i++) {
+				boolean newLocus = true;
+				for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+					species.addProperty(locus + (newLocus ? "(-1)" : "") + attribute.getKey(), attribute.getValue());
+					newLocus = false;
+				}
+			}
+		}
+		else if (species.containsKey("expression-tree.max-tree-size")) {
+			species.setProperty("expression-tree.max-tree-size", genotypeSize);
+		}
+		else if (species.containsKey("max-deriv-size")) {
+			species.setProperty("max-deriv-size", genotypeSize);
+		}
+		else {
+			throw new ConfigurationRuntimeException("Genotype size cannot be set in this species");
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static int [] toIntArray(List<?> list)
+	{
+		int [] result = new int[list.size()];
+		for (int i=0; i<result.length; i++) {
+			result[i] = Integer.parseInt(String.valueOf(list.get(i)).trim());
+		}
+		return result;
+	}
+
+	private static void usage()
+	{
+		System.out.println("Usage:" + USAGE_MES);
+		System.exit(1);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Inner classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Result of a benchmark case.
+	 */
+
+	public static final class Result
+	{
+		/** Benchmark name */
+
+		public final String benchmark;
+
+		/** Kind of case (size, strong or weak) */
+
+		public final String scaling;
+
+		/** Population size */
+
+		public final int populationSize;
+
+		/** Genotype size */
+
+		public final int genotypeSize;
+
+		/** Number of threads */
+
+		public final int threads;
+
+		/** Median execution time (in milliseconds) */
+
+		public final double time;
+
+		/** Number of evaluations */
+
+		public final long evaluations;
+
+		/** Evaluations per second */
+
+		public final double evaluationsPerSecond;
+
+		/** Speedup (NaN for size cases) */
+
+		public final double speedup;
+
+		/** Efficiency (NaN for size cases) */
+
+		public final double efficiency;
+
+		public Result(String benchmark, String scaling, int populationSize, int genotypeSize, int threads,
+				double time, long evaluations, double evaluationsPerSecond, double speedup, double efficiency)
+		{
+			this.benchmark = benchmark;
+			this.scaling = scaling;
+			this.populationSize = populationSize;
+			this.genotypeSize = genotypeSize;
+			this.threads = threads;
+			this.time = time;
+			this.evaluations = evaluations;
+			this.evaluationsPerSecond = evaluationsPerSecond;
+			this.speedup = speedup;
+			this.efficiency = efficiency;
+		}
+
+		/**
+		 * @return Case identifier (results with the same key are compared)
+		 */
+
+		public String key()
+		{
+			return benchmark + "," + scaling + "," + populationSize + "," + genotypeSize + "," + threads;
+		}
+
+		/**
+		 * @return This result in CSV format
+		 */
+
+		public String toCsv()
+		{
+			return key() + String.format(Locale.US, ",%.3f,%d,%.1f,%s,%s", time, evaluations,
+					evaluationsPerSecond, formatRatio(speedup), formatRatio(efficiency));
+		}
+
+		/**
+		 * Parse a CSV line.
+		 *
+		 * @param line Line of a results file
+		 *
+		 * @return Result in this line
+		 */
+
+		public static Result parse(String line)
+		{
+			String [] fields = line.split(",", -1);
+			if (fields.length != 10) {
+				throw new IllegalArgumentException("Illegal result: " + line);
+			}
+			return new Result(fields[0], fields[1], Integer.parseInt(fields[2]), Integer.parseInt(fields[3]),
+					Integer.parseInt(fields[4]), Double.parseDouble(fields[5]), Long.parseLong(fields[6]),
+					Double.parseDouble(fields[7]), parseRatio(fields[8]), parseRatio(fields[9]));
+		}
+
+		/**
+		 * Copy of this measure as a case of some kind.
+		 */
+
+		Result as(String scaling, double speedup, double efficiency)
+		{
+			return new Result(benchmark, scaling, populationSize, genotypeSize, threads, time, evaluations,
+					evaluationsPerSecond, speedup, efficiency);
+		}
+
+		private static String formatRatio(double value)
+		{
+			return Double.isNaN(value) ? "" : String.format(Locale.US, "%.3f", value);
+		}
+
+		private static double parseRatio(String value)
+		{
+			return value.length() == 0 ? Double.NaN : Double.parseDouble(value);
+		}
+	}
+}
@@ -0,0 +1,200 @@
+package net.sf.jclec.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.jclec.IConfigure;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.IMutator;
+import net.sf.jclec.IProvider;
+import net.sf.jclec.IRecombinator;
+import net.sf.jclec.ISpecies;
+import net.sf.jclec.ITool;
+
+import net.sf.jclec.algorithm.classic.SG;
+
+import net.sf.jclec.util.random.RanecuFactory;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.HierarchicalConfiguration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time needed to mutate (or recombine) a whole population.
+ *
+ * Subclasses define the species, the individuals provider and the list of
+ * operators of an encoding (operator parameter). Each operator is created
+ * by its classname and configured with the settings given by the subclass,
+ * in the same way as in an experiment file. The execution context is an
+ * algorithm that is never executed, so operators find there all the
+ * objects they can ask for. Parents are created once per trial, with a
+ * fixed seed, so all operators work on the same individuals.
+ *
+ * @author Sebastian Ventura
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class OperatorBenchmark
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Parameters
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of parents */
+
+	@Param({"100", "1000"})
+	public int populationSize;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Execution context */
+
+	protected SG context;
+
+	/** Parents */
+
+	protected List<IIndividual> parents;
+
+	/** Mutator measured (null if a recombinator is measured) */
+
+	protected IMutator mutator;
+
+	/** Recombinator measured (null if a mutator is measured) */
+
+	protected IRecombinator recombinator;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public OperatorBenchmark()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create context, parents and operator.
+	 */
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		// Execution context
+		context = new SG();
+		RanecuFactory randGenFactory = new RanecuFactory();
+		randGenFactory.setSeed(1234);
+		context.setRandGenFactory(randGenFactory);
+		context.setSpecies(createSpecies());
+		// Parents
+		IProvider provider = createProvider();
+		context.setProvider(provider);
+		provider.contextualize(context);
+		parents = provider.provide(populationSize);
+		context.setInhabitants(parents);
+		// Operator
+		HierarchicalConfiguration settings = new HierarchicalConfiguration();
+		ITool operator = createOperator(settings);
+		if (operator instanceof IConfigure) {
+			((IConfigure) operator).configure(settings);
+		}
+		operator.contextualize(context);
+		if (operator instanceof IMutator) {
+			mutator = (IMutator) operator;
+		}
+		else {
+			recombinator = (IRecombinator) operator;
+		}
+	}
+
+	/**
+	 * Mutate or recombine all parents.
+	 *
+	 * @return Sons
+	 */
+
+	@Benchmark
+	public List<IIndividual> operate()
+	{
+		if (mutator != null) {
+			return mutator.mutate(parents);
+		}
+		else {
+			return recombinator.recombine(parents);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * @return Individuals species
+	 */
+
+	protected abstract ISpecies createSpecies();
+
+	/**
+	 * @return Parents provider
+	 */
+
+	protected abstract IProvider createProvider();
+
+	/**
+	 * Create the operator to measure.
+	 *
+	 * @param settings Operator settings, filled by this method. Settings
+	 *        are used only if the operator is an IConfigure
+	 *
+	 * @return Mutator or recombinator (not contextualized)
+	 */
+
+	protected abstract ITool createOperator(Configuration settings);
+
+	/**
+	 * Create an instance of a class by its name.
+	 *
+	 * @param classname Class name
+	 *
+	 * @return A new instance of this class
+	 */
+
+	@SuppressWarnings("unchecked")
+	protected static <T> T newInstance(String classname)
+	{
+		try {
+			return (T) Class.forName(classname).newInstance();
+		}
+		catch (ClassNotFoundException e) {
+			throw new IllegalArgumentException("Illegal classname: " + classname, e);
+		}
+		catch (InstantiationException e) {
+			throw new IllegalArgumentException("Problems creating an instance of " + classname, e);
+		}
+		catch (IllegalAccessException e) {
+			throw new IllegalArgumentException("Problems creating an instance of " + classname, e);
+		}
+	}
+}
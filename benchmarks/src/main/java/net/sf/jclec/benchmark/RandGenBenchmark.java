@@ -0,0 +1,122 @@
+package net.sf.jclec.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import net.sf.jclec.IConfigure;
+
+import net.sf.jclec.util.random.IRandGen;
+import net.sf.jclec.util.random.IRandGenFactory;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the basic methods of all IRandGen implementations, through
+ * their factories. Times are given per generated number.
+ *
+ * @author Sebastian Ventura
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandGenBenchmark
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Numbers generated in each bulk operation */
+
+	private static final int BULK_SIZE = 1024;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Parameters
+	/////////////////////////////////////////////////////////////////
+
+	/** Factory classname (relative to net.sf.jclec.util.random) */
+
+	@Param({"RanecuFactory", "RanluxFactory", "RanmarFactory", "RanmtFactory", "SplitMix64Factory",
+		"Xoshiro256PlusPlusFactory", "Xoroshiro128PlusPlusFactory", "PCG64Factory"})
+	public String factory;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Generator measured */
+
+	private IRandGen randgen;
+
+	/** Buffer for bulk generation */
+
+	private double [] buffer;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public RandGenBenchmark()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		IRandGenFactory randGenFactory = OperatorBenchmark.newInstance("net.sf.jclec.util.random." + factory);
+		if (randGenFactory instanceof IConfigure) {
+			HierarchicalConfiguration settings = new HierarchicalConfiguration();
+			settings.addProperty("[@seed]", 1234);
+			((IConfigure) randGenFactory).configure(settings);
+		}
+		randgen = randGenFactory.createRandGen();
+		buffer = new double[BULK_SIZE];
+	}
+
+	@Benchmark
+	public double raw()
+	{
+		return randgen.raw();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BULK_SIZE)
+	public double [] rawBulk()
+	{
+		randgen.raw(buffer);
+		return buffer;
+	}
+
+	@Benchmark
+	public int choose()
+	{
+		return randgen.choose(0, 100);
+	}
+
+	@Benchmark
+	public double gaussian()
+	{
+		return randgen.gaussian();
+	}
+}
@@ -0,0 +1,79 @@
+package net.sf.jclec.benchmark;
+
+import net.sf.jclec.IProvider;
+import net.sf.jclec.ISpecies;
+import net.sf.jclec.ITool;
+
+import net.sf.jclec.realarray.RealArrayCreator;
+import net.sf.jclec.realarray.RealArrayIndividualSpecies;
+
+import net.sf.jclec.util.range.Closure;
+import net.sf.jclec.util.range.IRange;
+import net.sf.jclec.util.range.Interval;
+
+import org.apache.commons.configuration.Configuration;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Mutators and recombinators of the realarray package.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class RealArrayOperatorBenchmark extends OperatorBenchmark
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Parameters
+	/////////////////////////////////////////////////////////////////
+
+	/** Operator classname (relative to net.sf.jclec.realarray) */
+
+	@Param({"mut.ModalContinuousMutator", "mut.ModalDiscreteMutator", "mut.MuhlenbeinMutator",
+		"mut.NonUniformMutator", "mut.RandomMutator", "mut.RandomRangeMutator",
+		"rec.ArithmeticCrossover", "rec.BLXAlphaCrossover", "rec.DiscreteCrossover",
+		"rec.FlatCrossover", "rec.LinearCrossover", "rec.WrightCrossover"})
+	public String operator;
+
+	/** Genotype length */
+
+	@Param({"10", "100", "1000"})
+	public int genotypeLength;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public RealArrayOperatorBenchmark()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------- Overwriting OperatorBenchmark
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected ISpecies createSpecies()
+	{
+		IRange [] genotypeSchema = new IRange[genotypeLength];
+		for (int i=0; i<genotypeLength; i++) {
+			genotypeSchema[i] = new Interval(-5.12, 5.12, Closure.ClosedClosed);
+		}
+		return new RealArrayIndividualSpecies(genotypeSchema);
+	}
+
+	@Override
+	protected IProvider createProvider()
+	{
+		return new RealArrayCreator();
+	}
+
+	@Override
+	protected ITool createOperator(Configuration settings)
+	{
+		settings.addProperty("[@locus-mut-prob]", 1.0 / genotypeLength);
+		settings.addProperty("[@locus-rec-prob]", 1.0);
+		return newInstance("net.sf.jclec.realarray." + operator);
+	}
+}
@@ -0,0 +1,142 @@
+package net.sf.jclec.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.jclec.IConfigure;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.ISelector;
+
+import net.sf.jclec.algorithm.classic.SG;
+
+import net.sf.jclec.benchmark.problem.SphereEvaluator;
+
+import net.sf.jclec.realarray.RealArrayCreator;
+import net.sf.jclec.realarray.RealArrayIndividualSpecies;
+
+import net.sf.jclec.util.random.RanecuFactory;
+import net.sf.jclec.util.range.Closure;
+import net.sf.jclec.util.range.IRange;
+import net.sf.jclec.util.range.Interval;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time needed to select populationSize individuals from an
+ * evaluated population (with repetition), as done by most algorithms to
+ * choose parents.
+ *
+ * @author Sebastian Ventura
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectorBenchmark
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Parameters
+	/////////////////////////////////////////////////////////////////
+
+	/** Selector classname (relative to net.sf.jclec.selector) */
+
+	@Param({"BettersSelector", "BoltzmannSelector", "DisruptiveSelector",
+		"HierarchicalSelector", "NonLinearHierarchicalSelector", "RandomSelector", "RouletteSelector",
+		"SigmaScaling", "StochasticRemainingSelector", "StochasticUniversalSampling",
+		"TournamentSelector", "WorsesSelector"})
+	public String selector;
+
+	/** Population size */
+
+	@Param({"100", "1000", "10000"})
+	public int populationSize;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Evaluated population */
+
+	private List<IIndividual> population;
+
+	/** Selector measured */
+
+	private ISelector tool;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public SelectorBenchmark()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create and evaluate population, and create selector.
+	 */
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		// Execution context
+		SG context = new SG();
+		RanecuFactory randGenFactory = new RanecuFactory();
+		randGenFactory.setSeed(1234);
+		context.setRandGenFactory(randGenFactory);
+		IRange [] genotypeSchema = new IRange[10];
+		for (int i=0; i<genotypeSchema.length; i++) {
+			genotypeSchema[i] = new Interval(-5.12, 5.12, Closure.ClosedClosed);
+		}
+		context.setSpecies(new RealArrayIndividualSpecies(genotypeSchema));
+		context.setEvaluator(new SphereEvaluator());
+		// Population
+		RealArrayCreator provider = new RealArrayCreator();
+		provider.contextualize(context);
+		population = provider.provide(populationSize);
+		context.getEvaluator().evaluate(population);
+		context.setInhabitants(population);
+		// Selector (temperature is kept constant in Boltzmann selection)
+		tool = OperatorBenchmark.newInstance("net.sf.jclec.selector." + selector);
+		if (tool instanceof IConfigure) {
+			HierarchicalConfiguration settings = new HierarchicalConfiguration();
+			settings.addProperty("tournament-size", 2);
+			settings.addProperty("initial-temp", 100.0);
+			settings.addProperty("temp-decr", 1.0);
+			((IConfigure) tool).configure(settings);
+		}
+		tool.contextualize(context);
+	}
+
+	/**
+	 * Select populationSize individuals.
+	 *
+	 * @return Selected individuals
+	 */
+
+	@Benchmark
+	public List<IIndividual> select()
+	{
+		return tool.select(population, populationSize);
+	}
+}
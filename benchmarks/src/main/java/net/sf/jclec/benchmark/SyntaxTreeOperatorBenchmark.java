@@ -0,0 +1,132 @@
+package net.sf.jclec.benchmark;
+
+import net.sf.jclec.IProvider;
+import net.sf.jclec.ISpecies;
+import net.sf.jclec.ITool;
+
+import net.sf.jclec.benchmark.fun.Add;
+import net.sf.jclec.benchmark.fun.Mul;
+import net.sf.jclec.benchmark.fun.Sub;
+import net.sf.jclec.benchmark.fun.X;
+import net.sf.jclec.benchmark.fun.Y;
+
+import net.sf.jclec.syntaxtree.IMutateSyntaxTree;
+import net.sf.jclec.syntaxtree.NonTerminalNode;
+import net.sf.jclec.syntaxtree.SyntaxTreeCreator;
+import net.sf.jclec.syntaxtree.SyntaxTreeIndividualSpecies;
+import net.sf.jclec.syntaxtree.SyntaxTreeMutator;
+import net.sf.jclec.syntaxtree.SyntaxTreeRecombinator;
+import net.sf.jclec.syntaxtree.TerminalNode;
+
+import org.apache.commons.configuration.Configuration;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Mutators and recombinators of the syntaxtree package. Individuals are
+ * derivations of a grammar for arithmetic expressions of two variables,
+ * with at most treeSize nodes.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class SyntaxTreeOperatorBenchmark extends OperatorBenchmark
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Parameters
+	/////////////////////////////////////////////////////////////////
+
+	/** Base operator classname (relative to net.sf.jclec.syntaxtree) */
+
+	@Param({"mut.ExpandNTMutator", "mut.NTMutator", "mut.RecurseNTMutator", "mut.ReduceNTMutator",
+		"mut.SelectiveMutator", "mut.UnRecurseNTMutator",
+		"rec.NTCrossover", "rec.SelectiveCrossover"})
+	public String operator;
+
+	/** Maximum derivation size */
+
+	@Param({"15", "63"})
+	public int treeSize;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public SyntaxTreeOperatorBenchmark()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------- Overwriting OperatorBenchmark
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected ISpecies createSpecies()
+	{
+		SyntaxTreeIndividualSpecies species = new SyntaxTreeIndividualSpecies();
+		species.setMaxDerivSize(treeSize);
+		species.setRootSymbol("expr");
+		species.setTerminals(terminals());
+		species.setNonTerminals(nonTerminals());
+		return species;
+	}
+
+	@Override
+	protected IProvider createProvider()
+	{
+		return new SyntaxTreeCreator();
+	}
+
+	@Override
+	protected ITool createOperator(Configuration settings)
+	{
+		String baseOp = "net.sf.jclec.syntaxtree." + operator;
+		settings.addProperty("base-op[@type]", baseOp);
+		// Selective operators only change arguments
+		settings.addProperty("base-op.maximum-branch-depth", treeSize);
+		settings.addProperty("base-op.selected-symbols[@selected-dimension]", 1);
+		settings.addProperty("base-op.selected-symbols.dimension.name", "arg");
+		if (newInstance(baseOp) instanceof IMutateSyntaxTree) {
+			return new SyntaxTreeMutator();
+		}
+		else {
+			return new SyntaxTreeRecombinator();
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Package methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * @return Terminal symbols of the expressions grammar
+	 */
+
+	static TerminalNode [] terminals()
+	{
+		return new TerminalNode [] {
+				new TerminalNode("X", new X()),
+				new TerminalNode("Y", new Y()),
+				new TerminalNode("+", new Add()),
+				new TerminalNode("-", new Sub()),
+				new TerminalNode("*", new Mul()),
+		};
+	}
+
+	/**
+	 * @return Non terminal symbols of the expressions grammar
+	 */
+
+	static NonTerminalNode [] nonTerminals()
+	{
+		return new NonTerminalNode [] {
+				new NonTerminalNode("expr", new String [] {"+", "expr", "expr"}),
+				new NonTerminalNode("expr", new String [] {"-", "expr", "expr"}),
+				new NonTerminalNode("expr", new String [] {"*", "expr", "expr"}),
+				new NonTerminalNode("expr", new String [] {"arg"}),
+				new NonTerminalNode("arg", new String [] {"X"}),
+				new NonTerminalNode("arg", new String [] {"Y"}),
+		};
+	}
+}
@@ -0,0 +1,39 @@
+package net.sf.jclec.benchmark.fun;
+
+import net.sf.jclec.exprtree.fun.DoubleBinaryPrimitive;
+
+public class Div extends DoubleBinaryPrimitive
+{
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = -6690378287946373582L;
+
+	/**
+	 * This operator receives two double arrays as arguments and return
+	 * a double array as result.
+	 */
+
+	public Div()
+	{
+		super();
+	}
+
+	@Override
+	protected double apply(double arg1, double arg2)
+	{
+		// Protected division
+		return (arg2 == 0.0) ? 1.0 : arg1/arg2;
+	}
+
+	// java.lang.Object methods
+
+	public boolean equals(Object other)
+	{
+		return other instanceof Div;
+	}
+
+	public String toString()
+	{
+		return "/";
+	}
+}
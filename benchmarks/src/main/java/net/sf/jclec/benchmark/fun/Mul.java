@@ -0,0 +1,38 @@
+package net.sf.jclec.benchmark.fun;
+
+import net.sf.jclec.exprtree.fun.DoubleBinaryPrimitive;
+
+public class Mul extends DoubleBinaryPrimitive
+{
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = 5487960937214869063L;
+
+	/**
+	 * This operator receives two double arrays as arguments and return
+	 * a double array as result.
+	 */
+
+	public Mul()
+	{
+		super();
+	}
+
+	@Override
+	protected double apply(double arg1, double arg2)
+	{
+		return arg1*arg2;
+	}
+
+	// java.lang.Object methods
+
+	public boolean equals(Object other)
+	{
+		return other instanceof Mul;
+	}
+
+	public String toString()
+	{
+		return "*";
+	}
+}
@@ -0,0 +1,27 @@
+package net.sf.jclec.benchmark.fun;
+
+import net.sf.jclec.exprtree.fun.Argument;
+
+public class X extends Argument<Double>
+{
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = 2714823986347165531L;
+
+	public X()
+	{
+		super(Double.class, 0);
+	}
+
+	// java.lang.Object methods
+
+	public boolean equals(Object other)
+	{
+		return other instanceof X;
+	}
+
+	public String toString()
+	{
+		return "X";
+	}
+}
@@ -0,0 +1,53 @@
+package net.sf.jclec.benchmark.problem;
+
+/**
+ * DTLZ1 problem. Linear Pareto front (objectives add up to 0.5), with a
+ * multimodal distance function.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class DTLZ1Evaluator extends DTLZEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = 1872045069813297322L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public DTLZ1Evaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected double g(double [] x, int from)
+	{
+		double sum = 0.0;
+		for (int i=from; i<x.length; i++) {
+			double d = x[i] - 0.5;
+			sum += d * d - Math.cos(20.0 * Math.PI * d);
+		}
+		return 100.0 * (x.length - from + sum);
+	}
+
+	@Override
+	protected double position(double [] x, int last, boolean complement)
+	{
+		double value = 0.5;
+		for (int j=0; j<last; j++) {
+			value *= x[j];
+		}
+		return complement ? value * (1.0 - x[last]) : value;
+	}
+}
@@ -0,0 +1,52 @@
+package net.sf.jclec.benchmark.problem;
+
+/**
+ * DTLZ2 problem. Spherical Pareto front (squared objectives add up to 1).
+ *
+ * @author Sebastian Ventura
+ */
+
+public class DTLZ2Evaluator extends DTLZEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = -5604493402719356016L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public DTLZ2Evaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected double g(double [] x, int from)
+	{
+		double sum = 0.0;
+		for (int i=from; i<x.length; i++) {
+			double d = x[i] - 0.5;
+			sum += d * d;
+		}
+		return sum;
+	}
+
+	@Override
+	protected double position(double [] x, int last, boolean complement)
+	{
+		double value = 1.0;
+		for (int j=0; j<last; j++) {
+			value *= Math.cos(0.5 * Math.PI * x[j]);
+		}
+		return complement ? value * Math.sin(0.5 * Math.PI * x[last]) : value;
+	}
+}
@@ -0,0 +1,132 @@
+package net.sf.jclec.benchmark.problem;
+
+import org.apache.commons.configuration.Configuration;
+
+/**
+ * Deb-Thiele-Laumanns-Zitzler (DTLZ) scalable problems. The last
+ * n-M+1 decision variables (the distance variables) define a function
+ * g(x), that is 0 in Pareto optimal solutions; the first M-1 variables
+ * define the position in the Pareto front. Decision variables are in
+ * [0,1].
+ *
+ * @author Sebastian Ventura
+ */
+
+public abstract class DTLZEvaluator extends MultiobjectiveEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = -1205917004402355725L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of objectives (M) */
+
+	protected int numberOfObjectives = 3;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public DTLZEvaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	/**
+	 * @return Number of objectives
+	 */
+
+	public int getNumberOfObjectives()
+	{
+		return numberOfObjectives;
+	}
+
+	/**
+	 * Sets the number of objectives
+	 *
+	 * @param numberOfObjectives Number of objectives
+	 */
+
+	public void setNumberOfObjectives(int numberOfObjectives)
+	{
+		this.numberOfObjectives = numberOfObjectives;
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for DTLZEvaluator are (besides those of
+	 * AbstractParallelEvaluator):
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>number-of-objectives (int)</code></p>
+	 * Number of objectives. Default value is 3
+	 * </li>
+	 * </ul>
+	 */
+
+	@Override
+	public void configure(Configuration settings)
+	{
+		super.configure(settings);
+		setNumberOfObjectives(settings.getInt("number-of-objectives", 3));
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected double [] objectives(double [] x)
+	{
+		int m = numberOfObjectives;
+		if (x.length < m) {
+			throw new IllegalArgumentException("Too few decision variables");
+		}
+		double g = g(x, m - 1);
+		double [] f = new double[m];
+		for (int i=0; i<m; i++) {
+			f[i] = (1.0 + g) * position(x, m - 1 - i, i > 0);
+		}
+		return f;
+	}
+
+	/**
+	 * Distance function.
+	 *
+	 * @param x Decision variables
+	 * @param from First distance variable
+	 *
+	 * @return g(x)
+	 */
+
+	protected abstract double g(double [] x, int from);
+
+	/**
+	 * Position in the Pareto front (of an objective).
+	 *
+	 * @param x Decision variables
+	 * @param last Position variables x_0 ... x_last-1 are used as
+	 *        products; x_last is used as complement if complement is
+	 *        true
+	 * @param complement Use the complement of x_last
+	 *
+	 * @return Objective value for g(x) = 0
+	 */
+
+	protected abstract double position(double [] x, int last, boolean complement);
+}
@@ -0,0 +1,91 @@
+package net.sf.jclec.benchmark.problem;
+
+import java.util.Comparator;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.base.AbstractParallelEvaluator;
+
+import net.sf.jclec.fitness.CompositeValueFitness;
+import net.sf.jclec.fitness.ISimpleFitness;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+
+import net.sf.jclec.realarray.RealArrayIndividual;
+
+/**
+ * Multiobjective minimization problem over real vectors.
+ *
+ * Fitness is a CompositeValueFitness, with a component for each objective.
+ * Multiobjective algorithms compare these components; the comparator
+ * returned by this evaluator compares fitness values (lower is better),
+ * as the scalar fitness that SPEA2 assigns to individuals.
+ *
+ * @author Sebastian Ventura
+ */
+
+public abstract class MultiobjectiveEvaluator extends AbstractParallelEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = -6148017297563806422L;
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Individuals comparator */
+
+	private static final Comparator<IFitness> COMPARATOR = new ValueFitnessComparator(true);
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public MultiobjectiveEvaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// IEvaluator interface
+
+	@Override
+	public Comparator<IFitness> getComparator()
+	{
+		return COMPARATOR;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected void evaluate(IIndividual ind)
+	{
+		double [] f = objectives(((RealArrayIndividual) ind).getGenotype());
+		ISimpleFitness [] components = new ISimpleFitness[f.length];
+		for (int i=0; i<f.length; i++) {
+			components[i] = new SimpleValueFitness(f[i]);
+		}
+		ind.setFitness(new CompositeValueFitness(components));
+	}
+
+	/**
+	 * Objectives to minimize.
+	 *
+	 * @param x Decision variables
+	 *
+	 * @return Objective values
+	 */
+
+	protected abstract double [] objectives(double [] x);
+}
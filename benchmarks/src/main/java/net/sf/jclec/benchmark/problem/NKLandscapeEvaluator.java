@@ -0,0 +1,212 @@
+package net.sf.jclec.benchmark.problem;
+
+import java.util.Comparator;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.base.AbstractParallelEvaluator;
+
+import net.sf.jclec.binarray.BinArrayIndividual;
+
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+
+import net.sf.jclec.util.random.IRandGen;
+import net.sf.jclec.util.random.RanecuFactory;
+
+import org.apache.commons.configuration.Configuration;
+
+/**
+ * Kauffman's NK landscapes (to be maximized).
+ *
+ * Each of the N loci contributes to fitness with a value that depends on
+ * its allele and on the alleles of its K next loci (cyclically). Values
+ * are uniformly distributed in [0,1], and fitness is their average. The
+ * contributions table is generated (with the given seed) the first time
+ * an individual is evaluated, because N is the genotype length.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class NKLandscapeEvaluator extends AbstractParallelEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = -2902375839658210464L;
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Individuals comparator */
+
+	private static final Comparator<IFitness> COMPARATOR = new ValueFitnessComparator(false);
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of loci that interact with each locus */
+
+	protected int k = 4;
+
+	/** Seed used to generate the landscape */
+
+	protected int seed = 1;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Contributions table (contributions[i][j], j in [0,2^(k+1))) */
+
+	private transient volatile double [][] contributions;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public NKLandscapeEvaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	/**
+	 * @return Number of loci that interact with each locus
+	 */
+
+	public int getK()
+	{
+		return k;
+	}
+
+	/**
+	 * Sets the number of loci that interact with each locus
+	 *
+	 * @param k New K value
+	 */
+
+	public void setK(int k)
+	{
+		this.k = k;
+		this.contributions = null;
+	}
+
+	/**
+	 * @return Landscape seed
+	 */
+
+	public int getSeed()
+	{
+		return seed;
+	}
+
+	/**
+	 * Sets the landscape seed
+	 *
+	 * @param seed New seed
+	 */
+
+	public void setSeed(int seed)
+	{
+		this.seed = seed;
+		this.contributions = null;
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for NKLandscapeEvaluator are (besides
+	 * those of AbstractParallelEvaluator):
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>k (int)</code></p>
+	 * Number of loci that interact with each locus. Default value is 4
+	 * </li><li>
+	 * <code>seed (int)</code></p>
+	 * Landscape seed. Default value is 1
+	 * </li>
+	 * </ul>
+	 */
+
+	@Override
+	public void configure(Configuration settings)
+	{
+		super.configure(settings);
+		setK(settings.getInt("k", 4));
+		setSeed(settings.getInt("seed", 1));
+	}
+
+	// IEvaluator interface
+
+	@Override
+	public Comparator<IFitness> getComparator()
+	{
+		return COMPARATOR;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected void evaluate(IIndividual ind)
+	{
+		byte [] genotype = ((BinArrayIndividual) ind).getGenotype();
+		int n = genotype.length;
+		double [][] table = contributions(n);
+		double fvalue = 0.0;
+		for (int i=0; i<n; i++) {
+			int j = 0;
+			for (int l=0; l<=k; l++) {
+				j = (j << 1) | genotype[(i + l) % n];
+			}
+			fvalue += table[i][j];
+		}
+		ind.setFitness(new SimpleValueFitness(fvalue / n));
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Contributions table for genotypes of length n.
+	 */
+
+	private double [][] contributions(int n)
+	{
+		double [][] table = contributions;
+		if (table == null || table.length != n) {
+			synchronized (this) {
+				table = contributions;
+				if (table == null || table.length != n) {
+					if (k >= n) {
+						throw new IllegalStateException("K must be lower than genotype length");
+					}
+					RanecuFactory factory = new RanecuFactory();
+					factory.setSeed(seed);
+					IRandGen randgen = factory.createRandGen();
+					table = new double[n][1 << (k + 1)];
+					for (double [] row : table) {
+						randgen.raw(row);
+					}
+					contributions = table;
+				}
+			}
+		}
+		return table;
+	}
+}
@@ -0,0 +1,74 @@
+package net.sf.jclec.benchmark.problem;
+
+import java.util.Comparator;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.base.AbstractParallelEvaluator;
+
+import net.sf.jclec.binarray.BinArrayIndividual;
+
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+
+/**
+ * OneMax problem: maximize the number of ones in a binary string.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class OneMaxEvaluator extends AbstractParallelEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = 8327641179082330713L;
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Individuals comparator */
+
+	private static final Comparator<IFitness> COMPARATOR = new ValueFitnessComparator(false);
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public OneMaxEvaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// IEvaluator interface
+
+	@Override
+	public Comparator<IFitness> getComparator()
+	{
+		return COMPARATOR;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected void evaluate(IIndividual ind)
+	{
+		byte [] genotype = ((BinArrayIndividual) ind).getGenotype();
+		int ones = 0;
+		for (byte gi : genotype) {
+			ones += gi;
+		}
+		ind.setFitness(new SimpleValueFitness(ones));
+	}
+}
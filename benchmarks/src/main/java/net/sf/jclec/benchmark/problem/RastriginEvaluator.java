@@ -0,0 +1,43 @@
+package net.sf.jclec.benchmark.problem;
+
+/**
+ * Rastrigin function, f(x) = 10n + sum(x_i^2 - 10cos(2 pi x_i)). Highly
+ * multimodal, with minimum 0 at the origin. Usual domain is [-5.12,5.12]
+ * for all variables.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class RastriginEvaluator extends RealFunctionEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = 2245603961730128163L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public RastriginEvaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected double function(double [] x)
+	{
+		double fvalue = 10.0 * x.length;
+		for (double xi : x) {
+			fvalue += xi * xi - 10.0 * Math.cos(2.0 * Math.PI * xi);
+		}
+		return fvalue;
+	}
+}
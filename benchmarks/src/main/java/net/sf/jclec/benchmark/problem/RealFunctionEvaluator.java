@@ -0,0 +1,81 @@
+package net.sf.jclec.benchmark.problem;
+
+import java.util.Comparator;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.base.AbstractParallelEvaluator;
+
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+
+import net.sf.jclec.realarray.RealArrayIndividual;
+
+/**
+ * Minimization of a real function. Individuals are RealArrayIndividual
+ * objects, and their genotype is the function argument.
+ *
+ * @author Sebastian Ventura
+ */
+
+public abstract class RealFunctionEvaluator extends AbstractParallelEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = 6093182645405617371L;
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Individuals comparator */
+
+	private static final Comparator<IFitness> COMPARATOR = new ValueFitnessComparator(true);
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public RealFunctionEvaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// IEvaluator interface
+
+	@Override
+	public Comparator<IFitness> getComparator()
+	{
+		return COMPARATOR;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected void evaluate(IIndividual ind)
+	{
+		double [] genotype = ((RealArrayIndividual) ind).getGenotype();
+		ind.setFitness(new SimpleValueFitness(function(genotype)));
+	}
+
+	/**
+	 * Function to minimize.
+	 *
+	 * @param x Function argument
+	 *
+	 * @return Function value
+	 */
+
+	protected abstract double function(double [] x);
+}
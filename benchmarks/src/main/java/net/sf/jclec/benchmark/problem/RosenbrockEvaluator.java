@@ -0,0 +1,45 @@
+package net.sf.jclec.benchmark.problem;
+
+/**
+ * Rosenbrock function, f(x) = sum(100(x_i+1 - x_i^2)^2 + (1 - x_i)^2).
+ * Minimum 0 at (1,...,1), at the bottom of a narrow curved valley. Usual
+ * domain is [-2.048,2.048] for all variables.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class RosenbrockEvaluator extends RealFunctionEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = -4405326357197911226L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public RosenbrockEvaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected double function(double [] x)
+	{
+		double fvalue = 0.0;
+		for (int i=0; i<x.length-1; i++) {
+			double a = x[i+1] - x[i] * x[i];
+			double b = 1.0 - x[i];
+			fvalue += 100.0 * a * a + b * b;
+		}
+		return fvalue;
+	}
+}
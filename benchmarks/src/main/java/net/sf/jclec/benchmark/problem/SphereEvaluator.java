@@ -0,0 +1,41 @@
+package net.sf.jclec.benchmark.problem;
+
+/**
+ * Sphere function, f(x) = sum(x_i^2). Minimum 0 at the origin.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class SphereEvaluator extends RealFunctionEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = -1732467201985574382L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public SphereEvaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected double function(double [] x)
+	{
+		double fvalue = 0.0;
+		for (double xi : x) {
+			fvalue += xi * xi;
+		}
+		return fvalue;
+	}
+}
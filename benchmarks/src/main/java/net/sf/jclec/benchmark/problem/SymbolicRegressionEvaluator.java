@@ -0,0 +1,221 @@
+package net.sf.jclec.benchmark.problem;
+
+import java.util.Comparator;
+import java.util.List;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.base.AbstractParallelEvaluator;
+
+import net.sf.jclec.exprtree.ExprTree;
+import net.sf.jclec.exprtree.ExprTreeIndividual;
+import net.sf.jclec.exprtree.fun.ExprTreeFunction;
+
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+
+import net.sf.jclec.ge.GEIndividual;
+
+import net.sf.jclec.syntaxtree.SyntaxTreeIndividual;
+
+import org.apache.commons.configuration.Configuration;
+
+/**
+ * Symbolic regression of Koza's quartic polynomial,
+ * f(x) = x^4 + x^3 + x^2 + x, sampled at equally spaced points in [-1,1].
+ *
+ * Fitness is the sum of absolute errors (to be minimized). Individuals
+ * can be expression trees (ExprTreeIndividual), or derivation trees
+ * (SyntaxTreeIndividual genotypes and GEIndividual phenotypes) whose
+ * terminal symbols, in order, form a prefix expression. The argument of
+ * the function is its first argument.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class SymbolicRegressionEvaluator extends AbstractParallelEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = 3391860537046128862L;
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Individuals comparator */
+
+	private static final Comparator<IFitness> COMPARATOR = new ValueFitnessComparator(true);
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of fitness cases */
+
+	protected int numberOfCases = 20;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Fitness cases (one column: function argument) */
+
+	private transient double [][] inputs;
+
+	/** Target values */
+
+	private transient double [] targets;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public SymbolicRegressionEvaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	/**
+	 * @return Number of fitness cases
+	 */
+
+	public int getNumberOfCases()
+	{
+		return numberOfCases;
+	}
+
+	/**
+	 * Sets the number of fitness cases
+	 *
+	 * @param numberOfCases Number of fitness cases (at least 2)
+	 */
+
+	public void setNumberOfCases(int numberOfCases)
+	{
+		this.numberOfCases = numberOfCases;
+		this.inputs = null;
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for SymbolicRegressionEvaluator are
+	 * (besides those of AbstractParallelEvaluator):
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>number-of-cases (int)</code></p>
+	 * Number of fitness cases. Default value is 20
+	 * </li>
+	 * </ul>
+	 */
+
+	@Override
+	public void configure(Configuration settings)
+	{
+		super.configure(settings);
+		setNumberOfCases(settings.getInt("number-of-cases", 20));
+	}
+
+	// IEvaluator interface
+
+	@Override
+	public Comparator<IFitness> getComparator()
+	{
+		return COMPARATOR;
+	}
+
+	/**
+	 * Fitness cases are sampled before evaluating the individuals.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void evaluate(List<IIndividual> inds)
+	{
+		if (inputs == null) {
+			sampleCases();
+		}
+		super.evaluate(inds);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected void evaluate(IIndividual ind)
+	{
+		ExprTree code = code(ind);
+		double error = Double.MAX_VALUE;
+		if (code != null) {
+			double [] outputs = new double[numberOfCases];
+			new ExprTreeFunction(code).executeBatch(inputs, outputs);
+			error = 0.0;
+			for (int i=0; i<numberOfCases; i++) {
+				error += Math.abs(outputs[i] - targets[i]);
+			}
+			if (Double.isNaN(error) || Double.isInfinite(error)) {
+				error = Double.MAX_VALUE;
+			}
+		}
+		ind.setFitness(new SimpleValueFitness(error));
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Expression represented by an individual.
+	 *
+	 * @return Individual code (null if the individual has no code)
+	 */
+
+	private ExprTree code(IIndividual ind)
+	{
+		if (ind instanceof ExprTreeIndividual) {
+			return ((ExprTreeIndividual) ind).getGenotype();
+		}
+		if (ind instanceof SyntaxTreeIndividual) {
+			return ((SyntaxTreeIndividual) ind).getGenotype().getExprTree();
+		}
+		if (ind instanceof GEIndividual) {
+			GEIndividual ge = (GEIndividual) ind;
+			if (ge.isFeasible() && ge.getPhenotype() != null) {
+				return ge.getPhenotype().getExprTree();
+			}
+			return null;
+		}
+		throw new IllegalArgumentException("Illegal individual type: " + ind.getClass().getName());
+	}
+
+	/**
+	 * Sample fitness cases and target values.
+	 */
+
+	private void sampleCases()
+	{
+		double [] x = new double[numberOfCases];
+		double [] y = new double[numberOfCases];
+		for (int i=0; i<numberOfCases; i++) {
+			x[i] = -1.0 + 2.0 * i / (numberOfCases - 1);
+			y[i] = x[i] * (1.0 + x[i] * (1.0 + x[i] * (1.0 + x[i])));
+		}
+		targets = y;
+		inputs = new double [][] {x};
+	}
+}
@@ -0,0 +1,37 @@
+package net.sf.jclec.benchmark.problem;
+
+/**
+ * ZDT1 problem, h(f1,g) = 1 - sqrt(f1/g). Convex Pareto front.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class ZDT1Evaluator extends ZDTEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = -3150640431982740291L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ZDT1Evaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected double h(double f1, double g)
+	{
+		return 1.0 - Math.sqrt(f1 / g);
+	}
+}
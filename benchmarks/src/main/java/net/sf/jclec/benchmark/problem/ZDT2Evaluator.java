@@ -0,0 +1,37 @@
+package net.sf.jclec.benchmark.problem;
+
+/**
+ * ZDT2 problem, h(f1,g) = 1 - (f1/g)^2. Non-convex Pareto front.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class ZDT2Evaluator extends ZDTEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = 7719270185335526401L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ZDT2Evaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected double h(double f1, double g)
+	{
+		return 1.0 - (f1 / g) * (f1 / g);
+	}
+}
@@ -0,0 +1,38 @@
+package net.sf.jclec.benchmark.problem;
+
+/**
+ * ZDT3 problem, h(f1,g) = 1 - sqrt(f1/g) - (f1/g) sin(10 pi f1). Pareto
+ * front consists of several disconnected pieces.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class ZDT3Evaluator extends ZDTEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = -8801626418826187340L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ZDT3Evaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected double h(double f1, double g)
+	{
+		return 1.0 - Math.sqrt(f1 / g) - (f1 / g) * Math.sin(10.0 * Math.PI * f1);
+	}
+}
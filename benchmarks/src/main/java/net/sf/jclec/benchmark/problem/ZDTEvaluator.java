@@ -0,0 +1,56 @@
+package net.sf.jclec.benchmark.problem;
+
+/**
+ * Zitzler-Deb-Thiele (ZDT) two objectives problems. Objectives are
+ * f1(x) = x_1 and f2(x) = g(x) h(f1(x), g(x)), where
+ * g(x) = 1 + 9 sum(x_i, i=2..n) / (n-1). Decision variables are in [0,1].
+ * Pareto optimal solutions have g(x) = 1.
+ *
+ * @author Sebastian Ventura
+ */
+
+public abstract class ZDTEvaluator extends MultiobjectiveEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = 4913307346021389164L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ZDTEvaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected double [] objectives(double [] x)
+	{
+		double sum = 0.0;
+		for (int i=1; i<x.length; i++) {
+			sum += x[i];
+		}
+		double g = 1.0 + 9.0 * sum / (x.length - 1);
+		return new double [] {x[0], g * h(x[0], g)};
+	}
+
+	/**
+	 * Function that defines the shape of the Pareto front.
+	 *
+	 * @param f1 First objective
+	 * @param g Distance function
+	 *
+	 * @return h(f1, g)
+	 */
+
+	protected abstract double h(double f1, double g);
+}
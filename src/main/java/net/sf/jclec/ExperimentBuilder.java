@@ -1,33 +1,73 @@
 package net.sf.jclec;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
 
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
 import org.apache.commons.configuration.XMLConfiguration;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
 
 /**
  * Experiments builder
- * 
+ *
+ * An experiment file can contain multi-valued elements and attributes:
+ *
+ * <ul>
+ * <li>
+ * An element with a <code>multi</code> attribute is replaced by each one
+ * of its children elements with the same name.
+ * </li><li>
+ * An attribute with value <code>multi</code> takes the value of each one
+ * of the children elements (of the element that contains it) with the
+ * same name as the attribute.
+ * </li>
+ * </ul>
+ *
+ * The experiment is expanded to all the combinations of these values.
+ * Multi-valued elements are expanded before multi-valued attributes, in
+ * document order (the first one changes slowest). Combinations are built
+ * in memory, one at a time, when they are requested. Each combination is
+ * named after the experiment file, followed by the index of the value
+ * chosen for each multi-valued element or attribute.
+ *
  * @author Sebastian Ventura
- * @author Jose M. Luna 
- * @author Alberto Cano 
+ * @author Jose M. Luna
+ * @author Alberto Cano
  * @author Juan Luis Olmo
  * @author Amelia Zafra
  */
 
-public class ExperimentBuilder 
+public class ExperimentBuilder
 {
 	/////////////////////////////////////////////////////////////////
-	// --------------------------------------------------- Properties
+	// ---------------------------------------------- Class variables
 	/////////////////////////////////////////////////////////////////
 
-	/** Control the depth size */
-	private ArrayList<Integer> combinationBase;
-	
+	/** Marks multi-valued elements (attribute name) and attributes (value) */
+
+	public static final String MULTI = "multi";
+
 	/////////////////////////////////////////////////////////////////
 	// -------------------------------------------------- Constructor
 	/////////////////////////////////////////////////////////////////
@@ -35,446 +75,293 @@ public class ExperimentBuilder
 	/**
 	 * Empty constructor
 	 */
-	
-	public ExperimentBuilder() {
-		
+
+	public ExperimentBuilder()
+	{
+		super();
 	}
-	
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
 	/**
-	 * Expands the experiments for the configuration file
+	 * Expands the experiments for the configuration file, and writes them
+	 * to the experiments folder (all files in this folder are deleted
+	 * first). If the configuration file has no multi-valued elements or
+	 * attributes, it is returned without changes.
+	 *
+	 * @param experimentFileName Configuration file
+	 *
+	 * @return Configuration filenames
 	 */
-	
+
 	public ArrayList<String> buildExperiment(String experimentFileName)
 	{
-		ArrayList<String> configurations = expandElements(experimentFileName);
-		ArrayList<String> allCreatedExperiments = new ArrayList<String>();
-		int numberExperiments = 1;
-		
-		allCreatedExperiments.addAll(configurations);
-		
-		/** Expand multi-valued elements */
-		do
-		{
-			numberExperiments = configurations.size();
-			
-			ArrayList<String> createdExperiments = new ArrayList<String>();
-			
-			for(String experiment : configurations)
-				createdExperiments.addAll(expandElements(experiment));
-			
-			allCreatedExperiments.addAll(createdExperiments);
-			
-			configurations = createdExperiments;
-			
-		}while(configurations.size() != numberExperiments);
-		
-		/** Expand multi-valued attributes */
-		do
-		{
-			numberExperiments = configurations.size();
-			
-			ArrayList<String> createdExperiments = new ArrayList<String>();
-			
-			for(String experiment : configurations)
-				createdExperiments.addAll(expandAttributes(experiment));
-			
-			allCreatedExperiments.addAll(createdExperiments);
-			
-			configurations = createdExperiments;
-			
-		}while(configurations.size() != numberExperiments);
-		
-		allCreatedExperiments.removeAll(configurations);
-		
-		/** Remove temp files */
-		for(String temp : allCreatedExperiments)
-		{
-			if(!temp.equals(experimentFileName))
-				new File(temp).delete();
+		ArrayList<String> configurations = new ArrayList<String>();
+
+		if (!new File(experimentFileName).exists()) {
+			System.out.println("Job file not found");
+			System.exit(1);
 		}
-		
-		/** Move the expanded configuration files to the experiments folder */
-		if(configurations.size() > 1)
-		{
-			File dir = new File("experiments");
-			
-			/** If the directory exists, delete all files */
-			if(dir.exists()){
-				File [] experimentFiles = dir.listFiles();
-				for(File f: experimentFiles)
-					f.delete();
-			}
-			
-			/** Else, create the directory */
-			else{
-				dir.mkdir();
+
+		Iterator<XMLConfiguration> experiments = expandExperiment(experimentFileName).iterator();
+		XMLConfiguration first = experiments.next();
+
+		/** Nothing to expand */
+		if (!experiments.hasNext()) {
+			configurations.add(experimentFileName);
+			return configurations;
+		}
+
+		File dir = new File("experiments");
+
+		/** If the directory exists, delete all files */
+		if (dir.exists()) {
+			for (File f : dir.listFiles()) {
+				f.delete();
 			}
+		}
+		/** Else, create the directory */
+		else {
+			dir.mkdir();
+		}
 
-			for(int i = 0; i < configurations.size(); i++)
-			{
-				File file = new File(configurations.get(i));
-				file.renameTo(new File(dir, file.getName()));
-				String[] files = configurations.get(i).split("/");
-				String fileName = files[files.length-1];
-				configurations.set(i, dir.getPath() + "/" + fileName);
+		/** Write the expanded configuration files */
+		try {
+			configurations.add(writeExperiment(first, dir).getPath());
+			while (experiments.hasNext()) {
+				configurations.add(writeExperiment(experiments.next(), dir).getPath());
 			}
 		}
-		
+		catch (ConfigurationException e) {
+			e.printStackTrace();
+		}
+
 		/** Return the configuration filenames */
 		return configurations;
 	}
-	
+
 	/**
-	 * Expands the multi-valued elements for the jobFilename configuration file
+	 * Expands the experiments for the configuration file. Nothing is
+	 * written to disk: each iterator reads the configuration file and
+	 * builds the expanded configurations as they are requested. Their
+	 * file name (see getFileName()) is the name of the combination.
+	 *
+	 * @param experimentFileName Configuration file
+	 *
+	 * @return Expanded configurations
 	 */
-	
-	private ArrayList<String> expandElements(String jobFilename)
-	{
-		combinationBase = new ArrayList<Integer>();
-		
-		ArrayList<String> configurationFileNames = new ArrayList<String>();
-		
-		// Try open job file
-		File jobFile = new File(jobFilename);
-		
-		if (jobFile.exists()) {
-			try {
-				
-				// Find the number of combinations to perform
-				expandElementsIterateElements(new XMLConfiguration(jobFile).getDocument().getChildNodes());
-				
-				int numberCombinations = 1;
-				
-				// Calculate the amount of combinations
-				for(Integer i : combinationBase)
-					numberCombinations *= i;
-				
-				int[][] configurationSchema = new int[numberCombinations][];
-				
-				for(int i = 0; i < numberCombinations; i++)
-					configurationSchema[i] = new int[combinationBase.size()];
-				
-				int consecutiveElements = numberCombinations;
-				int accProduct = 1;
-				
-				// Calculate the combinations of each element
-				for(int i = 0; i < combinationBase.size(); i++)
-				{
-					consecutiveElements /= combinationBase.get(i);
-					
-					for(int j = 0; j < combinationBase.get(i); j++)
-					{
-						for(int k = 0; k < consecutiveElements; k++)
-						{
-							for(int r = 0; r < accProduct; r++)
-							{
-								int step = consecutiveElements*combinationBase.get(i);
-								configurationSchema[r*step + j*consecutiveElements + k][i] = j;
-							}
-						}
-					}
-					
-					accProduct *= combinationBase.get(i);
-				}
-				
-				XMLConfiguration[] configurations = new XMLConfiguration[numberCombinations];
-				
-				for(int i = 0; i < numberCombinations; i++)
-				{
-					configurations[i] = new XMLConfiguration(jobFile);
-					
-					expandElementsIterateElements(configurations[i].getDocument().getChildNodes(), configurationSchema[i].clone());
-				}
-				
-				for(int i = 0; i < numberCombinations; i++)
-				{
-					String fileName = jobFilename;
-					
-					for(int j = 0; j < configurationSchema[i].length; j++)
-						fileName += "_" + configurationSchema[i][j];
-					
-					if(!fileName.equals(jobFilename))
-						configurations[i].save(new File(fileName));
-					
-					configurationFileNames.add(fileName);
-				}
-			}
-			catch (Exception e) {
-				e.printStackTrace();
-			}
-		}
-		else {
-			System.out.println("Job file not found");
-			System.exit(1);			
-		}
-		
-		return configurationFileNames;
-	}
-	
-	private int expandElementsIterateElements(NodeList elements)
+
+	public Iterable<XMLConfiguration> expandExperiment(final String experimentFileName)
 	{
-		for(int i = 0; i < elements.getLength(); i++)
+		return new Iterable<XMLConfiguration>()
 		{
-			if(elements.item(i) instanceof Element)
+			public Iterator<XMLConfiguration> iterator()
 			{
-				Element element = (Element) elements.item(i);
-				
-				if(expandElementsIterateAttributes(element) == 1)
-					return 1;
-				
-				expandElementsIterateElements(element.getChildNodes());
+				return new Expansion(parse(new File(experimentFileName)), new File(experimentFileName).getName());
 			}
-		}
-		
-		return 0;
+		};
 	}
-	
-	private int expandElementsIterateAttributes(Element element)
+
+	/**
+	 * Writes an expanded configuration to a directory, with its name.
+	 *
+	 * @param configuration Expanded configuration
+	 * @param directory Destination directory
+	 *
+	 * @return Configuration file
+	 *
+	 * @throws ConfigurationException If the file cannot be written
+	 */
+
+	public File writeExperiment(XMLConfiguration configuration, File directory) throws ConfigurationException
 	{
-		NamedNodeMap attributes = element.getAttributes();
-		
-		for(int i = 0; i < attributes.getLength(); i++)
-		{
-			Node attribute = attributes.item(i);
-		
-			if(attribute.getNodeName().equals("multi"))
-			{
-				combinationBase.add(element.getElementsByTagName(element.getNodeName()).getLength());
-				return 1;
-			}
-		}
-		
-		return 0;
+		File file = new File(directory, configuration.getFileName());
+		configuration.save(file);
+		return file;
 	}
-	
-	private int expandElementsIterateElements(NodeList elements, int[] configurationSchema)
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static Document parse(File jobFile)
 	{
-		for(int i = 0; i < elements.getLength(); i++)
-		{
-			if(elements.item(i) instanceof Element)
-			{
-				Element element = (Element) elements.item(i);
-				
-				if(expandElementsIterateAtributes(element, configurationSchema) == 1)
-					return 1;
-				
-				expandElementsIterateElements(element.getChildNodes(), configurationSchema);
-			}
+		try {
+			return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(jobFile);
+		}
+		catch (ParserConfigurationException e) {
+			throw new ConfigurationRuntimeException("Cannot read job file", e);
+		}
+		catch (SAXException e) {
+			throw new ConfigurationRuntimeException("Illegal job file", e);
+		}
+		catch (IOException e) {
+			throw new ConfigurationRuntimeException("Cannot read job file", e);
 		}
-		
-		return 0;
 	}
-	
-	private int expandElementsIterateAtributes(Element element, int[] configurationSchema)
+
+	/**
+	 * First multi-valued element (in document order)
+	 */
+
+	private static Element findMultiElement(Element element)
 	{
-		NamedNodeMap attributes = element.getAttributes();
-		
-		for(int i = 0; i < attributes.getLength(); i++)
-		{
-			Node attribute = attributes.item(i);
-			
-			if(attribute.getNodeName().equals("multi"))
-			{
-				NodeList list = element.getElementsByTagName(element.getNodeName());
-				
-				for(int j = 0; j < configurationSchema.length; j++)
-					if(configurationSchema[j] != -1)
-					{
-						element.getParentNode().replaceChild(list.item(configurationSchema[j]), element);
-						
-						configurationSchema[j] = -1;
-						break;
-					}
-				
-				list = element.getChildNodes();
-				
-				for(int j = 0; j < list.getLength(); j++)
-				{
-					if(list.item(j).getNodeName().equals(attribute.getNodeName()))
-					{
-						element.removeChild(list.item(j));
-					}
-				}
-				
-				return 1;
+		if (element.hasAttribute(MULTI)) {
+			return element;
+		}
+		for (Element child : children(element, null)) {
+			Element multi = findMultiElement(child);
+			if (multi != null) {
+				return multi;
 			}
 		}
-		
-		return 0;
+		return null;
 	}
-	
-	private ArrayList<String> expandAttributes(String jobFilename)
+
+	/**
+	 * First multi-valued attribute (in document order)
+	 */
+
+	private static Attr findMultiAttribute(Element element)
 	{
-		combinationBase = new ArrayList<Integer>();
-		
-		ArrayList<String> configurationFileNames = new ArrayList<String>();
-		
-		// Try open job file
-		File jobFile = new File(jobFilename);
-		
-		if (jobFile.exists()) {
-			try {
-				
-				// Find the number of combinations to perform
-				expandAttributesIterateElements(new XMLConfiguration(jobFile).getDocument().getChildNodes());
-				
-				int numberCombinations = 1;
-				
-				// Calculate the amount of combinations
-				for(Integer i : combinationBase)
-					numberCombinations *= i;
-				
-				int[][] configurationSchema = new int[numberCombinations][];
-				
-				for(int i = 0; i < numberCombinations; i++)
-					configurationSchema[i] = new int[combinationBase.size()];
-				
-				int consecutiveElements = numberCombinations;
-				int accProduct = 1;
-				
-				// Calculate the combinations of each element
-				for(int i = 0; i < combinationBase.size(); i++)
-				{
-					consecutiveElements /= combinationBase.get(i);
-					
-					for(int j = 0; j < combinationBase.get(i); j++)
-					{
-						for(int k = 0; k < consecutiveElements; k++)
-						{
-							for(int r = 0; r < accProduct; r++)
-							{
-								int step = consecutiveElements*combinationBase.get(i);
-								configurationSchema[r*step + j*consecutiveElements + k][i] = j;
-							}
-						}
-					}
-					
-					accProduct *= combinationBase.get(i);
-				}
-				
-				XMLConfiguration[] configurations = new XMLConfiguration[numberCombinations];
-				
-				for(int i = 0; i < numberCombinations; i++)
-				{
-					configurations[i] = new XMLConfiguration(jobFile);
-					
-					//Build the document for each combination
-					expandAttributesIterateElements(configurations[i].getDocument().getChildNodes(), configurationSchema[i].clone());
-				}
-				
-				for(int i = 0; i < numberCombinations; i++)
-				{
-					String fileName = jobFilename;
-					
-					for(int j = 0; j < configurationSchema[i].length; j++)
-						fileName += "_" + configurationSchema[i][j];
-					
-					if(!fileName.equals(jobFilename))
-						configurations[i].save(new File(fileName));
-					
-					configurationFileNames.add(fileName);
-				}
-			}
-			catch (Exception e) {
-				e.printStackTrace();
+		NamedNodeMap attributes = element.getAttributes();
+		for (int i = 0; i < attributes.getLength(); i++) {
+			Attr attribute = (Attr) attributes.item(i);
+			if (MULTI.equals(attribute.getValue())) {
+				return attribute;
 			}
 		}
-		else {
-			System.out.println("Job file not found");
-			System.exit(1);			
+		for (Element child : children(element, null)) {
+			Attr multi = findMultiAttribute(child);
+			if (multi != null) {
+				return multi;
+			}
 		}
-		
-		return configurationFileNames;
+		return null;
 	}
-	
-	private int expandAttributesIterateElements(NodeList elements)
+
+	/**
+	 * Children elements with a given name (all of them if name is null)
+	 */
+
+	private static List<Element> children(Element element, String name)
 	{
-		for(int i = 0; i < elements.getLength(); i++)
-		{
-			if(elements.item(i) instanceof Element)
-			{
-				Element element = (Element) elements.item(i);
-				
-				if(expandAttributesIterateAttributes(element) == 1)
-					return 1;
-				
-				expandAttributesIterateElements(element.getChildNodes());
+		List<Element> children = new ArrayList<Element>();
+		NodeList nodes = element.getChildNodes();
+		for (int i = 0; i < nodes.getLength(); i++) {
+			Node node = nodes.item(i);
+			if (node instanceof Element && (name == null || name.equals(node.getNodeName()))) {
+				children.add((Element) node);
 			}
 		}
-		
-		return 0;
+		return children;
 	}
-	
-	private int expandAttributesIterateAttributes(Element element)
+
+	private static XMLConfiguration toConfiguration(Document document, String name)
 	{
-		NamedNodeMap attributes = element.getAttributes();
-		
-		for(int i = 0; i < attributes.getLength(); i++)
-		{
-			Node attribute = attributes.item(i);
-		
-			if(attribute.getNodeValue().equals("multi"))
-			{
-				combinationBase.add(element.getElementsByTagName(attribute.getNodeName()).getLength());
-				return 1;
-			}
+		try {
+			StringWriter xml = new StringWriter();
+			TransformerFactory.newInstance().newTransformer().transform(new DOMSource(document), new StreamResult(xml));
+			XMLConfiguration configuration = new XMLConfiguration();
+			configuration.load(new StringReader(xml.toString()));
+			configuration.setFileName(name);
+			return configuration;
+		}
+		catch (TransformerException e) {
+			throw new ConfigurationRuntimeException("Cannot build configuration " + name, e);
+		}
+		catch (ConfigurationException e) {
+			throw new ConfigurationRuntimeException("Cannot build configuration " + name, e);
 		}
-		
-		return 0;
 	}
-	
-	private int expandAttributesIterateElements(NodeList elements, int[] configurationSchema)
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------------- Expansion
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Depth-first expansion. Partially expanded documents wait in a stack
+	 * until they are needed, so only a few documents are kept in memory.
+	 */
+
+	private static class Expansion implements Iterator<XMLConfiguration>
 	{
-		for(int i = 0; i < elements.getLength(); i++)
+		/** Partially expanded documents */
+
+		private final LinkedList<Document> documents = new LinkedList<Document>();
+
+		/** Their names */
+
+		private final LinkedList<String> names = new LinkedList<String>();
+
+		/** Next configuration */
+
+		private XMLConfiguration next;
+
+		Expansion(Document document, String name)
 		{
-			if(elements.item(i) instanceof Element)
-			{
-				Element element = (Element) elements.item(i);
-				
-				if(expandAttributesIterateAtributes(element, configurationSchema) == 1)
-					return 1;
-				
-				expandAttributesIterateElements(element.getChildNodes(), configurationSchema);
-			}
+			documents.push(document);
+			names.push(name);
 		}
-		
-		return 0;
-	}
-	
-	private int expandAttributesIterateAtributes(Element element, int[] configurationSchema)
-	{
-		NamedNodeMap attributes = element.getAttributes();
-		
-		for(int i = 0; i < attributes.getLength(); i++)
+
+		public boolean hasNext()
 		{
-			Node attribute = attributes.item(i);
-			
-			if(attribute.getNodeValue().equals("multi"))
-			{
-				NodeList list = element.getElementsByTagName(attribute.getNodeName());
-				
-				for(int j = 0; j < configurationSchema.length; j++)
-					if(configurationSchema[j] != -1)
-					{
-						attribute.setNodeValue(list.item(configurationSchema[j]).getFirstChild().getNodeValue());
-						configurationSchema[j] = -1;
-						break;
+			while (next == null && !documents.isEmpty()) {
+				Document document = documents.pop();
+				String name = names.pop();
+				Element root = document.getDocumentElement();
+				// Multi-valued elements
+				Element element = findMultiElement(root);
+				if (element != null) {
+					int size = children(element, element.getNodeName()).size();
+					for (int i = size - 1; i >= 0; i--) {
+						Document copy = (Document) document.cloneNode(true);
+						Element multi = findMultiElement(copy.getDocumentElement());
+						multi.getParentNode().replaceChild(children(multi, multi.getNodeName()).get(i), multi);
+						documents.push(copy);
+						names.push(name + "_" + i);
 					}
-			
-				list = element.getChildNodes();
-				
-				for(int j = 0; j < list.getLength(); j++)
-				{
-					if(list.item(j).getNodeName().equals(attribute.getNodeName()))
-					{
-						element.removeChild(list.item(j));
+					continue;
+				}
+				// Multi-valued attributes
+				Attr attribute = findMultiAttribute(root);
+				if (attribute != null) {
+					int size = children(attribute.getOwnerElement(), attribute.getName()).size();
+					for (int i = size - 1; i >= 0; i--) {
+						Document copy = (Document) document.cloneNode(true);
+						Attr multi = findMultiAttribute(copy.getDocumentElement());
+						Element owner = multi.getOwnerElement();
+						List<Element> values = children(owner, multi.getName());
+						multi.setValue(values.get(i).getTextContent().trim());
+						for (Element value : values) {
+							owner.removeChild(value);
+						}
+						documents.push(copy);
+						names.push(name + "_" + i);
 					}
+					continue;
 				}
-				
-				return 1;
+				// Completely expanded
+				next = toConfiguration(document, name);
+			}
+			return next != null;
+		}
+
+		public XMLConfiguration next()
+		{
+			if (!hasNext()) {
+				throw new NoSuchElementException();
 			}
+			XMLConfiguration result = next;
+			next = null;
+			return result;
+		}
+
+		public void remove()
+		{
+			throw new UnsupportedOperationException();
 		}
-		
-		return 0;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,486 @@
+package net.sf.jclec;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.jclec.algorithm.Checkpoint;
+import net.sf.jclec.algorithm.PopulationAlgorithm;
+import net.sf.jclec.base.AbstractParallelEvaluator;
+import net.sf.jclec.base.ProcessEvaluator;
+import net.sf.jclec.util.IndividualStatistics;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.XMLConfiguration;
+
+/**
+ * Executes several experiments (usually, those expanded by ExperimentBuilder)
+ * at the same time.
+ *
+ * Jobs are started in decreasing order of estimated cost (number of
+ * evaluations), so long jobs do not delay the end of the sweep. Each job
+ * uses one thread, or the number of threads of its evaluator if it is an
+ * AbstractParallelEvaluator (number of workers for a ProcessEvaluator). A
+ * job only starts when there are enough free threads in the scheduler
+ * budget, so parallel jobs never oversubscribe the CPU.
+ *
+ * If a results directory is set, a summary of each finished job is written
+ * to it (atomically, so a killed sweep never leaves incomplete results).
+ * Jobs that already have a result are skipped, so a failed or killed sweep
+ * can be resumed running it again.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class ExperimentScheduler
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Extension of job result files */
+
+	public static final String RESULT_EXTENSION = ".result";
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Experiment files */
+
+	protected final List<String> jobFilenames;
+
+	/** Number of jobs executed at the same time (0 means one per thread) */
+
+	protected int numberOfWorkers = 0;
+
+	/** Threads budget (0 means one per available processor) */
+
+	protected int numberOfThreads = 0;
+
+	/** Maximum number of threads used by a job (0 means no limit) */
+
+	protected int threadsPerJob = 0;
+
+	/** Directory for job results (null means no results, no resume) */
+
+	protected File resultsDirectory;
+
+	/** Progress messages stream (null means no messages) */
+
+	protected PrintStream progress = System.out;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Jobs to execute in the current run */
+
+	private int numberOfJobs;
+
+	/** Jobs finished */
+
+	private final AtomicInteger numberOfFinished = new AtomicInteger();
+
+	/** Jobs skipped because they already had a result */
+
+	private int numberOfSkipped;
+
+	/** Jobs that have thrown an exception */
+
+	private final AtomicInteger numberOfFailed = new AtomicInteger();
+
+	/** Free threads of the budget */
+
+	private Semaphore freeThreads;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that sets experiment files.
+	 *
+	 * @param jobFilenames Experiment files
+	 */
+
+	public ExperimentScheduler(List<String> jobFilenames)
+	{
+		super();
+		this.jobFilenames = jobFilenames;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	public final int getNumberOfWorkers()
+	{
+		if (numberOfWorkers > 0) {
+			return numberOfWorkers;
+		}
+		else {
+			return getNumberOfThreads();
+		}
+	}
+
+	public final void setNumberOfWorkers(int numberOfWorkers)
+	{
+		this.numberOfWorkers = numberOfWorkers;
+	}
+
+	public final int getNumberOfThreads()
+	{
+		if (numberOfThreads > 0) {
+			return numberOfThreads;
+		}
+		else {
+			return Runtime.getRuntime().availableProcessors();
+		}
+	}
+
+	public final void setNumberOfThreads(int numberOfThreads)
+	{
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	public final int getThreadsPerJob()
+	{
+		return threadsPerJob;
+	}
+
+	/**
+	 * Sets the maximum number of threads of a job. Parallel evaluators of
+	 * jobs are limited to this number of threads.
+	 *
+	 * @param threadsPerJob Threads per job (0 means no limit)
+	 */
+
+	public final void setThreadsPerJob(int threadsPerJob)
+	{
+		this.threadsPerJob = threadsPerJob;
+	}
+
+	public final File getResultsDirectory()
+	{
+		return resultsDirectory;
+	}
+
+	public final void setResultsDirectory(File resultsDirectory)
+	{
+		this.resultsDirectory = resultsDirectory;
+	}
+
+	public final void setProgress(PrintStream progress)
+	{
+		this.progress = progress;
+	}
+
+	public final int getNumberOfFinished()
+	{
+		return numberOfFinished.get();
+	}
+
+	public final int getNumberOfSkipped()
+	{
+		return numberOfSkipped;
+	}
+
+	public final int getNumberOfFailed()
+	{
+		return numberOfFailed.get();
+	}
+
+	/**
+	 * Result file of a job.
+	 *
+	 * @param jobFilename Experiment file
+	 *
+	 * @return Result file (null if there is no results directory)
+	 */
+
+	public File resultFile(String jobFilename)
+	{
+		if (resultsDirectory == null) {
+			return null;
+		}
+		return new File(resultsDirectory, new File(jobFilename).getName() + RESULT_EXTENSION);
+	}
+
+	/**
+	 * Execute all jobs without result, and wait for them.
+	 *
+	 * @throws InterruptedException If the thread is interrupted while
+	 *         waiting for jobs
+	 */
+
+	public void run() throws InterruptedException
+	{
+		if (resultsDirectory != null) {
+			resultsDirectory.mkdirs();
+		}
+		// Pending jobs, longest first
+		List<Job> jobs = new ArrayList<Job>();
+		numberOfSkipped = 0;
+		for (String jobFilename : jobFilenames) {
+			File result = resultFile(jobFilename);
+			if (result != null && result.exists()) {
+				numberOfSkipped++;
+			}
+			else {
+				jobs.add(new Job(jobFilename));
+			}
+		}
+		Collections.sort(jobs, Collections.reverseOrder());
+		numberOfJobs = jobs.size();
+		numberOfFinished.set(0);
+		numberOfFailed.set(0);
+		report("Executing " + numberOfJobs + " jobs (" + numberOfSkipped + " already finished) with "
+				+ getNumberOfWorkers() + " workers");
+		// Execute jobs
+		freeThreads = new Semaphore(getNumberOfThreads(), true);
+		ExecutorService executor = Executors.newFixedThreadPool(getNumberOfWorkers());
+		for (Job job : jobs) {
+			executor.execute(job);
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			executor.shutdownNow();
+			throw e;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create and configure the algorithm of an experiment file. If the
+	 * algorithm has a CheckpointListener and its checkpoint file exists,
+	 * the algorithm is restored from this checkpoint.
+	 *
+	 * @param jobFile Experiment file
+	 *
+	 * @return Configured algorithm
+	 *
+	 * @throws Exception If the algorithm cannot be created
+	 */
+
+	@SuppressWarnings("unchecked")
+	protected IAlgorithm createAlgorithm(File jobFile) throws Exception
+	{
+		// Job configuration
+		XMLConfiguration jobConf = new XMLConfiguration(jobFile);
+		// Process header
+		String header = "process";
+		// Create and configure algorithms
+		String aname = jobConf.getString(header+"[@algorithm-type]");
+		Class<IAlgorithm> aclass = (Class<IAlgorithm>) Class.forName(aname);
+		IAlgorithm algorithm = aclass.newInstance();
+		// Configure runner
+		if (algorithm instanceof IConfigure) {
+			((IConfigure) algorithm).configure(jobConf.subset(header));
+		}
+		// Resume from the last checkpoint, if any
+		if (algorithm instanceof PopulationAlgorithm) {
+			algorithm = Checkpoint.resume((PopulationAlgorithm) algorithm);
+		}
+		return algorithm;
+	}
+
+	/**
+	 * Estimated cost of an experiment: maximum number of evaluations,
+	 * computed from its population size and maximum number of generations
+	 * and evaluations.
+	 *
+	 * @param settings Process settings
+	 *
+	 * @return Estimated cost
+	 */
+
+	protected long estimateCost(Configuration settings)
+	{
+		long populationSize = settings.getInt("population-size", 1);
+		long maxOfGenerations = settings.getInt("max-of-generations", Integer.MAX_VALUE);
+		long maxOfEvaluations = settings.getInt("max-of-evaluations", Integer.MAX_VALUE);
+		return Math.min(maxOfEvaluations, populationSize * maxOfGenerations);
+	}
+
+	/**
+	 * Number of threads used by an algorithm. The evaluator of a population
+	 * algorithm is limited to the maximum number of threads per job and to
+	 * the threads budget.
+	 *
+	 * @param algorithm Algorithm
+	 *
+	 * @return Number of threads used by the algorithm
+	 */
+
+	protected int assignThreads(IAlgorithm algorithm)
+	{
+		int limit = getNumberOfThreads();
+		if (threadsPerJob > 0) {
+			limit = Math.min(limit, threadsPerJob);
+		}
+		if (algorithm instanceof PopulationAlgorithm) {
+			IEvaluator evaluator = ((PopulationAlgorithm) algorithm).getEvaluator();
+			if (evaluator instanceof AbstractParallelEvaluator) {
+				AbstractParallelEvaluator parallel = (AbstractParallelEvaluator) evaluator;
+				parallel.setNumberOfThreads(Math.min(limit, parallel.getNumberOfThreads()));
+				return parallel.getNumberOfThreads();
+			}
+			if (evaluator instanceof ProcessEvaluator) {
+				ProcessEvaluator process = (ProcessEvaluator) evaluator;
+				process.setNumberOfWorkers(Math.min(limit, process.getNumberOfWorkers()));
+				return process.getNumberOfWorkers();
+			}
+		}
+		return 1;
+	}
+
+	/**
+	 * Write the result of a finished job. The file is written with a
+	 * temporary name and then renamed.
+	 *
+	 * @param jobFilename Experiment file
+	 * @param algorithm Finished algorithm
+	 * @param time Execution time (in milliseconds)
+	 *
+	 * @throws IOException If the result cannot be written
+	 */
+
+	protected void writeResult(String jobFilename, IAlgorithm algorithm, long time) throws IOException
+	{
+		File result = resultFile(jobFilename);
+		if (result == null) {
+			return;
+		}
+		Properties properties = new Properties();
+		properties.setProperty("job", jobFilename);
+		properties.setProperty("time", String.valueOf(time));
+		if (algorithm instanceof PopulationAlgorithm) {
+			PopulationAlgorithm population = (PopulationAlgorithm) algorithm;
+			IEvaluator evaluator = population.getEvaluator();
+			properties.setProperty("generations", String.valueOf(population.getGeneration()));
+			properties.setProperty("evaluations", String.valueOf(evaluator.getNumberOfEvaluations()));
+			List<IIndividual> inhabitants = population.getInhabitants();
+			if (inhabitants != null && !inhabitants.isEmpty()) {
+				IIndividual best = IndividualStatistics.bestIndividual(inhabitants, evaluator.getComparator());
+				properties.setProperty("best-fitness", String.valueOf(best.getFitness()));
+			}
+		}
+		File temporary = new File(result.getPath() + ".tmp");
+		OutputStream out = new FileOutputStream(temporary);
+		try {
+			properties.store(out, null);
+		}
+		finally {
+			out.close();
+		}
+		try {
+			Files.move(temporary.toPath(), result.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(temporary.toPath(), result.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private void report(String message)
+	{
+		if (progress != null) {
+			synchronized (progress) {
+				progress.println(message);
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------------------- Job
+	/////////////////////////////////////////////////////////////////
+
+	private class Job implements Runnable, Comparable<Job>
+	{
+		/** Experiment file */
+
+		private final String jobFilename;
+
+		/** Estimated cost */
+
+		private final long cost;
+
+		Job(String jobFilename)
+		{
+			this.jobFilename = jobFilename;
+			long cost;
+			try {
+				cost = estimateCost(new XMLConfiguration(new File(jobFilename)).subset("process"));
+			}
+			catch (ConfigurationException e) {
+				// It will fail when executed
+				cost = 0;
+			}
+			this.cost = cost;
+		}
+
+		public int compareTo(Job other)
+		{
+			return cost < other.cost ? -1 : (cost == other.cost ? 0 : 1);
+		}
+
+		public void run()
+		{
+			long time = System.currentTimeMillis();
+			int threads = 0;
+			try {
+				File jobFile = new File(jobFilename);
+				if (!jobFile.exists()) {
+					throw new IOException("Job file not found");
+				}
+				IAlgorithm algorithm = createAlgorithm(jobFile);
+				threads = assignThreads(algorithm);
+				freeThreads.acquire(threads);
+				time = System.currentTimeMillis();
+				algorithm.execute();
+				time = System.currentTimeMillis() - time;
+				writeResult(jobFilename, algorithm, time);
+				report("Job " + (numberOfFinished.incrementAndGet() + numberOfFailed.get()) + "/" + numberOfJobs
+						+ " finished: " + jobFilename + " (" + time + " ms)");
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				threads = 0;
+			}
+			catch (Exception e) {
+				report("Job " + (numberOfFinished.get() + numberOfFailed.incrementAndGet()) + "/" + numberOfJobs
+						+ " failed: " + jobFilename + " (" + e + ")");
+			}
+			finally {
+				freeThreads.release(threads);
+			}
+		}
+	}
+}
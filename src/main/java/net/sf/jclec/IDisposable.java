@@ -0,0 +1,18 @@
+package net.sf.jclec;
+
+/**
+ * Object that holds resources (worker threads, child processes, open files...)
+ * that must be released once the algorithm that uses it has finished.
+ *
+ * @author Sebastian Ventura
+ */
+
+public interface IDisposable extends JCLEC
+{
+	/**
+	 * Release all resources held by this object. Objects should be
+	 * able to reacquire them lazily if they are used again.
+	 */
+
+	public void dispose();
+}
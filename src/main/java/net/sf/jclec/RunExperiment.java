@@ -2,9 +2,6 @@ package net.sf.jclec;
 
 import java.io.File;
 
-import org.apache.commons.configuration.ConfigurationException;
-import org.apache.commons.configuration.XMLConfiguration;
-
 /**
  * Experiments runner
  * 
@@ -15,15 +12,17 @@ public class RunExperiment
 {
 	/** Usage message error */
 	
-	private static final String USAGE_MES = "\tnet.sf.jclec.RunExperiment <experiment file>\t\t(Execute experiment)";
+	private static final String USAGE_MES = "\tnet.sf.jclec.RunExperiment <experiment file> [<parallel jobs> [<results directory>]]\t\t(Execute experiment)";
 	
 	/**
 	 * Main method
 	 * 
-	 * @param args Configuration File
+	 * @param args Configuration file and (optionally) number of jobs 
+	 *             executed at the same time and results directory (jobs 
+	 *             with a result in this directory are skipped)
 	 */
 	
-	public static void main(String[] args) 
+	public static void main(String[] args) throws InterruptedException 
 	{
 		if (args.length == 0) {
 			System.out.println("Usage:" + USAGE_MES);
@@ -36,55 +35,14 @@ public class RunExperiment
 			System.out.println("Initializing job");
 			
 			// Expand the processes and execute them
-			for(String experiment : builder.buildExperiment(args[0]))
-			{
-				System.out.println("Algorithm started");
-				executeJob(experiment);
-				System.out.println("Algorithm finished");
+			ExperimentScheduler scheduler = new ExperimentScheduler(builder.buildExperiment(args[0]));
+			scheduler.setNumberOfWorkers(args.length > 1 ? Integer.parseInt(args[1]) : 1);
+			if (args.length > 2) {
+				scheduler.setResultsDirectory(new File(args[2]));
 			}
+			scheduler.run();
 			
 			System.out.println("Job finished");
 		}
 	}
-	
-	/**
-	 * Execute experiment
-	 * 
-	 * @param jobFilename
-	 */
-	
-	@SuppressWarnings("unchecked")
-	private static void executeJob(String jobFilename) 
-	{
-		// Try open job file
-		File jobFile = new File(jobFilename);		
-		if (jobFile.exists()) {
-			try {
-				// Job configuration
-				XMLConfiguration jobConf = new XMLConfiguration(jobFile);
-				// Process header
-				String header = "process";
-				// Create and configure algorithms
-				String aname = jobConf.getString(header+"[@algorithm-type]");
-				Class<IAlgorithm> aclass = (Class<IAlgorithm>) Class.forName(aname);
-				IAlgorithm algorithm = aclass.newInstance();
-				// Configure runner
-				if (algorithm instanceof IConfigure) {
-					((IConfigure) algorithm).configure(jobConf.subset(header));
-				}
-				// Execute algorithm runner
-				algorithm.execute();
-			}
-			catch (ConfigurationException e) {
-				System.out.println("Configuration exception ");
-			}			
-			catch (Exception e) {
-				e.printStackTrace();
-			}			
-		}
-		else {
-			System.out.println("Job file not found");
-			System.exit(1);			
-		}
-	}
 }
\ No newline at end of file
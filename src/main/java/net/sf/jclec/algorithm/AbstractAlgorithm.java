@@ -1,5 +1,7 @@
 package net.sf.jclec.algorithm;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
 
 import net.sf.jclec.IConfigure;
@@ -7,6 +9,8 @@ import net.sf.jclec.IAlgorithm;
 import net.sf.jclec.AlgorithmEvent;
 import net.sf.jclec.IAlgorithmListener;
 
+import net.sf.jclec.util.monitor.AlgorithmMonitor;
+
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationRuntimeException;
 
@@ -28,18 +32,35 @@ public abstract class AbstractAlgorithm implements IAlgorithm, IConfigure
 	protected static final int RUNNING    = 2;
 	protected static final int FINISHED   = 3;
 	protected static final int TERMINATED = 4;
+	protected static final int RESUMED    = 5;
 
 	/** Current algorithm state */
 	
-	protected int state = NEW;
+	protected volatile int state = NEW;
+	
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+	
+	/** Record timings and publish them as an MBean? */
+	
+	protected boolean monitored;
+	
+	/** Monitor name (null for a default name) */
+	
+	protected String monitorName;
 	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------- Internal variables
 	/////////////////////////////////////////////////////////////////
 	
-	/** Registered listeners collection */
+	/** Registered listeners collection (not serialized) */
 
-	protected ArrayList<IAlgorithmListener> listeners = new ArrayList<IAlgorithmListener>();
+	protected transient ArrayList<IAlgorithmListener> listeners = new ArrayList<IAlgorithmListener>();
+	
+	/** Timings monitor (not serialized) */
+	
+	protected transient AlgorithmMonitor monitor;
 	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
@@ -78,6 +99,39 @@ public abstract class AbstractAlgorithm implements IAlgorithm, IConfigure
 		return listeners.remove(listener);
 	}
 
+	// Setting and getting properties
+	
+	public final boolean isMonitored() 
+	{
+		return monitored;
+	}
+
+	public final void setMonitored(boolean monitored) 
+	{
+		this.monitored = monitored;
+	}
+
+	public final String getMonitorName() 
+	{
+		return monitorName;
+	}
+
+	public final void setMonitorName(String monitorName) 
+	{
+		this.monitorName = monitorName;
+	}
+	
+	/**
+	 * Access to the timings monitor of the last execution.
+	 * 
+	 * @return Timings monitor (null if this algorithm is not monitored)
+	 */
+	
+	public final AlgorithmMonitor getMonitor()
+	{
+		return monitor;
+	}
+
 	// Execution methods
 	
 	/**
@@ -106,60 +160,103 @@ public abstract class AbstractAlgorithm implements IAlgorithm, IConfigure
 		
 	public void execute()
 	{
-		do 
-		{
-			switch (state)
+		// Attach monitor to this thread
+		startMonitor();
+		try {
+			do 
 			{
-				case (NEW):
+				switch (state)
 				{
-					// Change current state
-					state = RUNNING;
-					// Call doInit() method
-					doInit();
-					// Fire algorithm started event
-					fireAlgorithmStarted();
-					// Finish this switch
-					break;
+					case (NEW):
+					{
+						// Change current state
+						state = RUNNING;
+						// Call doInit() method
+						long time = monitorTime();
+						doInit();
+						monitorPhase("phase.init", time);
+						// Fire algorithm started event
+						fireAlgorithmStarted();
+						// Finish this switch
+						break;
+					}
+					case (RESUMED):
+					{
+						// Change current state
+						state = RUNNING;
+						// Call doResume() method
+						doResume();
+						// Fire algorithm started event
+						fireAlgorithmStarted();
+						// Finish this switch
+						break;
+					}
+					case (READY):
+					{
+						// Change current state
+						state = RUNNING;
+						// Finish this switch
+						break;
+					}
+					case (RUNNING):
+					{
+						// Perform an iteration
+						long time = monitorTime();
+						doIterate();
+						if (monitor != null) {
+							monitor.recordIteration(System.nanoTime() - time);
+						}
+						// Fire Iteration completed event
+						if (state == RUNNING)
+							fireIterationCompleted();
+						// Finish this switch
+						break;
+					}
 				}
-				case (READY):
-				{
-					// Change current state
-					state = RUNNING;
-					// Finish this switch
-					break;
+			}
+			while (state == RUNNING);
+			// If algorithm has finished...
+			if (state == FINISHED)
+			{
+				// Fire algorithm terminated event
+				fireAlgorithmFinished();
+				// Release resources held by this algorithm
+				doDispose();
+				// Unregister monitor
+				if (monitor != null) {
+					monitor.unregister();
 				}
-				case (RUNNING):
-				{
-					// Perform an iteration
-					doIterate();
-					// Fire Iteration completed event
-					if (state == RUNNING)
-						fireIterationCompleted();
-					// Finish this switch
-					break;
+				// Change current state
+				state = NEW;
+				// Finish this switch
+				return;
+			}
+			// If algorithm was terminated...		
+			if (state == TERMINATED)
+			{
+				// Fire algorithm terminated event
+				fireAlgorithmTerminated();
+				// Release resources held by this algorithm
+				doDispose();
+				// Unregister monitor
+				if (monitor != null) {
+					monitor.unregister();
 				}
+				// Change current state
+				state = NEW;
+				// Finish this switch
+				return;
 			}
 		}
-		while (state == RUNNING);
-		// If algorithm has finished...
-		if (state == FINISHED)
-		{
-			// Fire algorithm terminated event
-			fireAlgorithmFinished();
-			// Change current state
-			state = NEW;
-			// Finish this switch
-			return;
-		}
-		// If algorithm was terminated...		
-		if (state == TERMINATED)
-		{
-			// Fire algorithm terminated event
-			fireAlgorithmTerminated();
-			// Change current state
-			state = NEW;
-			// Finish this switch
-			return;
+		finally {
+			// Detach monitor from this thread (and unregister it if an
+			// exception has stopped the algorithm)
+			if (monitor != null) {
+				monitor.detach();
+				if (state == RUNNING) {
+					monitor.unregister();
+				}
+			}
 		}
 	}
 
@@ -169,11 +266,19 @@ public abstract class AbstractAlgorithm implements IAlgorithm, IConfigure
 	 * {@inheritDoc}
 	 * 
 	 * This method register one or several algorithm listeners to this algorithm.
+	 * If <code>monitor</code> is true, the algorithm records its timings and 
+	 * publishes them as an MBean named <code>monitor-name</code> (see 
+	 * AlgorithmMonitor).
 	 */
 	
 	@SuppressWarnings("unchecked")
 	public void configure(Configuration configuration)
 	{
+		// Monitoring (default off)
+		boolean monitored = configuration.getBoolean("monitor", false);
+		setMonitored(monitored);
+		String monitorName = configuration.getString("monitor-name", null);
+		setMonitorName(monitorName);
 		// Number of defined listeners
 		int numberOfListeners = configuration.getList("listener[@type]").size();
 		// For each listener in list
@@ -223,7 +328,90 @@ public abstract class AbstractAlgorithm implements IAlgorithm, IConfigure
 	 * Perform an algorithm iteration.
 	 */
 	
-	protected abstract void doIterate();	
+	protected abstract void doIterate();
+
+	/**
+	 * Release resources (worker threads, processes...) held by this
+	 * algorithm once its execution has finished or been terminated.
+	 * Default implementation does nothing.
+	 */
+
+	protected void doDispose()
+	{
+	}
+
+	/**
+	 * Recreate the resources of an algorithm that has been deserialized
+	 * in the middle of its execution (see Checkpoint), before going on
+	 * with its next iteration. Default implementation does nothing.
+	 */
+
+	protected void doResume()
+	{
+	}
+	
+	// Monitoring
+	
+	/**
+	 * Create (when the algorithm starts) and attach the timings monitor,
+	 * if this algorithm is monitored.
+	 */
+	
+	protected void startMonitor()
+	{
+		if (!monitored) {
+			return;
+		}
+		if (monitor == null || state == NEW) {
+			monitor = new AlgorithmMonitor(this, monitorName);
+		}
+		monitor.register();
+		monitor.attach();
+	}
+	
+	/**
+	 * Start time of a phase.
+	 * 
+	 * @return Current time (0 if this algorithm is not being monitored)
+	 */
+	
+	protected final long monitorTime()
+	{
+		return (monitor == null) ? 0L : System.nanoTime();
+	}
+	
+	/**
+	 * Record the time of a phase.
+	 * 
+	 * @param phase Timing name
+	 * @param start Phase start time (see monitorTime())
+	 * 
+	 * @return Current time (start time of next phase)
+	 */
+	
+	protected final long monitorPhase(String phase, long start)
+	{
+		if (monitor == null) {
+			return 0L;
+		}
+		long now = System.nanoTime();
+		monitor.record(phase, now - start);
+		return now;
+	}
+	
+	/**
+	 * Record the time of a listener callback.
+	 * 
+	 * @param listener Listener
+	 * @param start Callback start time (see monitorTime())
+	 */
+	
+	private void monitorListener(IAlgorithmListener listener, long start)
+	{
+		if (monitor != null) {
+			monitor.record("listener." + listener.getClass().getSimpleName(), System.nanoTime() - start);
+		}
+	}
 	
 	// Fire events
 	
@@ -232,7 +420,9 @@ public abstract class AbstractAlgorithm implements IAlgorithm, IConfigure
 		AlgorithmEvent event = new AlgorithmEvent(this);
 		
 		for (IAlgorithmListener listener : listeners) {
+			long time = monitorTime();
 			listener.algorithmStarted(event);
+			monitorListener(listener, time);
 		}
 	}
 
@@ -241,7 +431,9 @@ public abstract class AbstractAlgorithm implements IAlgorithm, IConfigure
 		AlgorithmEvent event = new AlgorithmEvent(this);
 		
 		for (IAlgorithmListener listener : listeners) {
+			long time = monitorTime();
 			listener.iterationCompleted(event);
+			monitorListener(listener, time);
 		}
 	}
 	
@@ -250,7 +442,9 @@ public abstract class AbstractAlgorithm implements IAlgorithm, IConfigure
 		AlgorithmEvent event = new AlgorithmEvent(this);
 		
 		for (IAlgorithmListener listener : listeners) {
+			long time = monitorTime();
 			listener.algorithmFinished(event);
+			monitorListener(listener, time);
 		}
 	}
 
@@ -259,7 +453,27 @@ public abstract class AbstractAlgorithm implements IAlgorithm, IConfigure
 		AlgorithmEvent event = new AlgorithmEvent(this);
 		
 		for (IAlgorithmListener listener : listeners) {
+			long time = monitorTime();
 			listener.algorithmTerminated(event);
+			monitorListener(listener, time);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Listeners are not serialized. An algorithm serialized while it was
+	 * running is resumed the next time execute() is called.
+	 */
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+		listeners = new ArrayList<IAlgorithmListener>();
+		if (state == RUNNING || state == READY) {
+			state = RESUMED;
 		}
 	}
 }
@@ -0,0 +1,205 @@
+package net.sf.jclec.algorithm;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import net.sf.jclec.IAlgorithmListener;
+
+import net.sf.jclec.listener.CheckpointListener;
+
+/**
+ * Saves and restores the complete state of a running PopulationAlgorithm.
+ *
+ * A checkpoint is the serialized algorithm: generation counter, current
+ * population, evaluator counters, operators (with their random generators)
+ * and random generators factory. Listeners are not saved. An algorithm
+ * read from a checkpoint goes on with the next generation when execute()
+ * is called (its listeners receive the algorithmStarted event again), and
+ * produces the same individuals as the original run would have produced.
+ * Fitness cache contents and sons being evaluated asynchronously are not
+ * saved.
+ *
+ * The file format is a header (magic number and version) followed by the
+ * compressed serialized algorithm. Files are always written with a
+ * temporary name and then renamed, so a checkpoint is never left half
+ * written.
+ *
+ * @author Sebastian Ventura
+ */
+
+public final class Checkpoint
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Checkpoint files magic number */
+
+	private static final int MAGIC = 0x4A434B50;
+
+	/** Checkpoint format version */
+
+	private static final int VERSION = 1;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Static methods only.
+	 */
+
+	private Checkpoint()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------ Class methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Take a snapshot of an algorithm. This method must be called between
+	 * two iterations (for instance, from an iterationCompleted event).
+	 *
+	 * @param algorithm Algorithm
+	 *
+	 * @return Serialized algorithm (not compressed)
+	 *
+	 * @throws IOException If the algorithm cannot be serialized
+	 */
+
+	public static byte [] snapshot(PopulationAlgorithm algorithm) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(algorithm);
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Write a snapshot to a checkpoint file, replacing it atomically.
+	 *
+	 * @param snapshot Algorithm snapshot
+	 * @param file Checkpoint file
+	 *
+	 * @throws IOException If the file cannot be written
+	 */
+
+	public static void write(byte [] snapshot, File file) throws IOException
+	{
+		File temporary = new File(file.getPath() + ".tmp");
+		OutputStream stream = new FileOutputStream(temporary);
+		try {
+			DataOutputStream out = new DataOutputStream(stream);
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			GZIPOutputStream zip = new GZIPOutputStream(out);
+			zip.write(snapshot);
+			zip.finish();
+			out.flush();
+		}
+		finally {
+			stream.close();
+		}
+		try {
+			Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Write a checkpoint of an algorithm (in the calling thread).
+	 *
+	 * @param algorithm Algorithm
+	 * @param file Checkpoint file
+	 *
+	 * @throws IOException If the checkpoint cannot be written
+	 */
+
+	public static void write(PopulationAlgorithm algorithm, File file) throws IOException
+	{
+		write(snapshot(algorithm), file);
+	}
+
+	/**
+	 * Read an algorithm from a checkpoint file.
+	 *
+	 * @param file Checkpoint file
+	 *
+	 * @return Algorithm ready to be resumed
+	 *
+	 * @throws IOException If the file cannot be read or is not a checkpoint
+	 */
+
+	public static PopulationAlgorithm read(File file) throws IOException
+	{
+		InputStream stream = new FileInputStream(file);
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a checkpoint file: " + file);
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported checkpoint version: " + version);
+			}
+			ObjectInputStream objects = new ObjectInputStream(new GZIPInputStream(in));
+			return (PopulationAlgorithm) objects.readObject();
+		}
+		catch (ClassNotFoundException e) {
+			throw new IOException("Unknown class in checkpoint", e);
+		}
+		finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * If a configured algorithm has a CheckpointListener and its checkpoint
+	 * file exists, read the algorithm from this file and register on it all
+	 * listeners of the configured one.
+	 *
+	 * @param algorithm Configured algorithm
+	 *
+	 * @return The algorithm read, or the configured one if there is no
+	 *         checkpoint
+	 *
+	 * @throws IOException If the checkpoint cannot be read
+	 */
+
+	public static PopulationAlgorithm resume(PopulationAlgorithm algorithm) throws IOException
+	{
+		for (IAlgorithmListener listener : algorithm.listeners) {
+			if (listener instanceof CheckpointListener) {
+				File file = ((CheckpointListener) listener).getCheckpointFile();
+				if (file != null && file.exists()) {
+					PopulationAlgorithm resumed = read(file);
+					for (IAlgorithmListener other : algorithm.listeners) {
+						resumed.addListener(other);
+					}
+					return resumed;
+				}
+			}
+		}
+		return algorithm;
+	}
+}
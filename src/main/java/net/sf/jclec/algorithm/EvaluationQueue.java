@@ -0,0 +1,375 @@
+package net.sf.jclec.algorithm;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.jclec.IDisposable;
+import net.sf.jclec.IEvaluator;
+import net.sf.jclec.IIndividual;
+
+/**
+ * Bounded queue of offspring batches that are evaluated in background.
+ *
+ * Batches are submitted by the algorithm thread and evaluated by worker
+ * threads (one for each batch that can be in the queue). Evaluated batches
+ * are returned by take() in the order in which their evaluation finishes.
+ * The evaluator used must support calls to evaluate() from several threads
+ * at the same time.
+ *
+ * This queue also measures its throughput (individuals evaluated by second)
+ * and the time that the algorithm waits in take() for evaluated batches.
+ * Since each batch has its own worker, batches never wait for a worker;
+ * a long wait in take() means that evaluation is slower than breeding.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class EvaluationQueue implements IDisposable
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 4920350913752084107L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Individuals evaluator */
+
+	protected final IEvaluator evaluator;
+
+	/** Maximum number of batches in the queue */
+
+	protected final int capacity;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Evaluation executor */
+
+	private transient ExecutorService executor;
+
+	/** Evaluated batches */
+
+	private transient CompletionService<Batch> completed;
+
+	/** Batches submitted and not taken yet */
+
+	private int size;
+
+	/** Time of the first submission (in nanoseconds) */
+
+	private long startTime = -1;
+
+	/** Time of the last batch taken (in nanoseconds) */
+
+	private long lastTime;
+
+	/** Number of batches taken */
+
+	private long numberOfBatches;
+
+	/** Number of individuals in the batches taken */
+
+	private long numberOfIndividuals;
+
+	/** Sum of times blocked in take() (in nanoseconds) */
+
+	private long waitTime;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that sets the evaluator and queue capacity.
+	 *
+	 * @param evaluator Individuals evaluator
+	 * @param capacity Maximum number of batches in the queue
+	 */
+
+	public EvaluationQueue(IEvaluator evaluator, int capacity)
+	{
+		super();
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Queue capacity must be positive");
+		}
+		this.evaluator = evaluator;
+		this.capacity = capacity;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Getting properties
+
+	public final IEvaluator getEvaluator()
+	{
+		return evaluator;
+	}
+
+	public final int getCapacity()
+	{
+		return capacity;
+	}
+
+	// Queue management
+
+	/**
+	 * Number of batches submitted and not taken yet.
+	 *
+	 * @return Queue size
+	 */
+
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Check if a new batch can be submitted.
+	 *
+	 * @return true if the queue is full
+	 */
+
+	public boolean isFull()
+	{
+		return size >= capacity;
+	}
+
+	/**
+	 * Submit a batch of individuals to evaluate.
+	 *
+	 * @param parents Parents of the individuals to evaluate. They are not
+	 *                evaluated, only stored with their sons
+	 * @param sons Individuals to evaluate
+	 *
+	 * @throws IllegalStateException If the queue is full
+	 */
+
+	public void submit(List<IIndividual> parents, List<IIndividual> sons)
+	{
+		if (isFull()) {
+			throw new IllegalStateException("Evaluation queue is full");
+		}
+		if (startTime < 0) {
+			startTime = System.nanoTime();
+		}
+		completionService().submit(new Batch(parents, sons));
+		size++;
+	}
+
+	/**
+	 * Wait until the evaluation of any batch finishes.
+	 *
+	 * @return Evaluated batch
+	 *
+	 * @throws IllegalStateException If the queue is empty or the thread
+	 *         is interrupted while waiting
+	 */
+
+	public Batch take()
+	{
+		if (size == 0) {
+			throw new IllegalStateException("Evaluation queue is empty");
+		}
+		Batch batch;
+		long takeTime = System.nanoTime();
+		try {
+			batch = completed.take().get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Asynchronous evaluation interrupted", e);
+		}
+		catch (ExecutionException e) {
+			size--;
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Asynchronous evaluation failed", cause);
+		}
+		size--;
+		// Update statistics
+		lastTime = System.nanoTime();
+		numberOfBatches++;
+		numberOfIndividuals += batch.sons.size();
+		waitTime += lastTime - takeTime;
+		return batch;
+	}
+
+	// Statistics
+
+	/**
+	 * Number of batches evaluated and taken from this queue.
+	 *
+	 * @return Number of batches
+	 */
+
+	public long getNumberOfBatches()
+	{
+		return numberOfBatches;
+	}
+
+	/**
+	 * Number of individuals in the batches taken from this queue.
+	 *
+	 * @return Number of evaluated individuals
+	 */
+
+	public long getNumberOfIndividuals()
+	{
+		return numberOfIndividuals;
+	}
+
+	/**
+	 * Throughput of this queue, from the first submission to the last
+	 * batch taken.
+	 *
+	 * @return Evaluated individuals by second
+	 */
+
+	public double getThroughput()
+	{
+		if (numberOfIndividuals == 0 || lastTime <= startTime) {
+			return 0.0;
+		}
+		return 1.0e9 * numberOfIndividuals / (lastTime - startTime);
+	}
+
+	/**
+	 * Average time that take() blocks until the evaluation of a batch
+	 * finishes, that is, the time the algorithm waits for evaluations.
+	 *
+	 * @return Average wait time (in milliseconds)
+	 */
+
+	public double getAverageWaitTime()
+	{
+		if (numberOfBatches == 0) {
+			return 0.0;
+		}
+		return 1.0e-6 * waitTime / numberOfBatches;
+	}
+
+	// IDisposable interface
+
+	/**
+	 * Shut down the worker threads. Batches that have not been taken are
+	 * discarded. Statistics are kept.
+	 */
+
+	public synchronized void dispose()
+	{
+		if (executor != null) {
+			executor.shutdown();
+			try {
+				if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+					executor.shutdownNow();
+				}
+			}
+			catch (InterruptedException e) {
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+			executor = null;
+			completed = null;
+			size = 0;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private synchronized CompletionService<Batch> completionService()
+	{
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(capacity, new WorkerFactory());
+			completed = new ExecutorCompletionService<Batch>(executor);
+		}
+		return completed;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Evaluation batch
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Individuals evaluated together, and their parents.
+	 */
+
+	public final class Batch implements Callable<Batch>
+	{
+		/** Parents of evaluated individuals */
+
+		private final List<IIndividual> parents;
+
+		/** Individuals to evaluate */
+
+		private final List<IIndividual> sons;
+
+		Batch(List<IIndividual> parents, List<IIndividual> sons)
+		{
+			this.parents = parents;
+			this.sons = sons;
+		}
+
+		public List<IIndividual> getParents()
+		{
+			return parents;
+		}
+
+		public List<IIndividual> getSons()
+		{
+			return sons;
+		}
+
+		public Batch call()
+		{
+			evaluator.evaluate(sons);
+			return this;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Worker factory
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Creates daemon worker threads, so a queue that has not been disposed
+	 * never prevents the JVM from exiting.
+	 */
+
+	private static class WorkerFactory implements ThreadFactory
+	{
+		private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+		private final int pool = POOL_COUNTER.incrementAndGet();
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		public Thread newThread(Runnable task)
+		{
+			Thread thread = new Thread(task, "jclec-evaluation-queue-" + pool + "-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -6,11 +6,14 @@ import net.sf.jclec.ISpecies;
 import net.sf.jclec.IProvider;
 import net.sf.jclec.IEvaluator;
 import net.sf.jclec.IConfigure;
+import net.sf.jclec.IDisposable;
 import net.sf.jclec.IIndividual;
 import net.sf.jclec.IPopulation;
 
 import net.sf.jclec.util.random.IRandGen;
 import net.sf.jclec.util.random.IRandGenFactory;
+import net.sf.jclec.util.random.IStreamRandGenFactory;
+import net.sf.jclec.util.random.SplitRandGenFactory;
 
 
 import org.apache.commons.lang.builder.EqualsBuilder;
@@ -25,7 +28,7 @@ import org.apache.commons.configuration.ConfigurationRuntimeException;
  */
 
 @SuppressWarnings("serial")
-public abstract class PopulationAlgorithm extends AbstractAlgorithm implements IPopulation 
+public abstract class PopulationAlgorithm extends AbstractAlgorithm implements IPopulation, IStreamRandGenFactory 
 {
 	/////////////////////////////////////////////////////////////////
 	// --------------------------------------------------- Properties
@@ -35,6 +38,10 @@ public abstract class PopulationAlgorithm extends AbstractAlgorithm implements I
 	
 	protected IRandGenFactory randGenFactory;
 	
+	/** Random stream (negative if all generators are taken from factory) */
+	
+	protected long randGenStream = -1;
+	
 	/** Individual species */
 	
 	protected ISpecies species;
@@ -83,6 +90,10 @@ public abstract class PopulationAlgorithm extends AbstractAlgorithm implements I
 	
 	protected transient List<IIndividual> rset;
 
+	/** Factory of the generators of the random stream */
+	
+	private IRandGenFactory streamFactory;
+
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
 	/////////////////////////////////////////////////////////////////
@@ -144,6 +155,20 @@ public abstract class PopulationAlgorithm extends AbstractAlgorithm implements I
 		this.bset = inhabitants;
 	}
 
+	/**
+	 * Adds individuals coming from outside the algorithm (for instance,
+	 * the immigrants of an island model) to the current population.
+	 * Algorithms that keep information derived from their inhabitants
+	 * must override this method to update it.
+	 *
+	 * @param immigrants Evaluated individuals to add
+	 */
+
+	public void acceptImmigrants(List<IIndividual> immigrants)
+	{
+		bset.addAll(immigrants);
+	}
+
 	public IRandGenFactory getRandGenFactory() 
 	{
 		return randGenFactory;
@@ -152,6 +177,30 @@ public abstract class PopulationAlgorithm extends AbstractAlgorithm implements I
 	public void setRandGenFactory(IRandGenFactory randGenFactory) 
 	{
 		this.randGenFactory = randGenFactory;
+		this.streamFactory = null;
+	}
+
+	public final long getRandGenStream() 
+	{
+		return randGenStream;
+	}
+
+	/**
+	 * Sets the random stream of this algorithm. If the random generators 
+	 * factory provides streams (see IStreamRandGenFactory), all generators
+	 * are taken from the given stream, so algorithms with the same factory
+	 * settings and different streams have independent generators. It must
+	 * be set before the generators of the algorithm components are created
+	 * (for instance, before configure()).
+	 * 
+	 * @param randGenStream Stream identifier (negative to take generators
+	 *                      directly from the factory)
+	 */
+
+	public void setRandGenStream(long randGenStream) 
+	{
+		this.randGenStream = randGenStream;
+		this.streamFactory = null;
 	}
 	
 	public final IProvider getProvider() 
@@ -206,7 +255,23 @@ public abstract class PopulationAlgorithm extends AbstractAlgorithm implements I
 	
 	public IRandGen createRandGen() 
 	{
-		return randGenFactory.createRandGen();
+		return streamFactory().createRandGen();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * If the random generators factory does not provide streams, returns
+	 * the next generator of the factory.
+	 */
+	
+	public IRandGen createRandGen(long stream) 
+	{
+		IRandGenFactory factory = streamFactory();
+		if (factory instanceof IStreamRandGenFactory) {
+			return ((IStreamRandGenFactory) factory).createRandGen(stream);
+		}
+		return factory.createRandGen();
 	}
 	
 	// IConfigure interface
@@ -425,6 +490,26 @@ public abstract class PopulationAlgorithm extends AbstractAlgorithm implements I
 	// -------------------------------------------- Protected methods
 	/////////////////////////////////////////////////////////////////
 
+	/**
+	 * Factory of the generators of this algorithm: a split of the random
+	 * generators factory if a stream has been set, or the factory itself.
+	 * 
+	 * @return Generators factory
+	 */
+
+	protected synchronized IRandGenFactory streamFactory()
+	{
+		if (streamFactory == null) {
+			if (randGenStream >= 0 && randGenFactory instanceof IStreamRandGenFactory) {
+				streamFactory = new SplitRandGenFactory((IStreamRandGenFactory) randGenFactory, randGenStream);
+			}
+			else {
+				streamFactory = randGenFactory;
+			}
+		}
+		return streamFactory;
+	}
+
 	// Execution methods
 	
 	/**
@@ -451,19 +536,41 @@ public abstract class PopulationAlgorithm extends AbstractAlgorithm implements I
 	protected void doIterate() 
 	{
 		generation++;
+		// Phases start time
+		long time = monitorTime();
 		// Do selection
 		doSelection();
+		time = monitorPhase("phase.selection", time);
 		// Do generation
 		doGeneration();
+		time = monitorPhase("phase.generation", time);
 		// Do replacement
 		doReplacement();
+		time = monitorPhase("phase.replacement", time);
 		// Do update
 		doUpdate();
+		time = monitorPhase("phase.update", time);
 		// Do control
 		doControl();
+		monitorPhase("phase.control", time);
 		// Increments generation counter
 	}
 			
+	/**
+	 * Dispose the evaluator if it holds any resource (for instance,
+	 * the worker threads of a parallel evaluator).
+	 *
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	protected void doDispose()
+	{
+		if (evaluator instanceof IDisposable) {
+			((IDisposable) evaluator).dispose();
+		}
+	}
+
 	/**
 	 * Select individuals to be breeded. 
 	 */
@@ -0,0 +1,269 @@
+package net.sf.jclec.algorithm;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+import org.apache.commons.configuration.Configuration;
+
+/**
+ * Population algorithm that replaces a few individuals in each iteration
+ * (steady state and generation gap algorithms).
+ *
+ * By default, the sons generated in each iteration are evaluated before
+ * replacement. If evaluationsInFlight is greater than zero, evaluation is
+ * asynchronous: the algorithm keeps that number of batches of sons in an
+ * evaluation queue, and each batch is inserted in the population (using
+ * the doReplacement() and doUpdate() methods) as soon as its evaluation
+ * finishes. In this case, each iteration inserts one batch of sons.
+ *
+ * @author Sebastian Ventura
+ */
+
+@SuppressWarnings("serial")
+public abstract class SteadyStateAlgorithm extends PopulationAlgorithm
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of batches evaluated at the same time (0 if synchronous) */
+
+	protected int evaluationsInFlight;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Evaluation queue (only used in asynchronous mode) */
+
+	protected transient EvaluationQueue evaluationQueue;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty (default) constructor
+	 */
+
+	public SteadyStateAlgorithm()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Getting and setting properties
+
+	public final int getEvaluationsInFlight()
+	{
+		return evaluationsInFlight;
+	}
+
+	/**
+	 * Sets the number of batches evaluated at the same time. This change
+	 * takes effect the next time the algorithm is initialized.
+	 *
+	 * @param evaluationsInFlight Number of batches (0 for synchronous
+	 *                            evaluation)
+	 */
+
+	public final void setEvaluationsInFlight(int evaluationsInFlight)
+	{
+		this.evaluationsInFlight = evaluationsInFlight;
+	}
+
+	/**
+	 * Check if sons are evaluated asynchronously.
+	 *
+	 * @return true if evaluationsInFlight is greater than zero
+	 */
+
+	public final boolean isAsynchronous()
+	{
+		return evaluationsInFlight > 0;
+	}
+
+	/**
+	 * Access to the evaluation queue, which reports evaluation throughput
+	 * and the time waited for evaluations.
+	 *
+	 * @return Evaluation queue (null if evaluation is synchronous)
+	 */
+
+	public final EvaluationQueue getEvaluationQueue()
+	{
+		return evaluationQueue;
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for SteadyStateAlgorithm are (besides those
+	 * of PopulationAlgorithm):
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>evaluations-in-flight (int)</code></p>
+	 * Number of batches of sons evaluated at the same time. Default value
+	 * is 0 (sons are evaluated synchronously). If greater than zero, the
+	 * evaluator must support being called from several threads
+	 * </li>
+	 * </ul>
+	 */
+
+	public void configure(Configuration configuration)
+	{
+		// Call super.configure() method
+		super.configure(configuration);
+		// Evaluations in flight
+		int evaluationsInFlight = configuration.getInt("evaluations-in-flight", 0);
+		setEvaluationsInFlight(evaluationsInFlight);
+	}
+
+	// java.lang.Object methods
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof SteadyStateAlgorithm) {
+			SteadyStateAlgorithm cother = (SteadyStateAlgorithm) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			// Call super method
+			eb.appendSuper(super.equals(other));
+			// Evaluations in flight
+			eb.append(evaluationsInFlight, cother.evaluationsInFlight);
+			// Return test result
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	// Execution methods
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * In asynchronous mode, creates the evaluation queue.
+	 */
+
+	@Override
+	protected void doInit()
+	{
+		// Call super method
+		super.doInit();
+		// Create evaluation queue
+		if (isAsynchronous()) {
+			evaluationQueue = new EvaluationQueue(evaluator, evaluationsInFlight);
+		}
+		else {
+			evaluationQueue = null;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * In asynchronous mode, creates a new (empty) evaluation queue. Sons
+	 * that were being evaluated when the algorithm was serialized are not
+	 * recovered.
+	 */
+
+	@Override
+	protected void doResume()
+	{
+		// Call super method
+		super.doResume();
+		// Create evaluation queue
+		if (isAsynchronous()) {
+			evaluationQueue = new EvaluationQueue(evaluator, evaluationsInFlight);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * In asynchronous mode, fills the evaluation queue with new batches of
+	 * sons and then inserts the first batch evaluated.
+	 */
+
+	@Override
+	protected void doIterate()
+	{
+		if (evaluationQueue == null) {
+			super.doIterate();
+			return;
+		}
+		generation++;
+		// Phases start time
+		long time = monitorTime();
+		// Fill evaluation queue
+		while (!evaluationQueue.isFull()) {
+			// Do selection
+			doSelection();
+			time = monitorPhase("phase.selection", time);
+			// Do breeding
+			doBreeding();
+			// Submit sons to evaluation
+			evaluationQueue.submit(pset, cset);
+			time = monitorPhase("phase.generation", time);
+		}
+		// Take first batch evaluated
+		EvaluationQueue.Batch batch = evaluationQueue.take();
+		pset = batch.getParents();
+		cset = batch.getSons();
+		time = monitorPhase("phase.evaluation-wait", time);
+		// Do replacement
+		doReplacement();
+		time = monitorPhase("phase.replacement", time);
+		// Do update
+		doUpdate();
+		time = monitorPhase("phase.update", time);
+		// Do control
+		doControl();
+		monitorPhase("phase.control", time);
+	}
+
+	/**
+	 * Generate new individuals from parents and evaluate them.
+	 */
+
+	@Override
+	protected void doGeneration()
+	{
+		// Generate sons
+		doBreeding();
+		// Evaluate all new individuals
+		evaluator.evaluate(cset);
+	}
+
+	/**
+	 * Generate new individuals (cset) from parents (pset), without
+	 * evaluating them.
+	 */
+
+	protected abstract void doBreeding();
+
+	/**
+	 * Shut down the evaluation queue (discarding sons not inserted yet)
+	 * before disposing the evaluator.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	protected void doDispose()
+	{
+		if (evaluationQueue != null) {
+			evaluationQueue.dispose();
+		}
+		super.doDispose();
+	}
+}
@@ -75,15 +75,15 @@ public class CHC extends PopulationAlgorithm
 
 	/** Random generator (used to shuffle bset) */
 	
-	private transient IRandGen randgen;
+	private IRandGen randgen;
 	
 	/** Actual value of distance parameter */
 	
-	private transient int d;
+	private int d;
 	
 	/** Best individuals selector */
 	
-	private transient BettersSelector bettersSelector = new BettersSelector(this);
+	private BettersSelector bettersSelector = new BettersSelector(this);
 	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
@@ -117,7 +117,7 @@ public class CHC extends PopulationAlgorithm
 		// Call super method
 		super.setRandGenFactory(randGenFactory);
 		// Set the random generator
-		randgen = randGenFactory.createRandGen();
+		randgen = createRandGen();
 	}
 
 	/**
@@ -1,5 +1,7 @@
 package net.sf.jclec.algorithm.classic;
 
+import java.util.Iterator;
+
 import net.sf.jclec.IMutator;
 import net.sf.jclec.ISelector;
 import net.sf.jclec.IConfigure;
@@ -9,7 +11,7 @@ import net.sf.jclec.IRecombinator;
 import net.sf.jclec.base.FilteredMutator;
 import net.sf.jclec.base.FilteredRecombinator;
 
-import net.sf.jclec.algorithm.PopulationAlgorithm;
+import net.sf.jclec.algorithm.SteadyStateAlgorithm;
 
 import net.sf.jclec.selector.BettersSelector;
 
@@ -24,7 +26,7 @@ import org.apache.commons.configuration.ConfigurationRuntimeException;
  * @author Sebastian Ventura
  */
 
-public class SS extends PopulationAlgorithm 
+public class SS extends SteadyStateAlgorithm 
 {
 	/////////////////////////////////////////////////////////////////
 	// --------------------------------------- Serialization constant
@@ -279,7 +281,7 @@ public class SS extends PopulationAlgorithm
 	}
 
 	@Override
-	protected void doGeneration() 
+	protected void doBreeding() 
 	{
 		// Recombine parents
 		cset = recombinator.recombine(pset);
@@ -291,28 +293,32 @@ public class SS extends PopulationAlgorithm
 			for (IIndividual sterile : fmutator.getSterile()) 
 				cset.add(sterile.copy());
 		}
-		// Evaluate all new individuals
-		evaluator.evaluate(cset);
 	}
 
 	@Override
 	protected void doReplacement() 
 	{
-		// Remove all parents from bset
-		for (IIndividual ind : pset) {
-			bset.remove(ind);
+		// Remove all parents from bset. In asynchronous mode, parents
+		// replaced while their sons were evaluated are not in bset, so 
+		// they are not taken into account
+		for (Iterator<IIndividual> it = pset.iterator(); it.hasNext(); ) {
+			if (!bset.remove(it.next()) && isAsynchronous()) {
+				it.remove();
+			}
 		}
 	}
 
 	@Override
 	protected void doUpdate() 
 	{
+		// Number of individuals to insert
+		int size = isAsynchronous() ? pset.size() : numberOfParents;
 		// Adding parents to cset 
 		for (IIndividual ind : pset) {
 			cset.add(ind);
 		}		
 		// Selecting best individuals in bset
-		cset = bettersSelector.select(cset, numberOfParents);		
+		cset = bettersSelector.select(cset, size);		
 		// Add selected individuals to bset
 		bset.addAll(cset);
 		// Cleaning cset, pset
@@ -10,7 +10,7 @@ import net.sf.jclec.selector.RandomSelector;
 import net.sf.jclec.selector.BettersSelector;
 import net.sf.jclec.selector.RouletteSelector;
 
-import net.sf.jclec.algorithm.PopulationAlgorithm;
+import net.sf.jclec.algorithm.SteadyStateAlgorithm;
 import net.sf.jclec.base.RepeatRecombinator;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
@@ -26,7 +26,7 @@ import org.apache.commons.configuration.ConfigurationRuntimeException;
  * @author Carlos Garcia-Martinez
  */
 
-public class G3 extends PopulationAlgorithm 
+public class G3 extends SteadyStateAlgorithm 
 {
 	/////////////////////////////////////////////////////////////////
 	// --------------------------------------- Serialization constant
@@ -62,19 +62,19 @@ public class G3 extends PopulationAlgorithm
 	
 	/** Selector used in selection plan */
 	
-	protected transient RandomSelector parentsSelector;
+	protected RandomSelector parentsSelector;
 	
 	/** Selector used in replacement plan (random selector without repetition) */
 	
-	protected transient RandomSelector replacementSelector; 
+	protected RandomSelector replacementSelector; 
 
 	/** Selector used in update plan */ 
 
-	protected transient RouletteSelector updateSelector;
+	protected RouletteSelector updateSelector;
 	
 	/** Selector used in update plan */
 	
-	protected transient BettersSelector bettersSelector;	
+	protected BettersSelector bettersSelector;	
 
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
@@ -327,12 +327,10 @@ public class G3 extends PopulationAlgorithm
 	}
 
 	@Override
-	protected void doGeneration() 
+	protected void doBreeding() 
 	{
 		// Recombine parents
 		cset = recombinator.recombine(pset);
-		// Evaluate all new individuals
-		evaluator.evaluate(cset);
 	}
 
 	@Override
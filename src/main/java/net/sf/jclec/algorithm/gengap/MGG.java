@@ -8,7 +8,7 @@ import net.sf.jclec.selector.BettersSelector;
 import net.sf.jclec.selector.RandomSelector;
 import net.sf.jclec.selector.RouletteSelector;
 
-import net.sf.jclec.algorithm.PopulationAlgorithm;
+import net.sf.jclec.algorithm.SteadyStateAlgorithm;
 import net.sf.jclec.base.RepeatRecombinator;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
@@ -24,7 +24,7 @@ import org.apache.commons.configuration.ConfigurationRuntimeException;
  * @author Carlos Garcia-Martinez
  */
 
-public class MGG extends PopulationAlgorithm 
+public class MGG extends SteadyStateAlgorithm 
 {
 	/////////////////////////////////////////////////////////////////
 	// --------------------------------------- Serialization constant
@@ -56,15 +56,15 @@ public class MGG extends PopulationAlgorithm
 	
 	/** Parents selector */
 	
-	protected transient RandomSelector parentsSelector;
+	protected RandomSelector parentsSelector;
 	
 	/** Selector used in update plan (take the best son produced) */
 	
-	protected transient BettersSelector bettersSelector;	
+	protected BettersSelector bettersSelector;	
 
 	/** Selector used in update plan */ 
 
-	protected transient RouletteSelector updateSelector;
+	protected RouletteSelector updateSelector;
 	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
@@ -283,12 +283,10 @@ public class MGG extends PopulationAlgorithm
 	}
 
 	@Override
-	protected void doGeneration() 
+	protected void doBreeding() 
 	{
 		// Recombine parents
 		cset = recombinator.recombine(pset);
-		// Evaluate all new individuals
-		evaluator.evaluate(cset);
 	}
 
 	@Override
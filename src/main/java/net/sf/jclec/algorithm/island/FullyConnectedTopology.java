@@ -0,0 +1,61 @@
+package net.sf.jclec.algorithm.island;
+
+import net.sf.jclec.util.random.IRandGen;
+
+/**
+ * Fully connected topology. Each island sends its migrants to all the
+ * other islands.
+ * 
+ * @author Sebastian Ventura
+ */
+
+public class FullyConnectedTopology implements IMigrationTopology
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 6204387118873021541L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty (default) constructor
+	 */
+	
+	public FullyConnectedTopology() 
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// IMigrationTopology interface
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	public int [] destinations(int island, int numberOfIslands, IRandGen randgen) 
+	{
+		int [] result = new int[Math.max(0, numberOfIslands - 1)];
+		for (int i=0, j=0; i<numberOfIslands; i++) {
+			if (i != island) {
+				result[j++] = i;
+			}
+		}
+		return result;
+	}
+
+	// java.lang.Object methods
+	
+	@Override
+	public boolean equals(Object other)
+	{
+		return other instanceof FullyConnectedTopology;
+	}
+}
@@ -0,0 +1,26 @@
+package net.sf.jclec.algorithm.island;
+
+import net.sf.jclec.JCLEC;
+
+import net.sf.jclec.util.random.IRandGen;
+
+/**
+ * Migration topology of an island model.
+ * 
+ * @author Sebastian Ventura
+ */
+
+public interface IMigrationTopology extends JCLEC
+{
+	/**
+	 * Islands that receive the migrants of one island.
+	 * 
+	 * @param island Island that sends migrants
+	 * @param numberOfIslands Number of islands in the model
+	 * @param randgen Random generator (used by random topologies)
+	 * 
+	 * @return Destination islands (that never include the source island)
+	 */
+	
+	public int [] destinations(int island, int numberOfIslands, IRandGen randgen);
+}
@@ -0,0 +1,447 @@
+package net.sf.jclec.algorithm.island;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import net.sf.jclec.IDisposable;
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.util.IndividualCodec;
+import net.sf.jclec.util.random.IRandGen;
+
+/**
+ * Coordinator of islands running in other processes (see IslandWorker).
+ *
+ * Islands connect to this coordinator through TCP. In each migration,
+ * an island sends its emigrants and its best individual, and receives
+ * the immigrants stored for it (that can be none) and a stop flag. The
+ * coordinator answers immediately, so islands never wait for each other.
+ *
+ * The coordinator keeps the best individual found by all islands, and
+ * asks islands to stop as soon as any of them reports an individual with
+ * acceptable fitness (or terminate() is called).
+ *
+ * @author Sebastian Ventura
+ */
+
+public class IslandCoordinator implements IDisposable
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -2047617320416231489L;
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Message types
+	/////////////////////////////////////////////////////////////////
+
+	/** Migration request (island to coordinator) */
+
+	static final byte MIGRATE = 1;
+
+	/** Island finished (island to coordinator) */
+
+	static final byte FINISH = 2;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of islands */
+
+	protected final int numberOfIslands;
+
+	/** Migration topology */
+
+	protected final IMigrationTopology topology;
+
+	/** Fitness comparator (used to find the best individual) */
+
+	protected final Comparator<IFitness> comparator;
+
+	/** Random generator used by topology */
+
+	protected final IRandGen randgen;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Inbox of each island */
+
+	private final List<Queue<IIndividual>> inboxes;
+
+	/** Islands that have finished */
+
+	private final boolean [] finished;
+
+	/** Best individual reported by islands */
+
+	private IIndividual bestIndividual;
+
+	/** Number of migration requests */
+
+	private int numberOfMigrations;
+
+	/** Stop flag, sent to islands */
+
+	private volatile boolean stop;
+
+	/** Server socket */
+
+	private transient ServerSocket server;
+
+	/** Open connections */
+
+	private final List<Socket> connections = new CopyOnWriteArrayList<Socket>();
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that sets coordinator properties.
+	 *
+	 * @param numberOfIslands Number of islands
+	 * @param topology Migration topology
+	 * @param comparator Fitness comparator
+	 * @param randgen Random generator used by topology (can be null if
+	 *                topology is not random)
+	 */
+
+	public IslandCoordinator(int numberOfIslands, IMigrationTopology topology, Comparator<IFitness> comparator, IRandGen randgen)
+	{
+		super();
+		this.numberOfIslands = numberOfIslands;
+		this.topology = topology;
+		this.comparator = comparator;
+		this.randgen = randgen;
+		this.inboxes = new ArrayList<Queue<IIndividual>>(numberOfIslands);
+		for (int i=0; i<numberOfIslands; i++) {
+			inboxes.add(new ConcurrentLinkedQueue<IIndividual>());
+		}
+		this.finished = new boolean[numberOfIslands];
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Start listening for islands connections on the loopback interface.
+	 *
+	 * @return Port number
+	 *
+	 * @throws IOException If the server socket cannot be opened
+	 */
+
+	public int start() throws IOException
+	{
+		return start(InetAddress.getLoopbackAddress(), 0);
+	}
+
+	/**
+	 * Start listening for islands connections.
+	 *
+	 * @param address Local address (null for all interfaces)
+	 * @param port Port number (0 for any free port)
+	 *
+	 * @return Port number
+	 *
+	 * @throws IOException If the server socket cannot be opened
+	 */
+
+	public synchronized int start(InetAddress address, int port) throws IOException
+	{
+		if (server != null) {
+			throw new IllegalStateException("Coordinator already started");
+		}
+		server = new ServerSocket(port, 50, address);
+		Thread acceptor = new Thread(new Runnable() {
+			public void run()
+			{
+				acceptConnections();
+			}
+		}, "jclec-island-coordinator");
+		acceptor.setDaemon(true);
+		acceptor.start();
+		return server.getLocalPort();
+	}
+
+	/**
+	 * Access to the best individual reported by islands.
+	 *
+	 * @return Best individual (null if no island has reported any)
+	 */
+
+	public synchronized IIndividual getBestIndividual()
+	{
+		return bestIndividual;
+	}
+
+	/**
+	 * Access to the number of migration requests received.
+	 *
+	 * @return Number of migrations
+	 */
+
+	public synchronized int getNumberOfMigrations()
+	{
+		return numberOfMigrations;
+	}
+
+	/**
+	 * Check if all islands have finished.
+	 *
+	 * @return true if all islands have sent their finish message
+	 */
+
+	public synchronized boolean isFinished()
+	{
+		for (boolean islandFinished : finished) {
+			if (!islandFinished) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Wait until all islands have finished.
+	 *
+	 * @param timeout Maximum time to wait (in milliseconds)
+	 *
+	 * @return true if all islands have finished
+	 *
+	 * @throws InterruptedException If the thread is interrupted
+	 */
+
+	public synchronized boolean awaitFinished(long timeout) throws InterruptedException
+	{
+		long end = System.currentTimeMillis() + timeout;
+		while (!isFinished()) {
+			long remaining = end - System.currentTimeMillis();
+			if (remaining <= 0) {
+				return false;
+			}
+			wait(remaining);
+		}
+		return true;
+	}
+
+	/**
+	 * Check if islands have been asked to stop.
+	 *
+	 * @return Stop flag
+	 */
+
+	public boolean isStopped()
+	{
+		return stop;
+	}
+
+	/**
+	 * Ask all islands to stop (in their next migration).
+	 */
+
+	public void terminate()
+	{
+		stop = true;
+	}
+
+	// IDisposable interface
+
+	/**
+	 * Close the server socket and all connections.
+	 */
+
+	public synchronized void dispose()
+	{
+		if (server != null) {
+			close(server);
+			server = null;
+		}
+		for (Socket connection : connections) {
+			close(connection);
+		}
+		connections.clear();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Store emigrants of an island in the inboxes of its destinations and
+	 * take its immigrants.
+	 *
+	 * @param island Island index
+	 * @param emigrants Individuals sent by the island
+	 * @param best Best individual of the island
+	 *
+	 * @return Immigrants for the island
+	 */
+
+	protected List<IIndividual> migrate(int island, List<IIndividual> emigrants, IIndividual best)
+	{
+		int [] destinations;
+		synchronized (this) {
+			numberOfMigrations++;
+			updateBest(best);
+			destinations = topology.destinations(island, numberOfIslands, randgen);
+		}
+		for (int i=0; i<destinations.length; i++) {
+			Queue<IIndividual> inbox = inboxes.get(destinations[i]);
+			for (IIndividual emigrant : emigrants) {
+				inbox.add(i == 0 ? emigrant : emigrant.copy());
+			}
+		}
+		List<IIndividual> immigrants = new ArrayList<IIndividual>();
+		Queue<IIndividual> inbox = inboxes.get(island);
+		for (IIndividual immigrant = inbox.poll(); immigrant != null; immigrant = inbox.poll()) {
+			immigrants.add(immigrant);
+		}
+		return immigrants;
+	}
+
+	/**
+	 * Register the end of an island.
+	 *
+	 * @param island Island index
+	 * @param best Best individual of the island
+	 */
+
+	protected synchronized void finish(int island, IIndividual best)
+	{
+		updateBest(best);
+		finished[island] = true;
+		notifyAll();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private void updateBest(IIndividual best)
+	{
+		if (best == null || best.getFitness() == null) {
+			return;
+		}
+		if (bestIndividual == null || comparator.compare(best.getFitness(), bestIndividual.getFitness()) > 0) {
+			bestIndividual = best;
+		}
+		if (best.getFitness().isAcceptable()) {
+			stop = true;
+		}
+	}
+
+	private void acceptConnections()
+	{
+		ServerSocket server;
+		synchronized (this) {
+			server = this.server;
+		}
+		while (server != null && !server.isClosed()) {
+			try {
+				final Socket connection = server.accept();
+				connection.setTcpNoDelay(true);
+				connections.add(connection);
+				Thread handler = new Thread(new Runnable() {
+					public void run()
+					{
+						serve(connection);
+					}
+				}, "jclec-island-connection");
+				handler.setDaemon(true);
+				handler.start();
+			}
+			catch (IOException e) {
+				// Server socket closed
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Serve the requests of one island connection until it is closed.
+	 */
+
+	private void serve(Socket connection)
+	{
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+			while (true) {
+				byte type;
+				try {
+					type = in.readByte();
+				}
+				catch (EOFException e) {
+					return;
+				}
+				int island = in.readInt();
+				if (island < 0 || island >= numberOfIslands) {
+					throw new IOException("Illegal island index: " + island);
+				}
+				switch (type) {
+					case MIGRATE: {
+						int size = in.readInt();
+						List<IIndividual> emigrants = new ArrayList<IIndividual>(size);
+						for (int i=0; i<size; i++) {
+							emigrants.add(IndividualCodec.read(in));
+						}
+						IIndividual best = IndividualCodec.read(in);
+						List<IIndividual> immigrants = migrate(island, emigrants, best);
+						out.writeBoolean(stop);
+						out.writeInt(immigrants.size());
+						for (IIndividual immigrant : immigrants) {
+							IndividualCodec.write(out, immigrant);
+						}
+						out.flush();
+						break;
+					}
+					case FINISH: {
+						finish(island, IndividualCodec.read(in));
+						out.writeBoolean(stop);
+						out.flush();
+						break;
+					}
+					default:
+						throw new IOException("Illegal message type: " + type);
+				}
+			}
+		}
+		catch (IOException e) {
+			// Connection lost (the island will connect again if necessary)
+		}
+		finally {
+			connections.remove(connection);
+			close(connection);
+		}
+	}
+
+	private static void close(java.io.Closeable closeable)
+	{
+		try {
+			closeable.close();
+		}
+		catch (IOException e) {
+			// Nothing to do
+		}
+	}
+}
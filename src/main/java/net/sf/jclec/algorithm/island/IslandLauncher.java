@@ -0,0 +1,261 @@
+package net.sf.jclec.algorithm.island;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.jclec.IConfigure;
+import net.sf.jclec.IEvaluator;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.util.random.Ranecu;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+import org.apache.commons.configuration.XMLConfiguration;
+
+/**
+ * Runs an experiment as several islands, each one in its own JVM process,
+ * that exchange migrants through an IslandCoordinator listening on the
+ * loopback interface.
+ *
+ * The experiment file is the same used by RunExperiment (the algorithm
+ * must be a PopulationAlgorithm). Besides algorithm settings, the process
+ * element can contain:
+ *
+ * <ul>
+ * <li>
+ * <code>migration: Migrator (complex)</code></p>
+ * Migration policy of all islands
+ * </li><li>
+ * <code>topology: IMigrationTopology (complex)</code></p>
+ * Migration topology. Default value is RingTopology
+ * </li>
+ * </ul>
+ *
+ * @author Sebastian Ventura
+ */
+
+public class IslandLauncher
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Usage message error */
+
+	private static final String USAGE_MES = "\tnet.sf.jclec.algorithm.island.IslandLauncher <experiment file> <number of islands>";
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Experiment file */
+
+	protected final File jobFile;
+
+	/** Number of islands (processes) */
+
+	protected final int numberOfIslands;
+
+	/** Connection timeout (in milliseconds) */
+
+	protected int timeout = IslandWorker.DEFAULT_TIMEOUT;
+
+	/** Extra JVM options for worker processes */
+
+	protected List<String> jvmOptions = new ArrayList<String>();
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Islands coordinator */
+
+	private IslandCoordinator coordinator;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that sets experiment file and number of islands.
+	 *
+	 * @param jobFile Experiment file
+	 * @param numberOfIslands Number of islands
+	 */
+
+	public IslandLauncher(File jobFile, int numberOfIslands)
+	{
+		super();
+		this.jobFile = jobFile;
+		this.numberOfIslands = numberOfIslands;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Main method
+	 *
+	 * @param args Experiment file and number of islands
+	 */
+
+	public static void main(String [] args) throws Exception
+	{
+		if (args.length < 2) {
+			System.out.println("Usage:" + USAGE_MES);
+			System.exit(1);
+		}
+		IslandLauncher launcher = new IslandLauncher(new File(args[0]), Integer.parseInt(args[1]));
+		IIndividual best = launcher.launch();
+		System.out.println("Best individual: " + best);
+	}
+
+	// Getting and setting properties
+
+	public final int getTimeout()
+	{
+		return timeout;
+	}
+
+	public final void setTimeout(int timeout)
+	{
+		this.timeout = timeout;
+	}
+
+	public final List<String> getJvmOptions()
+	{
+		return jvmOptions;
+	}
+
+	/**
+	 * Access to the coordinator of the last launch.
+	 *
+	 * @return Islands coordinator
+	 */
+
+	public final IslandCoordinator getCoordinator()
+	{
+		return coordinator;
+	}
+
+	/**
+	 * Start the coordinator and one worker process per island, and wait
+	 * until all processes have finished.
+	 *
+	 * @return Best individual found by all islands
+	 *
+	 * @throws IOException If processes cannot be started
+	 * @throws InterruptedException If the thread is interrupted while
+	 *         waiting for processes
+	 */
+
+	public IIndividual launch() throws IOException, InterruptedException
+	{
+		Configuration settings;
+		try {
+			settings = new XMLConfiguration(jobFile).subset("process");
+		}
+		catch (ConfigurationException e) {
+			throw new ConfigurationRuntimeException("Illegal experiment file", e);
+		}
+		coordinator = new IslandCoordinator(numberOfIslands, createTopology(settings),
+				createEvaluator(settings).getComparator(), new Ranecu(settings.getInt("rand-gen-factory[@seed]", 1234567890), 987654321));
+		int port = coordinator.start();
+		List<Process> processes = new ArrayList<Process>();
+		try {
+			for (int i=0; i<numberOfIslands; i++) {
+				List<String> command = new ArrayList<String>();
+				command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+				command.addAll(jvmOptions);
+				command.add("-cp");
+				command.add(System.getProperty("java.class.path"));
+				command.add(IslandWorker.class.getName());
+				command.add(jobFile.getPath());
+				command.add(String.valueOf(i));
+				command.add("127.0.0.1");
+				command.add(String.valueOf(port));
+				command.add(String.valueOf(timeout));
+				processes.add(new ProcessBuilder(command).inheritIO().start());
+			}
+			for (Process process : processes) {
+				process.waitFor();
+			}
+		}
+		finally {
+			for (Process process : processes) {
+				process.destroy();
+			}
+			coordinator.dispose();
+		}
+		return coordinator.getBestIndividual();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	@SuppressWarnings("unchecked")
+	private IMigrationTopology createTopology(Configuration settings)
+	{
+		String topologyClassname = settings.getString("topology[@type]");
+		if (topologyClassname == null) {
+			return new RingTopology();
+		}
+		try {
+			// Topology class
+			Class<? extends IMigrationTopology> topologyClass =
+				(Class<? extends IMigrationTopology>) Class.forName(topologyClassname);
+			// Topology instance
+			IMigrationTopology topology = topologyClass.newInstance();
+			// Configure topology if necessary
+			if (topology instanceof IConfigure) {
+				((IConfigure) topology).configure(settings.subset("topology"));
+			}
+			return topology;
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigurationRuntimeException("Illegal topology classname");
+		}
+		catch (InstantiationException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of topology", e);
+		}
+		catch (IllegalAccessException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of topology", e);
+		}
+	}
+
+	/**
+	 * Evaluator of the experiment (only used to compare fitnesses).
+	 */
+
+	@SuppressWarnings("unchecked")
+	private IEvaluator createEvaluator(Configuration settings)
+	{
+		try {
+			// Evaluator class
+			Class<? extends IEvaluator> evaluatorClass =
+				(Class<? extends IEvaluator>) Class.forName(settings.getString("evaluator[@type]"));
+			// Evaluator instance
+			IEvaluator evaluator = evaluatorClass.newInstance();
+			// Configure evaluator if necessary
+			if (evaluator instanceof IConfigure) {
+				((IConfigure) evaluator).configure(settings.subset("evaluator"));
+			}
+			return evaluator;
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigurationRuntimeException("Illegal evaluator classname");
+		}
+		catch (InstantiationException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of evaluator", e);
+		}
+		catch (IllegalAccessException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of evaluator", e);
+		}
+	}
+}
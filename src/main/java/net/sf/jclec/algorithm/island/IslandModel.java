@@ -0,0 +1,512 @@
+package net.sf.jclec.algorithm.island;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.jclec.IConfigure;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.AlgorithmEvent;
+import net.sf.jclec.IAlgorithmListener;
+
+import net.sf.jclec.algorithm.AbstractAlgorithm;
+import net.sf.jclec.algorithm.PopulationAlgorithm;
+
+import net.sf.jclec.util.random.IRandGen;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * Island model. Runs several population algorithms (islands) at the same
+ * time, each one in its own thread, that periodically exchange some of
+ * their individuals (migrants).
+ *
+ * Every island has an inbox, that is a lock-free queue. When it is time
+ * to migrate, an island puts copies of its emigrants in the inboxes of
+ * its destinations (as defined by the migration topology) and replaces
+ * some of its individuals with those found in its own inbox. Islands never
+ * wait for each other: migrants that arrive late are used in the next
+ * migration.
+ *
+ * The island model finishes when all islands have finished.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class IslandModel extends AbstractAlgorithm
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -5471820983611587261L;
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Random stream of each island used to choose migration destinations
+	 * (see PopulationAlgorithm.createRandGen(long)). It is not used by
+	 * chunked operators, so migration doesn't change the generators used
+	 * in the island search.
+	 */
+
+	public static final long MIGRATION_STREAM = -1;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Islands */
+
+	protected List<PopulationAlgorithm> islands = new ArrayList<PopulationAlgorithm>();
+
+	/** Migration policy of each island */
+
+	protected List<Migrator> migrators = new ArrayList<Migrator>();
+
+	/** Migration topology */
+
+	protected IMigrationTopology topology = new RingTopology();
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Inbox of each island */
+
+	protected transient List<Queue<IIndividual>> inboxes;
+
+	/** Number of migrations performed */
+
+	protected transient AtomicInteger numberOfMigrations = new AtomicInteger();
+
+	/** Migration listener registered in each island */
+
+	private transient List<MigrationListener> migrationListeners;
+
+	/** Islands executor */
+
+	private transient ExecutorService executor;
+
+	/** Execution of each island */
+
+	private transient List<Future<?>> executions;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty (default) constructor
+	 */
+
+	public IslandModel()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Getting and setting properties
+
+	public final List<PopulationAlgorithm> getIslands()
+	{
+		return islands;
+	}
+
+	public final List<Migrator> getMigrators()
+	{
+		return migrators;
+	}
+
+	/**
+	 * Add an island to this model. Islands with the same random generators
+	 * settings must have different random streams (see
+	 * PopulationAlgorithm.setRandGenStream()).
+	 *
+	 * @param island Island algorithm
+	 * @param migrator Island migration policy
+	 */
+
+	public void addIsland(PopulationAlgorithm island, Migrator migrator)
+	{
+		islands.add(island);
+		migrators.add(migrator);
+	}
+
+	public final IMigrationTopology getTopology()
+	{
+		return topology;
+	}
+
+	public final void setTopology(IMigrationTopology topology)
+	{
+		this.topology = topology;
+	}
+
+	/**
+	 * Access to the number of migrations performed by all islands.
+	 *
+	 * @return Number of migrations
+	 */
+
+	public int getNumberOfMigrations()
+	{
+		return numberOfMigrations.get();
+	}
+
+	/**
+	 * Individuals of all islands.
+	 *
+	 * @return All islands inhabitants
+	 */
+
+	public List<IIndividual> getInhabitants()
+	{
+		List<IIndividual> result = new ArrayList<IIndividual>();
+		for (PopulationAlgorithm island : islands) {
+			result.addAll(island.getInhabitants());
+		}
+		return result;
+	}
+
+	// IAlgorithm interface
+
+	/**
+	 * Terminate all islands.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void terminate()
+	{
+		super.terminate();
+		for (PopulationAlgorithm island : islands) {
+			island.terminate();
+		}
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for IslandModel are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>island: PopulationAlgorithm (complex)</code></p>
+	 * Island algorithm. There can be several island elements
+	 * </li><li>
+	 * <code>number-of-islands (int)</code></p>
+	 * Number of islands. If there are less island elements than islands,
+	 * island elements are reused cyclically. Each island takes its random
+	 * generators from its own stream (the island index), so repeated
+	 * islands are independent if the random generators factory provides
+	 * streams. Default value is the number of island elements
+	 * </li><li>
+	 * <code>topology: IMigrationTopology (complex)</code></p>
+	 * Migration topology. Default value is RingTopology
+	 * </li><li>
+	 * <code>migration: Migrator (complex)</code></p>
+	 * Migration policy of all islands
+	 * </li>
+	 * </ul>
+	 */
+
+	@SuppressWarnings("unchecked")
+	public void configure(Configuration configuration)
+	{
+		// Call super.configure() method
+		super.configure(configuration);
+		// Islands
+		islands.clear();
+		migrators.clear();
+		int numberOfElements = configuration.getList("island[@type]").size();
+		if (numberOfElements == 0) {
+			throw new ConfigurationRuntimeException("No island defined");
+		}
+		int numberOfIslands = configuration.getInt("number-of-islands", numberOfElements);
+		for (int i=0; i<numberOfIslands; i++) {
+			String header = "island(" + (i % numberOfElements) + ")";
+			try {
+				// Island classname
+				String islandClassname = configuration.getString(header + "[@type]");
+				// Island class
+				Class<? extends PopulationAlgorithm> islandClass =
+					(Class<? extends PopulationAlgorithm>) Class.forName(islandClassname);
+				// Island instance
+				PopulationAlgorithm island = islandClass.newInstance();
+				// Island random stream (set before creating components)
+				island.setRandGenStream(i);
+				// Configure island
+				island.configure(configuration.subset(header));
+				// Island migrator
+				Migrator migrator = new Migrator();
+				migrator.configure(configuration.subset("migration"));
+				// Add island
+				addIsland(island, migrator);
+			}
+			catch (ClassNotFoundException e) {
+				throw new ConfigurationRuntimeException("Illegal island classname");
+			}
+			catch (InstantiationException e) {
+				throw new ConfigurationRuntimeException("Problems creating an instance of island", e);
+			}
+			catch (IllegalAccessException e) {
+				throw new ConfigurationRuntimeException("Problems creating an instance of island", e);
+			}
+		}
+		// Migration topology
+		String topologyClassname = configuration.getString("topology[@type]");
+		if (topologyClassname != null) {
+			try {
+				// Topology class
+				Class<? extends IMigrationTopology> topologyClass =
+					(Class<? extends IMigrationTopology>) Class.forName(topologyClassname);
+				// Topology instance
+				IMigrationTopology topology = topologyClass.newInstance();
+				// Configure topology if necessary
+				if (topology instanceof IConfigure) {
+					((IConfigure) topology).configure(configuration.subset("topology"));
+				}
+				// Set topology
+				setTopology(topology);
+			}
+			catch (ClassNotFoundException e) {
+				throw new ConfigurationRuntimeException("Illegal topology classname");
+			}
+			catch (InstantiationException e) {
+				throw new ConfigurationRuntimeException("Problems creating an instance of topology", e);
+			}
+			catch (IllegalAccessException e) {
+				throw new ConfigurationRuntimeException("Problems creating an instance of topology", e);
+			}
+		}
+	}
+
+	// java.lang.Object methods
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof IslandModel) {
+			IslandModel cother = (IslandModel) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			// Islands
+			eb.append(islands, cother.islands);
+			// Migrators
+			eb.append(migrators, cother.migrators);
+			// Topology
+			eb.append(topology, cother.topology);
+			// Return test result
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	// Execution methods
+
+	/**
+	 * Create islands inboxes and register a migration listener in each
+	 * island.
+	 */
+
+	@Override
+	protected void doInit()
+	{
+		int numberOfIslands = islands.size();
+		inboxes = new ArrayList<Queue<IIndividual>>(numberOfIslands);
+		for (int i=0; i<numberOfIslands; i++) {
+			inboxes.add(new ConcurrentLinkedQueue<IIndividual>());
+		}
+		numberOfMigrations = new AtomicInteger();
+		migrationListeners = new ArrayList<MigrationListener>(numberOfIslands);
+		for (int i=0; i<numberOfIslands; i++) {
+			PopulationAlgorithm island = islands.get(i);
+			migrators.get(i).contextualize(island);
+			MigrationListener listener = new MigrationListener(i, island.createRandGen(MIGRATION_STREAM));
+			island.addListener(listener);
+			migrationListeners.add(listener);
+		}
+	}
+
+	/**
+	 * Run all islands until they finish.
+	 */
+
+	@Override
+	protected void doIterate()
+	{
+		executor = Executors.newFixedThreadPool(Math.max(1, islands.size()), new IslandFactory());
+		executions = new ArrayList<Future<?>>();
+		for (final PopulationAlgorithm island : islands) {
+			executions.add(executor.submit(new Runnable() {
+				public void run()
+				{
+					island.execute();
+				}
+			}));
+		}
+		try {
+			for (Future<?> execution : executions) {
+				execution.get();
+			}
+		}
+		catch (InterruptedException e) {
+			terminate();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Island model interrupted", e);
+		}
+		catch (ExecutionException e) {
+			terminate();
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Island execution failed", cause);
+		}
+		if (state == RUNNING) {
+			state = FINISHED;
+		}
+	}
+
+	/**
+	 * Shut down the islands executor and unregister migration listeners.
+	 */
+
+	@Override
+	protected void doDispose()
+	{
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+		if (migrationListeners != null) {
+			for (int i=0; i<migrationListeners.size(); i++) {
+				islands.get(i).removeListener(migrationListeners.get(i));
+			}
+			migrationListeners = null;
+		}
+	}
+
+	/**
+	 * Send emigrants of an island to its destinations and replace some of
+	 * its individuals with the immigrants found in its inbox. This method
+	 * is called from the island thread.
+	 *
+	 * @param index Island index
+	 * @param randgen Random generator used by topology
+	 */
+
+	protected void migrate(int index, IRandGen randgen)
+	{
+		Migrator migrator = migrators.get(index);
+		// Send emigrants
+		List<IIndividual> emigrants = migrator.emigrants();
+		int [] destinations = topology.destinations(index, islands.size(), randgen);
+		for (int i=0; i<destinations.length; i++) {
+			Queue<IIndividual> inbox = inboxes.get(destinations[i]);
+			for (IIndividual emigrant : emigrants) {
+				inbox.add(i == 0 ? emigrant : emigrant.copy());
+			}
+		}
+		// Receive immigrants
+		List<IIndividual> immigrants = new ArrayList<IIndividual>();
+		Queue<IIndividual> inbox = inboxes.get(index);
+		for (IIndividual immigrant = inbox.poll(); immigrant != null; immigrant = inbox.poll()) {
+			immigrants.add(immigrant);
+		}
+		migrator.immigrate(immigrants);
+		numberOfMigrations.incrementAndGet();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------- Migration listener
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Performs migrations after island iterations.
+	 */
+
+	private class MigrationListener implements IAlgorithmListener
+	{
+		private static final long serialVersionUID = 1L;
+
+		/** Island index */
+
+		private final int index;
+
+		/** Random generator used by topology */
+
+		private final IRandGen randgen;
+
+		MigrationListener(int index, IRandGen randgen)
+		{
+			this.index = index;
+			this.randgen = randgen;
+		}
+
+		public void algorithmStarted(AlgorithmEvent event)
+		{
+		}
+
+		public void iterationCompleted(AlgorithmEvent event)
+		{
+			int generation = islands.get(index).getGeneration();
+			if (migrators.get(index).isMigrationTime(generation)) {
+				migrate(index, randgen);
+			}
+		}
+
+		public void algorithmFinished(AlgorithmEvent event)
+		{
+		}
+
+		public void algorithmTerminated(AlgorithmEvent event)
+		{
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Island factory
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Creates daemon island threads.
+	 */
+
+	private static class IslandFactory implements ThreadFactory
+	{
+		private final AtomicInteger counter = new AtomicInteger();
+
+		public Thread newThread(Runnable task)
+		{
+			Thread thread = new Thread(task, "jclec-island-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
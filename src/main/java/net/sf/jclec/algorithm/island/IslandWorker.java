@@ -0,0 +1,368 @@
+package net.sf.jclec.algorithm.island;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.jclec.AlgorithmEvent;
+import net.sf.jclec.IAlgorithmListener;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.algorithm.PopulationAlgorithm;
+
+import net.sf.jclec.util.IndividualCodec;
+import net.sf.jclec.util.IndividualStatistics;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+import org.apache.commons.configuration.XMLConfiguration;
+
+/**
+ * Island that runs in its own process and migrates individuals through
+ * an IslandCoordinator.
+ *
+ * The island algorithm is configured from an experiment file, in the same
+ * way as RunExperiment does. The migration policy is configured from the
+ * <code>migration</code> element of the process (see Migrator).
+ *
+ * Migration never blocks the island for more than the connection timeout:
+ * if the coordinator cannot be reached, the island goes on without
+ * immigrants and tries to connect again in the next migration.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class IslandWorker implements IAlgorithmListener
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 5392816180439920417L;
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Default connection timeout (in milliseconds) */
+
+	public static final int DEFAULT_TIMEOUT = 5000;
+
+	/** Usage message error */
+
+	private static final String USAGE_MES = "\tnet.sf.jclec.algorithm.island.IslandWorker <experiment file> <island index> <host> <port> [timeout]";
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Island algorithm */
+
+	protected final PopulationAlgorithm algorithm;
+
+	/** Island migration policy */
+
+	protected final Migrator migrator;
+
+	/** Island index */
+
+	protected final int index;
+
+	/** Coordinator address */
+
+	protected final InetSocketAddress coordinator;
+
+	/** Connection timeout (in milliseconds) */
+
+	protected final int timeout;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Connection with coordinator (null if not connected) */
+
+	private transient Socket connection;
+
+	private transient DataInputStream in;
+
+	private transient DataOutputStream out;
+
+	/** Number of failed migrations */
+
+	private int numberOfFailures;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that sets worker properties.
+	 *
+	 * @param algorithm Island algorithm
+	 * @param migrator Island migration policy
+	 * @param index Island index
+	 * @param coordinator Coordinator address
+	 * @param timeout Connection timeout (in milliseconds)
+	 */
+
+	public IslandWorker(PopulationAlgorithm algorithm, Migrator migrator, int index, InetSocketAddress coordinator, int timeout)
+	{
+		super();
+		this.algorithm = algorithm;
+		this.migrator = migrator;
+		this.index = index;
+		this.coordinator = coordinator;
+		this.timeout = timeout;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Main method
+	 *
+	 * @param args Experiment file, island index, coordinator host and port
+	 *             and (optionally) connection timeout
+	 */
+
+	public static void main(String [] args)
+	{
+		if (args.length < 4) {
+			System.out.println("Usage:" + USAGE_MES);
+			System.exit(1);
+		}
+		int index = Integer.parseInt(args[1]);
+		InetSocketAddress coordinator = new InetSocketAddress(args[2], Integer.parseInt(args[3]));
+		int timeout = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_TIMEOUT;
+		IslandWorker worker = createWorker(new File(args[0]), index, coordinator, timeout);
+		worker.run();
+	}
+
+	/**
+	 * Create an island worker from an experiment file.
+	 *
+	 * @param jobFile Experiment file
+	 * @param index Island index (also the random stream of the island)
+	 * @param coordinator Coordinator address
+	 * @param timeout Connection timeout (in milliseconds)
+	 *
+	 * @return Island worker
+	 */
+
+	@SuppressWarnings("unchecked")
+	public static IslandWorker createWorker(File jobFile, int index, InetSocketAddress coordinator, int timeout)
+	{
+		try {
+			// Process configuration
+			Configuration settings = new XMLConfiguration(jobFile).subset("process");
+			// Algorithm class
+			String algorithmClassname = settings.getString("[@algorithm-type]");
+			Class<? extends PopulationAlgorithm> algorithmClass =
+				(Class<? extends PopulationAlgorithm>) Class.forName(algorithmClassname);
+			// Create and configure algorithm
+			PopulationAlgorithm algorithm = algorithmClass.newInstance();
+			algorithm.setRandGenStream(index);
+			algorithm.configure(settings);
+			// Migration policy
+			Migrator migrator = new Migrator();
+			migrator.configure(settings.subset("migration"));
+			// Return worker
+			return new IslandWorker(algorithm, migrator, index, coordinator, timeout);
+		}
+		catch (ConfigurationException e) {
+			throw new ConfigurationRuntimeException("Illegal experiment file", e);
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigurationRuntimeException("Illegal algorithm classname");
+		}
+		catch (InstantiationException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of algorithm", e);
+		}
+		catch (IllegalAccessException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of algorithm", e);
+		}
+	}
+
+	// Getting properties
+
+	public final PopulationAlgorithm getAlgorithm()
+	{
+		return algorithm;
+	}
+
+	public final int getIndex()
+	{
+		return index;
+	}
+
+	/**
+	 * Access to the number of migrations that could not be completed.
+	 *
+	 * @return Number of failed migrations
+	 */
+
+	public final int getNumberOfFailures()
+	{
+		return numberOfFailures;
+	}
+
+	/**
+	 * Run the island algorithm (in the calling thread).
+	 */
+
+	public void run()
+	{
+		algorithm.addListener(this);
+		try {
+			algorithm.execute();
+		}
+		finally {
+			algorithm.removeListener(this);
+			disconnect();
+		}
+	}
+
+	// IAlgorithmListener interface
+
+	public void algorithmStarted(AlgorithmEvent event)
+	{
+		migrator.contextualize(algorithm);
+	}
+
+	public void iterationCompleted(AlgorithmEvent event)
+	{
+		if (migrator.isMigrationTime(algorithm.getGeneration())) {
+			migrate();
+		}
+	}
+
+	public void algorithmFinished(AlgorithmEvent event)
+	{
+		finish();
+	}
+
+	public void algorithmTerminated(AlgorithmEvent event)
+	{
+		finish();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Send emigrants and best individual to coordinator and insert the
+	 * immigrants received. Terminates the algorithm if the coordinator
+	 * asks for it.
+	 */
+
+	protected void migrate()
+	{
+		List<IIndividual> emigrants = migrator.emigrants();
+		List<IIndividual> immigrants = new ArrayList<IIndividual>();
+		boolean stop = false;
+		try {
+			connect();
+			out.writeByte(IslandCoordinator.MIGRATE);
+			out.writeInt(index);
+			out.writeInt(emigrants.size());
+			for (IIndividual emigrant : emigrants) {
+				IndividualCodec.write(out, emigrant);
+			}
+			IndividualCodec.write(out, bestIndividual());
+			out.flush();
+			stop = in.readBoolean();
+			int size = in.readInt();
+			for (int i=0; i<size; i++) {
+				immigrants.add(IndividualCodec.read(in));
+			}
+		}
+		catch (IOException e) {
+			// Go on without immigrants
+			numberOfFailures++;
+			disconnect();
+			immigrants.clear();
+		}
+		migrator.immigrate(immigrants);
+		if (stop) {
+			algorithm.terminate();
+		}
+	}
+
+	/**
+	 * Send the best individual of the island to the coordinator.
+	 */
+
+	protected void finish()
+	{
+		try {
+			connect();
+			out.writeByte(IslandCoordinator.FINISH);
+			out.writeInt(index);
+			IndividualCodec.write(out, bestIndividual());
+			out.flush();
+			in.readBoolean();
+		}
+		catch (IOException e) {
+			numberOfFailures++;
+		}
+		disconnect();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private IIndividual bestIndividual()
+	{
+		List<IIndividual> inhabitants = algorithm.getInhabitants();
+		if (inhabitants == null || inhabitants.isEmpty()) {
+			return null;
+		}
+		return IndividualStatistics.bestIndividual(inhabitants, algorithm.getEvaluator().getComparator());
+	}
+
+	private void connect() throws IOException
+	{
+		if (connection == null) {
+			Socket socket = new Socket();
+			try {
+				socket.connect(coordinator, timeout);
+				socket.setSoTimeout(timeout);
+				socket.setTcpNoDelay(true);
+				in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			}
+			catch (IOException e) {
+				socket.close();
+				throw e;
+			}
+			connection = socket;
+		}
+	}
+
+	private void disconnect()
+	{
+		if (connection != null) {
+			try {
+				connection.close();
+			}
+			catch (IOException e) {
+				// Nothing to do
+			}
+			connection = null;
+			in = null;
+			out = null;
+		}
+	}
+}
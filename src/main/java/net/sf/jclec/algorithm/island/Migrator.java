@@ -0,0 +1,335 @@
+package net.sf.jclec.algorithm.island;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import net.sf.jclec.JCLEC;
+import net.sf.jclec.ISelector;
+import net.sf.jclec.IConfigure;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.IPopulation;
+
+import net.sf.jclec.algorithm.PopulationAlgorithm;
+
+import net.sf.jclec.selector.BettersSelector;
+import net.sf.jclec.selector.WorsesSelector;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * Migration policy of an island. Selects the individuals that leave the
+ * island (emigrants) and the individuals that are replaced by individuals
+ * coming from other islands (immigrants).
+ *
+ * Each island has its own migrator, that must be contextualized before
+ * being used.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class Migrator implements JCLEC, IConfigure
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 7052771634097412845L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Generations between migrations */
+
+	protected int migrationInterval = 10;
+
+	/** Number of individuals that leave the island in each migration */
+
+	protected int numberOfMigrants = 1;
+
+	/** Emigrants selector */
+
+	protected ISelector migrantsSelector;
+
+	/** Selector of individuals replaced by immigrants */
+
+	protected ISelector replacementSelector;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Island */
+
+	protected transient IPopulation island;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty (default) constructor
+	 */
+
+	public Migrator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Getting and setting properties
+
+	public final int getMigrationInterval()
+	{
+		return migrationInterval;
+	}
+
+	public final void setMigrationInterval(int migrationInterval)
+	{
+		this.migrationInterval = migrationInterval;
+	}
+
+	public final int getNumberOfMigrants()
+	{
+		return numberOfMigrants;
+	}
+
+	public final void setNumberOfMigrants(int numberOfMigrants)
+	{
+		this.numberOfMigrants = numberOfMigrants;
+	}
+
+	public final ISelector getMigrantsSelector()
+	{
+		return migrantsSelector;
+	}
+
+	public final void setMigrantsSelector(ISelector migrantsSelector)
+	{
+		this.migrantsSelector = migrantsSelector;
+	}
+
+	public final ISelector getReplacementSelector()
+	{
+		return replacementSelector;
+	}
+
+	public final void setReplacementSelector(ISelector replacementSelector)
+	{
+		this.replacementSelector = replacementSelector;
+	}
+
+	public final IPopulation getIsland()
+	{
+		return island;
+	}
+
+	/**
+	 * Sets the island and contextualizes selectors. If selectors have not
+	 * been set, the best individuals are selected as emigrants and the
+	 * worst individuals are replaced by immigrants.
+	 *
+	 * @param island Island that uses this migrator
+	 */
+
+	public void contextualize(IPopulation island)
+	{
+		this.island = island;
+		if (migrantsSelector == null) {
+			migrantsSelector = new BettersSelector();
+		}
+		migrantsSelector.contextualize(island);
+		if (replacementSelector == null) {
+			replacementSelector = new WorsesSelector();
+		}
+		replacementSelector.contextualize(island);
+	}
+
+	// Migration methods
+
+	/**
+	 * Check if there is a migration after the given generation.
+	 *
+	 * @param generation Island generation
+	 *
+	 * @return true if migration must be done
+	 */
+
+	public boolean isMigrationTime(int generation)
+	{
+		return migrationInterval > 0 && generation > 0 && generation % migrationInterval == 0;
+	}
+
+	/**
+	 * Select emigrants. Emigrants remain in the island, so this method
+	 * returns copies of them.
+	 *
+	 * @return Copies of selected individuals
+	 */
+
+	public List<IIndividual> emigrants()
+	{
+		List<IIndividual> inhabitants = island.getInhabitants();
+		int size = Math.min(numberOfMigrants, inhabitants.size());
+		List<IIndividual> result = new ArrayList<IIndividual>(size);
+		for (IIndividual ind : migrantsSelector.select(inhabitants, size, false)) {
+			result.add(ind.copy());
+		}
+		return result;
+	}
+
+	/**
+	 * Replace island individuals with immigrants. Immigrants without
+	 * fitness are evaluated first. Population algorithms receive them
+	 * through acceptImmigrants(), so that they can update the information
+	 * derived from their inhabitants.
+	 *
+	 * @param immigrants Individuals coming from other islands
+	 */
+
+	public void immigrate(List<IIndividual> immigrants)
+	{
+		List<IIndividual> inhabitants = island.getInhabitants();
+		int size = Math.min(immigrants.size(), inhabitants.size());
+		if (size == 0) {
+			return;
+		}
+		if (size < immigrants.size()) {
+			immigrants = immigrants.subList(0, size);
+		}
+		// Evaluate immigrants (if necessary)
+		island.getEvaluator().evaluate(immigrants);
+		// Remove replaced individuals (by identity, because different
+		// individuals can have the same genotype)
+		int removed = 0;
+		for (IIndividual ind : replacementSelector.select(inhabitants, size)) {
+			for (Iterator<IIndividual> it = inhabitants.iterator(); it.hasNext(); ) {
+				if (it.next() == ind) {
+					it.remove();
+					removed++;
+					break;
+				}
+			}
+		}
+		// Selectors with repetition can replace less individuals
+		immigrants = immigrants.subList(0, removed);
+		if (island instanceof PopulationAlgorithm) {
+			((PopulationAlgorithm) island).acceptImmigrants(immigrants);
+		}
+		else {
+			inhabitants.addAll(immigrants);
+		}
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for Migrator are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>migration-interval (int)</code></p>
+	 * Generations between migrations. Default value is 10
+	 * </li><li>
+	 * <code>number-of-migrants (int)</code></p>
+	 * Individuals that leave each island in every migration. Default
+	 * value is 1
+	 * </li><li>
+	 * <code>migrants-selector: ISelector (complex)</code></p>
+	 * Emigrants selector. Default value is BettersSelector
+	 * </li><li>
+	 * <code>replacement-selector: ISelector (complex)</code></p>
+	 * Selector of individuals replaced by immigrants. Default value is
+	 * WorsesSelector
+	 * </li>
+	 * </ul>
+	 */
+
+	public void configure(Configuration settings)
+	{
+		// Migration interval
+		int migrationInterval = settings.getInt("migration-interval", 10);
+		setMigrationInterval(migrationInterval);
+		// Number of migrants
+		int numberOfMigrants = settings.getInt("number-of-migrants", 1);
+		setNumberOfMigrants(numberOfMigrants);
+		// Selectors
+		setMigrantsSelector(createSelector(settings, "migrants-selector"));
+		setReplacementSelector(createSelector(settings, "replacement-selector"));
+	}
+
+	// java.lang.Object methods
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof Migrator) {
+			Migrator cother = (Migrator) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			// Migration interval
+			eb.append(migrationInterval, cother.migrationInterval);
+			// Number of migrants
+			eb.append(numberOfMigrants, cother.numberOfMigrants);
+			// Migrants selector
+			eb.append(migrantsSelector, cother.migrantsSelector);
+			// Replacement selector
+			eb.append(replacementSelector, cother.replacementSelector);
+			// Return test result
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Create a selector from its configuration.
+	 *
+	 * @param settings Migrator configuration
+	 * @param key Selector key
+	 *
+	 * @return Selector instance (null if not configured)
+	 */
+
+	@SuppressWarnings("unchecked")
+	private ISelector createSelector(Configuration settings, String key)
+	{
+		// Selector classname
+		String selectorClassname = settings.getString(key + "[@type]");
+		if (selectorClassname == null) {
+			return null;
+		}
+		try {
+			// Selector class
+			Class<? extends ISelector> selectorClass =
+				(Class<? extends ISelector>) Class.forName(selectorClassname);
+			// Selector instance
+			ISelector selector = selectorClass.newInstance();
+			// Configure selector if necessary
+			if (selector instanceof IConfigure) {
+				((IConfigure) selector).configure(settings.subset(key));
+			}
+			return selector;
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigurationRuntimeException("Illegal " + key + " classname");
+		}
+		catch (InstantiationException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of " + key, e);
+		}
+		catch (IllegalAccessException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of " + key, e);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package net.sf.jclec.algorithm.island;
+
+import net.sf.jclec.IConfigure;
+
+import net.sf.jclec.util.random.IRandGen;
+
+import org.apache.commons.configuration.Configuration;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * Random topology. In each migration, every island sends its migrants to 
+ * a few islands chosen at random.
+ * 
+ * @author Sebastian Ventura
+ */
+
+public class RandomTopology implements IMigrationTopology, IConfigure
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 2785304981163467029L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of islands that receive migrants from each island */
+	
+	protected int numberOfDestinations = 1;
+	
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty (default) constructor
+	 */
+	
+	public RandomTopology() 
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Getting and setting properties
+	
+	public final int getNumberOfDestinations() 
+	{
+		return numberOfDestinations;
+	}
+
+	public final void setNumberOfDestinations(int numberOfDestinations) 
+	{
+		this.numberOfDestinations = numberOfDestinations;
+	}
+
+	// IMigrationTopology interface
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	public int [] destinations(int island, int numberOfIslands, IRandGen randgen) 
+	{
+		// Other islands
+		int [] others = new int[Math.max(0, numberOfIslands - 1)];
+		for (int i=0, j=0; i<numberOfIslands; i++) {
+			if (i != island) {
+				others[j++] = i;
+			}
+		}
+		// Choose destinations (partial shuffle of other islands)
+		int size = Math.min(numberOfDestinations, others.length);
+		for (int i=0; i<size; i++) {
+			int j = randgen.choose(i, others.length);
+			int aux = others[i]; others[i] = others[j]; others[j] = aux;
+		}
+		int [] result = new int[size];
+		System.arraycopy(others, 0, result, 0, size);
+		return result;
+	}
+
+	// IConfigure interface
+	
+	/**
+	 * Configuration parameters for RandomTopology are:
+	 * 
+	 * <ul>
+	 * <li>
+	 * <code>[@number-of-destinations] (int)</code></p>
+	 * Number of islands that receive migrants from each island. Default 
+	 * value is 1
+	 * </li>
+	 * </ul>
+	 */
+	
+	public void configure(Configuration settings) 
+	{
+		int numberOfDestinations = settings.getInt("[@number-of-destinations]", 1);
+		setNumberOfDestinations(numberOfDestinations);
+	}
+
+	// java.lang.Object methods
+	
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof RandomTopology) {
+			RandomTopology cother = (RandomTopology) other;
+			return new EqualsBuilder()
+				.append(numberOfDestinations, cother.numberOfDestinations)
+				.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package net.sf.jclec.algorithm.island;
+
+import net.sf.jclec.util.random.IRandGen;
+
+/**
+ * Ring topology. Each island sends its migrants to the next one.
+ * 
+ * @author Sebastian Ventura
+ */
+
+public class RingTopology implements IMigrationTopology
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -1635408932416715120L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty (default) constructor
+	 */
+	
+	public RingTopology() 
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// IMigrationTopology interface
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	public int [] destinations(int island, int numberOfIslands, IRandGen randgen) 
+	{
+		if (numberOfIslands < 2) {
+			return new int[0];
+		}
+		return new int [] {(island + 1) % numberOfIslands};
+	}
+
+	// java.lang.Object methods
+	
+	@Override
+	public boolean equals(Object other)
+	{
+		return other instanceof RingTopology;
+	}
+}
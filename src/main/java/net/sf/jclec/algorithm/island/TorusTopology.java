@@ -0,0 +1,164 @@
+package net.sf.jclec.algorithm.island;
+
+import java.util.Arrays;
+
+import net.sf.jclec.IConfigure;
+
+import net.sf.jclec.util.random.IRandGen;
+
+import org.apache.commons.configuration.Configuration;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * Torus topology. Islands are placed in a grid (with wrap-around borders)
+ * and each island sends its migrants to its four neighbours (north, south,
+ * east and west).
+ * 
+ * @author Sebastian Ventura
+ */
+
+public class TorusTopology implements IMigrationTopology, IConfigure
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -4418264030927545673L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of grid rows (0 means the grid as square as possible) */
+	
+	protected int rows;
+	
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty (default) constructor
+	 */
+	
+	public TorusTopology() 
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Getting and setting properties
+	
+	public final int getRows() 
+	{
+		return rows;
+	}
+
+	public final void setRows(int rows) 
+	{
+		this.rows = rows;
+	}
+
+	// IMigrationTopology interface
+	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Islands are placed in the grid by rows. If the number of islands is
+	 * not a multiple of the number of rows, an exception is thrown.
+	 */
+	
+	public int [] destinations(int island, int numberOfIslands, IRandGen randgen) 
+	{
+		if (numberOfIslands < 2) {
+			return new int[0];
+		}
+		int nrows = gridRows(numberOfIslands);
+		int ncols = numberOfIslands / nrows;
+		int row = island / ncols, col = island % ncols;
+		int [] neighbours = {
+				((row + nrows - 1) % nrows) * ncols + col,
+				((row + 1) % nrows) * ncols + col,
+				row * ncols + (col + ncols - 1) % ncols,
+				row * ncols + (col + 1) % ncols
+		};
+		// Remove repeated neighbours and the island itself (small grids)
+		int [] result = new int[4];
+		int size = 0;
+		for (int neighbour : neighbours) {
+			boolean found = (neighbour == island);
+			for (int i=0; i<size && !found; i++) {
+				found = (result[i] == neighbour);
+			}
+			if (!found) {
+				result[size++] = neighbour;
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	// IConfigure interface
+	
+	/**
+	 * Configuration parameters for TorusTopology are:
+	 * 
+	 * <ul>
+	 * <li>
+	 * <code>[@rows] (int)</code></p>
+	 * Number of grid rows. Default value is 0 (the grid is as square as 
+	 * possible)
+	 * </li>
+	 * </ul>
+	 */
+	
+	public void configure(Configuration settings) 
+	{
+		int rows = settings.getInt("[@rows]", 0);
+		setRows(rows);
+	}
+
+	// java.lang.Object methods
+	
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof TorusTopology) {
+			TorusTopology cother = (TorusTopology) other;
+			return new EqualsBuilder()
+				.append(rows, cother.rows)
+				.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Number of grid rows for the given number of islands.
+	 */
+	
+	private int gridRows(int numberOfIslands)
+	{
+		if (rows > 0) {
+			if (numberOfIslands % rows != 0) {
+				throw new IllegalArgumentException
+					(numberOfIslands + " islands cannot be placed in " + rows + " rows");
+			}
+			return rows;
+		}
+		// Greatest divisor not greater than the square root
+		int result = (int) Math.sqrt(numberOfIslands);
+		while (numberOfIslands % result != 0) {
+			result--;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,291 @@
+package net.sf.jclec.algorithm.multiobjective;
+
+import java.util.ArrayList;
+
+import net.sf.jclec.IConfigure;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.IMutator;
+import net.sf.jclec.IRecombinator;
+import net.sf.jclec.algorithm.PopulationAlgorithm;
+import net.sf.jclec.base.FilteredMutator;
+import net.sf.jclec.base.FilteredRecombinator;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+
+/**
+ * Base class of multi-objective population algorithms.
+ *
+ * It keeps the genetic operators (recombinator and mutator, both filtered
+ * by a probability) and breeds in the same way as SG: parents are
+ * recombined, sons are mutated and all new individuals are evaluated. If
+ * only one operator is set, doGeneration() breeds with it; if none is set,
+ * it does nothing, so subclasses can breed by other means.
+ *
+ * @author Sebastian Ventura
+ */
+
+public abstract class MultiobjectiveAlgorithm extends PopulationAlgorithm
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 3710246418237501952L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Individuals mutator */
+
+	protected FilteredMutator mutator;
+
+	/** Individuals recombinator */
+
+	protected FilteredRecombinator recombinator;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor.
+	 */
+
+	public MultiobjectiveAlgorithm()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------- Setting and getting properties
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Access to parents recombinator
+	 *
+	 * @return Actual parents recombinator
+	 */
+
+	public FilteredRecombinator getRecombinator()
+	{
+		return recombinator;
+	}
+
+	/**
+	 * Sets the parents recombinator.
+	 *
+	 * @param recombinator New parents recombinator
+	 */
+
+	public void setRecombinator(IRecombinator recombinator)
+	{
+		if(this.recombinator == null)
+			this.recombinator = new FilteredRecombinator(this);
+
+		this.recombinator.setDecorated(recombinator);
+	}
+
+	/**
+	 * Access to individuals mutator.
+	 *
+	 * @return Individuals mutator
+	 */
+
+	public FilteredMutator getMutator()
+	{
+		return mutator;
+	}
+
+	/**
+	 * Set individuals mutator.
+	 *
+	 * @param mutator Individuals mutator
+	 */
+
+	public void setMutator(IMutator mutator)
+	{
+		if(this.mutator == null)
+			this.mutator = new FilteredMutator(this);
+
+		this.mutator.setDecorated(mutator);
+	}
+
+	/**
+	 * Set the recombinator probability
+	 */
+
+	public void setRecombinationProb(double recProb)
+	{
+		if (this.recombinator == null) {
+			this.recombinator = new FilteredRecombinator(this);
+		}
+		recombinator.setRecProb(recProb);
+	}
+
+	/**
+	 * Set the mutator probability
+	 */
+
+	public void setMutationProb(double mutProb)
+	{
+		if (this.mutator == null) {
+			this.mutator = new FilteredMutator(this);
+		}
+		mutator.setMutProb(mutProb);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------- Implementing IConfigure interface
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Configuration parameters for multi-objective algorithms are (besides
+	 * those of PopulationAlgorithm):
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>recombinator[@type] (complete classname)</code></p>
+	 * Parents recombinator (and its recombination probability,
+	 * <code>recombinator[@rec-prob]</code>). Optional
+	 * </li><li>
+	 * <code>mutator[@type] (complete classname)</code></p>
+	 * Individuals mutator (and its mutation probability,
+	 * <code>mutator[@mut-prob]</code>). Optional
+	 * </li>
+	 * </ul>
+	 */
+
+	@Override
+	public void configure(Configuration settings)
+	{
+		// Call super.configure() method
+		super.configure(settings);
+		// Genetic operators
+		if (settings.containsKey("recombinator[@type]")) {
+			setRecombinatorSettings(settings);
+		}
+		if (settings.containsKey("mutator[@type]")) {
+			setMutatorSettings(settings);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Creates the recombinator set in configuration
+	 *
+	 * @param settings Algorithm configuration
+	 */
+
+	@SuppressWarnings("unchecked")
+	protected void setRecombinatorSettings(Configuration settings)
+	{
+		try {
+			// Recombinator classname
+			String recombinatorClassname = settings.getString("recombinator[@type]");
+			// Recombinator class
+			Class<? extends IRecombinator> recombinatorClass =
+				(Class<? extends IRecombinator>) Class.forName(recombinatorClassname);
+			// Recombinator instance
+			IRecombinator recombinator = recombinatorClass.newInstance();
+			// Configure recombinator
+			if (recombinator instanceof IConfigure) {
+				((IConfigure) recombinator).configure(settings.subset("recombinator"));
+			}
+			// Set recombinator
+			setRecombinator(recombinator);
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigurationRuntimeException("Illegal recombinator classname");
+		}
+		catch (InstantiationException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of recombinator", e);
+		}
+		catch (IllegalAccessException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of recombinator", e);
+		}
+		// Recombination probability
+		setRecombinationProb(settings.getDouble("recombinator[@rec-prob]"));
+	}
+
+	/**
+	 * Creates the mutator set in configuration
+	 *
+	 * @param settings Algorithm configuration
+	 */
+
+	@SuppressWarnings("unchecked")
+	protected void setMutatorSettings(Configuration settings)
+	{
+		try {
+			// Mutator classname
+			String mutatorClassname = settings.getString("mutator[@type]");
+			// Mutator class
+			Class<? extends IMutator> mutatorClass =
+				(Class<? extends IMutator>) Class.forName(mutatorClassname);
+			// Mutator instance
+			IMutator mutator = mutatorClass.newInstance();
+			// Configure mutator
+			if (mutator instanceof IConfigure) {
+				((IConfigure) mutator).configure(settings.subset("mutator"));
+			}
+			// Set mutator
+			setMutator(mutator);
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigurationRuntimeException("Illegal mutator classname");
+		}
+		catch (InstantiationException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of mutator", e);
+		}
+		catch (IllegalAccessException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of mutator", e);
+		}
+		// Mutation probability
+		setMutationProb(settings.getDouble("mutator[@mut-prob]"));
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------- Overwriting PopulationAlgorithm methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Recombines parents and mutates sons with the operators that are set
+	 * (without recombinator, parents are copied). If no operator is set,
+	 * does nothing.
+	 */
+
+	@Override
+	protected void doGeneration()
+	{
+		boolean recombine = recombinator != null && recombinator.getDecorated() != null;
+		boolean mutate = mutator != null && mutator.getDecorated() != null;
+		if (!recombine && !mutate) {
+			return;
+		}
+		if (recombine) {
+			// Recombine parents (non-recombined ones are copied)
+			cset = recombinator.recombine(pset);
+			for (IIndividual ind : recombinator.getSterile())
+				cset.add(ind.copy());
+		}
+		else {
+			// Copy parents
+			cset = new ArrayList<IIndividual>(pset.size());
+			for (IIndividual ind : pset)
+				cset.add(ind.copy());
+		}
+		if (mutate) {
+			// Mutate sons
+			cset = mutator.mutate(cset);
+			for (IIndividual ind : mutator.getSterile())
+				cset.add(ind);
+		}
+		// Evaluate all new individuals
+		evaluator.evaluate(cset);
+	}
+}
@@ -1,25 +1,27 @@
 package net.sf.jclec.algorithm.multiobjective;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
-import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import net.sf.jclec.IConfigure;
 import net.sf.jclec.IEvaluator;
 import net.sf.jclec.IFitness;
 import net.sf.jclec.IIndividual;
-import net.sf.jclec.IMutator;
-import net.sf.jclec.IRecombinator;
-import net.sf.jclec.algorithm.PopulationAlgorithm;
-import net.sf.jclec.base.FilteredMutator;
-import net.sf.jclec.base.FilteredRecombinator;
-import net.sf.jclec.fitness.CompositeFitness;
-import net.sf.jclec.fitness.IValueFitness;
 import net.sf.jclec.fitness.ParetoComparator;
 import net.sf.jclec.fitness.ValueFitnessComparator;
+import net.sf.jclec.util.IndexSort;
+import net.sf.jclec.util.pareto.CrowdingDistance;
+import net.sf.jclec.util.pareto.ENSNonDominatedSorter;
+import net.sf.jclec.util.pareto.INonDominatedSorter;
+import net.sf.jclec.util.pareto.ParetoFronts;
 
 import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
 
 /**
  * "NSGA-II" algorithm.
@@ -39,7 +41,7 @@ import org.apache.commons.configuration.Configuration;
  * @author Revised by: Jose Maria Luna, Alberto Cano
  */
 
-public class NSGA2 extends PopulationAlgorithm
+public class NSGA2 extends MultiobjectiveAlgorithm
 {
 	/////////////////////////////////////////////////////////////////
 	// --------------------------------------- Serialization constant
@@ -59,24 +61,24 @@ public class NSGA2 extends PopulationAlgorithm
 
 	/** Pareto comparator */
 
-	static ParetoComparator paretoComparator = new ParetoComparator();
+	ParetoComparator paretoComparator = new ParetoComparator();
 
-	/** Individuals mutator */
+	/** Non-dominated sorting procedure */
 
-	protected FilteredMutator mutator;
-
-	/** Individuals recombinator */
-
-	protected FilteredRecombinator recombinator;
+	protected INonDominatedSorter sorter = new ENSNonDominatedSorter();
 
 	/** It stores the variables associated to each individual of NSGAII algorithm  */
 
-	Hashtable<IIndividual, PropertyIndividualsNSGA2> individualProperty = new Hashtable<IIndividual, PropertyIndividualsNSGA2>();
+	Map<IIndividual, PropertyIndividualsNSGA2> individualProperty = new IdentityHashMap<IIndividual, PropertyIndividualsNSGA2>();
 
 	/** Maximize fitness */
 
 	private boolean maximize = true;
 
+	/** Number of objectives */
+
+	private int numberOfObjectives = 2;
+
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
 	/////////////////////////////////////////////////////////////////
@@ -95,123 +97,157 @@ public class NSGA2 extends PopulationAlgorithm
 	/////////////////////////////////////////////////////////////////
 
 	/**
-	 * Access to parents recombinator
-	 * 
-	 * @return Actual parents recombinator
-	 */
-
-	public FilteredRecombinator getRecombinator() 
-	{
-		return recombinator;
-	}
-
-	/**
-	 * Sets the parents recombinator.
-	 * 
-	 * @param recombinator New parents recombinator
+	 * Set individuals evaluator.
+	 *  
+	 * @param evaluator Individuals evaluator
 	 */
 
-	public void setRecombinator(IRecombinator recombinator) 
+	public void setEvaluator(IEvaluator evaluator)
 	{
-		if(this.recombinator == null)
-			this.recombinator = new FilteredRecombinator(this);
+		this.evaluator = evaluator;
 
-		this.recombinator.setDecorated(recombinator);
+		// Set comparators of the multi-objective
+		setComponentComparators();
 	}
 
 	/**
-	 * Access to individuals mutator.
-	 * 
-	 * @return Individuals mutator
+	 * Get the pareto front
 	 */
-
-	public FilteredMutator getMutator() 
+	public List<IIndividual> gePareto()
 	{
-		return mutator;
+		return this.paretoFront;
 	}
 
 	/**
-	 * Set individuals mutator.
-	 * 
-	 * @param mutator Individuals mutator
+	 * @return the maximize
 	 */
-
-	public void setMutator(IMutator mutator) 
-	{
-		if(this.mutator == null)
-			this.mutator = new FilteredMutator(this);
-
-		this.mutator.setDecorated(mutator);
+	public boolean isMaximize() {
+		return maximize;
 	}
 
 	/**
-	 * Set individuals evaluator.
-	 *  
-	 * @param evaluator Individuals evaluator
+	 * @param maximize the maximize to set
 	 */
-
-	@SuppressWarnings("unchecked")
-	public void setEvaluator(IEvaluator evaluator)
-	{
-		this.evaluator = evaluator;
-
-		Comparator<IFitness> componentComparators [] = new Comparator[2];
-		componentComparators[0] = new ValueFitnessComparator(!maximize);
-		componentComparators[1] = new ValueFitnessComparator(!maximize);
-
-		// Set comparators of the multi-objective
-		paretoComparator.setComponentComparators(componentComparators);
+	public void setMaximize(boolean maximize) {
+		this.maximize = maximize;
+		setComponentComparators();
 	}
 
 	/**
-	 * Set the recombinator probability
+	 * Access to the number of objectives
+	 * 
+	 * @return Number of objectives
 	 */
 
-	public void setRecombinationProb(double recProb) 
+	public int getNumberOfObjectives()
 	{
-		((FilteredRecombinator) this.recombinator).setRecProb(recProb);
-	}	
+		return numberOfObjectives;
+	}
 
 	/**
-	 * Set the mutator probability
+	 * Sets the number of objectives (components of individuals fitness)
+	 * 
+	 * @param numberOfObjectives Number of objectives
 	 */
 
-	public void setMutationProb(double mutProb) 
+	public void setNumberOfObjectives(int numberOfObjectives)
 	{
-		((FilteredMutator) this.mutator).setMutProb(mutProb);
+		this.numberOfObjectives = numberOfObjectives;
+		setComponentComparators();
 	}
 
 	/**
-	 * Get the pareto front
+	 * Access to the non-dominated sorting procedure
+	 * 
+	 * @return Non-dominated sorter
 	 */
-	public List<IIndividual> gePareto()
+
+	public INonDominatedSorter getSorter()
 	{
-		return this.paretoFront;
+		return sorter;
 	}
 
 	/**
-	 * @return the maximize
+	 * Sets the non-dominated sorting procedure
+	 * 
+	 * @param sorter New non-dominated sorter
 	 */
-	public boolean isMaximize() {
-		return maximize;
-	}
 
-	/**
-	 * @param maximize the maximize to set
-	 */
-	public void setMaximize(boolean maximize) {
-		this.maximize = maximize;
+	public void setSorter(INonDominatedSorter sorter)
+	{
+		this.sorter = sorter;
 	}
 
 	/////////////////////////////////////////////////////////////////
 	// ---------------------------- Implementing IConfigure interface
 	/////////////////////////////////////////////////////////////////
 
+	/**
+	 * Configuration parameters for NSGA2 are (besides those of
+	 * MultiobjectiveAlgorithm):
+	 * 
+	 * <ul>
+	 * <li>
+	 * <code>non-dominated-sorter[@type] (complete classname)</code></p>
+	 * Non-dominated sorting procedure. Default value is
+	 * net.sf.jclec.util.pareto.ENSNonDominatedSorter
+	 * </li><li>
+	 * <code>number-of-objectives (int)</code></p>
+	 * Number of objectives. Default value is 2
+	 * </li><li>
+	 * <code>maximize (boolean)</code></p>
+	 * Maximize all objectives? Default value is true
+	 * </li>
+	 * </ul>
+	 */
+
 	public void configure(Configuration settings)
 	{
 		super.configure(settings);
+		// Non-dominated sorter
+		if (settings.containsKey("non-dominated-sorter[@type]")) {
+			setSorterSettings(settings);
+		}
+		// Objectives
+		setNumberOfObjectives(settings.getInt("number-of-objectives", numberOfObjectives));
+		setMaximize(settings.getBoolean("maximize", maximize));
 	}	
 
+	/**
+	 * Creates the non-dominated sorter set in configuration
+	 * 
+	 * @param settings Algorithm configuration
+	 */
+
+	@SuppressWarnings("unchecked")
+	protected void setSorterSettings(Configuration settings)
+	{
+		try {
+			// Sorter classname
+			String sorterClassname = settings.getString("non-dominated-sorter[@type]");
+			// Sorter class
+			Class<? extends INonDominatedSorter> sorterClass = 
+				(Class<? extends INonDominatedSorter>) Class.forName(sorterClassname);
+			// Sorter instance
+			INonDominatedSorter sorter = sorterClass.newInstance();
+			// Configure sorter
+			if (sorter instanceof IConfigure) {
+				((IConfigure) sorter).configure(settings.subset("non-dominated-sorter"));
+			}
+			// Set sorter
+			setSorter(sorter);
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigurationRuntimeException("Illegal non-dominated sorter classname");
+		}
+		catch (InstantiationException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of non-dominated sorter", e);
+		}
+		catch (IllegalAccessException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of non-dominated sorter", e);
+		}
+	}
+
 	/////////////////////////////////////////////////////////////////
 	// --------------------- Overwriting PopulationAlgorithm methods
 	/////////////////////////////////////////////////////////////////
@@ -224,12 +260,21 @@ public class NSGA2 extends PopulationAlgorithm
 			pset = select(bset);
 	}
 
-	protected void doGeneration() {
+	protected void doReplacement() {
 		// Do Nothing
 	}
 
-	protected void doReplacement() {
-		// Do Nothing
+	/**
+	 * Adds immigrants and ranks the population again, so that immigrants
+	 * have front and crowding distance when parents are selected.
+	 * 
+	 * @param immigrants Evaluated individuals to add
+	 */
+
+	@Override
+	public void acceptImmigrants(List<IIndividual> immigrants) {
+		super.acceptImmigrants(immigrants);
+		bset = rank(bset, bset.size());
 	}
 
 	/**
@@ -238,14 +283,14 @@ public class NSGA2 extends PopulationAlgorithm
 	 * 
 	 * Step1: To organize the population in fronts of nondominated individuals.
 	 * Assigning to each individual the value of the front to which it belongs
-	 * (fastNodominatedSort).
+	 * (non-dominated sorter).
 	 * 
 	 * Step2: To get an estimate of the density of solution surronunding a
 	 * particular solution in the population, we calculate the average
 	 * distance of two points on either side of this point along each of 
 	 * the objetives. This quantity serves as an estimate of the 
 	 * perimeter of the cuboid formed by using the nearest neighbors
-	 * as the vertices (crowdingDistanceAssignment).
+	 * as the vertices (CrowdingDistance.assign).
 	 * 
 	 * Step3: To update the new population, assigning individual from
 	 * the first front towards the last front, while the size
@@ -267,66 +312,105 @@ public class NSGA2 extends PopulationAlgorithm
 
 	protected void doUpdate() {
 
-		// Unite the populations (cSetName and bSetName)
-		List<IIndividual> aset = new ArrayList<IIndividual> ();
-
-		aset.addAll(bset);
+		// Unite the populations (cSetName and bSetName), discarding
+		// the children already present
+		Set<IIndividual> union = new LinkedHashSet<IIndividual>(bset);
+		List<IIndividual> aset = new ArrayList<IIndividual> (bset);
 
 		for(IIndividual ind : cset)
-			if(!aset.contains(ind))
-				aset.add((IIndividual) ind);
+			if(union.add(ind))
+				aset.add(ind);
+
+		//We set the new population
+		bset = rank(aset, bset.size());
 
-		//Clear the list of fronts
-		List<List<IIndividual>> indFronts  = new ArrayList<List<IIndividual>>();
+		// Clear pset & rset
+		cset = pset = null;
+	}
 
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Sorts individuals by fronts and crowding distance (steps 1 to 3
+	 * of doUpdate()), storing both of them in the individuals table, and
+	 * updates the Pareto front.
+	 * 
+	 * @param aset Individuals to rank
+	 * @param size Number of individuals to keep
+	 * 
+	 * @return The best size individuals
+	 */
+
+	private List<IIndividual> rank(List<IIndividual> aset, int size)
+	{
 		//Clear the table
 		individualProperty.clear();
 
-		//The individuals are sorted by fronts
-		indFronts = fastNonDominatedSort(aset);
+		//Objective values (all of them minimized)
+		double [][] objectives = ParetoFronts.objectives(aset, paretoComparator.getComponentComparators());
 
-		//Assigment to each individual the value of the perimeter 
-		//of its bucket by means of the previous and later 
-		//individuals of each front
-		for(List<IIndividual> ind : indFronts) 
-			crowdingDistanceAssignment(ind);
+		//The individuals are sorted by fronts
+		int [][] fronts = ParetoFronts.fronts(sorter.sort(objectives));
 
 		//We set the new population
 		List<IIndividual> newSet = new ArrayList<IIndividual>();
-		int size =  bset.size();
-		int index = 0;
 
-		// The new population is created with the indiviudos of the first fronts 
-		while((newSet.size() + indFronts.get(index).size()) < size )
+		// The new population is created with the individuals of the first
+		// fronts. The front that completes it is sorted by decreasing
+		// perimeter, and only the best individuals are taken
+		for(int index=0; newSet.size() < size && index < fronts.length; index++)
 		{
-			newSet.addAll(indFronts.get(index));
-			index++;
-		}
+			int [] front = fronts[index];
 
-		int fill = size-newSet.size();
+			//Assigment to each individual the value of the perimeter 
+			//of its bucket by means of the previous and later 
+			//individuals of its front
+			double [] perimeters = CrowdingDistance.assign(objectives, front);
 
-		sortedCrowdingDistanceAssignment(indFronts.get(index));
+			int [] selected;
+			if(newSet.size() + front.length < size)
+				selected = IndexSort.identity(front.length);
+			else
+				selected = CrowdingDistance.select(perimeters, size - newSet.size());
 
-		for(int j=0; j<fill; j++)
-			newSet.add(indFronts.get(index).get(j));
+			for(int i : selected)
+			{
+				IIndividual ind = aset.get(front[i]);
+				// Fronts are numbered from 1
+				PropertyIndividualsNSGA2 prop = new PropertyIndividualsNSGA2();
+				prop.setFront(index + 1);
+				prop.setCuboPerimeter(perimeters[i]);
+				individualProperty.put(ind, prop);
+				newSet.add(ind);
+			}
+		}
 
 		//Sets new nodominated set
 		paretoFront.clear();
+		Set<IIndividual> nondominated = new LinkedHashSet<IIndividual>();
+		for(int i : fronts[0])
+			nondominated.add(aset.get(i));
+		paretoFront.addAll(nondominated);
 
-		for(IIndividual ind : indFronts.get(0))
-			if(!paretoFront.contains(ind))
-				paretoFront.add(ind);
-
-		bset = newSet;
-
-		// Clear pset & rset
-		cset = pset = null;
+		return newSet;
 	}
 
+	/**
+	 * Sets the comparators of the objectives (all of them maximized or
+	 * minimized) in the Pareto comparator
+	 */
 
-	/////////////////////////////////////////////////////////////////
-	// ---------------------------------------------- Private methods
-	/////////////////////////////////////////////////////////////////
+	@SuppressWarnings("unchecked")
+	private void setComponentComparators()
+	{
+		Comparator<IFitness> componentComparators [] = new Comparator[numberOfObjectives];
+		for (int i=0; i<numberOfObjectives; i++)
+			componentComparators[i] = new ValueFitnessComparator(!maximize);
+		paretoComparator.setComponentComparators(componentComparators);
+	}
 
 	/**
 	 *   Select the parents set. The selection method uses is a 
@@ -368,14 +452,14 @@ public class NSGA2 extends PopulationAlgorithm
 		for (int i=0; i<grpsiz-1; i++)
 		{
 			// Random selected individual
-			tmpNum = randGenFactory.createRandGen().choose(i,grplm1);
+			tmpNum = createRandGen().choose(i,grplm1);
 			IIndividual tmp = group.get(individuos[tmpNum]);
 			propTmp = individualProperty.get(tmp);
 
 			// Binary Tournament
 			for (int j=1; j<tsize; j++) 
 			{
-				tmp2Num = randGenFactory.createRandGen().choose(i,grplm1);
+				tmp2Num = createRandGen().choose(i,grplm1);
 				IIndividual tmp2 = group.get(individuos[tmp2Num]);
 				propTmp2 = individualProperty.get(tmp2);
 				if( propTmp.getFront() > propTmp2.getFront())
@@ -404,239 +488,6 @@ public class NSGA2 extends PopulationAlgorithm
 		return selection;
 	}
 
-	/**
-	 * 
-	 * Decreasing Sort the individuals of same front, according to the
-	 * perimeter 
-
-	 * @param front individuals list of same front
-	 * 
-	 */
-
-	private void sortedCrowdingDistanceAssignment(List<IIndividual> front)
-	{
-		// Properties of the individuals
-		PropertyIndividualsNSGA2 prop1;
-		PropertyIndividualsNSGA2 prop2;
-
-		//Sort by the property of the perimeter of the bucket
-		for(int i=0; i<front.size(); i++)
-		{
-			prop1 = individualProperty.get(front.get(i));
-
-			for(int j=i+1; j<front.size(); j++)
-			{
-				prop2 = individualProperty.get(front.get(j));
-
-				if(prop1.getCubePerimeter() < prop2.getCubePerimeter())
-				{
-					IIndividual auxInd = front.get(j);
-					front.remove(j);
-					front.add(i, auxInd);
-					prop1 = prop2;
-				}					
-			}
-		}
-	}
-
-	/**
-	 * 
-	 * Sort the individual by nondominated fronts, of this way, the 
-	 * front1 will be constituted by all the nondominated individuals 
-	 * by others, the front2 will be constituted by the nondominated 
-	 * individuals by others, but in this case, it is considered 
-	 * eliminated the individuals that belong to the front1, 
-	 * and so on.
-	 * 
-	 * @param pob The population which is going to order by front
-	 * 
-	 * @return auxFront The population organizated by fronts
-	 */
-
-	private List<List<IIndividual>> fastNonDominatedSort(List<IIndividual> pob)
-	{
-		//It is stored the nondominated individuals in each front
-		List<IIndividual> auxiliarDominated = new ArrayList<IIndividual>(); 
-		//It is stored the individuals belong to each front
-		List<IIndividual> auxiliarFront = new ArrayList<IIndividual>();
-		//Specific properties of the individuals of NSGAII algorithm 
-		PropertyIndividualsNSGA2 [] propInd = new PropertyIndividualsNSGA2[pob.size()];
-		// It is stored the individuals organized in fronts
-		List<List<IIndividual>> auxiliarListFronts  = new ArrayList<List<IIndividual>>();
-
-		// It is initialized an object of properties for each 
-		// one of the individuals
-		for(int i=0; i<pob.size();i++)
-			propInd[i] = new PropertyIndividualsNSGA2();
-
-		//It is established the parameters of each individuals.
-		//These are the number of individuals that they dominate and the 
-		//number of individuals that dominate to him 
-		for(int i=0; i<pob.size(); i++) 
-		{
-			for(int j=0; j<pob.size(); j++)
-			{
-				// The first step is to calculate the number of individuals 
-				// which dominate each individual
-
-				switch(paretoComparator.compare((CompositeFitness)pob.get(i).getFitness(), (CompositeFitness) pob.get(j).getFitness()))
-				{
-				//if the result is equal to 1 it means that i dominates j
-				case 1:
-					auxiliarDominated.add(pob.get(j));
-					break;
-
-					//if the result is equal to -1 it means that j dominates i
-				case -1:
-					propInd[i].setDomainedBy(propInd[i].getDomainedBy()+1);
-					break;
-
-					//if the result is equal to 0 there isn`t relation of "dominancia" 
-				case 0:
-					break;
-				}
-			}
-
-			//the list of dominated individuals is added to 
-			//the general list
-			propInd[i].setDominatedList(auxiliarDominated);
-			//The auxiliar elements are eliminated
-			auxiliarDominated.clear();
-
-			// If the individual is not dominated by any other, 
-			// it sets that	the individual belongs to the first front
-			if (propInd[i].getDomainedBy() == 0)
-			{
-				propInd[i].setFront(1);
-				auxiliarFront.add(pob.get(i));
-
-			}
-			// It is indexed each property of the individual with same himself
-			individualProperty.put(pob.get(i), propInd[i]);
-		}
-
-		//It is added the individuals that belong to the first front
-		List<IIndividual> tmp = new ArrayList<IIndividual>();
-		tmp.addAll(auxiliarFront);
-		auxiliarListFronts.add(tmp);
-
-		//It is initialized the necessary variables
-		int numFront = 0;
-		List<IIndividual> previousFront;
-		PropertyIndividualsNSGA2 propFrente, propDominatedInd;
-
-		//It is established the front to which each individual belongs
-		while (auxiliarListFronts.get(numFront).size() != 0)
-		{
-			auxiliarFront.clear();
-			previousFront = auxiliarListFronts.get(numFront); 
-
-			for(int i=0; i < previousFront.size(); i++)
-			{
-				propFrente = individualProperty.get(previousFront.get(i));
-				for(int j=0; j < (propFrente.getDominatedList()).size(); j++)
-				{
-					propDominatedInd = individualProperty.get((propFrente.getDominatedList()).get(j));
-
-					propDominatedInd.setDomainedBy(propDominatedInd.getDomainedBy() - 1);
-
-					if(propDominatedInd.getDomainedBy() == 0)
-					{
-						propDominatedInd.setFront(numFront + 1);
-						auxiliarFront.add((propFrente.getDominatedList()).get(j));
-					}
-				}
-			}
-
-			numFront++;
-			tmp = new ArrayList<IIndividual>();
-			tmp.addAll(auxiliarFront);
-			auxiliarListFronts.add(tmp);
-		}
-
-		// It is eliminate the last element
-		auxiliarListFronts.remove(auxiliarListFronts.size()-1);
-
-		return auxiliarListFronts;
-	}
-
-	/**
-	 * Compute an estimate of the density of solution surronunding a
-	 * particular solution in the same front, we calculate the average
-	 * distance of two points on either side of this point along each of 
-	 * the objetives. This quantity serves as an estimate of the 
-	 * perimeter of the cuboid formed by using the nearest neighbors
-	 * as the vertices.
-	 * 
-	 *@param front The individuals of front modify theirs estimation
-	 *of the density based in parameter of cuboPerimeter
-	 */
-	private void crowdingDistanceAssignment(List<IIndividual> front)
-	{
-		List<IIndividual> sortedFront;
-		double auxDouble, fMax, fMin;
-		int frontSize = front.size();
-		int numberObjectives = ((CompositeFitness) (front.get(0)).getFitness()).getComponents().length;
-
-		//The parameter that represents the perimeter of the
-		//bucket is initialized to 0.
-		for(int i=0; i<frontSize; i++)
-			individualProperty.get(front.get(i)).setCuboPerimeter(0);
-
-		
-		//For each objetive 'm' 
-		for(int objective=0; objective<numberObjectives; objective++)
-		{
-			// Sort the individuals of this front by the objective
-			sortedFront = sortFronts(front, objective);
-
-			// The last and first individual have a infinite value
-			individualProperty.get(sortedFront.get(0)).setCuboPerimeter(Double.MAX_VALUE);	
-			individualProperty.get(sortedFront.get(frontSize-1)).setCuboPerimeter(Double.MAX_VALUE);
-
-			// Maximum and minimum of objective function
-			fMin = ((IValueFitness) ((CompositeFitness) (sortedFront.get(0)).getFitness()).getComponent(objective)).getValue();
-			fMax = ((IValueFitness) ((CompositeFitness) (sortedFront.get(frontSize - 1)).getFitness()).getComponent(objective)).getValue();
-
-			if(fMin!=fMax){
-				for(int i=1; i<frontSize-1; i++)
-				{
-					auxDouble = Math.abs( ((IValueFitness) ((CompositeFitness) (sortedFront.get(i+1)).getFitness()).getComponent(objective)).getValue() - ((IValueFitness) ((CompositeFitness) (sortedFront.get(i-1)).getFitness()).getComponent(objective)).getValue());
-					auxDouble = auxDouble / Math.abs(fMax - fMin);
-					individualProperty.get(sortedFront.get(i)).setCuboPerimeter(individualProperty.get(front.get(i)).getCubePerimeter() + auxDouble);
-				}
-			}
-		}
-	}
-
-
-	/**
-	 * 
-	 * Sort the list of individuals according to the objective function 
-	 * which is indicated by function argument.
-	 * 
-	 * @param source, List of individuals which are going to order by the
-	 * objetive function indicated
-	 * @param numObj Number which represents the function objective which 
-	 * is used.
-	 * 
-	 * @return the list of individuals sorted accordint to objective function (numObj)
-	 */
-
-	private List<IIndividual> sortFronts(List<IIndividual> source, int numObj)
-	{
-		// Selection result
-		List<IIndividual> result = new ArrayList<IIndividual>(source);
-
-		//Sort in increasing values of the criteria 'numObj'
-		ComparatorByObjectives comparatorObjectives = new ComparatorByObjectives();
-		comparatorObjectives.setNumberObjective(numObj);
-		Collections.sort(result, comparatorObjectives.comparatorByObjectives);
-
-		// Return the result
-		return result;
-	}
-
 	/**
 	 * Properties of the NSGA2 individuals
 	 * 
@@ -659,24 +510,14 @@ public class NSGA2 extends PopulationAlgorithm
 
 		private double cuboPerimeter;
 
-		/** Number of individual which dominate it  */
-
-		private int domainedBy;
-
-		/** Individual list which are dominated by it */
-
-		protected List<IIndividual> dominatedList = new ArrayList<IIndividual>();
-
 		/////////////////////////////////////////////////////////////////
 		// ------------------------------------------------- Constructors
 		/////////////////////////////////////////////////////////////////
 
 		public PropertyIndividualsNSGA2()
 		{
-			this.domainedBy = 0;
 			this.cuboPerimeter = 0.0;
 			this.front = 0;
-			this.dominatedList.clear();
 		}
 
 		/////////////////////////////////////////////////////////////////
@@ -727,74 +568,5 @@ public class NSGA2 extends PopulationAlgorithm
 		{
 			return this.cuboPerimeter;
 		}
-
-		/**
-		 * Set the new value of individuals number which dominate it.
-		 *
-		 * @param domainedBy New value of individual number which dominate it.
-		 */
-
-		public void setDomainedBy(int domainedBy)
-		{
-			this.domainedBy = domainedBy;
-		}
-
-		/**
-		 * Return the value of individuals number which dominate it.
-		 *
-		 * @return domainedBy number of individuals which dominate it.
-		 */
-
-		public int getDomainedBy()
-		{
-			return this.domainedBy;
-		}
-
-		/**
-		 * Set the list of individuals which are dominated by current individual.
-		 *
-		 * @param dominatedList New dominated individual list.
-		 */
-
-		public void setDominatedList(List<IIndividual> dominatedList)
-		{
-			this.dominatedList.addAll(dominatedList);
-		}
-
-		/**
-		 * Return list of dominated individuals.
-		 *
-		 * @return Dominated Individual List.
-		 */
-
-		public List<IIndividual> getDominatedList()
-		{
-			return this.dominatedList;
-		}
-	}
-
-	/**
-	 *  
-	 *  Compare two individuals according to objective function 
-	 *  indicated.
-	 *  
-	 */
-	private class ComparatorByObjectives
-	{
-		private int numberObjective;
-
-		public void setNumberObjective(int numberObjective)
-		{
-			this.numberObjective = numberObjective;
-		}
-
-		Comparator<IIndividual> comparatorByObjectives = new Comparator<IIndividual>()
-				{
-			public int compare(IIndividual arg0, IIndividual arg1) 
-			{
-				return paretoComparator.getComponentComparators()[numberObjective].compare(((CompositeFitness) arg0.getFitness()).getComponent(numberObjective), ((CompositeFitness) arg1.getFitness()).getComponent(numberObjective));
-			}		
-				};
-
 	}
 }
\ No newline at end of file
@@ -1,25 +1,23 @@
 package net.sf.jclec.algorithm.multiobjective;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import net.sf.jclec.IConfigure;
 import net.sf.jclec.IEvaluator;
 import net.sf.jclec.IFitness;
 import net.sf.jclec.IIndividual;
-import net.sf.jclec.IMutator;
-import net.sf.jclec.IRecombinator;
 import net.sf.jclec.ISelector;
-import net.sf.jclec.algorithm.PopulationAlgorithm;
-import net.sf.jclec.base.FilteredMutator;
-import net.sf.jclec.base.FilteredRecombinator;
 import net.sf.jclec.fitness.CompositeFitness;
 import net.sf.jclec.fitness.IValueFitness;
 import net.sf.jclec.fitness.ParetoComparator;
 import net.sf.jclec.fitness.ValueFitnessComparator;
-import net.sf.jclec.selector.WorsesSelector;
+import net.sf.jclec.util.IndexSort;
+import net.sf.jclec.util.pareto.NeighbourDensity;
+import net.sf.jclec.util.pareto.ParetoFronts;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationRuntimeException;
@@ -38,7 +36,7 @@ import org.apache.commons.configuration.ConfigurationRuntimeException;
  * @author Revised by: Jose Mari?oea Luna-Ariza
  */
 
-public class SPEA2 extends PopulationAlgorithm
+public class SPEA2 extends MultiobjectiveAlgorithm
 {
 	/////////////////////////////////////////////////////////////////
 	// --------------------------------------- Serialization constant
@@ -56,22 +54,10 @@ public class SPEA2 extends PopulationAlgorithm
 	
 	List<IIndividual> eset = new ArrayList<IIndividual>();
 	
-	/** Worses Selector */
-	
-	WorsesSelector worstSelect = new WorsesSelector(this);
-	
 	/** Pareto comparator */
 	
 	ParetoComparator paretoComparator = new ParetoComparator();
 	
-	/** Individuals mutator */
-	
-	protected FilteredMutator mutator;
-
-	/** Individuals recombinator */
-
-	protected FilteredRecombinator recombinator;
-	
 	/** Parents selector */
 
 	protected ISelector parentsSelector;
@@ -88,6 +74,10 @@ public class SPEA2 extends PopulationAlgorithm
 
 	private boolean maximize;
 	
+	/** Number of objectives */
+	
+	private int numberOfObjectives = 2;
+	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
 	/////////////////////////////////////////////////////////////////
@@ -183,91 +173,18 @@ public class SPEA2 extends PopulationAlgorithm
 		this.kValue = kValue;
 	}
 	
-	/**
-	 * Access to parents recombinator
-	 * 
-	 * @return Actual parents recombinator
-	 */
-	
-	public FilteredRecombinator getRecombinator() 
-	{
-		return recombinator;
-	}
-
-	/**
-	 * Sets the parents recombinator.
-	 * 
-	 * @param recombinator New parents recombinator
-	 */
-	
-	public void setRecombinator(IRecombinator recombinator) 
-	{
-		if(this.recombinator == null)
-			this.recombinator = new FilteredRecombinator(this);
-		
-		this.recombinator.setDecorated(recombinator);
-	}
-	
-	/**
-	 * Access to individuals mutator.
-	 * 
-	 * @return Individuals mutator
-	 */
-	
-	public FilteredMutator getMutator() 
-	{
-		return mutator;
-	}
-	
-	/**
-	 * Set individuals mutator.
-	 * 
-	 * @param mutator Individuals mutator
-	 */
-	
-	public void setMutator(IMutator mutator) 
-	{
-		if(this.mutator == null)
-			this.mutator = new FilteredMutator(this);
-		
-		this.mutator.setDecorated(mutator);
-	}
-
 	/**
 	 * Set individuals evaluator.
 	 *  
 	 * @param evaluator Individuals evaluator
 	 */
 	
-	@SuppressWarnings({"unchecked" })
 	public void setEvaluator(IEvaluator evaluator)
 	{
 		this.evaluator = evaluator;
 		
-		Comparator<IFitness> componentComparators [] = new Comparator[2];
-		componentComparators[0] = new ValueFitnessComparator(!maximize);
-		componentComparators[1] = new ValueFitnessComparator(!maximize);
-		
 		// Set comparators of the mutiobjective
-		paretoComparator.setComponentComparators(componentComparators);
-	}
-	
-	/**
-	 * Set the recombinator probability
-	 */
-	
-	public void setRecombinationProb(double recProb) 
-	{
-		((FilteredRecombinator) this.recombinator).setRecProb(recProb);
-	}	
-	
-	/**
-	 * Set the mutator probability
-	 */
-	
-	public void setMutationProb(double mutProb) 
-	{
-		((FilteredMutator) this.mutator).setMutProb(mutProb);
+		setComponentComparators();
 	}
 	
 	/**
@@ -282,12 +199,60 @@ public class SPEA2 extends PopulationAlgorithm
 	 */
 	public void setMaximize(boolean maximize) {
 		this.maximize = maximize;
+		setComponentComparators();
+	}
+
+	/**
+	 * Access to the number of objectives
+	 * 
+	 * @return Number of objectives
+	 */
+
+	public int getNumberOfObjectives()
+	{
+		return numberOfObjectives;
+	}
+
+	/**
+	 * Sets the number of objectives (components of individuals fitness)
+	 * 
+	 * @param numberOfObjectives Number of objectives
+	 */
+
+	public void setNumberOfObjectives(int numberOfObjectives)
+	{
+		this.numberOfObjectives = numberOfObjectives;
+		setComponentComparators();
 	}
 
 	/////////////////////////////////////////////////////////////////
 	// ---------------------------- Implementing IConfigure interface
 	/////////////////////////////////////////////////////////////////
 
+	/**
+	 * Configuration parameters for SPEA2 are (besides those of
+	 * MultiobjectiveAlgorithm):
+	 * 
+	 * <ul>
+	 * <li>
+	 * <code>parents-selector[@type] (complete classname)</code></p>
+	 * Parents selector
+	 * </li><li>
+	 * <code>external-population-size (int)</code></p>
+	 * Size of the external population
+	 * </li><li>
+	 * <code>k-value (int)</code></p>
+	 * Neighbour used in density estimation
+	 * </li><li>
+	 * <code>number-of-objectives (int)</code></p>
+	 * Number of objectives. Default value is 2
+	 * </li><li>
+	 * <code>maximize (boolean)</code></p>
+	 * Maximize all objectives? Default value is false
+	 * </li>
+	 * </ul>
+	 */
+	
 	@SuppressWarnings("unchecked")
 	public void configure(Configuration settings)
 	{
@@ -331,6 +296,9 @@ public class SPEA2 extends PopulationAlgorithm
 		// Extract K Value 
 		int kValue = settings.getInt("k-value");
 		setKValue(kValue);
+		// Objectives
+		setNumberOfObjectives(settings.getInt("number-of-objectives", numberOfObjectives));
+		setMaximize(settings.getBoolean("maximize", maximize));
 	}
 	
 	/////////////////////////////////////////////////////////////////
@@ -355,12 +323,7 @@ public class SPEA2 extends PopulationAlgorithm
 	protected void doSelection() 
 	{
 		//Unite the populations
-		List<IIndividual> aset = new ArrayList<IIndividual> ();
-		aset.addAll(bset);
-		
-		for(IIndividual ind : eset)
-			if(!aset.contains(ind))
-				aset.add((IIndividual) ind);
+		List<IIndividual> aset = union(bset, eset);
 		
 		//Calculate fitness value of all population individuals
 		fitnessAssignment(aset);
@@ -369,21 +332,12 @@ public class SPEA2 extends PopulationAlgorithm
 		eset = environmentalSelection(aset);
 
 		//Unite the populations
-		aset = new ArrayList<IIndividual> ();
-		aset.addAll(bset);
-		
-		for(IIndividual ind : eset)
-			if(!aset.contains(ind))
-				aset.add((IIndividual) ind);
+		aset = union(bset, eset);
 
 		// Obtain the individuals from which the offspring will be created
 		pset = parentsSelector.select(aset, bset.size());
 	}
 
-	protected void doGeneration() {
-		//Do nothing
-	}
-
 	@Override
 	protected void doReplacement() {
 		// Do nothing
@@ -397,6 +351,28 @@ public class SPEA2 extends PopulationAlgorithm
 		pset = cset = null;
 	}
 	
+	/**
+	 * Unite two populations. Individuals of the second one that are
+	 * already in the first one are not added.
+	 * 
+	 * @param first First population
+	 * @param second Second population
+	 * 
+	 * @return Union of both populations
+	 */
+	
+	private List<IIndividual> union(List<IIndividual> first, List<IIndividual> second)
+	{
+		Set<IIndividual> set = new LinkedHashSet<IIndividual>(first);
+		List<IIndividual> union = new ArrayList<IIndividual>(first);
+		
+		for(IIndividual ind : second)
+			if(set.add(ind))
+				union.add(ind);
+		
+		return union;
+	}
+	
 	/**
 	 * 
 	 * 	Calculate the fitness value of the individuals.
@@ -415,7 +391,6 @@ public class SPEA2 extends PopulationAlgorithm
 		long [] S = new long [pop.size()];
 		long [] R = new long [pop.size()];
 		double [] D = new double [pop.size()];
-		double [][] distance = new double [pop.size()][pop.size()]; 
 		
 		//The vectors are initialized
 		for(int i=0; i<pop.size(); i++)
@@ -430,46 +405,50 @@ public class SPEA2 extends PopulationAlgorithm
 		 * needed is the Raw Fitness, R
 		 */
 		
+		//Objective values (all of them minimized)
+		double [][] objectives = ParetoFronts.objectives(pop, paretoComparator.getComponentComparators());
+		
 		//The first step is to calculate the number of individuals
 		//to which it dominates each individual. This is the
 		//strength value of each individual
 		for(int i=0; i<pop.size(); i++)
-			for(int j=0; j<pop.size(); j++)
-				if(i!=j && paretoComparator.compare( (CompositeFitness) pop.get(i).getFitness(), (CompositeFitness)pop.get(j).getFitness()) == 1)
+			for(int j=i+1; j<pop.size(); j++)
+				switch(ParetoFronts.compare(objectives[i], objectives[j]))
+				{
+				case 1:
 					S[i] ++;
+					break;
+				case -1:
+					S[j] ++;
+					break;
+				}
 		
 		//Now, calculates the raw fitness which is the
 		//sum of strength values of the individuals that 
 		//dominate it
 		for(int i=0; i<pop.size(); i++)
-			for(int j=0; j<pop.size(); j++)
-				if(i!=j && paretoComparator.compare((CompositeFitness)pop.get(j).getFitness(), (CompositeFitness)pop.get(i).getFitness()) == 1)
+			for(int j=i+1; j<pop.size(); j++)
+				switch(ParetoFronts.compare(objectives[i], objectives[j]))
+				{
+				case 1:
+					R[j] += S[i];
+					break;
+				case -1:
 					R[i] += S[j];
+					break;
+				}
 
 		/**
 		 * The other component of fitness that we needed
 		 * is the density of information, D
 		 */
 		
-		//Calculate the distance between the individuals
-		for(int i=0; i<pop.size(); i++)
-		{
-			for(int j=i+1; j<pop.size(); j++)
-			{
-				distance[i][j] = calculateDistance(pop.get(i), pop.get(j));
-				distance[j][i] = distance[i][j];
-			}
-			
-			distance[i][i] = 0;
-		}
+		//Find the k_th closest neighbour of each individual
+		//in objective space
+		NeighbourDensity density = new NeighbourDensity(objectives, kValue);
 		
-		//Sort the individuals by rows
-		for(int i= 0; i<pop.size(); i++)
-			Arrays.sort(distance[i]);
-				
-		//The k_th neighbour closest is selected
 		for(int i=0; i<pop.size(); i++)
-			D[i] = (1 / ( distance[i][kValue] + 2.0 ));
+			D[i] = (1 / ( density.distance(i) + 2.0 ));
 		
 		//Finally, the fitness value is assigned
 		for(int i=0; i<pop.size(); i++)
@@ -528,14 +507,15 @@ public class SPEA2 extends PopulationAlgorithm
 	
 	public List<IIndividual> environmentalSelection(List<IIndividual> aset)
 	{
-		List<IIndividual> eset = new ArrayList<IIndividual>();
+		Set<IIndividual> nondominated = new LinkedHashSet<IIndividual>();
 		
 		//The individual nondominated by anybody are added
 		//in the external population
 		for(IIndividual ind : aset)
-			if(!eset.contains(ind))
-				if(((IValueFitness) ind.getFitness()).getValue() < 1)
-					eset.add(ind);
+			if(((IValueFitness) ind.getFitness()).getValue() < 1)
+				nondominated.add(ind);
+		
+		List<IIndividual> eset = new ArrayList<IIndividual>(nondominated);
 		
 		/**
 		 * When the individuals nondominated are added in 
@@ -574,73 +554,24 @@ public class SPEA2 extends PopulationAlgorithm
 	
 	protected List<IIndividual> decrementPopulation(List<IIndividual> eset, int presentExternalCensus)
 	{
-		double [] distance = new double[presentExternalCensus];
-		double [] k_distance = new double[presentExternalCensus];
-		double auxDistance;
-		int [] k_nearest = new int[presentExternalCensus];
-		int [] sortedIndividuals = new int[presentExternalCensus];
-		int auxSortedIndividual;
-		
-		for(int i=0; i<presentExternalCensus; i++)
-		{
-			k_distance[i] = Double.MAX_VALUE;
-			k_nearest[i] = i;
-		}
+		//Objective values and k_th closest neighbour of each individual
+		double [][] objectives = ParetoFronts.objectives(eset, paretoComparator.getComponentComparators());
+		NeighbourDensity density = new NeighbourDensity(objectives, kValue);
 		
 		while(presentExternalCensus > externalSize)
 		{
-			for(int i=0; i<presentExternalCensus; i++)
-			{
-				for(int j=0; j<presentExternalCensus; j++)
-				{	
-					distance[j] = calculateDistance(eset.get(i), eset.get(j));
-					sortedIndividuals[j] = j;
-				}
-
-				//Sort the individuals with respect to its distance
-				//to individual 'i'
-				for(int j=0; j<presentExternalCensus-1; j++)
-					for(int l=j+1; l<presentExternalCensus; l++)
-						if(distance[j] > distance[l])
-						{
-						
-							auxDistance = distance[j];
-							distance[j] = distance[l];
-							distance[l] = auxDistance;
-							
-							auxSortedIndividual = sortedIndividuals[j];
-							sortedIndividuals[j] = sortedIndividuals[l];
-							sortedIndividuals[l] = auxSortedIndividual;
-						}
-			
-				k_nearest[i] = sortedIndividuals[kValue];
-				k_distance[i] = distance[kValue];
-			}
-
-			//Make the ordering having present the k_distance
-			//with k_nearest neighbour calculated in the previous step
-			for(int j=0; j<presentExternalCensus; j++)
-				sortedIndividuals[j] = j;
-				
-			for(int j=0; j<presentExternalCensus-1; j++)
-				for(int l=j+1; l<presentExternalCensus; l++)
-					if(k_distance[j] > k_distance[l])
-					{
-						auxDistance = k_distance[j];
-						k_distance[j] = k_distance[l];
-						k_distance[l] = auxDistance;
-						
-						auxSortedIndividual = sortedIndividuals[j];
-						sortedIndividuals[j] = sortedIndividuals[l];
-						sortedIndividuals[l] = auxSortedIndividual;
-					}
-			//Se selecciona el mas cercano con respecto al k-eth mi?oes cercano
-			eset.remove(k_nearest[sortedIndividuals[0]]);
+			//Se selecciona el mas cercano con respecto al k-eth mas cercano
+			density.remove(density.neighbour(density.mostCrowded()));
 			presentExternalCensus --;
 		}
-	
+		
 		//the external population already has the wished size
-		return eset;
+		List<IIndividual> result = new ArrayList<IIndividual>(presentExternalCensus);
+		for(int i=0; i<eset.size(); i++)
+			if(density.contains(i))
+				result.add(eset.get(i));
+		
+		return result;
 	}
 	
 	/**
@@ -659,7 +590,7 @@ public class SPEA2 extends PopulationAlgorithm
 	 */
 	protected List<IIndividual> incrementPopulation(List<IIndividual> aset, List<IIndividual> eset, int currentExternalCensus)
 	{
-		// The individuals are sorted of decreasing form
+		// The individuals are sorted of increasing form
 		List<IIndividual> sortedASet = sortPopulation(aset);
 		boolean exit = false;
 	
@@ -689,13 +620,31 @@ public class SPEA2 extends PopulationAlgorithm
 	 */
 	protected List<IIndividual> sortPopulation(List<IIndividual> source)
 	{
-		// Selection result
-		List<IIndividual> result = new ArrayList<IIndividual>();
+		// Fitness values
+		double [] values = new double[source.size()];
+		for(int i=0; i<values.length; i++)
+			values[i] = ((IValueFitness) source.get(i).getFitness()).getValue();
 		
-		// We ordered of decreasing form the present set
-		result = worstSelect.select(source, source.size());
+		// We ordered of increasing form the present set
+		List<IIndividual> result = new ArrayList<IIndividual>(values.length);
+		for(int i : IndexSort.sort(values))
+			result.add(source.get(i));
 		
 		// Return the result
 		return result;
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * Sets the comparators of the objectives (all of them maximized or
+	 * minimized) in the Pareto comparator
+	 */
+	
+	@SuppressWarnings("unchecked")
+	private void setComponentComparators()
+	{
+		Comparator<IFitness> componentComparators [] = new Comparator[numberOfObjectives];
+		for (int i=0; i<numberOfObjectives; i++)
+			componentComparators[i] = new ValueFitnessComparator(!maximize);
+		paretoComparator.setComponentComparators(componentComparators);
+	}
+}
\ No newline at end of file
@@ -8,6 +8,7 @@ import net.sf.jclec.IProvider;
 import net.sf.jclec.IIndividual;
 import net.sf.jclec.IPopulation;
 
+import net.sf.jclec.util.monitor.AlgorithmMonitor;
 import net.sf.jclec.util.random.IRandGen;
 
 /**
@@ -115,6 +116,7 @@ public abstract class AbstractCreator implements IProvider
 	
 	public List<IIndividual> provide(int numberOfIndividuals) 
 	{
+		long time = AlgorithmMonitor.operatorStart();
 		// Set numberOfIndividuals
 		this.numberOfIndividuals = numberOfIndividuals;
 		// Result list
@@ -125,6 +127,7 @@ public abstract class AbstractCreator implements IProvider
 		for (createdCounter=0; createdCounter<numberOfIndividuals; createdCounter++) {
 			createNext();
 		}
+		AlgorithmMonitor.operatorEnd("provider", this, time);
 		// Returns result
 		return createdBuffer;
 	}
@@ -2,25 +2,37 @@ package net.sf.jclec.base;
 
 import java.util.List;
 
+import net.sf.jclec.IConfigure;
 import net.sf.jclec.IEvaluator;
 import net.sf.jclec.IIndividual;
 
+import net.sf.jclec.util.monitor.AlgorithmMonitor;
+
+import org.apache.commons.configuration.Configuration;
+
 /**
  * IEvaluator abstract implementation. 
  * 
+ * Optionally, evaluated individuals can be stored in a fitness cache, so
+ * that individuals with the same genotype are not evaluated twice.
+ * 
  * @author Sebastian Ventura 
  */
 
 @SuppressWarnings("serial")
-public abstract class AbstractEvaluator implements IEvaluator 
+public abstract class AbstractEvaluator implements IEvaluator, IConfigure 
 {
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------- Internal variables
 	/////////////////////////////////////////////////////////////////
 	
-	protected int numberOfEvaluations = 0;
+	protected volatile int numberOfEvaluations = 0;
+
+	public volatile long executionTime = 0;
+	
+	/** Fitness cache (null if individuals are always evaluated) */
 	
-	public long executionTime = 0;
+	protected FitnessCache fitnessCache;
 	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
@@ -50,6 +62,60 @@ public abstract class AbstractEvaluator implements IEvaluator
 		return numberOfEvaluations;
 	}
 
+	/**
+	 * Access to fitness cache
+	 * 
+	 * @return Fitness cache (null if not used)
+	 */
+	
+	public FitnessCache getFitnessCache() 
+	{
+		return fitnessCache;
+	}
+
+	/**
+	 * Sets the fitness cache
+	 * 
+	 * @param fitnessCache New fitness cache (null to disable it)
+	 */
+	
+	public void setFitnessCache(FitnessCache fitnessCache) 
+	{
+		this.fitnessCache = fitnessCache;
+	}
+
+	// IConfigure interface
+	
+	/**
+	 * Configuration parameters for AbstractEvaluator are:
+	 * 
+	 * <ul>
+	 * <li>
+	 * <code>fitness-cache[@size] (int)</code></p>
+	 * Fitness cache size. Default value is 0 (cache disabled)
+	 * </li><li>
+	 * <code>fitness-cache[@max-age] (int)</code></p>
+	 * Maximum age of cached fitnesses, in evaluated batches (usually,
+	 * generations). Default value is 0 (no limit)
+	 * </li>
+	 * </ul>
+	 * 
+	 * Subclasses that override this method must call super.configure()
+	 * to enable the fitness cache.
+	 */
+	
+	public void configure(Configuration settings)
+	{
+		int cacheSize = settings.getInt("fitness-cache[@size]", 0);
+		if (cacheSize > 0) {
+			int maxAge = settings.getInt("fitness-cache[@max-age]", 0);
+			setFitnessCache(new FitnessCache(cacheSize, maxAge));
+		}
+		else {
+			setFitnessCache(null);
+		}
+	}
+
 	/**
 	 * For all individuals in "inds" array: if individual fitness  is
 	 * null, then evaluate this individual.
@@ -62,21 +128,80 @@ public abstract class AbstractEvaluator implements IEvaluator
 	
 	public void evaluate(List<IIndividual> inds) 
 	{
+		long start = AlgorithmMonitor.operatorStart();
 		long time = System.currentTimeMillis();
-		
+		int evaluations = 0;
+
+		startBatch();
 		for (IIndividual ind : inds) {
-			if (ind.getFitness() == null) {
+			if (ind.getFitness() == null && !lookupFitness(ind)) {
 				evaluate(ind);
-				numberOfEvaluations++;
+				storeFitness(ind);
+				evaluations++;
 			}
 		}
-		executionTime += System.currentTimeMillis() - time;
+		registerEvaluations(evaluations, System.currentTimeMillis() - time);
+		AlgorithmMonitor.operatorEnd("evaluator", this, start);
 	}
-	
+
 	/////////////////////////////////////////////////////////////////
 	// -------------------------------------------- Protected methods
 	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Update evaluation counters. This method can be safely called from
+	 * several threads at the same time.
+	 *
+	 * @param evaluations Number of evaluations performed
+	 * @param time Time (in milliseconds) spent on them
+	 */
+
+	protected final synchronized void registerEvaluations(int evaluations, long time)
+	{
+		numberOfEvaluations += evaluations;
+		executionTime += time;
+	}
+
+	// Fitness cache management
 	
+	/**
+	 * Notify the fitness cache (if any) that a new batch of individuals 
+	 * is going to be evaluated.
+	 */
+	
+	protected final void startBatch()
+	{
+		if (fitnessCache != null) {
+			fitnessCache.nextBatch();
+		}
+	}
+	
+	/**
+	 * Look for the individual in the fitness cache (if any).
+	 * 
+	 * @param ind Individual to look for
+	 * 
+	 * @return true if the individual fitness has been taken from cache
+	 */
+	
+	protected final boolean lookupFitness(IIndividual ind)
+	{
+		return fitnessCache != null && fitnessCache.lookup(ind);
+	}
+	
+	/**
+	 * Store an evaluated individual in the fitness cache (if any).
+	 * 
+	 * @param ind Evaluated individual
+	 */
+	
+	protected final void storeFitness(IIndividual ind)
+	{
+		if (fitnessCache != null) {
+			fitnessCache.store(ind);
+		}
+	}
+
 	/**
 	 * Individual evaluation method.
 	 * 
@@ -2,24 +2,45 @@ package net.sf.jclec.base;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.Callable;
 
 
+import net.sf.jclec.IConfigure;
 import net.sf.jclec.IIndividual;
 import net.sf.jclec.IMutator;
 import net.sf.jclec.IPopulation;
 import net.sf.jclec.ISystem;
+import net.sf.jclec.util.monitor.AlgorithmMonitor;
 import net.sf.jclec.util.random.IRandGen;
+import net.sf.jclec.util.random.IStreamRandGenFactory;
+
+import org.apache.commons.configuration.Configuration;
 
 /**
  * IMutator abstract implementation.
  * 
+ * If chunkSize is greater than zero, parents are mutated in parallel (see
+ * VariationExecutor), in groups of chunkSize individuals. Each group is
+ * mutated by a copy of this operator, with its own random stream taken
+ * from the context (see IStreamRandGenFactory), so sons only depend on
+ * the chunk size (and not on the number of threads). If the context does
+ * not provide streams, generators are taken in chunks order.
+ * 
  * @author Sebastian Ventura
  */
 
-public abstract class AbstractMutator implements IMutator 
+public abstract class AbstractMutator implements IMutator, IConfigure, Cloneable 
 {
 	private static final long serialVersionUID = 3594355978189570706L;
 	
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+	
+	/** Parents mutated by each parallel task (0 means sequential) */
+	
+	protected int chunkSize = 0;
+	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------- Internal variables 
 	/////////////////////////////////////////////////////////////////
@@ -82,22 +103,79 @@ public abstract class AbstractMutator implements IMutator
 		}
 	}
 	
+	/**
+	 * Access to chunk size
+	 * 
+	 * @return Parents mutated by each parallel task
+	 */
+	
+	public final int getChunkSize()
+	{
+		return chunkSize;
+	}
+
+	/**
+	 * Sets the number of parents mutated by each parallel task.
+	 * 
+	 * @param chunkSize Chunk size (0 means sequential mutation)
+	 */
+	
+	public final void setChunkSize(int chunkSize)
+	{
+		this.chunkSize = chunkSize;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------- Implementing IConfigure interface
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * Configuration parameters for AbstractMutator are:
+	 * 
+	 * <ul>
+	 * <li>
+	 * <code>[@chunk-size] (int)</code></p>
+	 * Parents mutated by each parallel task. Default value is 0 
+	 * (sequential mutation)
+	 * </li>
+	 * </ul>
+	 */
+	
+	public void configure(Configuration settings)
+	{
+		// Chunk size
+		int chunkSize = settings.getInt("[@chunk-size]", 0);
+		setChunkSize(chunkSize);
+	}
+	
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------ Implementing IMutator interface
+	/////////////////////////////////////////////////////////////////
+	
 	/**
 	 * {@inheritDoc}
 	 */
 	
 	public List<IIndividual> mutate(List<IIndividual> parents) 
 	{
+		long time = AlgorithmMonitor.operatorStart();
 		// Sets p list to actual parents
 		parentsBuffer = parents;
 		// Prepare recombination process
 		prepareMutation();
-		// Create a new list to put sons in it
-		sonsBuffer = new ArrayList<IIndividual> ();
-    	// For all individuals in "parents" ...
-    	for (parentsCounter = 0; parentsCounter < parents.size(); parentsCounter ++) {
-			mutateNext();
-    	}
+		// Parallel mutation
+		if (chunkSize > 0) {
+			mutateChunks(parents);
+		}
+		else {
+			// Create a new list to put sons in it
+			sonsBuffer = new ArrayList<IIndividual> ();
+			// For all individuals in "parents" ...
+			for (parentsCounter = 0; parentsCounter < parents.size(); parentsCounter ++) {
+				mutateNext();
+			}
+		}
+		AlgorithmMonitor.operatorEnd("mutator", this, time);
 		// Returns sons list
 		return sonsBuffer;
 	}
@@ -130,4 +208,70 @@ public abstract class AbstractMutator implements IMutator
 	 */
 	
 	protected abstract void mutateNext();
+	
+	/**
+	 * Copy of this operator used to mutate a chunk of parents. Default
+	 * implementation returns a shallow copy, that shares all properties
+	 * and the state set by prepareMutation(). Subclasses that keep 
+	 * mutable state between mutateNext() calls must override it.
+	 * 
+	 * @return A copy of this operator
+	 */
+	
+	protected AbstractMutator copyForChunk()
+	{
+		try {
+			return (AbstractMutator) super.clone();
+		}
+		catch (CloneNotSupportedException e) {
+			throw new InternalError(e.toString());
+		}
+	}
+	
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * Mutate parents in chunks of chunkSize individuals.
+	 * 
+	 * @param parents Parents to mutate
+	 * 
+	 * @return Sons, in the same order as sequential mutation
+	 */
+	
+	private List<IIndividual> mutateChunks(List<IIndividual> parents)
+	{
+		int size = parents.size();
+		List<Callable<List<IIndividual>>> tasks = new ArrayList<Callable<List<IIndividual>>>();
+		// First stream, taken from this operator generator
+		long stream = ((long) randgen.choose(0, Integer.MAX_VALUE) << 31) | randgen.choose(0, Integer.MAX_VALUE);
+		for (int from = 0; from < size; from += chunkSize) {
+			final AbstractMutator chunk = copyForChunk();
+			// Each chunk has its own stream (if the context provides them)
+			if (context instanceof IStreamRandGenFactory) {
+				chunk.randgen = ((IStreamRandGenFactory) context).createRandGen(stream++);
+			}
+			else {
+				chunk.randgen = context.createRandGen();
+			}
+			chunk.parentsBuffer = parents.subList(from, Math.min(size, from + chunkSize));
+			chunk.sonsBuffer = new ArrayList<IIndividual> ();
+			tasks.add(new Callable<List<IIndividual>>() {
+				public List<IIndividual> call()
+				{
+					for (chunk.parentsCounter = 0; chunk.parentsCounter < chunk.parentsBuffer.size(); chunk.parentsCounter++) {
+						chunk.mutateNext();
+					}
+					return chunk.sonsBuffer;
+				}
+			});
+		}
+		// Join sons of all chunks
+		sonsBuffer = new ArrayList<IIndividual> ();
+		for (List<IIndividual> sons : VariationExecutor.invokeAll(tasks)) {
+			sonsBuffer.addAll(sons);
+		}
+		return sonsBuffer;
+	}
 }
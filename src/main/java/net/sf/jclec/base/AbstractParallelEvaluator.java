@@ -1,32 +1,96 @@
 package net.sf.jclec.base;
 
+import java.lang.reflect.Method;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import net.sf.jclec.IDisposable;
 import net.sf.jclec.IIndividual;
 
+import net.sf.jclec.util.monitor.AlgorithmMonitor;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+
 /**
- * IEvaluator parallel abstract implementation. 
- * 
+ * IEvaluator parallel abstract implementation.
+ *
+ * Individuals are grouped in chunks that are evaluated by a long-lived
+ * pool of worker threads. The pool is created the first time it is used
+ * and lives until dispose() is called (PopulationAlgorithm does it when
+ * its execution finishes).
+ *
  * @author Alberto Cano
  * @author Sebastian Ventura
  */
 
-public abstract class AbstractParallelEvaluator extends AbstractEvaluator
+public abstract class AbstractParallelEvaluator extends AbstractEvaluator implements IDisposable
 {
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
 	/////////////////////////////////////////////////////////////////
-	
+
 	private static final long serialVersionUID = 3270366292953409655L;
 
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Executor backends
+	/////////////////////////////////////////////////////////////////
+
+	/** Fixed size thread pool */
+
+	public static final String FIXED_EXECUTOR = "fixed";
+
+	/** Work-stealing (fork/join) pool */
+
+	public static final String WORK_STEALING_EXECUTOR = "work-stealing";
+
+	/** One virtual thread per task (if supported by the running JVM) */
+
+	public static final String VIRTUAL_EXECUTOR = "virtual";
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of worker threads (0 means one per available processor) */
+
+	protected int numberOfThreads = 0;
+
+	/** Individuals evaluated by each task (0 means automatic size) */
+
+	protected int chunkSize = 0;
+
+	/** Executor backend */
+
+	protected String executorType = FIXED_EXECUTOR;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Evaluation executor */
+
+	private transient ExecutorService executor;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
 	/**
 	 * Empty constructor.
 	 */
-	
-	public AbstractParallelEvaluator() 
+
+	public AbstractParallelEvaluator()
 	{
 		super();
 	}
@@ -35,62 +99,329 @@ public abstract class AbstractParallelEvaluator extends AbstractEvaluator
 	// ----------------------------------------------- Public methods
 	/////////////////////////////////////////////////////////////////
 
+	// Setting and getting properties
+
+	/**
+	 * Access to the number of worker threads
+	 *
+	 * @return Number of worker threads
+	 */
+
+	public int getNumberOfThreads()
+	{
+		if (numberOfThreads > 0) {
+			return numberOfThreads;
+		}
+		else {
+			return Runtime.getRuntime().availableProcessors();
+		}
+	}
+
+	/**
+	 * Sets the number of worker threads. This change takes effect the
+	 * next time the executor is created.
+	 *
+	 * @param numberOfThreads Number of threads (0 for one per processor)
+	 */
+
+	public void setNumberOfThreads(int numberOfThreads)
+	{
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	/**
+	 * Access to chunk size
+	 *
+	 * @return Individuals evaluated by each task (0 means automatic)
+	 */
+
+	public int getChunkSize()
+	{
+		return chunkSize;
+	}
+
+	/**
+	 * Sets the number of individuals evaluated by each task
+	 *
+	 * @param chunkSize Chunk size (0 means automatic)
+	 */
+
+	public void setChunkSize(int chunkSize)
+	{
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Access to executor type
+	 *
+	 * @return Executor type
+	 */
+
+	public String getExecutorType()
+	{
+		return executorType;
+	}
+
+	/**
+	 * Sets the executor backend. This change takes effect the next time
+	 * the executor is created.
+	 *
+	 * @param executorType One of "fixed", "work-stealing" or "virtual"
+	 */
+
+	public void setExecutorType(String executorType)
+	{
+		if (FIXED_EXECUTOR.equals(executorType)
+				|| WORK_STEALING_EXECUTOR.equals(executorType)
+				|| VIRTUAL_EXECUTOR.equals(executorType)) {
+			this.executorType = executorType;
+		}
+		else {
+			throw new IllegalArgumentException("Illegal executor type: " + executorType);
+		}
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for AbstractParallelEvaluator are (besides
+	 * those of AbstractEvaluator):
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>number-of-threads (int)</code></p>
+	 * Number of worker threads. Default value is 0 (one per processor)
+	 * </li><li>
+	 * <code>chunk-size (int)</code></p>
+	 * Individuals evaluated by each task. Default value is 0 (automatic)
+	 * </li><li>
+	 * <code>executor-type (fixed|work-stealing|virtual)</code></p>
+	 * Executor backend. Default value is "fixed"
+	 * </li>
+	 * </ul>
+	 */
+
+	public void configure(Configuration settings)
+	{
+		// Call super method
+		super.configure(settings);
+		// Number of threads
+		int numberOfThreads = settings.getInt("number-of-threads", 0);
+		setNumberOfThreads(numberOfThreads);
+		// Chunk size
+		int chunkSize = settings.getInt("chunk-size", 0);
+		setChunkSize(chunkSize);
+		// Executor type
+		String executorType = settings.getString("executor-type", FIXED_EXECUTOR);
+		try {
+			setExecutorType(executorType);
+		}
+		catch (IllegalArgumentException e) {
+			throw new ConfigurationRuntimeException("Illegal executor type", e);
+		}
+	}
+
+	// IEvaluator interface
+
 	/**
 	 * For all individuals in "inds" array: if individual fitness  is
 	 * null, then evaluate this individual.
-	 * 
+	 *
 	 * This method is final. Is anyone wants implement this method in
 	 * another way should create a new IEvaluator class.
-	 * 
+	 *
 	 * {@inheritDoc}
 	 */
-	
+
 	public void evaluate(List<IIndividual> inds)
 	{
+		long start = AlgorithmMonitor.operatorStart();
 		long time = System.currentTimeMillis();
-		
-		ExecutorService threadExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
-		
-		for (IIndividual ind : inds)
-		{
-			if (ind.getFitness() == null)
-			{
-				threadExecutor.execute(new evaluationThread(ind));
-				numberOfEvaluations++;
+
+		// Individuals to evaluate
+		List<IIndividual> pending = new ArrayList<IIndividual>();
+		startBatch();
+		for (IIndividual ind : inds) {
+			if (ind.getFitness() == null && !lookupFitness(ind)) {
+				pending.add(ind);
 			}
 		}
-		
-		threadExecutor.shutdown();
-		
-		try
-		{
-			if (!threadExecutor.awaitTermination(30, TimeUnit.DAYS))
-				System.out.println("Threadpool timeout occurred");
+
+		int size = pending.size();
+		int chunk = chunkSize(size);
+
+		// A single chunk is evaluated in the calling thread
+		if (size <= chunk) {
+			for (IIndividual ind : pending) {
+				evaluate(ind);
+			}
 		}
-		catch (InterruptedException ie)
-		{
-			System.out.println("Threadpool prematurely terminated due to interruption in thread that created pool");
+		else {
+			List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+			for (int from = 0; from < size; from += chunk) {
+				tasks.add(new EvaluationTask(pending.subList(from, Math.min(size, from + chunk))));
+			}
+			try {
+				for (Future<Object> result : executor().invokeAll(tasks)) {
+					result.get();
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Parallel evaluation interrupted", e);
+			}
+			catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException("Parallel evaluation failed", cause);
+			}
+		}
+		for (IIndividual ind : pending) {
+			storeFitness(ind);
 		}
 
-		executionTime += System.currentTimeMillis() - time;
+		registerEvaluations(size, System.currentTimeMillis() - time);
+		AlgorithmMonitor.operatorEnd("evaluator", this, start);
 	}
-	
+
+	// IDisposable interface
+
+	/**
+	 * Shut down the worker threads. A new executor will be created if
+	 * this evaluator is used again.
+	 */
+
+	public synchronized void dispose()
+	{
+		if (executor != null) {
+			executor.shutdown();
+			try {
+				if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+					executor.shutdownNow();
+				}
+			}
+			catch (InterruptedException e) {
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+			executor = null;
+		}
+	}
+
 	/////////////////////////////////////////////////////////////////
-	// -------------------------------------------- Evaluation Thread
+	// -------------------------------------------- Protected methods
 	/////////////////////////////////////////////////////////////////
-	
-	private class evaluationThread extends Thread
+
+	/**
+	 * Access to evaluation executor, creating it if necessary.
+	 *
+	 * @return Evaluation executor
+	 */
+
+	protected synchronized ExecutorService executor()
 	{
-		private IIndividual ind;
-		
-	    public evaluationThread(IIndividual ind)
+		if (executor == null) {
+			executor = createExecutor();
+		}
+		return executor;
+	}
+
+	/**
+	 * Create the evaluation executor, according to the executorType and
+	 * numberOfThreads properties.
+	 *
+	 * @return A new executor
+	 */
+
+	protected ExecutorService createExecutor()
+	{
+		if (WORK_STEALING_EXECUTOR.equals(executorType)) {
+			return new ForkJoinPool(getNumberOfThreads());
+		}
+		if (VIRTUAL_EXECUTOR.equals(executorType)) {
+			// Virtual threads are only available on recent JVMs
+			try {
+				Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+				return (ExecutorService) factory.invoke(null);
+			}
+			catch (Exception e) {
+				// Use a fixed thread pool instead
+			}
+		}
+		return Executors.newFixedThreadPool(getNumberOfThreads(), new WorkerFactory());
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Number of individuals evaluated by each task. If not set, it is
+	 * chosen to produce about four tasks per worker thread.
+	 *
+	 * @param size Number of individuals to evaluate
+	 *
+	 * @return Chunk size
+	 */
+
+	private int chunkSize(int size)
+	{
+		if (chunkSize > 0) {
+			return chunkSize;
+		}
+		int tasks = 4 * getNumberOfThreads();
+		return Math.max(1, (size + tasks - 1) / tasks);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Evaluation task
+	/////////////////////////////////////////////////////////////////
+
+	private class EvaluationTask implements Callable<Object>
+	{
+		private List<IIndividual> inds;
+
+	    public EvaluationTask(List<IIndividual> inds)
 	    {
-	        this.ind = ind;
+	        this.inds = inds;
 	    }
-	    
-	    public void run()
+
+	    public Object call()
 	    {
-	    	evaluate(ind);
+	    	for (IIndividual ind : inds) {
+	    		evaluate(ind);
+	    	}
+	    	return null;
 	    }
     }
-}
\ No newline at end of file
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Worker factory
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Creates daemon worker threads, so an evaluator that has not been
+	 * disposed never prevents the JVM from exiting.
+	 */
+
+	private static class WorkerFactory implements ThreadFactory
+	{
+		private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+		private final int pool = POOL_COUNTER.incrementAndGet();
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		public Thread newThread(Runnable task)
+		{
+			Thread thread = new Thread(task, "jclec-evaluator-" + pool + "-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
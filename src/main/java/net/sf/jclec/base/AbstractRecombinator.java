@@ -1,26 +1,49 @@
 package net.sf.jclec.base;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.Callable;
 
 import net.sf.jclec.ISystem;
+import net.sf.jclec.IConfigure;
 import net.sf.jclec.IIndividual;
 import net.sf.jclec.IPopulation;
 import net.sf.jclec.IRecombinator;
 
+import net.sf.jclec.util.monitor.AlgorithmMonitor;
 import net.sf.jclec.util.random.IRandGen;
+import net.sf.jclec.util.random.IStreamRandGenFactory;
+
+import org.apache.commons.configuration.Configuration;
 
 /**
  * IRecombinator abstract implementation.
  * 
+ * If chunkSize is greater than zero, litters are recombined in parallel
+ * (see VariationExecutor), in groups of chunkSize litters. Each group is
+ * recombined by a copy of this operator, with its own random stream 
+ * taken from the context (see IStreamRandGenFactory), so sons only 
+ * depend on the chunk size (and not on the number of threads). If the
+ * context does not provide streams, generators are taken in chunks order.
+ * 
  * @author Sebastian Ventura
  */
 
-public abstract class AbstractRecombinator implements IRecombinator 
+public abstract class AbstractRecombinator implements IRecombinator, IConfigure, Cloneable 
 {
 	private static final long serialVersionUID = 7099041555394753140L;
 	
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+	
+	/** Litters recombined by each parallel task (0 means sequential) */
+	
+	protected int chunkSize = 0;
+	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------- Internal variables 
 	/////////////////////////////////////////////////////////////////
@@ -114,22 +137,73 @@ public abstract class AbstractRecombinator implements IRecombinator
 		return spl;
 	}
 
+	/**
+	 * Access to chunk size
+	 * 
+	 * @return Litters recombined by each parallel task
+	 */
+	
+	public final int getChunkSize()
+	{
+		return chunkSize;
+	}
+
+	/**
+	 * Sets the number of litters recombined by each parallel task.
+	 * 
+	 * @param chunkSize Chunk size (0 means sequential recombination)
+	 */
+	
+	public final void setChunkSize(int chunkSize)
+	{
+		this.chunkSize = chunkSize;
+	}
+
+	// IConfigure interface
+	
+	/**
+	 * Configuration parameters for AbstractRecombinator are:
+	 * 
+	 * <ul>
+	 * <li>
+	 * <code>[@chunk-size] (int)</code></p>
+	 * Litters recombined by each parallel task. Default value is 0 
+	 * (sequential recombination)
+	 * </li>
+	 * </ul>
+	 */
+	
+	public void configure(Configuration settings)
+	{
+		// Chunk size
+		int chunkSize = settings.getInt("[@chunk-size]", 0);
+		setChunkSize(chunkSize);
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
 	
 	public List<IIndividual> recombine(List<IIndividual> parents) 
 	{
+		long time = AlgorithmMonitor.operatorStart();
 		// Sets p list to actual parents
 		parentsBuffer = parents;
 		// Prepare recombination process
 		prepareRecombination();
-		// Create a new list to put sons in it
-		sonsBuffer = new ArrayList<IIndividual> ();
-    	// For all individuals in "parents" ...
-    	for (parentsCounter = 0; parentsCounter <= parents.size() - ppl; parentsCounter += ppl) {
-			recombineNext();
-    	}
+		// Parallel recombination
+		if (chunkSize > 0) {
+			recombineChunks(parents);
+		}
+		else {
+			// Create a new list to put sons in it
+			sonsBuffer = new ArrayList<IIndividual> ();
+			// For all individuals in "parents" ...
+			for (parentsCounter = 0; parentsCounter <= parents.size() - ppl; parentsCounter += ppl) {
+				recombineNext();
+			}
+		}
+		AlgorithmMonitor.operatorEnd("recombinator", this, time);
 		// Returns sons list
 		return sonsBuffer;
 	}
@@ -179,4 +253,82 @@ public abstract class AbstractRecombinator implements IRecombinator
 	 */
 	
 	protected abstract void recombineNext();
+	
+	/**
+	 * Copy of this operator used to recombine a chunk of litters. Default
+	 * implementation returns a shallow copy, that shares all properties
+	 * and the state set by prepareRecombination(). Subclasses that keep
+	 * mutable state between recombineNext() calls must override it.
+	 * 
+	 * @return A copy of this operator
+	 */
+	
+	protected AbstractRecombinator copyForChunk()
+	{
+		try {
+			return (AbstractRecombinator) super.clone();
+		}
+		catch (CloneNotSupportedException e) {
+			throw new InternalError(e.toString());
+		}
+	}
+	
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * Litter sizes are not serialized; they are set again as in the
+	 * constructor.
+	 */
+	
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+		setPpl();
+		setSpl();
+	}
+	
+	/**
+	 * Recombine parents in chunks of chunkSize litters.
+	 * 
+	 * @param parents Parents to recombine
+	 * 
+	 * @return Sons, in the same order as sequential recombination
+	 */
+	
+	private List<IIndividual> recombineChunks(List<IIndividual> parents)
+	{
+		int litters = parents.size() / ppl;
+		List<Callable<List<IIndividual>>> tasks = new ArrayList<Callable<List<IIndividual>>>();
+		// First stream, taken from this operator generator
+		long stream = ((long) randgen.choose(0, Integer.MAX_VALUE) << 31) | randgen.choose(0, Integer.MAX_VALUE);
+		for (int from = 0; from < litters; from += chunkSize) {
+			final AbstractRecombinator chunk = copyForChunk();
+			// Each chunk has its own stream (if the context provides them)
+			if (context instanceof IStreamRandGenFactory) {
+				chunk.randgen = ((IStreamRandGenFactory) context).createRandGen(stream++);
+			}
+			else {
+				chunk.randgen = context.createRandGen();
+			}
+			chunk.parentsBuffer = parents.subList(from * ppl, Math.min(litters, from + chunkSize) * ppl);
+			chunk.sonsBuffer = new ArrayList<IIndividual> ();
+			tasks.add(new Callable<List<IIndividual>>() {
+				public List<IIndividual> call()
+				{
+					for (chunk.parentsCounter = 0; chunk.parentsCounter <= chunk.parentsBuffer.size() - ppl; chunk.parentsCounter += ppl) {
+						chunk.recombineNext();
+					}
+					return chunk.sonsBuffer;
+				}
+			});
+		}
+		// Join sons of all chunks
+		sonsBuffer = new ArrayList<IIndividual> ();
+		for (List<IIndividual> sons : VariationExecutor.invokeAll(tasks)) {
+			sonsBuffer.addAll(sons);
+		}
+		return sonsBuffer;
+	}
 }
@@ -8,6 +8,8 @@ import net.sf.jclec.IPopulation;
 import net.sf.jclec.ISelector;
 import net.sf.jclec.ISystem;
 
+import net.sf.jclec.util.monitor.AlgorithmMonitor;
+
 /**
  * ISelector abstract implementation.
  * 
@@ -101,6 +103,7 @@ public abstract class AbstractSelector implements ISelector
 	
 	public List<IIndividual> select(List<IIndividual> src, int nofsel, boolean repeat) 
 	{
+		long time = AlgorithmMonitor.operatorStart();
 		// Sets source set and actsrcsz
 		actsrc = src; actsrcsz = src.size();
 		// Prepare selection process
@@ -116,6 +119,7 @@ public abstract class AbstractSelector implements ISelector
 			}
 			result.add(selected);		
 		}		
+		AlgorithmMonitor.operatorEnd("selector", this, time);
 		// Returns selection
 		return result;
 	}
@@ -1,5 +1,7 @@
 package net.sf.jclec.base;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -204,6 +206,21 @@ public class FilteredMutator extends DecoratedMutator
 			return false;
 		}
 	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Recreate auxiliary (transient) objects after deserialization.
+	 */
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+		fertile = new ArrayList<IIndividual> ();
+		sterile = new ArrayList<IIndividual> ();
+	}
 }
 
 /*
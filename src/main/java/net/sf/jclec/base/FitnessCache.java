@@ -0,0 +1,323 @@
+package net.sf.jclec.base;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.JCLEC;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * Bounded genotype to fitness cache, used by AbstractEvaluator to avoid the
+ * evaluation of individuals whose genotype has already been evaluated.
+ *
+ * Entries are evicted in LRU order when the cache is full. Optionally, they
+ * are also discarded after a maximum age, measured in number of batches (an
+ * evaluator starts a new batch every time it evaluates a list of individuals,
+ * that is, usually once per generation).
+ *
+ * Keys are copies of the evaluated individuals, compared by genotype; so the
+ * individual classes used must implement a genotype based hashCode() method.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class FitnessCache implements JCLEC
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -3818052938432876155L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Maximum number of entries */
+
+	protected int maxSize;
+
+	/** Maximum age of an entry, in batches (0 means no limit) */
+
+	protected int maxAge;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Cache entries, in access order */
+
+	private transient LinkedHashMap<Key, CachedFitness> entries;
+
+	/** Actual batch */
+
+	private int batch;
+
+	/** Number of successful lookups */
+
+	private long hits;
+
+	/** Number of failed lookups */
+
+	private long misses;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that sets cache size.
+	 *
+	 * @param maxSize Maximum number of entries
+	 */
+
+	public FitnessCache(int maxSize)
+	{
+		this(maxSize, 0);
+	}
+
+	/**
+	 * Constructor that sets cache size and maximum age of entries.
+	 *
+	 * @param maxSize Maximum number of entries
+	 * @param maxAge Maximum age of entries, in batches (0 means no limit)
+	 */
+
+	public FitnessCache(int maxSize, int maxAge)
+	{
+		super();
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("Cache size must be positive");
+		}
+		this.maxSize = maxSize;
+		this.maxAge = maxAge;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Access to maximum size
+	 *
+	 * @return Maximum number of entries
+	 */
+
+	public int getMaxSize()
+	{
+		return maxSize;
+	}
+
+	/**
+	 * Access to maximum age
+	 *
+	 * @return Maximum age of entries, in batches
+	 */
+
+	public int getMaxAge()
+	{
+		return maxAge;
+	}
+
+	/**
+	 * Start a new batch of lookups. Entries older than maximum age are
+	 * removed.
+	 */
+
+	public synchronized void nextBatch()
+	{
+		batch++;
+		if (maxAge > 0 && entries != null) {
+			Iterator<CachedFitness> it = entries.values().iterator();
+			while (it.hasNext()) {
+				if (batch - it.next().batch > maxAge) {
+					it.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Look for the individual genotype in cache. If found, a copy of the
+	 * cached fitness is assigned to the individual.
+	 *
+	 * @param ind Individual to look for
+	 *
+	 * @return true if the individual fitness has been set
+	 */
+
+	public synchronized boolean lookup(IIndividual ind)
+	{
+		CachedFitness entry = entries().get(new Key(ind));
+		if (entry == null) {
+			misses++;
+			return false;
+		}
+		else {
+			hits++;
+			ind.setFitness(entry.fitness.copy());
+			return true;
+		}
+	}
+
+	/**
+	 * Store an evaluated individual. A copy of both individual and fitness
+	 * is stored, so they can be safely modified later.
+	 *
+	 * @param ind Evaluated individual
+	 */
+
+	public synchronized void store(IIndividual ind)
+	{
+		IFitness fitness = ind.getFitness();
+		if (fitness != null) {
+			IIndividual key = ind.copy();
+			key.setFitness(null);
+			entries().put(new Key(key), new CachedFitness(fitness.copy(), batch));
+		}
+	}
+
+	/**
+	 * Number of entries in cache.
+	 *
+	 * @return Actual cache size
+	 */
+
+	public synchronized int size()
+	{
+		return entries == null ? 0 : entries.size();
+	}
+
+	/**
+	 * Remove all entries. Hit and miss counters are kept.
+	 */
+
+	public synchronized void clear()
+	{
+		entries = null;
+	}
+
+	/**
+	 * Number of lookups that found the individual in cache.
+	 *
+	 * @return Number of cache hits
+	 */
+
+	public synchronized long getHits()
+	{
+		return hits;
+	}
+
+	/**
+	 * Number of lookups that didn't find the individual in cache.
+	 *
+	 * @return Number of cache misses
+	 */
+
+	public synchronized long getMisses()
+	{
+		return misses;
+	}
+
+	/**
+	 * Ratio between hits and lookups
+	 *
+	 * @return Hit ratio (0 if there were no lookups)
+	 */
+
+	public synchronized double getHitRatio()
+	{
+		long lookups = hits + misses;
+		return lookups == 0 ? 0.0 : ((double) hits) / lookups;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	@SuppressWarnings("serial")
+	private LinkedHashMap<Key, CachedFitness> entries()
+	{
+		if (entries == null) {
+			entries = new LinkedHashMap<Key, CachedFitness>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Key, CachedFitness> eldest)
+				{
+					return size() > maxSize;
+				}
+			};
+		}
+		return entries;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Internal classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Cache key. Individuals are compared by genotype, so fitness (or a
+	 * phenotype built at evaluation time) is not taken into account.
+	 */
+
+	private static final class Key
+	{
+		private final IIndividual ind;
+
+		private final int hash;
+
+		Key(IIndividual ind)
+		{
+			this.ind = ind;
+			this.hash = ind.hashCode();
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object other)
+		{
+			if (other instanceof Key) {
+				IIndividual oind = ((Key) other).ind;
+				if (ind instanceof AbstractIndividual<?> && oind instanceof AbstractIndividual<?>) {
+					if (ind.getClass() != oind.getClass()) {
+						return false;
+					}
+					EqualsBuilder eb = new EqualsBuilder();
+					eb.append(((AbstractIndividual<?>) ind).getGenotype(), ((AbstractIndividual<?>) oind).getGenotype());
+					return eb.isEquals();
+				}
+				else {
+					return ind.equals(oind);
+				}
+			}
+			else {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Cache entry.
+	 */
+
+	private static final class CachedFitness
+	{
+		private final IFitness fitness;
+
+		private final int batch;
+
+		CachedFitness(IFitness fitness, int batch)
+		{
+			this.fitness = fitness;
+			this.batch = batch;
+		}
+	}
+}
@@ -0,0 +1,728 @@
+package net.sf.jclec.base;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.jclec.IConfigure;
+import net.sf.jclec.IDisposable;
+import net.sf.jclec.IEvaluator;
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.util.IndividualCodec;
+import net.sf.jclec.util.monitor.AlgorithmMonitor;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+
+/**
+ * Evaluator that runs another evaluator in a pool of child JVM processes.
+ *
+ * It is intended for expensive fitness functions that can crash or hang
+ * (for instance, those that call native simulators). Each worker process
+ * (see ProcessEvaluatorWorker) receives a serialized copy of the evaluator
+ * when it starts, and lives until dispose() is called. Individuals are sent
+ * to workers in batches through their standard input, and fitness values
+ * are read back from their standard output.
+ *
+ * If a worker dies, it is replaced by a new one and the individuals it had
+ * not evaluated are queued again. An individual that kills its worker more
+ * than maxRetries times in a row, or whose evaluation takes longer than the
+ * timeout, is assigned the penalty fitness.
+ *
+ * The evaluator sent to workers must be serializable: its transient state
+ * is not available in child processes.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class ProcessEvaluator extends AbstractEvaluator implements IDisposable
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -6403178259026683450L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Evaluator run by worker processes */
+
+	protected IEvaluator evaluator;
+
+	/** Number of worker processes (0 means one per available processor) */
+
+	protected int numberOfWorkers = 0;
+
+	/** Maximum number of individuals sent to a worker at once */
+
+	protected int batchSize = 8;
+
+	/** Maximum time for an evaluation, in milliseconds (0 means no limit) */
+
+	protected int timeout = 0;
+
+	/** Penalty fitness value (NaN means the worst double value) */
+
+	protected double penalty = Double.NaN;
+
+	/** Restarts allowed to an individual that kills its worker */
+
+	protected int maxRetries = 2;
+
+	/** Extra JVM options for worker processes */
+
+	protected List<String> jvmOptions = new ArrayList<String>();
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Dispatcher threads (one per worker process) */
+
+	private transient ExecutorService executor;
+
+	/** Kills workers that exceed the timeout */
+
+	private transient ScheduledExecutorService watchdog;
+
+	/** Idle worker processes */
+
+	private transient LinkedList<Worker> idleWorkers;
+
+	/** All running worker processes */
+
+	private transient Set<Worker> workers;
+
+	/** Number of workers that have died while evaluating */
+
+	private AtomicInteger numberOfFailures = new AtomicInteger();
+
+	/** Number of evaluations that have exceeded the timeout */
+
+	private AtomicInteger numberOfTimeouts = new AtomicInteger();
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor.
+	 */
+
+	public ProcessEvaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	public final IEvaluator getEvaluator()
+	{
+		return evaluator;
+	}
+
+	/**
+	 * Sets the evaluator run by worker processes. Running workers are
+	 * not affected until this evaluator is disposed.
+	 *
+	 * @param evaluator Evaluator (must be serializable)
+	 */
+
+	public final void setEvaluator(IEvaluator evaluator)
+	{
+		this.evaluator = evaluator;
+	}
+
+	/**
+	 * Access to the number of worker processes
+	 *
+	 * @return Number of worker processes
+	 */
+
+	public final int getNumberOfWorkers()
+	{
+		if (numberOfWorkers > 0) {
+			return numberOfWorkers;
+		}
+		else {
+			return Runtime.getRuntime().availableProcessors();
+		}
+	}
+
+	/**
+	 * Sets the number of worker processes. This change takes effect the
+	 * next time the pool is created.
+	 *
+	 * @param numberOfWorkers Number of processes (0 for one per processor)
+	 */
+
+	public final void setNumberOfWorkers(int numberOfWorkers)
+	{
+		this.numberOfWorkers = numberOfWorkers;
+	}
+
+	public final int getBatchSize()
+	{
+		return batchSize;
+	}
+
+	public final void setBatchSize(int batchSize)
+	{
+		this.batchSize = batchSize;
+	}
+
+	public final int getTimeout()
+	{
+		return timeout;
+	}
+
+	/**
+	 * Sets the maximum time for an evaluation.
+	 *
+	 * @param timeout Time in milliseconds (0 means no limit)
+	 */
+
+	public final void setTimeout(int timeout)
+	{
+		this.timeout = timeout;
+	}
+
+	public final double getPenalty()
+	{
+		return penalty;
+	}
+
+	/**
+	 * Sets the fitness value assigned to individuals that cannot be
+	 * evaluated. If not set (NaN), the worst double value according to
+	 * the evaluator comparator is used.
+	 *
+	 * @param penalty Penalty fitness value
+	 */
+
+	public final void setPenalty(double penalty)
+	{
+		this.penalty = penalty;
+	}
+
+	public final int getMaxRetries()
+	{
+		return maxRetries;
+	}
+
+	public final void setMaxRetries(int maxRetries)
+	{
+		this.maxRetries = maxRetries;
+	}
+
+	public final List<String> getJvmOptions()
+	{
+		return jvmOptions;
+	}
+
+	/**
+	 * Access to the number of worker processes that have died (or have
+	 * been killed) while evaluating individuals.
+	 *
+	 * @return Number of failed workers
+	 */
+
+	public final int getNumberOfFailures()
+	{
+		return numberOfFailures.get();
+	}
+
+	/**
+	 * Access to the number of evaluations that have been cancelled
+	 * because they exceeded the timeout.
+	 *
+	 * @return Number of timeouts
+	 */
+
+	public final int getNumberOfTimeouts()
+	{
+		return numberOfTimeouts.get();
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for ProcessEvaluator are (besides those of
+	 * AbstractEvaluator):
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>evaluator: IEvaluator (complex)</code></p>
+	 * Evaluator run by worker processes
+	 * </li><li>
+	 * <code>number-of-workers (int)</code></p>
+	 * Number of worker processes. Default value is 0 (one per processor)
+	 * </li><li>
+	 * <code>batch-size (int)</code></p>
+	 * Individuals sent to a worker at once. Default value is 8
+	 * </li><li>
+	 * <code>timeout (int)</code></p>
+	 * Maximum time for an evaluation (in milliseconds). Default value is 0
+	 * (no limit)
+	 * </li><li>
+	 * <code>penalty (double)</code></p>
+	 * Fitness value of individuals that cannot be evaluated. Default value
+	 * is the worst double value
+	 * </li><li>
+	 * <code>max-retries (int)</code></p>
+	 * Restarts allowed to an individual that kills its worker. Default
+	 * value is 2
+	 * </li><li>
+	 * <code>jvm-option (String, several)</code></p>
+	 * Extra JVM options for worker processes
+	 * </li>
+	 * </ul>
+	 */
+
+	@SuppressWarnings("unchecked")
+	public void configure(Configuration settings)
+	{
+		// Call super method
+		super.configure(settings);
+		// Evaluator
+		try {
+			// Evaluator class
+			Class<? extends IEvaluator> evaluatorClass =
+				(Class<? extends IEvaluator>) Class.forName(settings.getString("evaluator[@type]"));
+			// Evaluator instance
+			IEvaluator evaluator = evaluatorClass.newInstance();
+			// Configure evaluator if necessary
+			if (evaluator instanceof IConfigure) {
+				((IConfigure) evaluator).configure(settings.subset("evaluator"));
+			}
+			setEvaluator(evaluator);
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigurationRuntimeException("Illegal evaluator classname");
+		}
+		catch (InstantiationException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of evaluator", e);
+		}
+		catch (IllegalAccessException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of evaluator", e);
+		}
+		catch (NullPointerException e) {
+			throw new ConfigurationRuntimeException("Evaluator classname not set");
+		}
+		// Pool settings
+		setNumberOfWorkers(settings.getInt("number-of-workers", 0));
+		setBatchSize(settings.getInt("batch-size", 8));
+		setTimeout(settings.getInt("timeout", 0));
+		setPenalty(settings.getDouble("penalty", Double.NaN));
+		setMaxRetries(settings.getInt("max-retries", 2));
+		jvmOptions.clear();
+		for (Object option : settings.getList("jvm-option")) {
+			jvmOptions.add(option.toString());
+		}
+	}
+
+	// IEvaluator interface
+
+	/**
+	 * For all individuals in "inds" array: if individual fitness is
+	 * null (and it is not in the fitness cache), then this individual
+	 * is sent to a worker process.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	public void evaluate(List<IIndividual> inds)
+	{
+		long start = AlgorithmMonitor.operatorStart();
+		long time = System.currentTimeMillis();
+
+		// Individuals to evaluate
+		List<IIndividual> pending = new ArrayList<IIndividual>();
+		startBatch();
+		for (IIndividual ind : inds) {
+			if (ind.getFitness() == null && !lookupFitness(ind)) {
+				pending.add(ind);
+			}
+		}
+		dispatch(pending);
+		for (IIndividual ind : pending) {
+			storeFitness(ind);
+		}
+
+		registerEvaluations(pending.size(), System.currentTimeMillis() - time);
+		AlgorithmMonitor.operatorEnd("evaluator", this, start);
+	}
+
+	public Comparator<IFitness> getComparator()
+	{
+		return evaluator.getComparator();
+	}
+
+	// IDisposable interface
+
+	/**
+	 * Stop all worker processes. New workers will be started if this
+	 * evaluator is used again.
+	 */
+
+	public synchronized void dispose()
+	{
+		if (executor != null) {
+			executor.shutdownNow();
+			watchdog.shutdownNow();
+			for (Worker worker : workers) {
+				worker.destroy();
+			}
+			executor = null;
+			watchdog = null;
+			idleWorkers = null;
+			workers = null;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Evaluate a single individual in a worker process.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	protected void evaluate(IIndividual ind)
+	{
+		dispatch(Collections.singletonList(ind));
+	}
+
+	/**
+	 * Fitness assigned to individuals that cannot be evaluated.
+	 *
+	 * @return A new penalty fitness
+	 */
+
+	protected IFitness penaltyFitness()
+	{
+		if (!Double.isNaN(penalty)) {
+			return new SimpleValueFitness(penalty);
+		}
+		IFitness highest = new SimpleValueFitness(Double.MAX_VALUE);
+		IFitness lowest = new SimpleValueFitness(-Double.MAX_VALUE);
+		return getComparator().compare(highest, lowest) > 0 ? lowest : highest;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Evaluate individuals in worker processes, and wait until all of
+	 * them have a fitness.
+	 *
+	 * @param inds Individuals to evaluate
+	 */
+
+	private void dispatch(List<IIndividual> inds)
+	{
+		int size = inds.size();
+		if (size == 0) {
+			return;
+		}
+		// Small populations are spread over all workers
+		int workers = getNumberOfWorkers();
+		int chunk = Math.max(1, Math.min(batchSize, (size + workers - 1) / workers));
+		CompletionService<Batch> service = new ExecutorCompletionService<Batch>(executor());
+		int running = 0;
+		for (int from = 0; from < size; from += chunk) {
+			service.submit(new Batch(inds.subList(from, Math.min(size, from + chunk)), 0));
+			running++;
+		}
+		try {
+			while (running > 0) {
+				Batch rest = service.take().get();
+				running--;
+				// Individuals not evaluated by a failed worker
+				if (rest != null) {
+					service.submit(rest);
+					running++;
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Process evaluation interrupted", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Process evaluation failed", cause);
+		}
+	}
+
+	private synchronized ExecutorService executor()
+	{
+		if (executor == null) {
+			ThreadFactory threads = new DaemonFactory();
+			executor = Executors.newFixedThreadPool(getNumberOfWorkers(), threads);
+			watchdog = Executors.newSingleThreadScheduledExecutor(threads);
+			idleWorkers = new LinkedList<Worker>();
+			workers = new HashSet<Worker>();
+		}
+		return executor;
+	}
+
+	/**
+	 * Take an idle worker, or start a new one.
+	 */
+
+	private Worker acquireWorker()
+	{
+		synchronized (this) {
+			if (!idleWorkers.isEmpty()) {
+				return idleWorkers.removeFirst();
+			}
+		}
+		Worker worker = new Worker();
+		synchronized (this) {
+			if (workers == null) {
+				// Disposed while starting
+				worker.destroy();
+				throw new IllegalStateException("Process evaluator disposed");
+			}
+			workers.add(worker);
+		}
+		return worker;
+	}
+
+	private synchronized void releaseWorker(Worker worker)
+	{
+		if (idleWorkers != null) {
+			idleWorkers.addFirst(worker);
+		}
+		else {
+			worker.destroy();
+		}
+	}
+
+	private synchronized void discardWorker(Worker worker)
+	{
+		worker.destroy();
+		if (workers != null) {
+			workers.remove(worker);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Evaluation batch
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Individuals evaluated by a worker in a round trip. Returns the
+	 * individuals that have to be queued again (or null).
+	 */
+
+	private class Batch implements Callable<Batch>
+	{
+		/** Individuals to evaluate */
+
+		private final List<IIndividual> inds;
+
+		/** Workers killed by the first individual */
+
+		private final int failures;
+
+		Batch(List<IIndividual> inds, int failures)
+		{
+			this.inds = inds;
+			this.failures = failures;
+		}
+
+		public Batch call()
+		{
+			Worker worker = acquireWorker();
+			int done = 0;
+			try {
+				worker.send(inds);
+				for (IIndividual ind : inds) {
+					ind.setFitness(worker.receive());
+					done++;
+				}
+				if (worker.timedOut) {
+					// Killed after its last answer
+					discardWorker(worker);
+				}
+				else {
+					releaseWorker(worker);
+				}
+				return null;
+			}
+			catch (IOException e) {
+				discardWorker(worker);
+				numberOfFailures.incrementAndGet();
+				IIndividual current = inds.get(done);
+				if (worker.timedOut) {
+					numberOfTimeouts.incrementAndGet();
+					current.setFitness(penaltyFitness());
+					done++;
+				}
+				else {
+					int currentFailures = (done == 0) ? failures + 1 : 1;
+					if (currentFailures <= maxRetries) {
+						return new Batch(inds.subList(done, inds.size()), currentFailures);
+					}
+					current.setFitness(penaltyFitness());
+					done++;
+				}
+				return done < inds.size() ? new Batch(inds.subList(done, inds.size()), 0) : null;
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Worker process
+	/////////////////////////////////////////////////////////////////
+
+	private class Worker implements Runnable
+	{
+		private final Process process;
+
+		private final DataInputStream in;
+
+		private final DataOutputStream out;
+
+		/** Set by the watchdog when this worker is killed */
+
+		private volatile boolean timedOut;
+
+		/**
+		 * Start a worker process and send it the evaluator.
+		 */
+
+		Worker()
+		{
+			List<String> command = new ArrayList<String>();
+			command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+			command.addAll(jvmOptions);
+			command.add("-cp");
+			command.add(System.getProperty("java.class.path"));
+			command.add(ProcessEvaluatorWorker.class.getName());
+			try {
+				process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Cannot start evaluation worker", e);
+			}
+			in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+			out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+			try {
+				IndividualCodec.writeObject(out, evaluator);
+				out.flush();
+				if (in.readByte() != ProcessEvaluatorWorker.READY) {
+					throw new IOException("Unexpected worker answer");
+				}
+			}
+			catch (IOException e) {
+				process.destroy();
+				throw new IllegalStateException("Cannot start evaluation worker", e);
+			}
+		}
+
+		void send(List<IIndividual> inds) throws IOException
+		{
+			out.writeInt(inds.size());
+			for (IIndividual ind : inds) {
+				IndividualCodec.write(out, ind);
+			}
+			out.flush();
+		}
+
+		IFitness receive() throws IOException
+		{
+			if (timeout <= 0) {
+				return IndividualCodec.readFitness(in);
+			}
+			ScheduledFuture<?> alarm = watchdog.schedule(this, timeout, TimeUnit.MILLISECONDS);
+			try {
+				return IndividualCodec.readFitness(in);
+			}
+			finally {
+				if (!alarm.cancel(false)) {
+					// The watchdog is killing this worker
+					timedOut = true;
+				}
+			}
+		}
+
+		/**
+		 * Watchdog task: kill this worker.
+		 */
+
+		public void run()
+		{
+			timedOut = true;
+			process.destroy();
+		}
+
+		void destroy()
+		{
+			process.destroy();
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Thread factory
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Creates daemon threads, so an evaluator that has not been disposed
+	 * never prevents the JVM from exiting.
+	 */
+
+	private static class DaemonFactory implements ThreadFactory
+	{
+		private final AtomicInteger counter = new AtomicInteger();
+
+		public Thread newThread(Runnable task)
+		{
+			Thread thread = new Thread(task, "jclec-process-evaluator-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
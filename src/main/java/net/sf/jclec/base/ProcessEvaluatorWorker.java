@@ -0,0 +1,104 @@
+package net.sf.jclec.base;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.jclec.IEvaluator;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.util.IndividualCodec;
+
+/**
+ * Child process used by ProcessEvaluator.
+ *
+ * The worker reads a serialized evaluator from its standard input and
+ * answers with a READY byte. Then it reads batches of individuals (number
+ * of individuals followed by individuals written with IndividualCodec) and
+ * writes the fitness of each individual as soon as it is evaluated. The
+ * worker finishes when its standard input is closed.
+ *
+ * Standard output is reserved for this protocol: anything printed by the
+ * evaluator is redirected to standard error.
+ *
+ * @author Sebastian Ventura
+ */
+
+public final class ProcessEvaluatorWorker
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Sent once the evaluator has been read */
+
+	public static final byte READY = 0x2A;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Static methods only.
+	 */
+
+	private ProcessEvaluatorWorker()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------ Class methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Main method
+	 *
+	 * @param args Not used
+	 *
+	 * @throws IOException If the parent process cannot be reached
+	 */
+
+	public static void main(String [] args) throws IOException
+	{
+		DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+		DataOutputStream out =
+			new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+		System.setOut(System.err);
+		// Read evaluator
+		IEvaluator evaluator = (IEvaluator) IndividualCodec.readObject(in);
+		out.writeByte(READY);
+		out.flush();
+		// Evaluate batches
+		List<IIndividual> batch = new ArrayList<IIndividual>();
+		List<IIndividual> single = new ArrayList<IIndividual>(1);
+		while (true) {
+			int size;
+			try {
+				size = in.readInt();
+			}
+			catch (EOFException e) {
+				break;
+			}
+			batch.clear();
+			for (int i=0; i<size; i++) {
+				batch.add(IndividualCodec.read(in));
+			}
+			for (IIndividual ind : batch) {
+				single.clear();
+				single.add(ind);
+				evaluator.evaluate(single);
+				IndividualCodec.writeFitness(out, ind.getFitness());
+				out.flush();
+			}
+		}
+		out.close();
+	}
+}
@@ -0,0 +1,172 @@
+package net.sf.jclec.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor shared by all genetic operators that work in parallel (see
+ * AbstractRecombinator and AbstractMutator chunkSize property).
+ *
+ * Worker threads are daemon threads, created the first time they are
+ * needed. The number of threads only affects speed: operators results
+ * depend on the chunk size, never on the number of threads.
+ *
+ * @author Sebastian Ventura
+ */
+
+public final class VariationExecutor
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of worker threads (0 means one per available processor) */
+
+	private static int numberOfThreads = 0;
+
+	/** Shared executor */
+
+	private static ExecutorService executor;
+
+	/** Marks worker threads (tasks submitted by them run inline) */
+
+	private static final ThreadLocal<Boolean> WORKER = new ThreadLocal<Boolean>();
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Static methods only.
+	 */
+
+	private VariationExecutor()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------ Class methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Access to the number of worker threads
+	 *
+	 * @return Number of worker threads
+	 */
+
+	public static synchronized int getNumberOfThreads()
+	{
+		if (numberOfThreads > 0) {
+			return numberOfThreads;
+		}
+		else {
+			return Runtime.getRuntime().availableProcessors();
+		}
+	}
+
+	/**
+	 * Sets the number of worker threads. Current workers finish their
+	 * tasks and new ones are created the next time they are needed.
+	 *
+	 * @param numberOfThreads Number of threads (0 for one per processor)
+	 */
+
+	public static synchronized void setNumberOfThreads(int numberOfThreads)
+	{
+		VariationExecutor.numberOfThreads = numberOfThreads;
+		if (executor != null) {
+			executor.shutdown();
+			executor = null;
+		}
+	}
+
+	/**
+	 * Execute all tasks and wait for them. If the calling thread is a
+	 * worker thread (nested operators) tasks are executed in the calling
+	 * thread.
+	 *
+	 * @param tasks Tasks to execute
+	 *
+	 * @return Tasks results, in the same order as tasks
+	 */
+
+	public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks)
+	{
+		List<T> results = new ArrayList<T>(tasks.size());
+		try {
+			if (tasks.size() == 1 || WORKER.get() != null) {
+				for (Callable<T> task : tasks) {
+					results.add(task.call());
+				}
+			}
+			else {
+				for (Future<T> result : executor().invokeAll(tasks)) {
+					results.add(result.get());
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Parallel variation interrupted", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Parallel variation failed", cause);
+		}
+		catch (RuntimeException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			throw new IllegalStateException("Parallel variation failed", e);
+		}
+		return results;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static synchronized ExecutorService executor()
+	{
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(getNumberOfThreads(), new WorkerFactory());
+		}
+		return executor;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Worker factory
+	/////////////////////////////////////////////////////////////////
+
+	private static class WorkerFactory implements ThreadFactory
+	{
+		private final AtomicInteger counter = new AtomicInteger();
+
+		public Thread newThread(final Runnable task)
+		{
+			Thread thread = new Thread(new Runnable() {
+				public void run()
+				{
+					WORKER.set(Boolean.TRUE);
+					task.run();
+				}
+			}, "jclec-variation-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -103,6 +103,8 @@ public class SeveralLociMutator extends BinArrayMutator implements IConfigure
 	
 	public void configure(Configuration configuration) 
 	{
+		// Call super.configure() method
+		super.configure(configuration);
 		// Get the '[@number-of-mutation-points]' property
 		int numberOfMutationPoints = configuration.getInt("[@number-of-mutation-points]");
 		setNumberOfMutationPoints(numberOfMutationPoints);
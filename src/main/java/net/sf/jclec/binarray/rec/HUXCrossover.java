@@ -1,5 +1,7 @@
 package net.sf.jclec.binarray.rec;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
 
 import net.sf.jclec.binarray.BinArrayIndividual;
@@ -75,4 +77,17 @@ public class HUXCrossover extends BinArrayRecombinator
 		sonsBuffer.add(species.createIndividual(s1_genotype));	
 	}
 
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Recreate auxiliary (transient) objects after deserialization.
+	 */
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+		xloci = new ArrayList<Integer>();
+	}
 }
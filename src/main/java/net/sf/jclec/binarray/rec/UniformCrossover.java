@@ -101,6 +101,8 @@ public class UniformCrossover extends BinArrayRecombinator implements IConfigure
 
 	public void configure(Configuration configuration) 
 	{
+		// Call super.configure() method
+		super.configure(configuration);
 		// Get the 'locus-crossover-prob' property
 		double locusCrossoverProb = configuration.getDouble("[@locus-crossover-prob]", 0.5);
 		setLocusCrossoverProb(locusCrossoverProb);
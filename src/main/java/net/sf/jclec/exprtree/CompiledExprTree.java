@@ -0,0 +1,249 @@
+package net.sf.jclec.exprtree;
+
+/**
+ * Compiled expression tree. The tree code is flattened into two arrays
+ * (primitives in execution order and their arities) that are executed
+ * over a double stack, so intermediate results are neither boxed nor
+ * pushed into a synchronized stack.
+ *
+ * Only trees whose blocks are all IDoublePrimitive objects returning
+ * Double values can be compiled. If all of them are IVectorPrimitive
+ * objects too, the tree can also be executed over whole data columns.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class CompiledExprTree
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Primitives in execution order */
+
+	private final IDoublePrimitive [] code;
+
+	/** Arity of each primitive */
+
+	private final int [] arities;
+
+	/** Maximum stack size reached during execution */
+
+	private final int stackSize;
+
+	/** Primitives in execution order, if all of them are vectorized */
+
+	private final IVectorPrimitive [] vectorCode;
+
+	/** Maximum arity */
+
+	private final int maxArity;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor used by compile() method.
+	 */
+
+	private CompiledExprTree(IDoublePrimitive [] code, int [] arities, int stackSize)
+	{
+		super();
+		this.code = code;
+		this.arities = arities;
+		this.stackSize = stackSize;
+		// Vectorized code
+		IVectorPrimitive [] vectorCode = new IVectorPrimitive[code.length];
+		int maxArity = 0;
+		for (int i=0; i<code.length; i++) {
+			if (code[i] instanceof IVectorPrimitive) {
+				vectorCode[i] = (IVectorPrimitive) code[i];
+			}
+			else {
+				vectorCode = null;
+				break;
+			}
+			maxArity = Math.max(maxArity, arities[i]);
+		}
+		this.vectorCode = vectorCode;
+		this.maxArity = maxArity;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Compilation
+
+	/**
+	 * Compiles an expression tree.
+	 *
+	 * @param tree Expression tree
+	 *
+	 * @return Compiled tree, or null if tree contains primitives that
+	 * 		   cannot be compiled
+	 */
+
+	public static final CompiledExprTree compile(ExprTree tree)
+	{
+		int size = tree.size();
+		if (size == 0) {
+			return null;
+		}
+		IDoublePrimitive [] code = new IDoublePrimitive[size];
+		int [] arities = new int[size];
+		int top = 0, maxTop = 0;
+		// Blocks are executed in reverse (prefix) order
+		for (int i=0; i<size; i++) {
+			IPrimitive block = tree.getBlock(size-1-i);
+			if (!(block instanceof IDoublePrimitive) || block.returnType() != Double.class) {
+				return null;
+			}
+			code[i] = (IDoublePrimitive) block;
+			arities[i] = block.argumentTypes().length;
+			top += 1 - arities[i];
+			if (top > maxTop) {
+				maxTop = top;
+			}
+		}
+		// Tree code has to leave only its result in the stack
+		if (top != 1) {
+			return null;
+		}
+		return new CompiledExprTree(code, arities, maxTop);
+	}
+
+	// Execution
+
+	/**
+	 * Size of the stack needed to execute this tree.
+	 *
+	 * @return Stack size
+	 */
+
+	public int stackSize()
+	{
+		return stackSize;
+	}
+
+	/**
+	 * Executes this tree.
+	 *
+	 * @param arguments Function arguments
+	 * @param stack Operand stack (at least stackSize() long)
+	 *
+	 * @return Tree result
+	 */
+
+	public double execute(double [] arguments, double [] stack)
+	{
+		int top = 0;
+		for (int i=0; i<code.length; i++) {
+			double result = code[i].evaluate(arguments, stack, top);
+			top -= arities[i];
+			stack[top++] = result;
+		}
+		return stack[0];
+	}
+
+	/**
+	 * Executes this tree with a new operand stack.
+	 *
+	 * @param arguments Function arguments
+	 *
+	 * @return Tree result
+	 */
+
+	public double execute(double... arguments)
+	{
+		return execute(arguments, new double[stackSize]);
+	}
+
+	// Column execution
+
+	/**
+	 * Checks if this tree can be executed over data columns.
+	 *
+	 * @return true if all primitives are IVectorPrimitive objects
+	 */
+
+	public boolean isVectorizable()
+	{
+		return vectorCode != null;
+	}
+
+	/**
+	 * Number of buffers used to execute this tree over data columns (one
+	 * per stack position plus the one that receives each result).
+	 *
+	 * @return Buffer pool size
+	 */
+
+	public int bufferCount()
+	{
+		return stackSize + 1;
+	}
+
+	/**
+	 * Executes this tree over data columns. Each primitive is evaluated
+	 * only once, over all rows. Intermediate results are stored in a pool
+	 * of buffers that can be reused in later executions.
+	 *
+	 * @param columns Function arguments (one column per argument)
+	 * @param result Array that will store the function result (its length
+	 * 		  is the number of rows)
+	 * @param buffers Buffer pool (at least bufferCount() long). Missing
+	 * 		  buffers, or those shorter than result, are replaced with new
+	 * 		  ones.
+	 *
+	 * @throws IllegalStateException If this tree cannot be vectorized
+	 */
+
+	public void execute(double [][] columns, double [] result, double [][] buffers)
+	{
+		if (vectorCode == null) {
+			throw new IllegalStateException("This tree cannot be executed over columns");
+		}
+		int length = result.length;
+		// Stack values and the buffers they use (-1 if they are columns)
+		double [][] stack = new double[stackSize][];
+		int [] owners = new int[stackSize];
+		int top = 0;
+		// Free buffers
+		int [] free = new int[buffers.length];
+		int numberOfFree = 0;
+		for (int b=buffers.length-1; b>=0; b--) {
+			free[numberOfFree++] = b;
+		}
+		double [][] operands = new double[maxArity][];
+		for (int i=0; i<vectorCode.length; i++) {
+			int arity = arities[i];
+			for (int a=0; a<arity; a++) {
+				operands[a] = stack[top-1-a];
+			}
+			int buffer = free[--numberOfFree];
+			if (buffers[buffer] == null || buffers[buffer].length < length) {
+				buffers[buffer] = new double[length];
+			}
+			double [] value = vectorCode[i].evaluate(columns, operands, length, buffers[buffer]);
+			// Release operand buffers
+			for (int a=0; a<arity; a++) {
+				top--;
+				if (owners[top] >= 0) {
+					free[numberOfFree++] = owners[top];
+				}
+				stack[top] = null;
+			}
+			if (value == buffers[buffer]) {
+				owners[top] = buffer;
+			}
+			else {
+				owners[top] = -1;
+				free[numberOfFree++] = buffer;
+			}
+			stack[top++] = value;
+		}
+		System.arraycopy(stack[0], 0, result, 0, length);
+	}
+}
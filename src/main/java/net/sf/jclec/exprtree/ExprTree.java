@@ -1,5 +1,8 @@
 package net.sf.jclec.exprtree;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Iterator;
 
 import net.sf.jclec.JCLEC;
@@ -7,6 +10,12 @@ import net.sf.jclec.JCLEC;
 /**
  * Expression tree.
  * 
+ * Blocks are stored in prefix order as primitive identifiers: stateless
+ * primitives are interned in a table shared by all trees, and the other
+ * ones (as ephemeral random constants) are kept in a constant pool owned
+ * by each tree. Copying a tree or a range of blocks is therefore mostly
+ * a matter of copying int arrays.
+ * 
  * @author Sebastian Ventura
  */
 
@@ -24,14 +33,49 @@ public class ExprTree implements JCLEC
 	// --------------------------------------- Prefix expression code
 	/////////////////////////////////////////////////////////////////
 
-	/** This expression code */
+	/** 
+	 * This expression code. Non-negative values are identifiers of 
+	 * interned primitives; negative ones (~i) refer to the i-th constant
+	 */
+	
+	private transient int [] code = new int[10];
+	
+	/** Arity of each block */
 	
-	private IPrimitive [] blocks = new IPrimitive[10];
+	private transient int [] arities = new int[10];
 	
 	/** Actual block index */
 	
 	private int blockIndex = 0;
 	
+	/** Constant pool (primitives that are not interned) */
+	
+	private transient IPrimitive [] constants = new IPrimitive[0];
+	
+	/** Number of constants in pool */
+	
+	private transient int numberOfConstants = 0;
+	
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Compiled form of this tree (built on demand) */
+	
+	private transient CompiledExprTree compiled;
+	
+	/** Has this tree been compiled since its last modification? */
+	
+	private transient boolean compiledValid;
+	
+	/** Index of the node after each subtree (computed on demand) */
+	
+	private transient int [] ends;
+	
+	/** Have subtree ends been computed since the last modification? */
+	
+	private transient boolean endsValid;
+	
 	/////////////////////////////////////////////////////////////////
 	// -------------------------------------------------- Constructor
 	/////////////////////////////////////////////////////////////////
@@ -59,13 +103,38 @@ public class ExprTree implements JCLEC
 	
 	public void addBlock(IPrimitive block)
 	{
-		if (blockIndex == blocks.length) {
-			IPrimitive [] aux = new IPrimitive[2*blockIndex];
-			for (int i=0; i<blockIndex; i++) 
-				aux[i] = blocks[i];
-			blocks = aux;
+		ensureCapacity(blockIndex + 1);
+		code[blockIndex] = encode(block);
+		arities[blockIndex++] = arity(block);
+		modified();
+	}
+
+	/**
+	 * Add a range of blocks of other tree to this expression. Blocks that
+	 * are not shared between trees (constants) are copied.
+	 * 
+	 * @param source Source tree
+	 * @param from Index of the first block to add
+	 * @param to Index of the block after the last one to add
+	 */
+	
+	public void addBlocks(ExprTree source, int from, int to)
+	{
+		int length = to - from;
+		if (length <= 0) {
+			return;
+		}
+		ensureCapacity(blockIndex + length);
+		System.arraycopy(source.code, from, code, blockIndex, length);
+		System.arraycopy(source.arities, from, arities, blockIndex, length);
+		for (int i=blockIndex; i<blockIndex+length; i++) {
+			if (code[i] < 0) {
+				IPrimitive constant = source.constants[~code[i]];
+				code[i] = addConstant(constant == null ? null : constant.copy());
+			}
 		}
-		blocks[blockIndex++] = block;
+		blockIndex += length;
+		modified();
 	}
 
 	/**
@@ -78,7 +147,11 @@ public class ExprTree implements JCLEC
 	
 	public IPrimitive getBlock(int blockIndex)
 	{
-		return blocks[blockIndex];
+		if (blockIndex >= this.blockIndex) {
+			return null;
+		}
+		int identifier = code[blockIndex];
+		return identifier >= 0 ? PrimitiveTable.primitive(identifier) : constants[~identifier];
 	}
 	
 	/**
@@ -90,7 +163,19 @@ public class ExprTree implements JCLEC
 	
 	public void setBlock(IPrimitive block, int blockIndex)
 	{
-		blocks[blockIndex] = block;
+		if (blockIndex >= this.blockIndex) {
+			throw new ArrayIndexOutOfBoundsException(blockIndex);
+		}
+		int identifier = PrimitiveTable.identifier(block);
+		if (identifier < 0 && code[blockIndex] < 0) {
+			// Reuse constant pool entry
+			constants[~code[blockIndex]] = block;
+		}
+		else {
+			code[blockIndex] = identifier >= 0 ? identifier : addConstant(block);
+		}
+		arities[blockIndex] = arity(block);
+		modified();
 	}
 	
 	// Expression size
@@ -116,16 +201,10 @@ public class ExprTree implements JCLEC
 	
 	public ExprTree copy()
 	{
-		// Copy code
-		IPrimitive [] codeCopy = new IPrimitive [blocks.length];
-		for (int i=0; i<blockIndex; i++) 
-			codeCopy[i] = blocks[i].copy();
 		// Copy expression
 		ExprTree result = new ExprTree();
-		// Set codeIndex
-		result.blockIndex = blockIndex;
-		// Set code
-		result.blocks = codeCopy;
+		// Copy code (and constants)
+		result.addBlocks(this, 0, blockIndex);
 		// Return result
 		return result;
 	}
@@ -145,26 +224,32 @@ public class ExprTree implements JCLEC
 	
 	public int subTree(int rootIndex)
 	{
-		int resultIndex = rootIndex;
-		// Number of remaining sons
-		int aux = 0;
-		do {	
-			try {
-				// Increase aux to the actual node arity
-				aux += blocks[resultIndex].argumentTypes().length;
-				// 	Increment resultIndex
-				resultIndex++;
-				}
-			catch (NullPointerException e) {
-				System.out.println("tree="+this.toString());				
-				System.out.println("blockIndex="+rootIndex);							
-			}
-		}		
-		while (aux-- != 0);
-		return resultIndex;
+		if (!endsValid) {
+			computeEnds();
+		}
+		return ends[rootIndex];
 	}
 	
-	// Execution method
+	// Execution methods
+	
+	/**
+	 * Compiled form of this tree. It is built the first time it is used
+	 * and kept until the tree is modified (with addBlock() or setBlock()
+	 * methods). Copies of this tree are compiled again.
+	 * 
+	 * @return Compiled tree, or null if this tree cannot be compiled
+	 * 
+	 * @see CompiledExprTree
+	 */
+	
+	public CompiledExprTree compile()
+	{
+		if (!compiledValid) {
+			compiled = CompiledExprTree.compile(this);
+			compiledValid = true;
+		}
+		return compiled;
+	}
 	
 	/**
 	 * Return a postorder traversal iterator. 
@@ -187,7 +272,7 @@ public class ExprTree implements JCLEC
 	{
 		StringBuffer sb = new StringBuffer("(");
 		for (int i=0; i<blockIndex; i++) {
-			sb.append(blocks[i]);
+			sb.append(getBlock(i));
 			if (i != blockIndex-1) {
 				sb.append(" ");
 			}
@@ -273,7 +358,10 @@ public class ExprTree implements JCLEC
 			ExprTree cother = (ExprTree) other;
 			if (blockIndex == cother.blockIndex) {
 				for (int i=0; i<blockIndex; i++) {
-					if (! blocks[i].equals(cother.blocks[i])) 
+					// Equal identifiers are equal primitives
+					if (code[i] >= 0 && code[i] == cother.code[i]) 
+						continue;
+					if (! getBlock(i).equals(cother.getBlock(i))) 
 						return false;
 				}
 				return true;
@@ -287,6 +375,121 @@ public class ExprTree implements JCLEC
 		}
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	public int hashCode()
+	{
+		int result = 17;
+		for (int i=0; i<blockIndex; i++) 
+			result = 37*result + getBlock(i).hashCode();
+		return result;
+	}
+	
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+	
+	private void ensureCapacity(int capacity)
+	{
+		if (capacity > code.length) {
+			int length = Math.max(capacity, 2*code.length);
+			int [] aux = new int[length];
+			System.arraycopy(code, 0, aux, 0, blockIndex);
+			code = aux;
+			aux = new int[length];
+			System.arraycopy(arities, 0, aux, 0, blockIndex);
+			arities = aux;
+		}
+	}
+	
+	/**
+	 * Block code: its identifier (if it is interned) or its constant pool
+	 * entry 
+	 */
+	
+	private int encode(IPrimitive block)
+	{
+		int identifier = PrimitiveTable.identifier(block);
+		return identifier >= 0 ? identifier : addConstant(block);
+	}
+	
+	private int addConstant(IPrimitive constant)
+	{
+		if (numberOfConstants == constants.length) {
+			IPrimitive [] aux = new IPrimitive[Math.max(4, 2*numberOfConstants)];
+			System.arraycopy(constants, 0, aux, 0, numberOfConstants);
+			constants = aux;
+		}
+		constants[numberOfConstants] = constant;
+		return ~(numberOfConstants++);
+	}
+	
+	private static int arity(IPrimitive block)
+	{
+		return block == null ? 0 : block.argumentTypes().length;
+	}
+	
+	private void modified()
+	{
+		compiledValid = false;
+		endsValid = false;
+	}
+	
+	/**
+	 * Computes all subtree ends in a single (reverse) pass. In incomplete 
+	 * trees, subtrees that lack sons end at the end of this tree.
+	 */
+	
+	private void computeEnds()
+	{
+		if (ends == null || ends.length < blockIndex) {
+			ends = new int[code.length];
+		}
+		int [] stack = new int[blockIndex];
+		int top = 0;
+		for (int i=blockIndex-1; i>=0; i--) {
+			int arity = arities[i];
+			int end = i + 1;
+			if (arity > top) {
+				end = blockIndex;
+				top = 0;
+			}
+			else if (arity > 0) {
+				top -= arity;
+				end = ends[stack[top]];
+			}
+			ends[i] = end;
+			stack[top++] = i;
+		}
+		endsValid = true;
+	}
+	
+	// Serialization (blocks are written as primitives, because 
+	// identifiers are only valid in this virtual machine)
+	
+	private void writeObject(ObjectOutputStream out) throws IOException
+	{
+		out.defaultWriteObject();
+		for (int i=0; i<blockIndex; i++) {
+			out.writeObject(getBlock(i));
+		}
+	}
+	
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+		int size = blockIndex;
+		blockIndex = 0;
+		code = new int[Math.max(10, size)];
+		arities = new int[code.length];
+		constants = new IPrimitive[0];
+		for (int i=0; i<size; i++) {
+			addBlock((IPrimitive) in.readObject());
+		}
+	}
+	
 	/////////////////////////////////////////////////////////////////
 	// --------------------------------------------- Internal classes
 	/////////////////////////////////////////////////////////////////
@@ -313,7 +516,7 @@ public class ExprTree implements JCLEC
 
 		public IPrimitive next() 
 		{
-			return blocks[--actualIndex];
+			return getBlock(--actualIndex);
 		}
 
 		public void remove() 
@@ -75,6 +75,8 @@ public class ExprTreeRecombinator extends AbstractRecombinator implements IConfi
 	@SuppressWarnings("unchecked")
 	public void configure(Configuration settings) 
 	{
+		// Call super.configure() method
+		super.configure(settings);
 		// Set base recombinator name
 		try {
 			// Base recombinator classname
@@ -0,0 +1,29 @@
+package net.sf.jclec.exprtree;
+
+/**
+ * Primitive that can be evaluated over primitive doubles. Expression trees
+ * made up of these primitives (all of them returning Double values) can be
+ * compiled into a CompiledExprTree, that is executed without boxing its
+ * intermediate results.
+ *
+ * @author Sebastian Ventura
+ */
+
+public interface IDoublePrimitive extends IPrimitive
+{
+	// Execution method
+
+	/**
+	 * Evaluation over an operand stack. The first argument of this
+	 * primitive is in stack[top-1], the second one in stack[top-2] and
+	 * so on. This method must not modify the stack.
+	 *
+	 * @param arguments Function arguments
+	 * @param stack Operand stack
+	 * @param top Operand stack size
+	 *
+	 * @return Result of this primitive
+	 */
+
+	public double evaluate(double [] arguments, double [] stack, int top);
+}
@@ -0,0 +1,32 @@
+package net.sf.jclec.exprtree;
+
+/**
+ * Primitive that can be evaluated over whole columns of data. Expression
+ * trees made up of these primitives are evaluated one node at a time over
+ * all dataset rows (see CompiledExprTree), instead of one row at a time.
+ *
+ * @author Sebastian Ventura
+ */
+
+public interface IVectorPrimitive extends IDoublePrimitive
+{
+	// Execution method
+
+	/**
+	 * Evaluation over data columns. The result can be stored in buffer
+	 * or, if it is already available (as happens with arguments), it can
+	 * be an array of columns. This method must not modify neither columns
+	 * nor operands.
+	 *
+	 * @param columns Function arguments (one column per argument)
+	 * @param operands Values of this primitive arguments (operands[0] is
+	 * 		  the first argument)
+	 * @param length Number of rows
+	 * @param buffer Array that can be used to store the result (it has at
+	 * 		  least length elements)
+	 *
+	 * @return Result of this primitive (its first length elements)
+	 */
+
+	public double [] evaluate(double [][] columns, double [][] operands, int length, double [] buffer);
+}
@@ -0,0 +1,118 @@
+package net.sf.jclec.exprtree;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table of interned primitives, shared by all expression trees. Trees
+ * store the identifiers of their primitives instead of references to
+ * them, so equal primitives are stored only once.
+ *
+ * Only stateless primitives (those whose copy() method returns the same
+ * object) are interned. Primitives are compared with their equals() and
+ * hashCode() methods, and they are never removed from this table.
+ *
+ * @author Sebastian Ventura
+ */
+
+final class PrimitiveTable
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Identifier of each interned primitive */
+
+	private static final ConcurrentHashMap<IPrimitive, Integer> identifiers = new ConcurrentHashMap<IPrimitive, Integer>();
+
+	/** Stateless primitive classes */
+
+	private static final ConcurrentHashMap<Class<?>, Boolean> stateless = new ConcurrentHashMap<Class<?>, Boolean>();
+
+	/** Interned primitives (indexed by identifier) */
+
+	private static volatile IPrimitive [] primitives = new IPrimitive[64];
+
+	/** Number of interned primitives */
+
+	private static int size;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Static methods only.
+	 */
+
+	private PrimitiveTable()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------ Class methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Identifier of a primitive, that is interned if necessary.
+	 *
+	 * @param primitive Primitive
+	 *
+	 * @return Primitive identifier, or -1 if it is not stateless
+	 */
+
+	static int identifier(IPrimitive primitive)
+	{
+		if (primitive == null || !isStateless(primitive)) {
+			return -1;
+		}
+		Integer identifier = identifiers.get(primitive);
+		if (identifier != null) {
+			return identifier;
+		}
+		synchronized (PrimitiveTable.class) {
+			identifier = identifiers.get(primitive);
+			if (identifier == null) {
+				IPrimitive [] table = primitives;
+				if (size == table.length) {
+					IPrimitive [] aux = new IPrimitive[2*size];
+					System.arraycopy(table, 0, aux, 0, size);
+					table = aux;
+				}
+				table[size] = primitive;
+				// Publish the primitive before its identifier
+				primitives = table;
+				identifier = size++;
+				identifiers.put(primitive, identifier);
+			}
+			return identifier;
+		}
+	}
+
+	/**
+	 * Access to an interned primitive.
+	 *
+	 * @param identifier Primitive identifier
+	 *
+	 * @return Primitive
+	 */
+
+	static IPrimitive primitive(int identifier)
+	{
+		return primitives[identifier];
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static boolean isStateless(IPrimitive primitive)
+	{
+		Boolean result = stateless.get(primitive.getClass());
+		if (result == null) {
+			result = primitive.copy() == primitive;
+			stateless.put(primitive.getClass(), result);
+		}
+		return result;
+	}
+}
@@ -89,6 +89,21 @@ public abstract class AbstractPrimitive implements IPrimitive
 		return this;
 	}
 	
+	/**
+	 * Primitives are usually compared by class (all instances of a class
+	 * are equal), so default hash code depends only on this class. Those
+	 * primitives that have an internal state (as ephemeral constants) and
+	 * override equals() should override this method too.
+	 * 
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	public int hashCode()
+	{
+		return getClass().hashCode();
+	}
+	
 	/**
 	 * This context has to be an ExprTreeFunction object.
 	 * 
@@ -1,14 +1,17 @@
 package net.sf.jclec.exprtree.fun;
 
+import net.sf.jclec.exprtree.IVectorPrimitive;
+
 /**
  * Argument. This class represents generically an argument in the arguments pool.
+ * Double arguments can be used in compiled (and vectorized) expression trees.
  * 
  * @author Sebastian Ventura
  *
  * @param <E> Argument type
  */
 
-public abstract class Argument<E> extends AbstractPrimitive 
+public abstract class Argument<E> extends AbstractPrimitive implements IVectorPrimitive
 {
 	/////////////////////////////////////////////////////////////////
 	// --------------------------------------- Serialization constant
@@ -47,4 +50,24 @@ public abstract class Argument<E> extends AbstractPrimitive
 	{
 		pushArg(context, argindex);
 	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	public final double evaluate(double [] arguments, double [] stack, int top)
+	{
+		return arguments[argindex];
+	}
+	
+	/**
+	 * Returns the argument column, without copying it.
+	 * 
+	 * {@inheritDoc}
+	 */
+	
+	public final double [] evaluate(double [][] columns, double [][] operands, int length, double [] buffer)
+	{
+		return columns[argindex];
+	}
 }
@@ -0,0 +1,93 @@
+package net.sf.jclec.exprtree.fun;
+
+import net.sf.jclec.exprtree.IVectorPrimitive;
+
+/**
+ * Function that receives two Double arguments and returns a Double value.
+ * Subclasses only implement the apply() method, that is used both by the
+ * interpreter and by compiled (and vectorized) expression trees.
+ *
+ * @author Sebastian Ventura
+ */
+
+public abstract class DoubleBinaryPrimitive extends AbstractPrimitive implements IVectorPrimitive
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = -3190526128563479087L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Default constructor
+	 */
+
+	protected DoubleBinaryPrimitive()
+	{
+		super(new Class<?> [] {Double.class, Double.class}, Double.class);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public final double evaluate(double [] arguments, double [] stack, int top)
+	{
+		return apply(stack[top-1], stack[top-2]);
+	}
+
+	/**
+	 * Applies this function to all rows. Subclasses can override this
+	 * method with a specialized loop.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	public double [] evaluate(double [][] columns, double [][] operands, int length, double [] buffer)
+	{
+		double [] arg1 = operands[0], arg2 = operands[1];
+		for (int i=0; i<length; i++) {
+			buffer[i] = apply(arg1[i], arg2[i]);
+		}
+		return buffer;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	protected final void evaluate(ExprTreeFunction context)
+	{
+		// Get arguments (in context stack)
+		Double arg1 = pop(context);
+		Double arg2 = pop(context);
+		// Push result in context stack
+		push(context, apply(arg1, arg2));
+	}
+
+	/**
+	 * Function applied by this primitive.
+	 *
+	 * @param arg1 First argument
+	 * @param arg2 Second argument
+	 *
+	 * @return Function value
+	 */
+
+	protected abstract double apply(double arg1, double arg2);
+}
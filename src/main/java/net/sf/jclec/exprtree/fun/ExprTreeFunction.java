@@ -1,8 +1,10 @@
 package net.sf.jclec.exprtree.fun;
 
+import java.util.Arrays;
 import java.util.Stack;
 import java.util.Iterator;
 
+import net.sf.jclec.exprtree.CompiledExprTree;
 import net.sf.jclec.exprtree.ExprTree;
 import net.sf.jclec.exprtree.IContext;
 import net.sf.jclec.exprtree.IPrimitive;
@@ -43,6 +45,14 @@ public class ExprTreeFunction implements IContext
 	
 	protected Object [] args;
 	
+	/** Operand stack used to execute compiled code */
+	
+	protected double [] doubleStack = new double[0];
+	
+	/** Buffer pool used to execute compiled code over data columns */
+	
+	protected double [][] buffers = new double[0][];
+	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
 	/////////////////////////////////////////////////////////////////
@@ -110,5 +120,66 @@ public class ExprTreeFunction implements IContext
 		return (E) stack.pop();
 	}
 	
+	/**
+	 * Execution over double values. If function code can be compiled (see
+	 * ExprTree.compile()), its compiled form is executed, without boxing
+	 * arguments nor intermediate results. Otherwise, code is executed by 
+	 * the execute() method.
+	 * 
+	 * @param arguments Function arguments
+	 * 
+	 * @return Function result
+	 */
+	
+	public double executeDouble(double... arguments)
+	{
+		CompiledExprTree compiled = code.compile();
+		if (compiled != null) {
+			if (doubleStack.length < compiled.stackSize()) {
+				doubleStack = new double[compiled.stackSize()];
+			}
+			return compiled.execute(arguments, doubleStack);
+		}
+		else {
+			Object [] boxed = new Object[arguments.length];
+			for (int i=0; i<arguments.length; i++) {
+				boxed[i] = arguments[i];
+			}
+			return this.<Number>execute(boxed).doubleValue();
+		}
+	}
+	
+	/**
+	 * Execution over whole data columns. If function code can be compiled
+	 * and all its primitives are IVectorPrimitive objects, each primitive 
+	 * is evaluated once over all rows, using a buffer pool that is reused
+	 * in later calls. Otherwise, the function is executed row by row with
+	 * executeDouble().
+	 * 
+	 * @param columns Function arguments (columns[j][i] is the j-th argument
+	 * 		  in the i-th row)
+	 * @param result Array that will store the function result for each row
+	 */
+	
+	public void executeBatch(double [][] columns, double [] result)
+	{
+		CompiledExprTree compiled = code.compile();
+		if (compiled != null && compiled.isVectorizable()) {
+			if (buffers.length < compiled.bufferCount()) {
+				buffers = Arrays.copyOf(buffers, compiled.bufferCount());
+			}
+			compiled.execute(columns, result, buffers);
+		}
+		else {
+			double [] row = new double[columns.length];
+			for (int i=0; i<result.length; i++) {
+				for (int j=0; j<columns.length; j++) {
+					row[j] = columns[j][i];
+				}
+				result[i] = executeDouble(row);
+			}
+		}
+	}
+	
 	// Arguments manipulation
 }
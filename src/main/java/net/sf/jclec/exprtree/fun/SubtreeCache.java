@@ -0,0 +1,387 @@
+package net.sf.jclec.exprtree.fun;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.sf.jclec.exprtree.ExprTree;
+import net.sf.jclec.exprtree.IPrimitive;
+import net.sf.jclec.exprtree.IVectorPrimitive;
+
+/**
+ * Population-wide cache of subtree results over a dataset. After a few
+ * generations most individuals of a GP population share large subtrees,
+ * so this cache stores the output column of each evaluated subtree and
+ * reuses it whenever an structurally equal subtree is found (in the same
+ * tree or in another one).
+ *
+ * Subtrees are compared block by block (using the equals() method of
+ * primitives). Only trees made up of IVectorPrimitive objects use the
+ * cache; other trees are executed by an ExprTreeFunction. Terminals are
+ * never cached. When the memory used by cached columns exceeds the cache
+ * budget, least recently used subtrees are evicted.
+ *
+ * All methods of this class can be invoked from several threads.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class SubtreeCache
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------------ Constants
+	/////////////////////////////////////////////////////////////////
+
+	/** Operands of terminals */
+
+	private static final double [][] NO_OPERANDS = new double[0][];
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Dataset (one column per argument) */
+
+	private double [][] columns;
+
+	/** Number of rows in dataset */
+
+	private int length;
+
+	/** Memory budget (in bytes) */
+
+	private final long budget;
+
+	/** Cached subtrees, in access order */
+
+	private final LinkedHashMap<Key, double []> cache = new LinkedHashMap<Key, double []>(16, 0.75f, true);
+
+	/** Memory used by cached subtrees (estimated, in bytes) */
+
+	private long memory;
+
+	/** Number of subtrees found in cache */
+
+	private long hits;
+
+	/** Number of subtrees not found in cache */
+
+	private long misses;
+
+	/** Number of subtrees evicted */
+
+	private long evictions;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that sets the dataset and memory budget.
+	 *
+	 * @param columns Dataset (columns[j][i] is the j-th argument in the
+	 * 		  i-th row). Columns must not be modified while they are used.
+	 * @param budget Memory budget in bytes
+	 */
+
+	public SubtreeCache(double [][] columns, long budget)
+	{
+		super();
+		this.budget = budget;
+		setColumns(columns);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Dataset
+
+	/**
+	 * Access to dataset.
+	 *
+	 * @return Dataset columns
+	 */
+
+	public synchronized double [][] getColumns()
+	{
+		return columns;
+	}
+
+	/**
+	 * Sets a new dataset. All cached subtrees are discarded.
+	 *
+	 * @param columns Dataset columns
+	 */
+
+	public synchronized void setColumns(double [][] columns)
+	{
+		this.columns = columns;
+		this.length = columns.length == 0 ? 0 : columns[0].length;
+		clear();
+	}
+
+	// Execution
+
+	/**
+	 * Executes a tree over the dataset.
+	 *
+	 * @param code Expression tree
+	 * @param result Array that will store the tree result for each row
+	 */
+
+	public void execute(ExprTree code, double [] result)
+	{
+		double [][] columns;
+		int length;
+		synchronized (this) {
+			columns = this.columns;
+			length = this.length;
+		}
+		int size = code.size();
+		IPrimitive [] blocks = new IPrimitive[size];
+		for (int i=0; i<size; i++) {
+			blocks[i] = code.getBlock(i);
+			if (!(blocks[i] instanceof IVectorPrimitive)) {
+				new ExprTreeFunction(code).executeBatch(columns, result);
+				return;
+			}
+		}
+		// Subtree ends and structural hash codes, computed bottom-up
+		int [] ends = new int[size];
+		int [] hashes = new int[size];
+		int [] stack = new int[size];
+		int top = 0;
+		for (int i=size-1; i>=0; i--) {
+			int arity = blocks[i].argumentTypes().length;
+			int end = i + 1, hash = blocks[i].hashCode();
+			for (int a=0; a<arity; a++) {
+				int child = stack[--top];
+				end = ends[child];
+				hash = 31*hash + hashes[child];
+			}
+			ends[i] = end;
+			hashes[i] = hash;
+			stack[top++] = i;
+		}
+		double [] value = evaluate(blocks, 0, ends, hashes, columns, length, new double[1][]);
+		System.arraycopy(value, 0, result, 0, length);
+	}
+
+	// Statistics
+
+	/**
+	 * Number of cached subtrees.
+	 *
+	 * @return Cache size
+	 */
+
+	public synchronized int size()
+	{
+		return cache.size();
+	}
+
+	/**
+	 * Estimated memory used by cached subtrees.
+	 *
+	 * @return Memory usage (in bytes)
+	 */
+
+	public synchronized long memoryUsage()
+	{
+		return memory;
+	}
+
+	/**
+	 * Number of subtrees found in cache.
+	 *
+	 * @return Cache hits
+	 */
+
+	public synchronized long getHits()
+	{
+		return hits;
+	}
+
+	/**
+	 * Number of subtrees not found in cache.
+	 *
+	 * @return Cache misses
+	 */
+
+	public synchronized long getMisses()
+	{
+		return misses;
+	}
+
+	/**
+	 * Number of subtrees evicted to keep the cache within its budget.
+	 *
+	 * @return Cache evictions
+	 */
+
+	public synchronized long getEvictions()
+	{
+		return evictions;
+	}
+
+	/**
+	 * Fraction of subtree lookups found in cache.
+	 *
+	 * @return Hit rate (0 if there have been no lookups)
+	 */
+
+	public synchronized double hitRate()
+	{
+		long lookups = hits + misses;
+		return lookups == 0 ? 0.0 : (double) hits / lookups;
+	}
+
+	/**
+	 * Resets hits, misses and evictions counters.
+	 */
+
+	public synchronized void resetStatistics()
+	{
+		hits = misses = evictions = 0;
+	}
+
+	/**
+	 * Discards all cached subtrees.
+	 */
+
+	public synchronized void clear()
+	{
+		cache.clear();
+		memory = 0;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Result of the subtree rooted at a block. Returned arrays must not be
+	 * modified, because they can be cached or be dataset columns. Spare
+	 * holds a buffer not used by terminals that returned a column.
+	 */
+
+	private double [] evaluate(IPrimitive [] blocks, int root, int [] ends, int [] hashes, double [][] columns, int length, double [][] spare)
+	{
+		IVectorPrimitive primitive = (IVectorPrimitive) blocks[root];
+		int arity = primitive.argumentTypes().length;
+		if (arity == 0) {
+			double [] buffer = spare[0] == null ? new double[length] : spare[0];
+			double [] value = primitive.evaluate(columns, NO_OPERANDS, length, buffer);
+			spare[0] = value == buffer ? null : buffer;
+			return value;
+		}
+		Key key = new Key(blocks, root, ends[root], hashes[root]);
+		double [] value;
+		synchronized (this) {
+			value = cache.get(key);
+			if (value != null) {
+				hits++;
+				return value;
+			}
+			misses++;
+		}
+		double [][] operands = new double[arity][];
+		for (int a=0, child=root+1; a<arity; a++) {
+			operands[a] = evaluate(blocks, child, ends, hashes, columns, length, spare);
+			child = ends[child];
+		}
+		value = primitive.evaluate(columns, operands, length, new double[length]);
+		store(key.copy(), value, columns);
+		return value;
+	}
+
+	private synchronized void store(Key key, double [] value, double [][] columns)
+	{
+		// Results computed over a previous dataset are not stored
+		if (columns != this.columns || cache.containsKey(key)) {
+			return;
+		}
+		cache.put(key, value);
+		memory += key.memoryUsage() + 8L*value.length;
+		// Evict least recently used subtrees
+		Iterator<Map.Entry<Key, double []>> iterator = cache.entrySet().iterator();
+		while (memory > budget && iterator.hasNext()) {
+			Map.Entry<Key, double []> eldest = iterator.next();
+			memory -= eldest.getKey().memoryUsage() + 8L*eldest.getValue().length;
+			iterator.remove();
+			evictions++;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Internal classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Subtree key: a range of blocks and its structural hash code
+	 */
+
+	private static final class Key
+	{
+		private final IPrimitive [] blocks;
+
+		private final int from;
+
+		private final int to;
+
+		private final int hash;
+
+		Key(IPrimitive [] blocks, int from, int to, int hash)
+		{
+			this.blocks = blocks;
+			this.from = from;
+			this.to = to;
+			this.hash = hash;
+		}
+
+		/**
+		 * Key that does not depend on the tree it was built from
+		 */
+
+		Key copy()
+		{
+			IPrimitive [] copy = new IPrimitive[to - from];
+			for (int i=from; i<to; i++) {
+				copy[i-from] = blocks[i].copy();
+			}
+			return new Key(copy, 0, copy.length, hash);
+		}
+
+		/**
+		 * Estimated key size in bytes (blocks are usually shared)
+		 */
+
+		long memoryUsage()
+		{
+			return 64 + 8L*(to - from);
+		}
+
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		public boolean equals(Object other)
+		{
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key okey = (Key) other;
+			if (hash != okey.hash || to - from != okey.to - okey.from) {
+				return false;
+			}
+			for (int i=from, j=okey.from; i<to; i++, j++) {
+				if (!blocks[i].equals(okey.blocks[j])) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -58,15 +58,11 @@ public class DemoteMutator implements IMutateExprTree
 		// Subtree index
 		int endIndex = ptree.subTree(startIndex);
 		// Copy blocks before subtree
-		for (int i=0; i<startIndex; i++) {
-			son.addBlock(ptree.getBlock(i).copy());
-		}
+		son.addBlocks(ptree, 0, startIndex);
 		// Replace subtree with the largest of its children
 		addLargestChildren(ptree, son, startIndex, randgen);		
 		// Copy blocks after subtree
-		for (int i=endIndex; i<size; i++) {
-			son.addBlock(ptree.getBlock(i).copy());			
-		}
+		son.addBlocks(ptree, endIndex, size);
 		// Return result
 		return son;
 	}
@@ -120,9 +116,6 @@ public class DemoteMutator implements IMutateExprTree
 		}
 		
 		// Copy the largest of the children
-		for(int i=startLargestSons; i<endLargestSons; i++){
-			stree.addBlock(ptree.getBlock(i).copy());
-			
-		}
+		stree.addBlocks(ptree, startLargestSons, endLargestSons);
 	}	
 }
@@ -62,9 +62,7 @@ public class GrowMutator  implements IMutateExprTree
 		}
 		while(ptree.getBlock(startIndex).argumentTypes().length != 0);		
 		// Copy blocks before subtree
-		for (int i=0; i<startIndex; i++) {
-			son.addBlock(ptree.getBlock(i).copy());
-		}
+		son.addBlocks(ptree, 0, startIndex);
 		// Brach size  		
 		int branchSize = 
 			randgen.choose(0, schema.getMaxTreeSize() - size);
@@ -73,9 +71,7 @@ public class GrowMutator  implements IMutateExprTree
 		Class<?> rtype = ptree.getBlock(startIndex).returnType();
 		schema.fillExprBranch(son, rtype, branchSize, randgen);
 		// Copy blocks after subtree
-		for (int i=startIndex+1; i<size; i++) {
-			son.addBlock(ptree.getBlock(i).copy());			
-		}
+		son.addBlocks(ptree, startIndex+1, size);
 		// Return result
 		return son;
 	}
@@ -71,9 +71,7 @@ public class PromoteMutator implements IMutateExprTree
 			// Subtree index
 			int endIndex = ptree.subTree(startIndex);
 			// Copy blocks before subtree
-			for (int i=0; i<startIndex; i++) {
-				stree.addBlock(ptree.getBlock(i).copy());
-			}
+			stree.addBlocks(ptree, 0, startIndex);
 		
 			// Replace terminal with subtree
 			Class<?> rtype = ptree.getBlock(startIndex).returnType();
@@ -97,14 +95,11 @@ public class PromoteMutator implements IMutateExprTree
 			//If not, the subtree of source individual is copied
 			else
 			{
-				for (int i=startIndex; i<endIndex; i++) 
-					stree.addBlock(ptree.getBlock(i).copy());			
+				stree.addBlocks(ptree, startIndex, endIndex);
 			}
 		
 			// Copy blocks after subtree
-			for (int i=endIndex; i<size; i++) {
-				stree.addBlock(ptree.getBlock(i).copy());			
-			}
+			stree.addBlocks(ptree, endIndex, size);
 		}
 		else
 			stree = ptree.copy();
@@ -52,9 +52,7 @@ public class SubtreeMutator implements IMutateExprTree
 		// End of subtree (plus one) index
 		int endIndex = ptree.subTree(startIndex);
 		// Copy blocks before subtree
-		for (int i=0; i<startIndex; i++) {
-			stree.addBlock(ptree.getBlock(i).copy());
-		}
+		stree.addBlocks(ptree, 0, startIndex);
 		// Replace old branch with a new one
 		int new_size = size - (endIndex - startIndex);
 		int branchSize = 
@@ -63,9 +61,7 @@ public class SubtreeMutator implements IMutateExprTree
 		Class<?> rtype = ptree.getBlock(startIndex).returnType();
 		schema.fillExprBranch(stree, rtype, branchSize, randgen);
 		// Copy blocks after subtree
-		for (int i=endIndex; i<size; i++) {
-			stree.addBlock(ptree.getBlock(i).copy());			
-		}
+		stree.addBlocks(ptree, endIndex, size);
 		// Return result
 		return stree;
 	}	
@@ -69,16 +69,12 @@ public class TruncMutator implements IMutateExprTree
 		// Subtree index
 		int endIndex = ptree.subTree(startIndex);
 		// Copy blocks before subtree
-		for (int i=0; i<startIndex; i++) {
-			stree.addBlock(ptree.getBlock(i).copy());
-		}
+		stree.addBlocks(ptree, 0, startIndex);
 		// Replace subtree with terminal
 		Class<?> rtype = ptree.getBlock(startIndex).returnType();
 		stree.addBlock(schema.getTerminalBlock(rtype, randgen));
 		// Copy blocks after subtree
-		for (int i=endIndex; i<size; i++) {
-			stree.addBlock(ptree.getBlock(i).copy());			
-		}
+		stree.addBlocks(ptree, endIndex, size);
 		// Return result
 		return stree;
 	}	
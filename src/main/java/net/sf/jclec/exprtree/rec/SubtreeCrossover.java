@@ -108,28 +108,18 @@ public class SubtreeCrossover implements IRecombineExprTree
 			// One node after second crossover subtree  
 			int cp2EndP1 = ptree1.subTree(cp2Start);
 			// First son
-			for (int i=0; i<cp1Start; i++) 
-				stree0.addBlock(ptree0.getBlock(i).copy()); 
-			for (int i=cp2Start; i<cp2EndP1; i++)
-				stree0.addBlock(ptree1.getBlock(i).copy()); 
-			for (int i= cp1EndP1; i<treeP0Size; i++)
-				stree0.addBlock(ptree0.getBlock(i).copy()); 
+			stree0.addBlocks(ptree0, 0, cp1Start);
+			stree0.addBlocks(ptree1, cp2Start, cp2EndP1);
+			stree0.addBlocks(ptree0, cp1EndP1, treeP0Size);
 			// Second son
-			for (int i=0; i<cp2Start; i++) 
-				stree1.addBlock(ptree1.getBlock(i).copy()); 
-			for (int i=cp1Start; i<cp1EndP1; i++)
-				stree1.addBlock(ptree0.getBlock(i).copy()); 
-			for (int i= cp2EndP1; i<treeP1Size; i++)
-				stree1.addBlock(ptree1.getBlock(i).copy()); 
+			stree1.addBlocks(ptree1, 0, cp2Start);
+			stree1.addBlocks(ptree0, cp1Start, cp1EndP1);
+			stree1.addBlocks(ptree1, cp2EndP1, treeP1Size);
 		}
 		// Else sons are copies of parents
 		else {
-			for (int i=0; i<treeP0Size; i++) {
-				stree0.addBlock(ptree0.getBlock(i).copy());
-			}
-			for (int i=0; i<treeP1Size; i++) {
-				stree1.addBlock(ptree1.getBlock(i).copy());
-			}
+			stree0.addBlocks(ptree0, 0, treeP0Size);
+			stree1.addBlocks(ptree1, 0, treeP1Size);
 		}
 	}
 }
@@ -60,12 +60,8 @@ public class TreeCrossover implements IRecombineExprTree
 	public void recombine(ExprTree ptree0, ExprTree ptree1, ExprTree stree0, ExprTree stree1, ExprTreeSchema tschema, IRandGen randgen) 
 	{
 		int p0size = ptree0.size();
-		for (int i=0; i<p0size; i++) {
-			stree1.addBlock(ptree0.getBlock(i).copy());
-		}
+		stree1.addBlocks(ptree0, 0, p0size);
 		int p1size = ptree1.size();
-		for (int i=0; i<p1size; i++) {
-			stree0.addBlock(ptree1.getBlock(i).copy());
-		}
+		stree0.addBlocks(ptree1, 0, p1size);
 	}
 }
@@ -1,6 +1,7 @@
 package net.sf.jclec.ge;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
 
 import net.sf.jclec.IConstrained;
 import net.sf.jclec.IFitness;
@@ -160,6 +161,21 @@ public class GEIndividual extends AbstractIndividual<int[]> implements IConstrai
 		this.feasible = feasibility;
 	}
 	
+	/**
+	 * Hash code computed from the genotype, so individuals that are equal 
+	 * have the same hash code whatever their fitness.
+	 * 
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	public int hashCode()
+	{
+		HashCodeBuilder hcb = new HashCodeBuilder();
+		hcb.append(genotype);
+		return hcb.toHashCode();
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
@@ -5,6 +5,7 @@ import net.sf.jclec.IIndividual;
 import net.sf.jclec.base.AbstractIndividual;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
 
 /**
  * Individual with a byte array as genotype.
@@ -110,6 +111,21 @@ public class IntArrayIndividual extends AbstractIndividual<int[]>
 
 	// java.lang.Object methods
 	
+	/**
+	 * Hash code computed from the genotype, so individuals that are equal 
+	 * have the same hash code whatever their fitness.
+	 * 
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	public int hashCode()
+	{
+		HashCodeBuilder hcb = new HashCodeBuilder();
+		hcb.append(genotype);
+		return hcb.toHashCode();
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
@@ -100,6 +100,8 @@ public class UniformMutator extends IntArrayMutator implements IConfigure
 	
 	public void configure(Configuration configuration) 
 	{
+		// Call super.configure() method
+		super.configure(configuration);
 		// Get the 'locus-mutation-prob' property
 		double locusMutationProb = configuration.getDouble("[@locus-mutation-prob]", 0.5);
 		setLocusMutationProb(locusMutationProb);
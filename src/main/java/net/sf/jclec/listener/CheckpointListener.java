@@ -0,0 +1,251 @@
+package net.sf.jclec.listener;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import net.sf.jclec.IConfigure;
+import net.sf.jclec.AlgorithmEvent;
+import net.sf.jclec.IAlgorithmListener;
+
+import net.sf.jclec.algorithm.Checkpoint;
+import net.sf.jclec.algorithm.PopulationAlgorithm;
+
+import org.apache.commons.configuration.Configuration;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * Listener that saves a checkpoint of a PopulationAlgorithm every some
+ * generations (see Checkpoint).
+ *
+ * The algorithm is serialized in the algorithm thread, between two
+ * generations; compression and writing are done in a background thread.
+ * If a checkpoint is taken before the previous one has been written, the
+ * previous one is discarded. When the algorithm finishes, all pending
+ * checkpoints are written.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class CheckpointListener implements IAlgorithmListener, IConfigure
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	/** Generated by Eclipse */
+
+	private static final long serialVersionUID = 4815297064425197651L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Checkpoint file */
+
+	private File checkpointFile;
+
+	/** Checkpoint frequency (in generations) */
+
+	private int checkpointFrequency = 10;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Checkpoint waiting to be written */
+
+	private transient AtomicReference<byte []> pending;
+
+	/** Background writer */
+
+	private transient ExecutorService writer;
+
+	/** Last write task */
+
+	private transient Future<?> lastWrite;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public CheckpointListener()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	public final File getCheckpointFile()
+	{
+		return checkpointFile;
+	}
+
+	public final void setCheckpointFile(File checkpointFile)
+	{
+		this.checkpointFile = checkpointFile;
+	}
+
+	public final int getCheckpointFrequency()
+	{
+		return checkpointFrequency;
+	}
+
+	public final void setCheckpointFrequency(int checkpointFrequency)
+	{
+		this.checkpointFrequency = checkpointFrequency;
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for CheckpointListener are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>checkpoint-file (String)</code>: Checkpoint file name.
+	 * </li><li>
+	 * <code>checkpoint-frequency (int)</code>: Generations between two
+	 * checkpoints (default 10).
+	 * </li>
+	 * </ul>
+	 */
+
+	@Override
+	public void configure(Configuration settings)
+	{
+		// Set checkpoint file
+		String checkpointFile = settings.getString("checkpoint-file", "checkpoint.ser.gz");
+		setCheckpointFile(new File(checkpointFile));
+		// Set checkpoint frequency (default 10 generations)
+		int checkpointFrequency = settings.getInt("checkpoint-frequency", 10);
+		setCheckpointFrequency(checkpointFrequency);
+	}
+
+	// IAlgorithmListener interface
+
+	@Override
+	public void algorithmStarted(AlgorithmEvent event)
+	{
+		// Nothing to do
+	}
+
+	@Override
+	public void iterationCompleted(AlgorithmEvent event)
+	{
+		PopulationAlgorithm algorithm = (PopulationAlgorithm) event.getAlgorithm();
+		if (algorithm.getGeneration() % checkpointFrequency == 0) {
+			try {
+				save(Checkpoint.snapshot(algorithm));
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Cannot take checkpoint", e);
+			}
+		}
+	}
+
+	@Override
+	public void algorithmFinished(AlgorithmEvent event)
+	{
+		flush();
+	}
+
+	@Override
+	public void algorithmTerminated(AlgorithmEvent event)
+	{
+		flush();
+	}
+
+	/**
+	 * Wait until all checkpoints taken have been written.
+	 */
+
+	public synchronized void flush()
+	{
+		if (lastWrite == null) {
+			return;
+		}
+		try {
+			lastWrite.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e) {
+			throw new IllegalStateException("Cannot write checkpoint", e.getCause());
+		}
+		finally {
+			lastWrite = null;
+		}
+	}
+
+	// java.lang.Object methods
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof CheckpointListener) {
+			CheckpointListener cother = (CheckpointListener) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			// checkpointFile
+			eb.append(checkpointFile, cother.checkpointFile);
+			// checkpointFrequency
+			eb.append(checkpointFrequency, cother.checkpointFrequency);
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Schedule the writing of a checkpoint. If a previous checkpoint is
+	 * still pending, it is replaced by this one.
+	 *
+	 * @param snapshot Algorithm snapshot
+	 */
+
+	private synchronized void save(byte [] snapshot)
+	{
+		if (writer == null) {
+			pending = new AtomicReference<byte []>();
+			writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable task) {
+					Thread thread = new Thread(task, "jclec-checkpoint");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		if (pending.getAndSet(snapshot) == null) {
+			final File file = checkpointFile;
+			lastWrite = writer.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws IOException {
+					byte [] next = pending.getAndSet(null);
+					if (next != null) {
+						Checkpoint.write(next, file);
+					}
+					return null;
+				}
+			});
+		}
+	}
+}
@@ -1,22 +1,32 @@
 package net.sf.jclec.listener;
 
 import java.io.File;
-import java.io.FileWriter;
+import java.io.Writer;
 import java.io.IOException;
 
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
 import java.util.Date;
 import java.util.List;
+import java.util.ArrayList;
 import java.util.Comparator;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+
 import net.sf.jclec.IFitness;
 import net.sf.jclec.IConfigure;
 import net.sf.jclec.IIndividual;
 import net.sf.jclec.AlgorithmEvent;
 import net.sf.jclec.IAlgorithmListener;
 
+import net.sf.jclec.algorithm.EvaluationQueue;
 import net.sf.jclec.algorithm.PopulationAlgorithm;
+import net.sf.jclec.algorithm.SteadyStateAlgorithm;
 
-import net.sf.jclec.util.IndividualStatistics;
+import net.sf.jclec.util.FitnessStatistics;
 
 import org.apache.commons.configuration.Configuration;
 
@@ -26,6 +36,14 @@ import org.apache.commons.lang.builder.EqualsBuilder;
  * This class is a listener for PopulationAlgorithms, that performs a report of 
  * the actual population. This report consists on ...
  * 
+ * In asynchronous mode, the algorithm thread only takes a snapshot of the
+ * population (a copy of the inhabitants list, sharing the individuals) and 
+ * puts it in a bounded queue. Statistics, formatting and writing are done 
+ * by a background thread, that flushes its output once per batch of 
+ * pending reports. If the queue is full, the algorithm waits until there 
+ * is room for the snapshot. Individuals must not be modified once they are
+ * in the population (JCLEC operators always create new individuals).
+ * 
  * @author Sebastian Ventura
  */
 
@@ -63,6 +81,14 @@ public class PopulationReporter implements IAlgorithmListener, IConfigure
 	
 	private boolean saveCompletePopulation;
 	
+	/** Write reports in a background thread? */
+	
+	private boolean asynchronous;
+	
+	/** Maximum number of reports waiting to be written */
+	
+	private int queueCapacity = 16;
+	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------- Internal variables
 	/////////////////////////////////////////////////////////////////
@@ -73,11 +99,23 @@ public class PopulationReporter implements IAlgorithmListener, IConfigure
 
 	/** Report file writer */
 	
-	private FileWriter reportFileWriter;
+	private transient Writer reportFileWriter;
 	
 	/** Directory for saving complete populations */
 	
 	private File reportDirectory;
+	
+	/** Reports waiting to be written (asynchronous mode) */
+	
+	private transient BlockingQueue<Report> reports;
+	
+	/** Background writer (asynchronous mode) */
+	
+	private transient Thread reportWriter;
+	
+	/** Failure that has stopped the background writer */
+	
+	private transient volatile Throwable reportFailure;
 
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
@@ -143,6 +181,26 @@ public class PopulationReporter implements IAlgorithmListener, IConfigure
 		this.saveCompletePopulation = saveCompletePopulation;
 	}
 
+	public final boolean isAsynchronous() 
+	{
+		return asynchronous;
+	}
+
+	public final void setAsynchronous(boolean asynchronous) 
+	{
+		this.asynchronous = asynchronous;
+	}
+
+	public final int getQueueCapacity() 
+	{
+		return queueCapacity;
+	}
+
+	public final void setQueueCapacity(int queueCapacity) 
+	{
+		this.queueCapacity = queueCapacity;
+	}
+
 	// IConfigure interface
 	
 	@Override
@@ -163,6 +221,12 @@ public class PopulationReporter implements IAlgorithmListener, IConfigure
 		// Set save individuals (default false)
 		boolean saveCompletePopulation = settings.getBoolean("save-complete-population", false);
 		setSaveCompletePopulation(saveCompletePopulation);	
+		// Set asynchronous report (default off)
+		boolean asynchronous = settings.getBoolean("report-asynchronous", false);
+		setAsynchronous(asynchronous);
+		// Set report queue capacity (default 16 reports)
+		int queueCapacity = settings.getInt("report-queue-capacity", 16);
+		setQueueCapacity(queueCapacity);
 	}
 
 	// IAlgorithmListener interface
@@ -186,14 +250,17 @@ public class PopulationReporter implements IAlgorithmListener, IConfigure
 		if (reportOnFile) {
 			reportFile = new File(actualReportTitle+".report.txt");
 			try {
-				reportFileWriter = new FileWriter(reportFile);
-				reportFileWriter.flush();
+				reportFileWriter = Files.newBufferedWriter(reportFile.toPath(), Charset.defaultCharset());
 				reportFileWriter.write(dateString+"\n");
 			} 
 			catch (IOException e) {
 				e.printStackTrace();
 			}			
 		}
+		// Start background writer
+		if (asynchronous) {
+			startReportWriter();
+		}
 		// Do an iteration report
 		doIterationReport((PopulationAlgorithm) event.getAlgorithm(), true);
 	}
@@ -209,21 +276,15 @@ public class PopulationReporter implements IAlgorithmListener, IConfigure
 	{
 		// Do last generation report
 		doIterationReport((PopulationAlgorithm) event.getAlgorithm(), true);
-		// Close report file if necessary
-		if (reportOnFile  && reportFile != null) {
-			try {
-				reportFileWriter.close();
-			} 
-			catch (IOException e) {
-				e.printStackTrace();
-			}
-		}
+		// Write pending reports and close report file
+		closeReport();
 	}
 
 	@Override
-	public void algorithmTerminated(AlgorithmEvent e) {
-		// TODO Auto-generated method stub
-		
+	public void algorithmTerminated(AlgorithmEvent e) 
+	{
+		// Write pending reports and close report file
+		closeReport();
 	}
 	
 	// java.lang.Object methods
@@ -244,6 +305,10 @@ public class PopulationReporter implements IAlgorithmListener, IConfigure
 			eb.append(reportOnFile, cother.reportOnFile);
 			// saveCompletePopulation
 			eb.append(saveCompletePopulation, cother.saveCompletePopulation);			
+			// asynchronous
+			eb.append(asynchronous, cother.asynchronous);
+			// queueCapacity
+			eb.append(queueCapacity, cother.queueCapacity);
 			return eb.isEquals();
 		}
 		else {
@@ -251,29 +316,58 @@ public class PopulationReporter implements IAlgorithmListener, IConfigure
 		}
 	}
 
+	/**
+	 * Report the state of the algorithm, if this generation must be 
+	 * reported (or if force is true). In asynchronous mode, the report is
+	 * only queued.
+	 * 
+	 * @param algorithm Algorithm to report
+	 * @param force Report even if this generation must not be reported
+	 */
+	
 	protected void doIterationReport(PopulationAlgorithm algorithm, boolean force)
 	{
-		// Fitness comparator
-		Comparator<IFitness> comparator = algorithm.getEvaluator().getComparator();
-		// Population individuals
-		List<IIndividual> inhabitants = algorithm.getInhabitants();
-		// Actual generation
-		int generation = algorithm.getGeneration();
-		
 		// Check if this is correct generation
-		if (!force && generation%reportFrequency != 0) {
+		if (!force && algorithm.getGeneration()%reportFrequency != 0) {
 			return;
 		}		
+		// Take a snapshot of the population
+		Report report = new Report(algorithm);
+		if (asynchronous && reportWriter != null) {
+			queueReport(report);
+		}
+		else {
+			writeReport(report);
+			flushReport();
+		}
+	}
+	
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * Write a population report (without flushing the report file).
+	 * 
+	 * @param report Population snapshot
+	 */
+	
+	private void writeReport(Report report)
+	{
+		// Fitness comparator
+		Comparator<IFitness> comparator = report.comparator;
+		// Population individuals
+		List<IIndividual> inhabitants = report.inhabitants;
+		// Actual generation
+		int generation = report.generation;
 		
 		// Save population individuals (if this option was chosen)
 		if (saveCompletePopulation) {
 			String filename = "generation"+generation+".individuals.txt";
 			File file = new File(reportDirectory, filename);
-			FileWriter filewriter;
 			try {
-				filewriter = new FileWriter(file);
+				Writer filewriter = Files.newBufferedWriter(file.toPath(), Charset.defaultCharset());
 				for (IIndividual ind : inhabitants) {
-					filewriter.flush();
 					filewriter.write(ind+"\n");
 				}
 				filewriter.close();
@@ -284,20 +378,26 @@ public class PopulationReporter implements IAlgorithmListener, IConfigure
 		}		
 		
 		// Do population report
-		StringBuffer sb = new StringBuffer("Generation " + generation + " Report\n");
+		StringBuilder sb = new StringBuilder("Generation " + generation + " Report\n");
+		// All statistics in one pass
+		FitnessStatistics statistics = new FitnessStatistics(inhabitants, comparator);
 		// Best individual
-		IIndividual best = IndividualStatistics.bestIndividual(inhabitants, comparator);		
+		IIndividual best = inhabitants.get(statistics.getBest());		
 		sb.append("Best individual: "+best+"\n");
 		// Worst individual
-		IIndividual worst = IndividualStatistics.worstIndividual(inhabitants, comparator);
+		IIndividual worst = inhabitants.get(statistics.getWorst());
 		sb.append("Worst individual: "+worst+"\n");
 		// Median individual
-		IIndividual median = IndividualStatistics.medianIndividual(inhabitants, comparator);
+		IIndividual median = inhabitants.get(statistics.getMedian());
 		sb.append("Median individual: "+median+"\n");		
 		// Average fitness and fitness variance
-		double [] avgvar = IndividualStatistics.averageFitnessAndFitnessVariance(inhabitants);
-		sb.append("Average fitness = " + avgvar[0]+"\n");
-		sb.append("Fitness variance = "+ avgvar[1]+"\n");
+		sb.append("Average fitness = " + statistics.getAverage()+"\n");
+		sb.append("Fitness variance = "+ statistics.getVariance()+"\n");
+		// Asynchronous evaluation statistics
+		if (report.hasQueue) {
+			sb.append("Evaluation throughput = " + report.throughput + " evaluations/s\n");
+			sb.append("Average evaluation wait time = " + report.waitTime + " ms\n");
+		}
 		
 		// Write report string to the standard output (if necessary) 
 		if (reportOnConsole) {
@@ -305,9 +405,24 @@ public class PopulationReporter implements IAlgorithmListener, IConfigure
 		}
 		
 		// Write string to the report file (if necessary) 
-		if (reportOnFile) {
+		if (reportOnFile && reportFileWriter != null) {
 			try {
 				reportFileWriter.write(sb.toString());
+			} 
+			catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	/**
+	 * Flush the report file.
+	 */
+	
+	private void flushReport()
+	{
+		if (reportOnFile && reportFileWriter != null) {
+			try {
 				reportFileWriter.flush();
 			} 
 			catch (IOException e) {
@@ -315,4 +430,182 @@ public class PopulationReporter implements IAlgorithmListener, IConfigure
 			}
 		}
 	}
+	
+	/**
+	 * Start the background writer. It writes all the reports waiting in
+	 * the queue, and then flushes the report file, until it finds the end
+	 * of report mark.
+	 */
+	
+	private void startReportWriter()
+	{
+		reports = new ArrayBlockingQueue<Report>(Math.max(1, queueCapacity));
+		reportWriter = new Thread("jclec-report-writer")
+		{
+			@Override
+			public void run() 
+			{
+				List<Report> batch = new ArrayList<Report>();
+				try {
+					while (true) {
+						batch.add(reports.take());
+						reports.drainTo(batch);
+						for (Report report : batch) {
+							if (report == Report.END) {
+								flushReport();
+								return;
+							}
+							writeReport(report);
+						}
+						batch.clear();
+						flushReport();
+					}
+				}
+				catch (InterruptedException e) {
+					// Reporter closed
+				}
+				catch (Throwable t) {
+					// Thrown later in the algorithm thread
+					reportFailure = t;
+				}
+			}
+		};
+		reportWriter.setDaemon(true);
+		reportWriter.start();
+	}
+	
+	/**
+	 * Put a report in the queue, waiting for room while the background 
+	 * writer is alive. If the writer has stopped, the report is closed and
+	 * the writer failure is thrown in this thread.
+	 * 
+	 * @param report Report to put
+	 */
+	
+	private void queueReport(Report report)
+	{
+		try {
+			while (reportWriter.isAlive()) {
+				if (reports.offer(report, 100, TimeUnit.MILLISECONDS)) {
+					return;
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		// The writer has failed
+		closeReport();
+	}
+	
+	/**
+	 * Write all pending reports and close the report file.
+	 */
+	
+	private void closeReport()
+	{
+		Throwable failure = null;
+		// Stop background writer
+		if (reportWriter != null) {
+			try {
+				while (reportWriter.isAlive()) {
+					if (reports.offer(Report.END, 100, TimeUnit.MILLISECONDS)) {
+						break;
+					}
+				}
+				reportWriter.join();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			failure = reportFailure;
+			reportFailure = null;
+			reportWriter = null;
+			reports = null;
+		}
+		// Close report file if necessary
+		if (reportOnFile && reportFileWriter != null) {
+			try {
+				reportFileWriter.close();
+			} 
+			catch (IOException e) {
+				e.printStackTrace();
+			}
+			reportFileWriter = null;
+		}
+		// Throw writer failure in the algorithm thread
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		if (failure != null) {
+			throw new IllegalStateException("Report writer failed", failure);
+		}
+	}
+	
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------------- Report
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * Snapshot of a population algorithm.
+	 */
+	
+	private static final class Report
+	{
+		/** End of report mark */
+		
+		static final Report END = new Report();
+		
+		/** Generation */
+		
+		final int generation;
+		
+		/** Copy of the inhabitants list */
+		
+		final List<IIndividual> inhabitants;
+		
+		/** Fitness comparator */
+		
+		final Comparator<IFitness> comparator;
+		
+		/** Asynchronous evaluation statistics available? */
+		
+		final boolean hasQueue;
+		
+		/** Evaluation throughput */
+		
+		final double throughput;
+		
+		/** Average evaluation wait time */
+		
+		final double waitTime;
+		
+		Report(PopulationAlgorithm algorithm)
+		{
+			generation = algorithm.getGeneration();
+			inhabitants = new ArrayList<IIndividual>(algorithm.getInhabitants());
+			comparator = algorithm.getEvaluator().getComparator();
+			EvaluationQueue queue = null;
+			if (algorithm instanceof SteadyStateAlgorithm) {
+				queue = ((SteadyStateAlgorithm) algorithm).getEvaluationQueue();
+			}
+			hasQueue = (queue != null);
+			throughput = hasQueue ? queue.getThroughput() : 0.0;
+			waitTime = hasQueue ? queue.getAverageWaitTime() : 0.0;
+		}
+		
+		private Report()
+		{
+			generation = -1;
+			inhabitants = null;
+			comparator = null;
+			hasQueue = false;
+			throughput = 0.0;
+			waitTime = 0.0;
+		}
+	}
 }
@@ -6,6 +6,7 @@ import net.sf.jclec.base.AbstractIndividual;
 import net.sf.jclec.exprtree.ExprTree;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
 
 /**
@@ -93,6 +94,21 @@ public class MultiExprTreeIndividual extends AbstractIndividual<ExprTree[]>
 	
 	// java.lang.Object methods
 	
+	/**
+	 * Hash code computed from the genotype, so individuals that are equal 
+	 * have the same hash code whatever their fitness.
+	 * 
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	public int hashCode()
+	{
+		HashCodeBuilder hcb = new HashCodeBuilder();
+		hcb.append(genotype);
+		return hcb.toHashCode();
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
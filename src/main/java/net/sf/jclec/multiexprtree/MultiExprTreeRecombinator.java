@@ -94,6 +94,8 @@ public class MultiExprTreeRecombinator extends AbstractRecombinator implements I
 	@SuppressWarnings("unchecked")
 	public void configure(Configuration settings)
 	{
+		// Call super.configure() method
+		super.configure(settings);
 		// Get target-tree-index parameter
 		int targetTreeIndex = settings.getInt("target-tree-index", -1);
 		setTargetTreeIndex(targetTreeIndex);
@@ -8,6 +8,7 @@ import net.sf.jclec.base.AbstractIndividual;
 import net.sf.jclec.syntaxtree.SyntaxTree;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
 
 /**
@@ -95,6 +96,21 @@ public class MultiSyntaxTreeIndividual extends AbstractIndividual<SyntaxTree []>
 	// ------------------------- Overwriting java.lang.Object methods
 	/////////////////////////////////////////////////////////////////
 	
+	/**
+	 * Hash code computed from the genotype, so individuals that are equal 
+	 * have the same hash code whatever their fitness.
+	 * 
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	public int hashCode()
+	{
+		HashCodeBuilder hcb = new HashCodeBuilder();
+		hcb.append(genotype);
+		return hcb.toHashCode();
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
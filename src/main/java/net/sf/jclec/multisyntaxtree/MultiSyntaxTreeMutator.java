@@ -90,6 +90,8 @@ public class MultiSyntaxTreeMutator extends AbstractMutator implements IConfigur
 	@SuppressWarnings("unchecked")
 	public void configure(Configuration settings)
 	{
+		// Call super.configure() method
+		super.configure(settings);
 		// Get target-tree-index parameter
 		int targetTreeIndex = settings.getInt("target-tree-index", -1);
 		setTargetTreeIndex(targetTreeIndex);
@@ -94,6 +94,8 @@ public class MultiSyntaxTreeRecombinator extends AbstractRecombinator implements
 	@SuppressWarnings("unchecked")
 	public void configure(Configuration settings)
 	{
+		// Call super.configure() method
+		super.configure(settings);
 		// Get target-tree-index parameter
 		int targetTreeIndex = settings.getInt("target-tree-index", -1);
 		setTargetTreeIndex(targetTreeIndex);
@@ -70,6 +70,8 @@ public abstract class UniformCrossover extends RealArrayRecombinator implements
 	
 	public void configure(Configuration settings) 
 	{
+		// Call super.configure() method
+		super.configure(settings);
 		// Locus recombination probability
 		double locusRecProb = settings.getDouble("[@locus-rec-prob]", defaultLocusRecProb());
 		setLocusRecProb(locusRecProb);
@@ -67,6 +67,8 @@ public abstract class UniformMutator extends RealArrayMutator implements IConfig
 	
 	public void configure(Configuration settings) 
 	{
+		// Call super.configure() method
+		super.configure(settings);
 		// Locus mutation probability
 		double locusMutProb = settings.getDouble("[@locus-mut-prob]", defaultLocusMutProb());
 		setLocusMutProb(locusMutProb);
@@ -1,5 +1,7 @@
 package net.sf.jclec.selector;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.Comparator;
 
 import net.sf.jclec.ISystem;
@@ -41,15 +43,7 @@ public class TournamentSelector extends StochasticSelector implements IConfigure
 	
 	/** Compare individuals by its fitnesses */
 	
-	protected transient Comparator<IIndividual> individualsComparator = 
-		new Comparator<IIndividual> () 
-		{
-
-			public int compare(IIndividual ind0, IIndividual ind1) 
-			{
-				return fitnessComparator.compare(ind0.getFitness(), ind1.getFitness());
-			}		
-		};
+	protected transient Comparator<IIndividual> individualsComparator = createIndividualsComparator();
 	
 	/** Fitnesses comparator */
 	
@@ -171,5 +165,31 @@ public class TournamentSelector extends StochasticSelector implements IConfigure
 		}
 		// Returns tournament winner
 		return winner;
-	}	
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private Comparator<IIndividual> createIndividualsComparator()
+	{
+		return new Comparator<IIndividual> () 
+		{
+
+			public int compare(IIndividual ind0, IIndividual ind1) 
+			{
+				return fitnessComparator.compare(ind0.getFitness(), ind1.getFitness());
+			}		
+		};
+	}
+
+	/**
+	 * Recreate auxiliary (transient) objects after deserialization.
+	 */
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+		individualsComparator = createIndividualsComparator();
+	}
 }
@@ -1,5 +1,7 @@
 package net.sf.jclec.selector;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Collections;
@@ -33,17 +35,7 @@ public class WorsesSelector extends DeterministicSelector
 
 	/** Compare individuals */
 	
-	protected transient Comparator<IIndividual> individualsComparator =  
-		new Comparator<IIndividual> () 
-		{
-			/**
-			 * {@inheritDoc} 
-			 */
-		
-			public int compare(IIndividual arg0, IIndividual arg1) {
-				return fitnessComparator.compare(arg0.getFitness(), arg1.getFitness());
-			}
-		};
+	protected transient Comparator<IIndividual> individualsComparator = createIndividualsComparator();
 	
 	/** Fitness comparator (taken from context) */
 	
@@ -140,4 +132,33 @@ public class WorsesSelector extends DeterministicSelector
 		// Return best individual
 		return best;	
 	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private Comparator<IIndividual> createIndividualsComparator()
+	{
+		return new Comparator<IIndividual> () 
+		{
+			/**
+			 * {@inheritDoc} 
+			 */
+		
+			public int compare(IIndividual arg0, IIndividual arg1) {
+				return fitnessComparator.compare(arg0.getFitness(), arg1.getFitness());
+			}
+		};
+	}
+
+	/**
+	 * Recreate auxiliary (transient) objects after deserialization.
+	 */
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+		individualsComparator = createIndividualsComparator();
+		auxList = new ArrayList<IIndividual> ();
+	}
 }
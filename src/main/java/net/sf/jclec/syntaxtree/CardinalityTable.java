@@ -0,0 +1,523 @@
+package net.sf.jclec.syntaxtree;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.jclec.util.random.IRandGen;
+
+/**
+ * Number of derivation trees of a grammar, for each symbol, production
+ * rule and number of derivations (up to a maximum). Tables are computed
+ * once, when this object is created, and never modified later, so a
+ * table can be shared by all creators and mutators (and threads) that
+ * use the same schema.
+ *
+ * Cardinalities are stored as long values. If some of them does not fit
+ * in a long, all of them are stored as BigInteger objects.
+ *
+ * Productions and partitions are sampled with probability proportional
+ * to their cardinality, using a single random number per selection. The
+ * result is the same that would be obtained with a roulette over all
+ * productions (or all partitions, in lexicographic order).
+ *
+ * @author Sebastian Ventura
+ */
+
+public final class CardinalityTable
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------------- Constants
+	/////////////////////////////////////////////////////////////////
+
+	/** Largest value that all doubles below it represent exactly */
+
+	private static final long EXACT_DOUBLE = 1L << 53;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Maximum number of derivations in tables */
+
+	private final int maxDerivations;
+
+	/** Index of each symbol */
+
+	private final Map<String, Integer> symbols = new HashMap<String, Integer>();
+
+	/** Production rules of each non terminal symbol */
+
+	private final NonTerminalNode [][] productions;
+
+	/** Index of each production rule (by content) */
+
+	private final Map<List<String>, Integer> rules = new HashMap<List<String>, Integer>();
+
+	/** Symbol indexes of each production rule (-1 for unknown symbols) */
+
+	private final int [][] ruleSymbols;
+
+	/** Symbol cardinalities [symbol][derivations] */
+
+	private long [][] symbolCardinalities;
+
+	/**
+	 * Cardinalities of production rule suffixes: [rule][k][derivations] is
+	 * the cardinality of the symbols placed from k-th position on
+	 */
+
+	private long [][][] suffixCardinalities;
+
+	/** Symbol cardinalities, if they do not fit in longs */
+
+	private BigInteger [][] bigSymbolCardinalities;
+
+	/** Suffix cardinalities, if they do not fit in longs */
+
+	private BigInteger [][][] bigSuffixCardinalities;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that computes all tables.
+	 *
+	 * @param terminals Terminal symbols
+	 * @param nonTerminals Non terminal symbols (production rules)
+	 * @param maxDerivations Maximum number of derivations
+	 */
+
+	public CardinalityTable(TerminalNode [] terminals, NonTerminalNode [] nonTerminals, int maxDerivations)
+	{
+		super();
+		this.maxDerivations = maxDerivations;
+		// Symbols (terminals first)
+		for (TerminalNode terminal : terminals) {
+			if (!symbols.containsKey(terminal.getSymbol())) {
+				symbols.put(terminal.getSymbol(), symbols.size());
+			}
+		}
+		int numberOfTerminals = symbols.size();
+		Map<String, List<NonTerminalNode>> byName = new HashMap<String, List<NonTerminalNode>>();
+		for (NonTerminalNode nonTerminal : nonTerminals) {
+			String name = nonTerminal.getSymbol();
+			if (!byName.containsKey(name)) {
+				byName.put(name, new ArrayList<NonTerminalNode>());
+				if (!symbols.containsKey(name)) {
+					symbols.put(name, symbols.size());
+				}
+			}
+			byName.get(name).add(nonTerminal);
+			List<String> content = Arrays.asList(nonTerminal.getProduction());
+			if (!rules.containsKey(content)) {
+				rules.put(content, rules.size());
+			}
+		}
+		this.productions = new NonTerminalNode[symbols.size()][];
+		for (int s=0; s<numberOfTerminals; s++) {
+			productions[s] = new NonTerminalNode[0];
+		}
+		for (Map.Entry<String, List<NonTerminalNode>> entry : byName.entrySet()) {
+			List<NonTerminalNode> list = entry.getValue();
+			int s = symbols.get(entry.getKey());
+			productions[s] = list.toArray(new NonTerminalNode[list.size()]);
+		}
+		this.ruleSymbols = new int[rules.size()][];
+		for (Map.Entry<List<String>, Integer> entry : rules.entrySet()) {
+			List<String> content = entry.getKey();
+			int [] indexes = new int[content.size()];
+			for (int k=0; k<indexes.length; k++) {
+				Integer index = symbols.get(content.get(k));
+				indexes[k] = index == null ? -1 : index;
+			}
+			ruleSymbols[entry.getValue()] = indexes;
+		}
+		// Compute tables
+		try {
+			computeLongTables(numberOfTerminals);
+		}
+		catch(ArithmeticException e) {
+			symbolCardinalities = null;
+			suffixCardinalities = null;
+			computeBigTables(numberOfTerminals);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Maximum number of derivations in tables. Cardinalities for larger
+	 * numbers of derivations are considered 0.
+	 *
+	 * @return Maximum number of derivations
+	 */
+
+	public int getMaxDerivations()
+	{
+		return maxDerivations;
+	}
+
+	/**
+	 * Number of derivation trees of a symbol.
+	 *
+	 * @param symbol Grammar symbol
+	 * @param nOfDer Number of derivations
+	 *
+	 * @return Symbol cardinality
+	 */
+
+	public BigInteger cardinality(String symbol, int nOfDer)
+	{
+		Integer index = symbols.get(symbol);
+		if (index == null || nOfDer < 0 || nOfDer > maxDerivations) {
+			return BigInteger.ZERO;
+		}
+		if (symbolCardinalities != null) {
+			return BigInteger.valueOf(symbolCardinalities[index][nOfDer]);
+		}
+		else {
+			return bigSymbolCardinalities[index][nOfDer];
+		}
+	}
+
+	/**
+	 * Number of derivation trees of a production rule.
+	 *
+	 * @param production Production rule
+	 * @param nOfDer Number of derivations
+	 *
+	 * @return Production rule cardinality
+	 */
+
+	public BigInteger cardinality(String [] production, int nOfDer)
+	{
+		Integer rule = rules.get(Arrays.asList(production));
+		if (rule == null || nOfDer < 0 || nOfDer > maxDerivations) {
+			return BigInteger.ZERO;
+		}
+		if (suffixCardinalities != null) {
+			return BigInteger.valueOf(suffixCardinalities[rule][0][nOfDer]);
+		}
+		else {
+			return bigSuffixCardinalities[rule][0][nOfDer];
+		}
+	}
+
+	/**
+	 * Selects a production rule for a symbol, with probability
+	 * proportional to its cardinality for nOfDer-1 derivations.
+	 *
+	 * @param symbol Symbol to expand
+	 * @param nOfDer Number of derivations available
+	 * @param randgen Random generator used
+	 *
+	 * @return A production rule for the given symbol, or null if this
+	 * 		   symbol cannot be expanded using exactly such number of
+	 * 		   derivations
+	 * 
+	 * @throws IllegalArgumentException If there are no derivations left
+	 */
+
+	public NonTerminalNode selectProduction(String symbol, int nOfDer, IRandGen randgen)
+	{
+		if (nOfDer < 1) {
+			throw new IllegalArgumentException("No derivations left to expand " + symbol);
+		}
+		double random = randgen.raw();
+		Integer index = symbols.get(symbol);
+		if (index == null || nOfDer > maxDerivations + 1) {
+			return null;
+		}
+		NonTerminalNode [] candidates = productions[index];
+		int size = candidates.length;
+		if (suffixCardinalities != null) {
+			long [] roulette = new long[size];
+			long total = 0;
+			for (int i=0; i<size; i++) {
+				total += ruleCardinality(candidates[i], nOfDer-1);
+				roulette[i] = total;
+			}
+			// Binary search of the first position whose cumulative value
+			// is greater than total*random
+			int from = 0, to = size;
+			while (from < to) {
+				int middle = (from + to) >>> 1;
+				if (lessThan(total, random, roulette[middle])) {
+					to = middle;
+				}
+				else {
+					from = middle + 1;
+				}
+			}
+			return from < size ? candidates[from] : null;
+		}
+		else {
+			BigInteger [] roulette = new BigInteger[size];
+			BigInteger total = BigInteger.ZERO;
+			for (int i=0; i<size; i++) {
+				total = total.add(bigRuleCardinality(candidates[i], nOfDer-1));
+				roulette[i] = total;
+			}
+			BigDecimal target = new BigDecimal(total).multiply(new BigDecimal(random));
+			for (int i=0; i<size; i++) {
+				if (target.compareTo(new BigDecimal(roulette[i])) < 0) {
+					return candidates[i];
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Selects a partition of nOfDer derivations among the symbols of a
+	 * production rule, with probability proportional to its cardinality.
+	 * Partition elements are selected one after other, so partitions are
+	 * never enumerated.
+	 *
+	 * @param production Production rule
+	 * @param nOfDer Number of derivations available
+	 * @param randgen Random generator used
+	 *
+	 * @return A partition (number of derivations of each symbol), or null
+	 * 		   if the production rule has no derivation trees with such
+	 * 		   number of derivations
+	 */
+
+	public int [] selectPartition(String [] production, int nOfDer, IRandGen randgen)
+	{
+		double random = randgen.raw();
+		Integer rule = rules.get(Arrays.asList(production));
+		if (rule == null || nOfDer < 0 || nOfDer > maxDerivations) {
+			return null;
+		}
+		int [] symbols = ruleSymbols[rule];
+		int length = symbols.length;
+		int [] partition = new int[length];
+		int rest = nOfDer;
+		if (suffixCardinalities != null) {
+			long [][] suffixes = suffixCardinalities[rule];
+			long total = suffixes[0][nOfDer];
+			// Weight of partitions before the current prefix, and product
+			// of the cardinalities of the current prefix
+			long base = 0, factor = 1;
+			for (int k=0; k<length; k++) {
+				int selected = -1;
+				for (int j=0; j<=rest && selected < 0; j++) {
+					long suffix = suffixes[k+1][rest-j];
+					long cardinality = symbolCardinality(symbols[k], j);
+					if (suffix == 0 || cardinality == 0) {
+						continue;
+					}
+					long weight = factor * cardinality * suffix;
+					if (lessThan(total, random, base + weight)) {
+						selected = j;
+						factor *= cardinality;
+					}
+					else {
+						base += weight;
+					}
+				}
+				if (selected < 0) {
+					return null;
+				}
+				partition[k] = selected;
+				rest -= selected;
+			}
+		}
+		else {
+			BigInteger [][] suffixes = bigSuffixCardinalities[rule];
+			BigDecimal target = new BigDecimal(suffixes[0][nOfDer]).multiply(new BigDecimal(random));
+			BigInteger base = BigInteger.ZERO, factor = BigInteger.ONE;
+			for (int k=0; k<length; k++) {
+				int selected = -1;
+				for (int j=0; j<=rest && selected < 0; j++) {
+					BigInteger weight = factor.multiply(bigSymbolCardinality(symbols[k], j)).multiply(suffixes[k+1][rest-j]);
+					if (weight.signum() == 0) {
+						continue;
+					}
+					if (target.compareTo(new BigDecimal(base.add(weight))) < 0) {
+						selected = j;
+						factor = factor.multiply(bigSymbolCardinality(symbols[k], j));
+					}
+					else {
+						base = base.add(weight);
+					}
+				}
+				if (selected < 0) {
+					return null;
+				}
+				partition[k] = selected;
+				rest -= selected;
+			}
+		}
+		return partition;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	// Tables computation
+
+	/**
+	 * A symbol with n derivations expands one of its productions with n-1
+	 * derivations. A production rule suffix with m derivations assigns j
+	 * of them to its first symbol and m-j to the rest of the suffix.
+	 *
+	 * @throws ArithmeticException If some cardinality does not fit in a
+	 * 		   long
+	 */
+
+	private void computeLongTables(int numberOfTerminals)
+	{
+		int size = maxDerivations + 1;
+		symbolCardinalities = new long[productions.length][size];
+		suffixCardinalities = new long[ruleSymbols.length][][];
+		for (int s=0; s<numberOfTerminals; s++) {
+			symbolCardinalities[s][0] = 1;
+		}
+		for (int r=0; r<ruleSymbols.length; r++) {
+			suffixCardinalities[r] = new long[ruleSymbols[r].length + 1][size];
+			suffixCardinalities[r][ruleSymbols[r].length][0] = 1;
+		}
+		for (int n=0; n<size; n++) {
+			// Non terminal symbols with n derivations
+			if (n > 0) {
+				for (int s=numberOfTerminals; s<productions.length; s++) {
+					long sum = 0;
+					for (NonTerminalNode production : productions[s]) {
+						sum = add(sum, suffixCardinalities[rules.get(Arrays.asList(production.getProduction()))][0][n-1]);
+					}
+					symbolCardinalities[s][n] = sum;
+				}
+			}
+			// Production rule suffixes with n derivations
+			for (int r=0; r<ruleSymbols.length; r++) {
+				int [] symbols = ruleSymbols[r];
+				long [][] suffixes = suffixCardinalities[r];
+				for (int k=symbols.length-1; k>=0; k--) {
+					long sum = 0;
+					for (int j=0; j<=n; j++) {
+						sum = add(sum, multiply(symbolCardinality(symbols[k], j), suffixes[k+1][n-j]));
+					}
+					suffixes[k][n] = sum;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Same as computeLongTables(), using BigInteger values.
+	 */
+
+	private void computeBigTables(int numberOfTerminals)
+	{
+		int size = maxDerivations + 1;
+		bigSymbolCardinalities = new BigInteger[productions.length][size];
+		bigSuffixCardinalities = new BigInteger[ruleSymbols.length][][];
+		for (BigInteger [] cardinalities : bigSymbolCardinalities) {
+			Arrays.fill(cardinalities, BigInteger.ZERO);
+		}
+		for (int s=0; s<numberOfTerminals; s++) {
+			bigSymbolCardinalities[s][0] = BigInteger.ONE;
+		}
+		for (int r=0; r<ruleSymbols.length; r++) {
+			bigSuffixCardinalities[r] = new BigInteger[ruleSymbols[r].length + 1][size];
+			for (BigInteger [] cardinalities : bigSuffixCardinalities[r]) {
+				Arrays.fill(cardinalities, BigInteger.ZERO);
+			}
+			bigSuffixCardinalities[r][ruleSymbols[r].length][0] = BigInteger.ONE;
+		}
+		for (int n=0; n<size; n++) {
+			if (n > 0) {
+				for (int s=numberOfTerminals; s<productions.length; s++) {
+					BigInteger sum = BigInteger.ZERO;
+					for (NonTerminalNode production : productions[s]) {
+						sum = sum.add(bigSuffixCardinalities[rules.get(Arrays.asList(production.getProduction()))][0][n-1]);
+					}
+					bigSymbolCardinalities[s][n] = sum;
+				}
+			}
+			for (int r=0; r<ruleSymbols.length; r++) {
+				int [] symbols = ruleSymbols[r];
+				BigInteger [][] suffixes = bigSuffixCardinalities[r];
+				for (int k=symbols.length-1; k>=0; k--) {
+					BigInteger sum = BigInteger.ZERO;
+					for (int j=0; j<=n; j++) {
+						sum = sum.add(bigSymbolCardinality(symbols[k], j).multiply(suffixes[k+1][n-j]));
+					}
+					suffixes[k][n] = sum;
+				}
+			}
+		}
+	}
+
+	// Table access
+
+	private long symbolCardinality(int symbol, int nOfDer)
+	{
+		return symbol < 0 ? 0 : symbolCardinalities[symbol][nOfDer];
+	}
+
+	private BigInteger bigSymbolCardinality(int symbol, int nOfDer)
+	{
+		return symbol < 0 ? BigInteger.ZERO : bigSymbolCardinalities[symbol][nOfDer];
+	}
+
+	private long ruleCardinality(NonTerminalNode production, int nOfDer)
+	{
+		return nOfDer > maxDerivations ? 0 : suffixCardinalities[rules.get(Arrays.asList(production.getProduction()))][0][nOfDer];
+	}
+
+	private BigInteger bigRuleCardinality(NonTerminalNode production, int nOfDer)
+	{
+		return nOfDer > maxDerivations ? BigInteger.ZERO : bigSuffixCardinalities[rules.get(Arrays.asList(production.getProduction()))][0][nOfDer];
+	}
+
+	// Exact arithmetic
+
+	private static long add(long a, long b)
+	{
+		long result = a + b;
+		if (result < 0) {
+			throw new ArithmeticException("long overflow");
+		}
+		return result;
+	}
+
+	private static long multiply(long a, long b)
+	{
+		if (a != 0 && b > Long.MAX_VALUE / a) {
+			throw new ArithmeticException("long overflow");
+		}
+		return a * b;
+	}
+
+	/**
+	 * Checks if total*random < value, without rounding errors.
+	 */
+
+	private static boolean lessThan(long total, double random, long value)
+	{
+		if (total < EXACT_DOUBLE && value < EXACT_DOUBLE) {
+			// Rounding is monotonic and value is exactly represented, so
+			// the rounded product is only ambiguous if it equals value
+			double product = total * random;
+			if (product < value) {
+				return true;
+			}
+			if (product > value) {
+				return false;
+			}
+		}
+		return new BigDecimal(total).multiply(new BigDecimal(random)).compareTo(new BigDecimal(value)) < 0;
+	}
+}
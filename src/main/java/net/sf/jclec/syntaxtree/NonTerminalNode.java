@@ -1,6 +1,7 @@
 package net.sf.jclec.syntaxtree;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
 
 /**
  * Non terminal node (containing a non-terminal symbol) in a syntax tree.
@@ -138,6 +139,15 @@ public class NonTerminalNode extends SyntaxTreeNode
 		}
 	}
 
+	@Override
+	public int hashCode()
+	{
+		HashCodeBuilder hcb = new HashCodeBuilder();
+		hcb.append(symbol);
+		hcb.append(production);
+		return hcb.toHashCode();
+	}
+
 	/**
 	 * Tell us if the production is recursive or not
 	 * 
@@ -256,4 +256,16 @@ public class SyntaxTree implements JCLEC
 			return false;
 		}
 	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	public int hashCode()
+	{
+		int result = 17 + derivSize;
+		for (int i=0; i<treeSize; i++) 
+			result = 37*result + nodes[i].hashCode();
+		return result;
+	}
 }
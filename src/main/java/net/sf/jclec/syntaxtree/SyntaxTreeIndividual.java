@@ -6,6 +6,7 @@ import net.sf.jclec.IIndividual;
 import net.sf.jclec.base.AbstractIndividual;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
 
 /**
@@ -91,6 +92,21 @@ public class SyntaxTreeIndividual extends AbstractIndividual<SyntaxTree>
 	// ------------------------- Overwriting java.lang.Object methods
 	/////////////////////////////////////////////////////////////////
 	
+	/**
+	 * Hash code computed from the genotype, so individuals that are equal 
+	 * have the same hash code whatever their fitness.
+	 * 
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	public int hashCode()
+	{
+		HashCodeBuilder hcb = new HashCodeBuilder();
+		hcb.append(genotype);
+		return hcb.toHashCode();
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
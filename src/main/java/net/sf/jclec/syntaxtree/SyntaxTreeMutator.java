@@ -79,6 +79,8 @@ public class SyntaxTreeMutator extends AbstractMutator implements IConfigure
 	@SuppressWarnings("unchecked")
 	public void configure(Configuration settings) 
 	{
+		// Call super.configure() method
+		super.configure(settings);
 		// Set base mutator name
 		try {
 			// Base mutator classname
@@ -1,6 +1,5 @@
 package net.sf.jclec.syntaxtree;
 
-import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.List;
 import java.util.HashMap;
@@ -46,10 +45,6 @@ public class SyntaxTreeSchema implements JCLEC
 	
 	protected int maxDerivSize;
 	
-	/** Interval variable */
-	
-	private BigInteger MINUSONE = new BigInteger("-1");
-	
 	/////////////////////////////////////////////////////////////
 	// --------------------------------------- Internal variables
 	///////////////////////////////////////////////////////////// 
@@ -66,9 +61,9 @@ public class SyntaxTreeSchema implements JCLEC
 	
 	protected transient HashMap<String, NonTerminalNode[]> nonTerminalsMap;
 
-	/** Cardinality map */
+	/** Cardinalities of all symbols and production rules */
 	
-	protected transient HashMap<String [], BigInteger[]> cardinalityMap;	
+	protected transient CardinalityTable cardinalityTable;	
 
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
@@ -360,21 +355,15 @@ public class SyntaxTreeSchema implements JCLEC
 	}
 
 	/**
-	 * Build and set the cardinality map. This map contains cardinality 
-	 * of all production rules (from cero to max number of derivations)
+	 * Build and set the cardinality table. This table contains cardinality 
+	 * of all symbols and production rules (from cero to max number of 
+	 * derivations). It is immutable, so it is shared by all creators and
+	 * mutators that use this schema.
 	 */
 	
 	protected final void setCardinalityMap() 
 	{
-		// Cardinality map
-		cardinalityMap = new HashMap<String [] , BigInteger []> ();
-		for (NonTerminalNode nonTermSymbol : nonTerminals) {
-			// Allocate space for cardinalities array 
-			BigInteger [] list1 = new BigInteger [1+maxDerivSize];
-			for(int j=0; j<list1.length; j++) list1[j] = new BigInteger("-1");
-			// Put array in cardinality map
-			cardinalityMap.put(nonTermSymbol.production, list1);
-		}			
+		cardinalityTable = new CardinalityTable(terminals, nonTerminals, 1+maxDerivSize);
 	}
 		
 	/**
@@ -405,39 +394,7 @@ public class SyntaxTreeSchema implements JCLEC
 		
 	protected NonTerminalNode selectProduction(String symbol, int nOfDer, IRandGen randgen)
 	{
-		// Get all productions of this symbol
-		NonTerminalNode [] prodRules = nonTerminalsMap.get(symbol);
-		// Number of productions
-		int nOfProdRules = prodRules.length;
-		// Create productions roulette
-		BigInteger [] roulette = new BigInteger[nOfProdRules];
-		
-		for(int i = 0; i < nOfProdRules; i++)
-			roulette[i] = new BigInteger("0");
-		
-		// Fill roulette
-		for (int i=0; i<nOfProdRules; i++) {
-			BigInteger [] cardinalities = cardinalityMap.get(prodRules[i].production);
-			// If this cardinality is not calculated, it will be calculated 
-			if(cardinalities[nOfDer-1].equals(MINUSONE)) {
-				cardinalities[nOfDer-1] = cardinality(prodRules[i].production, nOfDer-1);
-				cardinalityMap.put(prodRules[i].production, cardinalities);
-			}
-			roulette[i] = cardinalities[nOfDer-1];
-			if (i != 0) {
-				roulette[i] = roulette[i].add(roulette[i-1]);
-			}
-		}
-		
-		// Choose a production at random
-		BigDecimal randVal = new BigDecimal(roulette[nOfProdRules - 1].toString());
-		randVal = randVal.multiply(new BigDecimal(randgen.raw()));
-		
-		for (int i=0; i<nOfProdRules; i++) {
-			if (randVal.compareTo(new BigDecimal(roulette[i].toString())) < 0) return prodRules[i];
-		}
-		
-		return null;			
+		return cardinalityTable.selectProduction(symbol, nOfDer, randgen);
 	}
 		
 	/**
@@ -452,34 +409,7 @@ public class SyntaxTreeSchema implements JCLEC
 		
 	protected final int [] selectPartition(String [] prodRule, int nOfDer, IRandGen randgen)
 	{
-		// Obtain all partitions for this production rule 
-		List<int []> partitions = partitions(nOfDer, prodRule.length);
-		// Number of partitions
-		int nOfPart = partitions.size();
-		// Create partitions roulette
-		BigInteger [] roulette = new BigInteger[nOfPart];
-		
-		for(int i = 0; i < nOfPart; i++)
-			roulette[i] = new BigInteger("0");
-
-		// Set roulette values
-		for (int i=0; i<nOfPart; i++) {
-			roulette[i] = cardinality(prodRule, partitions.get(i));
-			if (i != 0) {
-				roulette[i] = roulette[i].add(roulette[i-1]);
-			}
-		}
-		
-		// Choose a production at random
-		BigDecimal randVal = new BigDecimal(roulette[nOfPart - 1].toString());
-		randVal = randVal.multiply(new BigDecimal(randgen.raw()));
-		
-		for (int i=0; i<nOfPart; i++) {
-			if (randVal.compareTo(new BigDecimal(roulette[i].toString())) < 0) return partitions.get(i);
-		}
-		
-		// This point shouldn't be reached 
-		return null;
+		return cardinalityTable.selectPartition(prodRule, nOfDer, randgen);
 	}
 
 	// Cardinality methods
@@ -495,28 +425,7 @@ public class SyntaxTreeSchema implements JCLEC
 	
 	protected final BigInteger cardinality(String symbol, int nOfDer)
 	{
-		if (isTerminal(symbol)) {
-			return (nOfDer == 0) ? new BigInteger("1") : new BigInteger("0");
-		}
-		else {
-			BigInteger result = new BigInteger("0");
-			NonTerminalNode [] prodRules = nonTerminalsMap.get(symbol);
-			for (NonTerminalNode prodRule : prodRules) {					
-				BigInteger [] cardinalities = cardinalityMap.get(prodRule.production);
-				if(nOfDer <= 0){
-					result = result.add(cardinality(prodRule.production, nOfDer-1));
-				}
-				else{
-					// If this cardinality is not calculated, it will be calculated
-					if(cardinalities[nOfDer-1].equals(MINUSONE)) {
-						cardinalities[nOfDer-1] = cardinality(prodRule.production, nOfDer-1);
-						cardinalityMap.put(prodRule.production, cardinalities);
-					}
-					result = result.add(cardinalities[nOfDer-1]);
-				}
-			}
-			return result;
-		}
+		return cardinalityTable.cardinality(symbol, nOfDer);
 	}
 		
 	/**
@@ -530,16 +439,7 @@ public class SyntaxTreeSchema implements JCLEC
 		
 	protected BigInteger cardinality(String [] pRule, int nOfDer)
 	{
-		// Resulting cardinality
-		BigInteger result = new BigInteger("0");
-		// Obtain all partitions  
-		List<int []> partitions = partitions(nOfDer, pRule.length);
-		// For all partitions of nOfDer...
-		for (int [] partition : partitions) {
-			result = result.add(cardinality(pRule, partition));
-		}
-		// Return result
-		return result;
+		return cardinalityTable.cardinality(pRule, nOfDer);
 	}
 
 	/**
@@ -554,11 +454,11 @@ public class SyntaxTreeSchema implements JCLEC
 	protected BigInteger cardinality(String [] prodRule, int [] partition)
 	{
 		int prodRuleSize = prodRule.length;
-		BigInteger result = new BigInteger("1");
+		BigInteger result = BigInteger.ONE;
 		for (int i=0; i<prodRuleSize; i++) {
 			BigInteger factor = cardinality(prodRule[i], partition[i]);
 			if (factor.equals(BigInteger.ZERO)) {
-				return new BigInteger("0");
+				return BigInteger.ZERO;
 			}
 			else {
 				result = result.multiply(factor);
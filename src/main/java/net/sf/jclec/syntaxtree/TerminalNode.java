@@ -3,6 +3,7 @@ package net.sf.jclec.syntaxtree;
 import net.sf.jclec.exprtree.IPrimitive;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
 
 /**
  * Terminal node in a context-free grammar.
@@ -137,4 +138,16 @@ public class TerminalNode extends SyntaxTreeNode
 			return false;
 		}
 	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	public int hashCode()
+	{
+		HashCodeBuilder hcb = new HashCodeBuilder();
+		hcb.append(symbol);
+		hcb.append(code);
+		return hcb.toHashCode();
+	}
 }
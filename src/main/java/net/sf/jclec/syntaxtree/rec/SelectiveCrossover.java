@@ -1,5 +1,7 @@
 package net.sf.jclec.syntaxtree.rec;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.Comparator;
 
 import net.sf.jclec.IConfigure;
@@ -51,24 +53,7 @@ public class SelectiveCrossover implements IRecombineSyntaxTree, IConfigure
 
 	/** Used to compare symbols */
 	
-	protected transient Comparator<SyntaxTreeNode> symbolsComparator = new Comparator<SyntaxTreeNode> ()
-	{
-		public int compare(SyntaxTreeNode o1, SyntaxTreeNode o2) 
-		{			
-			if (o1 instanceof NonTerminalNode && o2 instanceof NonTerminalNode) {
-				NonTerminalNode co1 = (NonTerminalNode) o1;
-				NonTerminalNode co2 = (NonTerminalNode) o2;
-				EqualsBuilder eb = new EqualsBuilder();
-				eb.append(co1.getSymbol(), co2.getSymbol());
-				
-				if(eb.isEquals())
-					return 0;
-				else
-					return -1;
-			}
-			return -1;
-		}	
-	};	
+	protected transient Comparator<SyntaxTreeNode> symbolsComparator = createSymbolsComparator();	
 	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
@@ -253,4 +238,36 @@ public class SelectiveCrossover implements IRecombineSyntaxTree, IConfigure
 		}		 
 		return -1;
 	}
+
+	private Comparator<SyntaxTreeNode> createSymbolsComparator()
+	{
+		return new Comparator<SyntaxTreeNode> ()
+		{
+			public int compare(SyntaxTreeNode o1, SyntaxTreeNode o2) 
+			{			
+				if (o1 instanceof NonTerminalNode && o2 instanceof NonTerminalNode) {
+					NonTerminalNode co1 = (NonTerminalNode) o1;
+					NonTerminalNode co2 = (NonTerminalNode) o2;
+					EqualsBuilder eb = new EqualsBuilder();
+					eb.append(co1.getSymbol(), co2.getSymbol());
+				
+					if(eb.isEquals())
+						return 0;
+					else
+						return -1;
+				}
+				return -1;
+			}	
+		};
+	}
+
+	/**
+	 * Recreate auxiliary (transient) objects after deserialization.
+	 */
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+		symbolsComparator = createSymbolsComparator();
+	}
 }
@@ -0,0 +1,515 @@
+package net.sf.jclec.util;
+
+import java.util.List;
+import java.util.Comparator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.fitness.IValueFitness;
+
+/**
+ * Fitness statistics of an individuals set.
+ *
+ * All statistics are computed from a snapshot of the individuals fitness,
+ * taken in a single pass over the set: fitness objects, fitness values (if
+ * all of them are IValueFitness), best and worst individuals, minimum and
+ * maximum values, mean and variance. This pass can be done in parallel for
+ * huge sets. Median individual is found by selection, in linear expected
+ * time. Quantiles and histograms are computed on request from the values
+ * snapshot, so later changes in the set do not affect them.
+ *
+ * Positions returned by this class refer to the set used to build it.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class FitnessStatistics
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Minimum number of individuals per parallel task */
+
+	private static final int GRAIN = 4096;
+
+	/** Pool used in parallel computation */
+
+	private static ForkJoinPool pool;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Attributes
+	/////////////////////////////////////////////////////////////////
+
+	/** Fitness comparator */
+
+	private final Comparator<IFitness> comparator;
+
+	/** Fitness snapshot */
+
+	private final IFitness [] fitnesses;
+
+	/** Fitness values snapshot (null if some fitness has no value) */
+
+	private final double [] values;
+
+	/** Best individual position */
+
+	private final int best;
+
+	/** Worst individual position */
+
+	private final int worst;
+
+	/** Median individual position */
+
+	private final int median;
+
+	/** Minimum fitness value */
+
+	private final double min;
+
+	/** Maximum fitness value */
+
+	private final double max;
+
+	/** Fitness average */
+
+	private final double mean;
+
+	/** Fitness variance */
+
+	private final double variance;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Sequential computation.
+	 *
+	 * @param set Individuals set (not empty)
+	 * @param comparator Fitness comparator
+	 */
+
+	public FitnessStatistics(List<IIndividual> set, Comparator<IFitness> comparator)
+	{
+		this(set, comparator, false);
+	}
+
+	/**
+	 * Sequential or parallel computation.
+	 *
+	 * @param set Individuals set (not empty)
+	 * @param comparator Fitness comparator
+	 * @param parallel Compute the snapshot in parallel?
+	 */
+
+	public FitnessStatistics(List<IIndividual> set, Comparator<IFitness> comparator, boolean parallel)
+	{
+		super();
+		int size = set.size();
+		if (size == 0) {
+			throw new IllegalArgumentException("Empty individuals set");
+		}
+		this.comparator = comparator;
+		this.fitnesses = new IFitness[size];
+		double [] values = new double[size];
+		// Snapshot and reduction
+		Pass pass = new Pass(set, fitnesses, values, comparator, 0, size);
+		Partial result = (parallel && size > GRAIN) ? pool().invoke(pass) : pass.compute();
+		this.values = result.valued ? values : null;
+		this.best = result.best;
+		this.worst = result.worst;
+		this.min = result.valued ? result.min : Double.NaN;
+		this.max = result.valued ? result.max : Double.NaN;
+		this.mean = result.valued ? result.mean : Double.NaN;
+		this.variance = result.valued ? result.m2 / size : Double.NaN;
+		// Median individual
+		this.median = selectMedian();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * @return Number of individuals
+	 */
+
+	public final int size()
+	{
+		return fitnesses.length;
+	}
+
+	/**
+	 * @return true if all individuals have a fitness value
+	 */
+
+	public final boolean hasValues()
+	{
+		return values != null;
+	}
+
+	/**
+	 * @return Best individual position (the first one, if several)
+	 */
+
+	public final int getBest()
+	{
+		return best;
+	}
+
+	/**
+	 * @return Worst individual position (the first one, if several)
+	 */
+
+	public final int getWorst()
+	{
+		return worst;
+	}
+
+	/**
+	 * @return Position of the individual that would be in position size/2
+	 *         if the set was sorted from best to worst
+	 */
+
+	public final int getMedian()
+	{
+		return median;
+	}
+
+	/**
+	 * @return Minimum fitness value (NaN if there are no values)
+	 */
+
+	public final double getMinValue()
+	{
+		return min;
+	}
+
+	/**
+	 * @return Maximum fitness value (NaN if there are no values)
+	 */
+
+	public final double getMaxValue()
+	{
+		return max;
+	}
+
+	/**
+	 * @return Fitness average (NaN if there are no values)
+	 */
+
+	public final double getAverage()
+	{
+		return mean;
+	}
+
+	/**
+	 * @return Fitness variance (NaN if there are no values)
+	 */
+
+	public final double getVariance()
+	{
+		return variance;
+	}
+
+	/**
+	 * @return Fitness standard deviation (NaN if there are no values)
+	 */
+
+	public final double getStandardDeviation()
+	{
+		return Math.sqrt(variance);
+	}
+
+	/**
+	 * Fitness value quantile, interpolated between the two nearest order
+	 * statistics (so 0.0 is the minimum, 0.5 the median value and 1.0 the
+	 * maximum).
+	 *
+	 * @param p Probability, in [0,1]
+	 *
+	 * @return Quantile of fitness values (NaN if there are no values)
+	 */
+
+	public double quantile(double p)
+	{
+		if (p < 0.0 || p > 1.0) {
+			throw new IllegalArgumentException("Illegal probability: " + p);
+		}
+		if (values == null) {
+			return Double.NaN;
+		}
+		double [] copy = values.clone();
+		double position = p * (copy.length - 1);
+		int k = (int) position;
+		double lower = select(copy, k);
+		if (k == copy.length - 1) {
+			return lower;
+		}
+		// Next order statistic is the minimum of the upper partition
+		double upper = copy[k+1];
+		for (int i=k+2; i<copy.length; i++) {
+			if (copy[i] < upper) {
+				upper = copy[i];
+			}
+		}
+		return lower + (position - k) * (upper - lower);
+	}
+
+	/**
+	 * Histogram of fitness values. The range [min, max] is divided in
+	 * bins of the same width; maximum value goes to the last bin.
+	 *
+	 * @param bins Number of bins
+	 *
+	 * @return Number of individuals in each bin (null if there are no
+	 *         values)
+	 */
+
+	public int [] histogram(int bins)
+	{
+		if (bins <= 0) {
+			throw new IllegalArgumentException("Illegal number of bins: " + bins);
+		}
+		if (values == null) {
+			return null;
+		}
+		int [] counts = new int[bins];
+		double width = (max - min) / bins;
+		for (double value : values) {
+			int bin = (width > 0.0) ? (int) ((value - min) / width) : 0;
+			counts[Math.min(bin, bins - 1)]++;
+		}
+		return counts;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static synchronized ForkJoinPool pool()
+	{
+		if (pool == null) {
+			pool = new ForkJoinPool();
+		}
+		return pool;
+	}
+
+	/**
+	 * Quickselect (three way partition) of fitness positions, ordered
+	 * from best to worst.
+	 */
+
+	private int selectMedian()
+	{
+		int [] indexes = IndexSort.identity(fitnesses.length);
+		int k = fitnesses.length / 2;
+		int left = 0, right = indexes.length - 1;
+		while (left < right) {
+			IFitness pivot = fitnesses[indexes[(left + right) >>> 1]];
+			// [left,lt) better, [lt,i) equal, (gt,right] worse than pivot
+			int lt = left, i = left, gt = right;
+			while (i <= gt) {
+				int cmp = comparator.compare(fitnesses[indexes[i]], pivot);
+				if (cmp > 0) {
+					swap(indexes, lt++, i++);
+				}
+				else if (cmp < 0) {
+					swap(indexes, i, gt--);
+				}
+				else {
+					i++;
+				}
+			}
+			if (k < lt) {
+				right = lt - 1;
+			}
+			else if (k > gt) {
+				left = gt + 1;
+			}
+			else {
+				break;
+			}
+		}
+		return indexes[k];
+	}
+
+	/**
+	 * Quickselect (three way partition) of values. On return, position k
+	 * contains the k-th smallest value, and all values after it are
+	 * greater or equal.
+	 */
+
+	private static double select(double [] a, int k)
+	{
+		int left = 0, right = a.length - 1;
+		while (left < right) {
+			double pivot = a[(left + right) >>> 1];
+			int lt = left, i = left, gt = right;
+			while (i <= gt) {
+				if (a[i] < pivot) {
+					swap(a, lt++, i++);
+				}
+				else if (a[i] > pivot) {
+					swap(a, i, gt--);
+				}
+				else {
+					i++;
+				}
+			}
+			if (k < lt) {
+				right = lt - 1;
+			}
+			else if (k > gt) {
+				left = gt + 1;
+			}
+			else {
+				break;
+			}
+		}
+		return a[k];
+	}
+
+	private static void swap(int [] a, int i, int j)
+	{
+		int tmp = a[i]; a[i] = a[j]; a[j] = tmp;
+	}
+
+	private static void swap(double [] a, int i, int j)
+	{
+		double tmp = a[i]; a[i] = a[j]; a[j] = tmp;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Reduction
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Statistics of a range of the set.
+	 */
+
+	private static final class Partial
+	{
+		/** Number of individuals */
+
+		int n;
+
+		/** All of them have a value? */
+
+		boolean valued = true;
+
+		/** Best and worst positions */
+
+		int best, worst;
+
+		/** Minimum and maximum values */
+
+		double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+
+		/** Mean and sum of squared deviations */
+
+		double mean, m2;
+	}
+
+	/**
+	 * Snapshot of a range of the set, and its statistics. Mean and
+	 * variance are updated as in Welford's algorithm, and partial results
+	 * are merged as in Chan's parallel algorithm.
+	 */
+
+	@SuppressWarnings("serial")
+	private static final class Pass extends RecursiveTask<Partial>
+	{
+		private final List<IIndividual> set;
+
+		private final IFitness [] fitnesses;
+
+		private final double [] values;
+
+		private final Comparator<IFitness> comparator;
+
+		private final int from, to;
+
+		Pass(List<IIndividual> set, IFitness [] fitnesses, double [] values, Comparator<IFitness> comparator, int from, int to)
+		{
+			this.set = set;
+			this.fitnesses = fitnesses;
+			this.values = values;
+			this.comparator = comparator;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Partial compute()
+		{
+			if (to - from > GRAIN && getPool() != null) {
+				int middle = (from + to) >>> 1;
+				Pass left = new Pass(set, fitnesses, values, comparator, from, middle);
+				Pass right = new Pass(set, fitnesses, values, comparator, middle, to);
+				left.fork();
+				Partial r = right.compute();
+				return merge(left.join(), r);
+			}
+			Partial result = new Partial();
+			result.best = from;
+			result.worst = from;
+			for (int i=from; i<to; i++) {
+				IFitness fitness = set.get(i).getFitness();
+				fitnesses[i] = fitness;
+				if (comparator.compare(fitness, fitnesses[result.best]) > 0) {
+					result.best = i;
+				}
+				if (comparator.compare(fitness, fitnesses[result.worst]) < 0) {
+					result.worst = i;
+				}
+				if (result.valued && fitness instanceof IValueFitness) {
+					double value = ((IValueFitness) fitness).getValue();
+					values[i] = value;
+					if (value < result.min) {
+						result.min = value;
+					}
+					if (value > result.max) {
+						result.max = value;
+					}
+					double delta = value - result.mean;
+					result.mean += delta / (i - from + 1);
+					result.m2 += delta * (value - result.mean);
+				}
+				else {
+					result.valued = false;
+				}
+			}
+			result.n = to - from;
+			return result;
+		}
+
+		/**
+		 * Merge the statistics of two consecutive ranges.
+		 */
+
+		private Partial merge(Partial a, Partial b)
+		{
+			Partial result = new Partial();
+			result.n = a.n + b.n;
+			result.best = (comparator.compare(fitnesses[b.best], fitnesses[a.best]) > 0) ? b.best : a.best;
+			result.worst = (comparator.compare(fitnesses[b.worst], fitnesses[a.worst]) < 0) ? b.worst : a.worst;
+			result.valued = a.valued && b.valued;
+			if (result.valued) {
+				result.min = Math.min(a.min, b.min);
+				result.max = Math.max(a.max, b.max);
+				double delta = b.mean - a.mean;
+				result.mean = a.mean + delta * b.n / result.n;
+				result.m2 = a.m2 + b.m2 + delta * delta * a.n * b.n / result.n;
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,246 @@
+package net.sf.jclec.util;
+
+/**
+ * Sorting of index arrays. Instead of sorting a list of objects (and copying
+ * it once per sort key), the positions of the objects are sorted using
+ * primitive keys. All sorts are stable.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class IndexSort
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Constants
+	/////////////////////////////////////////////////////////////////
+
+	/** Ranges shorter than this are sorted by insertion */
+
+	private static final int INSERTION_THRESHOLD = 16;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Static methods only.
+	 */
+
+	private IndexSort()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Identity permutation.
+	 *
+	 * @param size Permutation size
+	 *
+	 * @return Array {0, 1, ..., size-1}
+	 */
+
+	public static final int [] identity(int size)
+	{
+		int [] indexes = new int[size];
+		for (int i=0; i<size; i++) {
+			indexes[i] = i;
+		}
+		return indexes;
+	}
+
+	/**
+	 * Positions of keys array, sorted by increasing key value.
+	 *
+	 * @param keys Sort keys
+	 *
+	 * @return Sorted positions
+	 */
+
+	public static final int [] sort(double [] keys)
+	{
+		int [] indexes = identity(keys.length);
+		sort(indexes, 0, indexes.length, keys);
+		return indexes;
+	}
+
+	/**
+	 * Sort a range of an index array by increasing key value. Keys are
+	 * compared with primitive operators, so 0.0 and -0.0 are equal and NaN
+	 * values must not be used.
+	 *
+	 * @param indexes Indexes to sort
+	 * @param from First position (inclusive)
+	 * @param to Last position (exclusive)
+	 * @param keys Sort keys, accessed by index
+	 */
+
+	public static final void sort(int [] indexes, int from, int to, double [] keys)
+	{
+		int [] buffer = new int[to - from];
+		mergeSort(indexes, from, to, keys, buffer);
+	}
+
+	/**
+	 * Sort a range of an index array using an index comparator.
+	 *
+	 * @param indexes Indexes to sort
+	 * @param from First position (inclusive)
+	 * @param to Last position (exclusive)
+	 * @param comparator Index comparator
+	 */
+
+	public static final void sort(int [] indexes, int from, int to, IndexComparator comparator)
+	{
+		int [] buffer = new int[to - from];
+		mergeSort(indexes, from, to, comparator, buffer);
+	}
+
+	/**
+	 * Positions of a matrix rows, sorted in lexicographic order.
+	 *
+	 * @param rows Matrix to sort
+	 *
+	 * @return Sorted positions
+	 */
+
+	public static final int [] lexicographicSort(final double [][] rows)
+	{
+		int [] indexes = identity(rows.length);
+		sort(indexes, 0, indexes.length, new IndexComparator() {
+			public int compare(int i, int j)
+			{
+				return compareRows(rows[i], rows[j]);
+			}
+		});
+		return indexes;
+	}
+
+	/**
+	 * Lexicographic comparison of two rows with the same length. Values
+	 * are compared as in sort(int [], int, int, double []).
+	 *
+	 * @param a First row
+	 * @param b Second row
+	 *
+	 * @return Negative, zero or positive as in Comparator
+	 */
+
+	public static final int compareRows(double [] a, double [] b)
+	{
+		for (int k=0; k<a.length; k++) {
+			if (a[k] < b[k]) {
+				return -1;
+			}
+			if (a[k] > b[k]) {
+				return 1;
+			}
+		}
+		return 0;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static void mergeSort(int [] a, int from, int to, double [] keys, int [] buffer)
+	{
+		if (to - from <= INSERTION_THRESHOLD) {
+			for (int i=from+1; i<to; i++) {
+				int index = a[i];
+				double key = keys[index];
+				int j = i - 1;
+				while (j >= from && keys[a[j]] > key) {
+					a[j+1] = a[j];
+					j--;
+				}
+				a[j+1] = index;
+			}
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		mergeSort(a, from, middle, keys, buffer);
+		mergeSort(a, middle, to, keys, buffer);
+		// Already sorted
+		if (keys[a[middle-1]] <= keys[a[middle]]) {
+			return;
+		}
+		int length = middle - from;
+		System.arraycopy(a, from, buffer, 0, length);
+		int i = 0, j = middle, k = from;
+		while (i < length && j < to) {
+			if (keys[a[j]] < keys[buffer[i]]) {
+				a[k++] = a[j++];
+			}
+			else {
+				a[k++] = buffer[i++];
+			}
+		}
+		while (i < length) {
+			a[k++] = buffer[i++];
+		}
+	}
+
+	private static void mergeSort(int [] a, int from, int to, IndexComparator comparator, int [] buffer)
+	{
+		if (to - from <= INSERTION_THRESHOLD) {
+			for (int i=from+1; i<to; i++) {
+				int index = a[i];
+				int j = i - 1;
+				while (j >= from && comparator.compare(a[j], index) > 0) {
+					a[j+1] = a[j];
+					j--;
+				}
+				a[j+1] = index;
+			}
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		mergeSort(a, from, middle, comparator, buffer);
+		mergeSort(a, middle, to, comparator, buffer);
+		// Already sorted
+		if (comparator.compare(a[middle-1], a[middle]) <= 0) {
+			return;
+		}
+		int length = middle - from;
+		System.arraycopy(a, from, buffer, 0, length);
+		int i = 0, j = middle, k = from;
+		while (i < length && j < to) {
+			if (comparator.compare(a[j], buffer[i]) < 0) {
+				a[k++] = a[j++];
+			}
+			else {
+				a[k++] = buffer[i++];
+			}
+		}
+		while (i < length) {
+			a[k++] = buffer[i++];
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Index comparator
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Compares two positions (of an array or list known by the
+	 * comparator).
+	 */
+
+	public interface IndexComparator
+	{
+		/**
+		 * Compare the objects placed in two positions.
+		 *
+		 * @param i First position
+		 * @param j Second position
+		 *
+		 * @return Negative, zero or positive as in Comparator
+		 */
+
+		public int compare(int i, int j);
+	}
+}
@@ -0,0 +1,284 @@
+package net.sf.jclec.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.binarray.BinArrayIndividual;
+import net.sf.jclec.fitness.CompositeFitness;
+import net.sf.jclec.fitness.ISimpleFitness;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.intarray.IntArrayIndividual;
+import net.sf.jclec.realarray.RealArrayIndividual;
+
+/**
+ * Binary encoding of individuals exchanged between processes (islands,
+ * evaluation workers).
+ *
+ * Array individuals (real, integer and binary), simple value fitnesses
+ * and composite fitnesses made of simple values are written as tagged
+ * primitive arrays. Any other individual or fitness is written with Java
+ * serialization.
+ *
+ * @author Sebastian Ventura
+ */
+
+public final class IndividualCodec
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	private static final byte NULL = 0;
+
+	private static final byte REAL_ARRAY = 1;
+
+	private static final byte INT_ARRAY = 2;
+
+	private static final byte BIN_ARRAY = 3;
+
+	private static final byte SIMPLE_VALUE = 1;
+
+	private static final byte COMPOSITE = 2;
+
+	private static final byte SERIALIZED = -1;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Static methods only.
+	 */
+
+	private IndividualCodec()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------ Class methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Write an individual (genotype and fitness).
+	 *
+	 * @param out Output stream
+	 * @param ind Individual to write (can be null)
+	 *
+	 * @throws IOException If an I/O error occurs
+	 */
+
+	public static void write(DataOutput out, IIndividual ind) throws IOException
+	{
+		if (ind == null) {
+			out.writeByte(NULL);
+			return;
+		}
+		Class<?> indClass = ind.getClass();
+		if (indClass == RealArrayIndividual.class) {
+			double [] genotype = ((RealArrayIndividual) ind).getGenotype();
+			out.writeByte(REAL_ARRAY);
+			out.writeInt(genotype.length);
+			for (double gene : genotype) {
+				out.writeDouble(gene);
+			}
+		}
+		else if (indClass == IntArrayIndividual.class) {
+			int [] genotype = ((IntArrayIndividual) ind).getGenotype();
+			out.writeByte(INT_ARRAY);
+			out.writeInt(genotype.length);
+			for (int gene : genotype) {
+				out.writeInt(gene);
+			}
+		}
+		else if (indClass == BinArrayIndividual.class) {
+			byte [] genotype = ((BinArrayIndividual) ind).getGenotype();
+			out.writeByte(BIN_ARRAY);
+			out.writeInt(genotype.length);
+			out.write(genotype);
+		}
+		else {
+			out.writeByte(SERIALIZED);
+			writeObject(out, ind);
+			return;
+		}
+		writeFitness(out, ind.getFitness());
+	}
+
+	/**
+	 * Read an individual written by the write() method.
+	 *
+	 * @param in Input stream
+	 *
+	 * @return Individual read (can be null)
+	 *
+	 * @throws IOException If an I/O error occurs or data is not valid
+	 */
+
+	public static IIndividual read(DataInput in) throws IOException
+	{
+		byte type = in.readByte();
+		switch (type) {
+			case NULL:
+				return null;
+			case REAL_ARRAY: {
+				double [] genotype = new double[in.readInt()];
+				for (int i=0; i<genotype.length; i++) {
+					genotype[i] = in.readDouble();
+				}
+				return new RealArrayIndividual(genotype, readFitness(in));
+			}
+			case INT_ARRAY: {
+				int [] genotype = new int[in.readInt()];
+				for (int i=0; i<genotype.length; i++) {
+					genotype[i] = in.readInt();
+				}
+				return new IntArrayIndividual(genotype, readFitness(in));
+			}
+			case BIN_ARRAY: {
+				byte [] genotype = new byte[in.readInt()];
+				in.readFully(genotype);
+				return new BinArrayIndividual(genotype, readFitness(in));
+			}
+			case SERIALIZED:
+				return (IIndividual) readObject(in);
+			default:
+				throw new IOException("Illegal individual type: " + type);
+		}
+	}
+
+	/**
+	 * Write a fitness.
+	 *
+	 * @param out Output stream
+	 * @param fitness Fitness to write (can be null)
+	 *
+	 * @throws IOException If an I/O error occurs
+	 */
+
+	public static void writeFitness(DataOutput out, IFitness fitness) throws IOException
+	{
+		if (fitness == null) {
+			out.writeByte(NULL);
+		}
+		else if (fitness.getClass() == SimpleValueFitness.class) {
+			out.writeByte(SIMPLE_VALUE);
+			out.writeDouble(((SimpleValueFitness) fitness).getValue());
+		}
+		else if (fitness.getClass() == CompositeFitness.class && isSimpleValued((CompositeFitness) fitness)) {
+			ISimpleFitness [] components = ((CompositeFitness) fitness).getComponents();
+			out.writeByte(COMPOSITE);
+			out.writeInt(components.length);
+			for (ISimpleFitness component : components) {
+				out.writeDouble(((SimpleValueFitness) component).getValue());
+			}
+		}
+		else {
+			out.writeByte(SERIALIZED);
+			writeObject(out, fitness);
+		}
+	}
+
+	/**
+	 * Read a fitness written with writeFitness().
+	 *
+	 * @param in Input stream
+	 *
+	 * @return Fitness read (can be null)
+	 *
+	 * @throws IOException If an I/O error occurs or fitness type is unknown
+	 */
+
+	public static IFitness readFitness(DataInput in) throws IOException
+	{
+		byte type = in.readByte();
+		switch (type) {
+			case NULL:
+				return null;
+			case SIMPLE_VALUE:
+				return new SimpleValueFitness(in.readDouble());
+			case COMPOSITE: {
+				ISimpleFitness [] components = new ISimpleFitness[in.readInt()];
+				for (int i=0; i<components.length; i++) {
+					components[i] = new SimpleValueFitness(in.readDouble());
+				}
+				return new CompositeFitness(components);
+			}
+			case SERIALIZED:
+				return (IFitness) readObject(in);
+			default:
+				throw new IOException("Illegal fitness type: " + type);
+		}
+	}
+
+	/**
+	 * Write any object with Java serialization (length and bytes).
+	 *
+	 * @param out Output stream
+	 * @param object Object to write
+	 *
+	 * @throws IOException If an I/O error occurs
+	 */
+
+	public static void writeObject(DataOutput out, Object object) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(bytes);
+		oos.writeObject(object);
+		oos.close();
+		out.writeInt(bytes.size());
+		out.write(bytes.toByteArray());
+	}
+
+	/**
+	 * Read an object written with writeObject().
+	 *
+	 * @param in Input stream
+	 *
+	 * @return Object read
+	 *
+	 * @throws IOException If an I/O error occurs or object class is unknown
+	 */
+
+	public static Object readObject(DataInput in) throws IOException
+	{
+		byte [] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes));
+		try {
+			return ois.readObject();
+		}
+		catch (ClassNotFoundException e) {
+			throw new IOException("Unknown class in serialized object", e);
+		}
+		finally {
+			ois.close();
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static boolean isSimpleValued(CompositeFitness fitness)
+	{
+		ISimpleFitness [] components = fitness.getComponents();
+		if (components == null) {
+			return false;
+		}
+		for (ISimpleFitness component : components) {
+			if (component == null || component.getClass() != SimpleValueFitness.class) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
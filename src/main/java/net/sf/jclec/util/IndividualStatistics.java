@@ -12,6 +12,9 @@ import net.sf.jclec.fitness.IValueFitness;
 
 /**
  * This class calculates several statistics over an individual set.
+ * 
+ * Each method makes its own pass over the set; FitnessStatistics computes
+ * all of them at once.
  *  
  * @author Sebastian Ventura
  */
@@ -97,7 +100,7 @@ public class IndividualStatistics
 		LinkedList<IIndividual> aux = new LinkedList<IIndividual>(set);
 		Collections.sort(aux, indComparator);
 		// Median individual
-		return set.get(setSize/2);
+		return aux.get(setSize/2);
 	}
 	
 	/**
@@ -0,0 +1,359 @@
+package net.sf.jclec.util;
+
+/**
+ * KD-tree over a fixed set of points, used for k-nearest neighbour queries
+ * with euclidean distance. Points can be removed (but not added) after the
+ * tree has been built.
+ *
+ * The tree is stored implicitly in a permutation of the point indexes: the
+ * point placed in the middle of a range splits it into the two subtrees.
+ * Each node splits along the axis with the largest spread.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class KDTree
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Point coordinates */
+
+	private final double [][] points;
+
+	/** Points permutation */
+
+	private final int [] tree;
+
+	/** Split axis of the node placed in each position */
+
+	private final int [] axis;
+
+	/** Number of points not removed in the subtree of each position */
+
+	private final int [] alive;
+
+	/** Position of each point in tree */
+
+	private final int [] position;
+
+	/** Removed points */
+
+	private final boolean [] removed;
+
+	/** Neighbours heap (used by nearest() method) */
+
+	private int [] heapIndexes;
+
+	/** Squared distances in heap */
+
+	private double [] heapDistances;
+
+	/** Heap size */
+
+	private int heapSize;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that builds the tree.
+	 *
+	 * @param points Point coordinates (one row per point). This matrix is
+	 * 		  not copied, so it must not be modified.
+	 */
+
+	public KDTree(double [][] points)
+	{
+		super();
+		int size = points.length;
+		this.points = points;
+		this.tree = IndexSort.identity(size);
+		this.axis = new int[size];
+		this.alive = new int[size];
+		this.position = new int[size];
+		this.removed = new boolean[size];
+		build(0, size);
+		for (int p=0; p<size; p++) {
+			position[tree[p]] = p;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Number of points in tree.
+	 *
+	 * @return Points not removed
+	 */
+
+	public int size()
+	{
+		return tree.length == 0 ? 0 : alive[tree.length >>> 1];
+	}
+
+	/**
+	 * Checks if a point has not been removed.
+	 *
+	 * @param point Point index
+	 *
+	 * @return true if point is in tree
+	 */
+
+	public boolean contains(int point)
+	{
+		return !removed[point];
+	}
+
+	/**
+	 * Removes a point from tree.
+	 *
+	 * @param point Point index
+	 */
+
+	public void remove(int point)
+	{
+		if (removed[point]) {
+			return;
+		}
+		removed[point] = true;
+		// Update subtree sizes from root to point node
+		int target = position[point], from = 0, to = tree.length;
+		while (true) {
+			int middle = (from + to) >>> 1;
+			alive[middle]--;
+			if (target == middle) {
+				break;
+			}
+			else if (target < middle) {
+				to = middle;
+			}
+			else {
+				from = middle + 1;
+			}
+		}
+	}
+
+	/**
+	 * Nearest neighbours of a point (that can have been removed). Points
+	 * are sorted by distance and, for equal distances, by index.
+	 *
+	 * @param point Point index. This point is not a neighbour of itself.
+	 * @param k Number of neighbours
+	 * @param neighbours Array that will store neighbour indexes
+	 * @param distances Array that will store neighbour distances (can be
+	 * 		  null)
+	 *
+	 * @return Number of neighbours found (less than k if there are not
+	 * 		   enough points in tree)
+	 */
+
+	public int nearest(int point, int k, int [] neighbours, double [] distances)
+	{
+		if (k <= 0) {
+			return 0;
+		}
+		if (heapIndexes == null || heapIndexes.length < k) {
+			heapIndexes = new int[k];
+			heapDistances = new double[k];
+		}
+		heapSize = 0;
+		search(point, k, 0, tree.length);
+		// Extract neighbours from heap, in decreasing order
+		int found = heapSize;
+		for (int i=found-1; i>=0; i--) {
+			neighbours[i] = heapIndexes[0];
+			if (distances != null) {
+				distances[i] = Math.sqrt(heapDistances[0]);
+			}
+			heapSize--;
+			if (heapSize > 0) {
+				heapIndexes[0] = heapIndexes[heapSize];
+				heapDistances[0] = heapDistances[heapSize];
+				siftDown();
+			}
+		}
+		return found;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private void build(int from, int to)
+	{
+		if (from >= to) {
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		alive[middle] = to - from;
+		if (to - from > 1) {
+			// Axis with the largest spread
+			int splitAxis = 0;
+			double spread = -1.0;
+			int dimension = points[tree[from]].length;
+			for (int d=0; d<dimension; d++) {
+				double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+				for (int i=from; i<to; i++) {
+					double value = points[tree[i]][d];
+					if (value < min) {
+						min = value;
+					}
+					if (value > max) {
+						max = value;
+					}
+				}
+				if (max - min > spread) {
+					spread = max - min;
+					splitAxis = d;
+				}
+			}
+			axis[middle] = splitAxis;
+			select(from, to - 1, middle, splitAxis);
+		}
+		build(from, middle);
+		build(middle + 1, to);
+	}
+
+	/**
+	 * Quickselect: places in kth position the point that would be there if
+	 * the range were sorted by the given axis.
+	 */
+
+	private void select(int from, int to, int kth, int splitAxis)
+	{
+		while (from < to) {
+			double pivot = points[tree[(from + to) >>> 1]][splitAxis];
+			int i = from, j = to;
+			while (i <= j) {
+				while (points[tree[i]][splitAxis] < pivot) {
+					i++;
+				}
+				while (points[tree[j]][splitAxis] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					int tmp = tree[i];
+					tree[i++] = tree[j];
+					tree[j--] = tmp;
+				}
+			}
+			if (kth <= j) {
+				to = j;
+			}
+			else if (kth >= i) {
+				from = i;
+			}
+			else {
+				break;
+			}
+		}
+	}
+
+	private void search(int point, int k, int from, int to)
+	{
+		if (from >= to) {
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		if (alive[middle] == 0) {
+			return;
+		}
+		double [] query = points[point];
+		int node = tree[middle];
+		if (node != point && !removed[node]) {
+			offer(node, squaredDistance(query, points[node]), k);
+		}
+		if (to - from == 1) {
+			return;
+		}
+		int splitAxis = axis[middle];
+		double diff = query[splitAxis] - points[node][splitAxis];
+		if (diff < 0) {
+			search(point, k, from, middle);
+			if (heapSize < k || diff*diff <= heapDistances[0]) {
+				search(point, k, middle + 1, to);
+			}
+		}
+		else {
+			search(point, k, middle + 1, to);
+			if (heapSize < k || diff*diff <= heapDistances[0]) {
+				search(point, k, from, middle);
+			}
+		}
+	}
+
+	private static double squaredDistance(double [] a, double [] b)
+	{
+		double distance = 0.0;
+		for (int d=0; d<a.length; d++) {
+			double diff = a[d] - b[d];
+			distance += diff*diff;
+		}
+		return distance;
+	}
+
+	// Max-heap of neighbours, ordered by distance and index
+
+	private boolean greater(int i, int j)
+	{
+		return heapDistances[i] > heapDistances[j]
+				|| (heapDistances[i] == heapDistances[j] && heapIndexes[i] > heapIndexes[j]);
+	}
+
+	private void offer(int index, double distance, int k)
+	{
+		if (heapSize < k) {
+			int i = heapSize++;
+			heapIndexes[i] = index;
+			heapDistances[i] = distance;
+			// Sift up
+			while (i > 0) {
+				int parent = (i - 1) >>> 1;
+				if (!greater(i, parent)) {
+					break;
+				}
+				swap(i, parent);
+				i = parent;
+			}
+		}
+		else if (distance < heapDistances[0] || (distance == heapDistances[0] && index < heapIndexes[0])) {
+			heapIndexes[0] = index;
+			heapDistances[0] = distance;
+			siftDown();
+		}
+	}
+
+	private void siftDown()
+	{
+		int i = 0;
+		while (true) {
+			int largest = i, left = 2*i + 1, right = left + 1;
+			if (left < heapSize && greater(left, largest)) {
+				largest = left;
+			}
+			if (right < heapSize && greater(right, largest)) {
+				largest = right;
+			}
+			if (largest == i) {
+				return;
+			}
+			swap(i, largest);
+			i = largest;
+		}
+	}
+
+	private void swap(int i, int j)
+	{
+		int index = heapIndexes[i];
+		heapIndexes[i] = heapIndexes[j];
+		heapIndexes[j] = index;
+		double distance = heapDistances[i];
+		heapDistances[i] = heapDistances[j];
+		heapDistances[j] = distance;
+	}
+}
@@ -0,0 +1,348 @@
+package net.sf.jclec.util.monitor;
+
+import java.lang.management.ManagementFactory;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import net.sf.jclec.IAlgorithm;
+import net.sf.jclec.IPopulation;
+
+/**
+ * Records the time spent by an algorithm in each phase of its iterations,
+ * in its genetic operators and evaluator, and in its listeners, and
+ * publishes these timings as a platform MBean (with object name
+ * <code>net.sf.jclec:type=AlgorithmMonitor,name=...</code>), so they can
+ * be watched with standard JMX tools (jconsole, VisualVM...).
+ *
+ * While an algorithm is being executed, its monitor is attached to the
+ * executing thread. Operators record their times in the monitor of the
+ * current thread (see operatorStart() and operatorEnd()), so they need no
+ * reference to the algorithm; if there is no monitor, they only pay for a
+ * thread local lookup.
+ *
+ * Timing names are:
+ *
+ * <ul>
+ * <li><code>iteration</code>: Complete iterations</li>
+ * <li><code>phase.xxx</code>: Algorithm phases (init, selection,
+ *     generation, replacement, update, control)</li>
+ * <li><code>operator.role.Class</code>: Operators (selector, recombinator,
+ *     mutator, provider, evaluator) called in the algorithm thread</li>
+ * <li><code>listener.Class</code>: Listener callbacks</li>
+ * </ul>
+ *
+ * @author Sebastian Ventura
+ */
+
+public class AlgorithmMonitor implements AlgorithmMonitorMXBean
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** MBeans domain */
+
+	public static final String DOMAIN = "net.sf.jclec";
+
+	/** Monitor attached to each thread */
+
+	private static final ThreadLocal<AlgorithmMonitor> CURRENT = new ThreadLocal<AlgorithmMonitor>();
+
+	/** Used to build default names */
+
+	private static final AtomicInteger COUNTER = new AtomicInteger();
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Attributes
+	/////////////////////////////////////////////////////////////////
+
+	/** Monitored algorithm */
+
+	private final IAlgorithm algorithm;
+
+	/** Monitor name */
+
+	private final String name;
+
+	/** Timings by name */
+
+	private final Map<String, Timing> timings = new ConcurrentHashMap<String, Timing>();
+
+	/** Start time (nanoseconds) */
+
+	private volatile long startTime;
+
+	/** Evaluations at the start of the last iteration */
+
+	private long lastEvaluations;
+
+	/** Evaluations per second in the last iteration */
+
+	private volatile double lastEvaluationRate;
+
+	/** Registered object name */
+
+	private ObjectName objectName;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor.
+	 *
+	 * @param algorithm Monitored algorithm
+	 * @param name Monitor name (if null, a name is built from the
+	 *        algorithm class)
+	 */
+
+	public AlgorithmMonitor(IAlgorithm algorithm, String name)
+	{
+		super();
+		this.algorithm = algorithm;
+		this.name = (name != null) ? name
+				: algorithm.getClass().getSimpleName() + "-" + COUNTER.incrementAndGet();
+		this.startTime = System.nanoTime();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------ Class methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * @return Monitor attached to the current thread (or null)
+	 */
+
+	public static AlgorithmMonitor current()
+	{
+		return CURRENT.get();
+	}
+
+	/**
+	 * Start time of an operator call.
+	 *
+	 * @return Current time, or 0 if there is no monitor attached to the
+	 *         current thread
+	 */
+
+	public static long operatorStart()
+	{
+		return (CURRENT.get() == null) ? 0L : System.nanoTime();
+	}
+
+	/**
+	 * Record the time of an operator call in the monitor attached to the
+	 * current thread (if any).
+	 *
+	 * @param role Operator role (selector, mutator...)
+	 * @param operator Operator
+	 * @param start Value returned by operatorStart()
+	 */
+
+	public static void operatorEnd(String role, Object operator, long start)
+	{
+		AlgorithmMonitor monitor = CURRENT.get();
+		if (monitor != null && start != 0L) {
+			monitor.record("operator." + role + "." + operator.getClass().getSimpleName(), System.nanoTime() - start);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Attach this monitor to the current thread.
+	 */
+
+	public void attach()
+	{
+		CURRENT.set(this);
+	}
+
+	/**
+	 * Detach this monitor from the current thread.
+	 */
+
+	public void detach()
+	{
+		if (CURRENT.get() == this) {
+			CURRENT.remove();
+		}
+	}
+
+	/**
+	 * Register this monitor in the platform MBean server. If its name is
+	 * already in use, a suffix is added to the object name.
+	 */
+
+	public synchronized void register()
+	{
+		if (objectName != null) {
+			return;
+		}
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = createObjectName(name);
+			while (server.isRegistered(objectName)) {
+				objectName = createObjectName(name + "-" + COUNTER.incrementAndGet());
+			}
+			server.registerMBean(this, objectName);
+			this.objectName = objectName;
+		}
+		catch (JMException e) {
+			throw new IllegalStateException("Cannot register monitor " + name, e);
+		}
+	}
+
+	/**
+	 * Unregister this monitor from the platform MBean server.
+	 */
+
+	public synchronized void unregister()
+	{
+		if (objectName == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		}
+		catch (JMException e) {
+			// Already unregistered
+		}
+		objectName = null;
+	}
+
+	/**
+	 * @return Object name of this monitor (null if it is not registered)
+	 */
+
+	public synchronized ObjectName getObjectName()
+	{
+		return objectName;
+	}
+
+	/**
+	 * Record a time.
+	 *
+	 * @param timing Timing name
+	 * @param nanos Time in nanoseconds
+	 */
+
+	public void record(String timing, long nanos)
+	{
+		Timing t = timings.get(timing);
+		if (t == null) {
+			synchronized (timings) {
+				t = timings.get(timing);
+				if (t == null) {
+					t = new Timing();
+					timings.put(timing, t);
+				}
+			}
+		}
+		t.record(nanos);
+	}
+
+	/**
+	 * Record the time of a complete iteration, and update the evaluation
+	 * rate of the last iteration.
+	 *
+	 * @param nanos Time in nanoseconds
+	 */
+
+	public void recordIteration(long nanos)
+	{
+		record("iteration", nanos);
+		long evaluations = getNumberOfEvaluations();
+		if (nanos > 0) {
+			lastEvaluationRate = (evaluations - lastEvaluations) * 1e9 / nanos;
+		}
+		lastEvaluations = evaluations;
+	}
+
+	// AlgorithmMonitorMXBean interface
+
+	@Override
+	public String getName()
+	{
+		return name;
+	}
+
+	@Override
+	public int getGeneration()
+	{
+		if (algorithm instanceof IPopulation) {
+			return ((IPopulation) algorithm).getGeneration();
+		}
+		return -1;
+	}
+
+	@Override
+	public long getNumberOfEvaluations()
+	{
+		if (algorithm instanceof IPopulation && ((IPopulation) algorithm).getEvaluator() != null) {
+			return ((IPopulation) algorithm).getEvaluator().getNumberOfEvaluations();
+		}
+		return -1;
+	}
+
+	@Override
+	public long getElapsedTime()
+	{
+		return (System.nanoTime() - startTime) / 1000000;
+	}
+
+	@Override
+	public double getEvaluationRate()
+	{
+		long nanos = System.nanoTime() - startTime;
+		return (nanos > 0) ? getNumberOfEvaluations() * 1e9 / nanos : 0.0;
+	}
+
+	@Override
+	public double getLastEvaluationRate()
+	{
+		return lastEvaluationRate;
+	}
+
+	@Override
+	public Map<String, TimingInfo> getTimings()
+	{
+		Map<String, TimingInfo> result = new TreeMap<String, TimingInfo>();
+		for (Map.Entry<String, Timing> entry : timings.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().snapshot());
+		}
+		return result;
+	}
+
+	@Override
+	public void resetTimings()
+	{
+		synchronized (timings) {
+			timings.clear();
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static ObjectName createObjectName(String name)
+	{
+		try {
+			return new ObjectName(DOMAIN + ":type=AlgorithmMonitor,name=" + ObjectName.quote(name));
+		}
+		catch (JMException e) {
+			throw new IllegalArgumentException("Illegal monitor name: " + name, e);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package net.sf.jclec.util.monitor;
+
+import java.util.Map;
+
+/**
+ * Management interface of AlgorithmMonitor. Times are in nanoseconds,
+ * except elapsed time (milliseconds).
+ *
+ * @author Sebastian Ventura
+ */
+
+public interface AlgorithmMonitorMXBean
+{
+	/**
+	 * @return Monitor name
+	 */
+
+	public String getName();
+
+	/**
+	 * @return Current generation (-1 if the algorithm has no population)
+	 */
+
+	public int getGeneration();
+
+	/**
+	 * @return Number of evaluations (-1 if the algorithm has no population)
+	 */
+
+	public long getNumberOfEvaluations();
+
+	/**
+	 * @return Milliseconds since the algorithm was started
+	 */
+
+	public long getElapsedTime();
+
+	/**
+	 * @return Evaluations per second since the algorithm was started
+	 */
+
+	public double getEvaluationRate();
+
+	/**
+	 * @return Evaluations per second in the last iteration
+	 */
+
+	public double getLastEvaluationRate();
+
+	/**
+	 * @return Timings of phases, operators and listeners, by name
+	 */
+
+	public Map<String, TimingInfo> getTimings();
+
+	/**
+	 * Discard all timings recorded.
+	 */
+
+	public void resetTimings();
+}
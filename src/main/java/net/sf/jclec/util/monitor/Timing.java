@@ -0,0 +1,141 @@
+package net.sf.jclec.util.monitor;
+
+/**
+ * Running timing statistics. Times are kept in a logarithmic histogram
+ * (four buckets per power of two), so percentiles are computed in
+ * constant memory with a relative error below 12.5%.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class Timing
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of histogram buckets */
+
+	private static final int BUCKETS = 256;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Attributes
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of times recorded */
+
+	private long count;
+
+	/** Sum of times recorded */
+
+	private long total;
+
+	/** Maximum time recorded */
+
+	private long max;
+
+	/** Times histogram */
+
+	private final long [] histogram = new long[BUCKETS];
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public Timing()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Record a time.
+	 *
+	 * @param nanos Time in nanoseconds
+	 */
+
+	public synchronized void record(long nanos)
+	{
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		count++;
+		total += nanos;
+		if (nanos > max) {
+			max = nanos;
+		}
+		histogram[bucket(nanos)]++;
+	}
+
+	/**
+	 * Approximate percentile (midpoint of the bucket that contains it).
+	 *
+	 * @param p Probability, in [0,1]
+	 *
+	 * @return Percentile, in nanoseconds (0 if there are no times)
+	 */
+
+	public synchronized long percentile(double p)
+	{
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(p * count));
+		long cumulative = 0;
+		for (int i=0; i<BUCKETS; i++) {
+			cumulative += histogram[i];
+			if (cumulative >= rank) {
+				long lower = lowerBound(i), upper = lowerBound(i+1);
+				return Math.min(max, lower + (upper - lower) / 2);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * @return Current statistics
+	 */
+
+	public synchronized TimingInfo snapshot()
+	{
+		return new TimingInfo(count, total, max, percentile(0.5), percentile(0.9), percentile(0.99));
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Times below 4 have their own bucket. Other times go to bucket
+	 * 4*e+m, where e is the position of their highest bit and m the
+	 * next two bits.
+	 */
+
+	private static int bucket(long nanos)
+	{
+		if (nanos < 4) {
+			return (int) nanos;
+		}
+		int e = 63 - Long.numberOfLeadingZeros(nanos);
+		return (e << 2) | (int) ((nanos >>> (e - 2)) & 3);
+	}
+
+	/**
+	 * Smallest time in a bucket.
+	 */
+
+	private static long lowerBound(int bucket)
+	{
+		if (bucket < 8) {
+			return bucket;
+		}
+		int e = bucket >>> 2;
+		if (e > 62) {
+			return Long.MAX_VALUE;
+		}
+		return (4L | (bucket & 3)) << (e - 2);
+	}
+}
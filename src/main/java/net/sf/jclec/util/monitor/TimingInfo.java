@@ -0,0 +1,105 @@
+package net.sf.jclec.util.monitor;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of a timing: number of calls and their total, mean, maximum
+ * and approximate percentiles (see Timing), in nanoseconds.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class TimingInfo
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of calls */
+
+	private final long count;
+
+	/** Total time */
+
+	private final long totalTime;
+
+	/** Maximum time */
+
+	private final long maxTime;
+
+	/** Median time */
+
+	private final long p50;
+
+	/** 90th percentile */
+
+	private final long p90;
+
+	/** 99th percentile */
+
+	private final long p99;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	@ConstructorProperties({"count", "totalTime", "maxTime", "p50", "p90", "p99"})
+	public TimingInfo(long count, long totalTime, long maxTime, long p50, long p90, long p99)
+	{
+		super();
+		this.count = count;
+		this.totalTime = totalTime;
+		this.maxTime = maxTime;
+		this.p50 = p50;
+		this.p90 = p90;
+		this.p99 = p99;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	public long getCount()
+	{
+		return count;
+	}
+
+	public long getTotalTime()
+	{
+		return totalTime;
+	}
+
+	public long getMeanTime()
+	{
+		return (count == 0) ? 0 : totalTime / count;
+	}
+
+	public long getMaxTime()
+	{
+		return maxTime;
+	}
+
+	public long getP50()
+	{
+		return p50;
+	}
+
+	public long getP90()
+	{
+		return p90;
+	}
+
+	public long getP99()
+	{
+		return p99;
+	}
+
+	// java.lang.Object methods
+
+	@Override
+	public String toString()
+	{
+		return "count=" + count + ", total=" + totalTime + ", mean=" + getMeanTime() + ", max=" + maxTime
+				+ ", p50=" + p50 + ", p90=" + p90 + ", p99=" + p99;
+	}
+}
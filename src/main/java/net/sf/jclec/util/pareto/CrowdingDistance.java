@@ -0,0 +1,140 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.Arrays;
+
+import net.sf.jclec.util.IndexSort;
+
+/**
+ * NSGA-II crowding distance over objective matrices. The crowding distance
+ * of a point is the sum, over all objectives, of the normalized distance
+ * between its two neighbours in the front. Boundary points get the maximum
+ * distance.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class CrowdingDistance
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Static methods only.
+	 */
+
+	private CrowdingDistance()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Crowding distance of the points of a front. For each objective, the
+	 * front is sorted from worst to best value (as component comparators
+	 * do), keeping the front order for equal values.
+	 *
+	 * @param objectives Objective matrix (all objectives minimized)
+	 * @param front Indexes of the front points in objective matrix
+	 *
+	 * @return Crowding distance of each front point (Double.MAX_VALUE for
+	 * 		   boundary points)
+	 */
+
+	public static final double [] assign(double [][] objectives, int [] front)
+	{
+		int size = front.length;
+		double [] distances = new double[size];
+		if (size == 0) {
+			return distances;
+		}
+		int numberOfObjectives = objectives[front[0]].length;
+		double [] column = new double[size];
+		int [] sorted = new int[size];
+		for (int k=0; k<numberOfObjectives; k++) {
+			for (int i=0; i<size; i++) {
+				column[i] = -objectives[front[i]][k];
+				sorted[i] = i;
+			}
+			IndexSort.sort(sorted, 0, size, column);
+			// Boundary points
+			distances[sorted[0]] = Double.MAX_VALUE;
+			distances[sorted[size-1]] = Double.MAX_VALUE;
+			// Interior points
+			double fMin = column[sorted[0]];
+			double fMax = column[sorted[size-1]];
+			if (fMin != fMax) {
+				double range = Math.abs(fMax - fMin);
+				for (int i=1; i<size-1; i++) {
+					distances[sorted[i]] += Math.abs(column[sorted[i+1]] - column[sorted[i-1]]) / range;
+				}
+			}
+		}
+		return distances;
+	}
+
+	/**
+	 * Selects the points with the largest crowding distance, used to fill
+	 * a population with the last front that fits in it. Ties are broken by
+	 * position. Points are partially selected (quickselect), so only the
+	 * selected ones are sorted.
+	 *
+	 * @param distances Crowding distances
+	 * @param count Number of points to select
+	 *
+	 * @return Positions of the selected points, by decreasing distance
+	 */
+
+	public static final int [] select(final double [] distances, int count)
+	{
+		int size = distances.length;
+		int [] positions = IndexSort.identity(size);
+		IndexSort.IndexComparator comparator = new IndexSort.IndexComparator() {
+			public int compare(int i, int j)
+			{
+				if (distances[i] > distances[j]) {
+					return -1;
+				}
+				if (distances[i] < distances[j]) {
+					return 1;
+				}
+				return i < j ? -1 : (i > j ? 1 : 0);
+			}
+		};
+		if (count < size) {
+			// Quickselect, so that the first count positions are the best ones
+			int from = 0, to = size - 1;
+			while (from < to) {
+				int pivot = positions[(from + to) >>> 1];
+				int i = from, j = to;
+				while (i <= j) {
+					while (comparator.compare(positions[i], pivot) < 0) {
+						i++;
+					}
+					while (comparator.compare(positions[j], pivot) > 0) {
+						j--;
+					}
+					if (i <= j) {
+						int tmp = positions[i];
+						positions[i++] = positions[j];
+						positions[j--] = tmp;
+					}
+				}
+				if (count - 1 <= j) {
+					to = j;
+				}
+				else if (count - 1 >= i) {
+					from = i;
+				}
+				else {
+					break;
+				}
+			}
+		}
+		IndexSort.sort(positions, 0, count, comparator);
+		return count < size ? Arrays.copyOf(positions, count) : positions;
+	}
+}
@@ -0,0 +1,360 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.Arrays;
+
+import net.sf.jclec.util.IndexSort;
+
+/**
+ * Divide and conquer non-dominated sort, from Jensen "Reducing the run-time
+ * complexity of multiobjective EAs: the NSGA-II and other algorithms" (IEEE
+ * TEVC, 2003), with the corrections of Fortin et al. (GECCO 2013) and
+ * Buzdalov and Shalyto (PPSN 2014) for points with equal objective values.
+ *
+ * Duplicated points are merged, and every objective is replaced by the rank
+ * of the point when sorted by (objective value, lexicographic position).
+ * Then all coordinates are different, and a point dominates another one if
+ * and only if it has smaller coordinates in all objectives. Points are
+ * recursively split by the median of one objective; two objectives are
+ * solved by a sweep over a Fenwick tree. It takes O(N log^(M-1) N) time
+ * (O(N log N) for two objectives), whatever the number of fronts.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class DivideAndConquerNonDominatedSorter implements INonDominatedSorter
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 4432862150945735127L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor.
+	 */
+
+	public DivideAndConquerNonDominatedSorter()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// INonDominatedSorter interface
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public int [] sort(double [][] objectives)
+	{
+		int size = objectives.length;
+		int [] ranks = new int[size];
+		if (size == 0) {
+			return ranks;
+		}
+		int numberOfObjectives = objectives[0].length;
+		// Merge duplicated points
+		int [] order = IndexSort.lexicographicSort(objectives);
+		int [] pointOf = new int[size];
+		int [] representative = new int[size];
+		int numberOfPoints = 0;
+		for (int i=0; i<size; i++) {
+			if (i == 0 || IndexSort.compareRows(objectives[order[i-1]], objectives[order[i]]) != 0) {
+				representative[numberOfPoints++] = order[i];
+			}
+			pointOf[order[i]] = numberOfPoints - 1;
+		}
+		// Sort unique points
+		Sort sort = new Sort(numberOfPoints, numberOfObjectives);
+		if (numberOfObjectives == 1) {
+			for (int p=0; p<numberOfPoints; p++) {
+				sort.rank[p] = p;
+			}
+		}
+		else if (numberOfPoints > 1) {
+			double [] column = new double[numberOfPoints];
+			for (int k=1; k<numberOfObjectives; k++) {
+				for (int p=0; p<numberOfPoints; p++) {
+					column[p] = objectives[representative[p]][k];
+				}
+				// Stable sort, so ties are broken by lexicographic position
+				int [] sorted = IndexSort.sort(column);
+				for (int r=0; r<numberOfPoints; r++) {
+					sort.coordinates[k][sorted[r]] = r;
+				}
+			}
+			sort.helperA(IndexSort.identity(numberOfPoints), numberOfObjectives - 1);
+		}
+		for (int i=0; i<size; i++) {
+			ranks[i] = sort.rank[pointOf[i]];
+		}
+		return ranks;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Sort procedure
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * State of a sort. Points are identified by their lexicographic
+	 * position, that is also their coordinate in the first objective.
+	 * Point sets are int arrays in increasing order.
+	 */
+
+	private static final class Sort
+	{
+		/** Point coordinates, by objective (first objective not used) */
+
+		final int [][] coordinates;
+
+		/** Point ranks */
+
+		final int [] rank;
+
+		/** Fenwick tree of maximum ranks, by coordinate (-1 if empty) */
+
+		final int [] tree;
+
+		/** Median selection buffer */
+
+		final int [] buffer;
+
+		Sort(int numberOfPoints, int numberOfObjectives)
+		{
+			coordinates = new int[numberOfObjectives][numberOfPoints];
+			rank = new int[numberOfPoints];
+			tree = new int[numberOfPoints + 1];
+			Arrays.fill(tree, -1);
+			buffer = new int[numberOfPoints];
+		}
+
+		/**
+		 * Ranks of the points in set, considering objectives 0..k. Ranks
+		 * due to points outside set have already been assigned.
+		 */
+
+		void helperA(int [] set, int k)
+		{
+			int size = set.length;
+			if (size < 2) {
+				return;
+			}
+			if (size == 2) {
+				update(set[0], set[1], k);
+			}
+			else if (k == 1) {
+				sweep(set, set);
+			}
+			else {
+				int median = median(set, set, k);
+				int [] low = select(set, k, median, true);
+				int [] high = select(set, k, median, false);
+				helperA(low, k);
+				helperB(low, high, k-1);
+				helperA(high, k);
+			}
+		}
+
+		/**
+		 * Ranks of the points in high set due to points in low set, that
+		 * are final. Low points are better than high ones in objectives
+		 * above k.
+		 */
+
+		void helperB(int [] low, int [] high, int k)
+		{
+			if (low.length == 0 || high.length == 0) {
+				return;
+			}
+			if (low.length == 1 || high.length == 1) {
+				for (int l : low) {
+					for (int h : high) {
+						update(l, h, k);
+					}
+				}
+			}
+			else if (k == 1) {
+				sweep(low, high);
+			}
+			else {
+				int [] c = coordinates[k];
+				int lowMax = Integer.MIN_VALUE, highMin = Integer.MAX_VALUE;
+				int lowMin = Integer.MAX_VALUE, highMax = Integer.MIN_VALUE;
+				for (int l : low) {
+					lowMin = Math.min(lowMin, c[l]);
+					lowMax = Math.max(lowMax, c[l]);
+				}
+				for (int h : high) {
+					highMin = Math.min(highMin, c[h]);
+					highMax = Math.max(highMax, c[h]);
+				}
+				if (lowMax < highMin) {
+					helperB(low, high, k-1);
+				}
+				else if (lowMin < highMax) {
+					int median = median(low, high, k);
+					int [] low1 = select(low, k, median, true);
+					int [] low2 = select(low, k, median, false);
+					int [] high1 = select(high, k, median, true);
+					int [] high2 = select(high, k, median, false);
+					helperB(low1, high1, k);
+					helperB(low1, high2, k-1);
+					helperB(low2, high2, k);
+				}
+			}
+		}
+
+		/**
+		 * Sweep over the first objective, for objectives 0 and 1. Ranks of
+		 * high points are updated from low points. Both can be the same set:
+		 * points are visited in increasing order, so each one is inserted
+		 * once its rank is final.
+		 */
+
+		void sweep(int [] low, int [] high)
+		{
+			int [] c = coordinates[1];
+			int l = 0;
+			for (int h : high) {
+				while (l < low.length && low[l] < h) {
+					insert(c[low[l]], rank[low[l]]);
+					l++;
+				}
+				int max = query(c[h]);
+				if (max >= rank[h]) {
+					rank[h] = max + 1;
+				}
+			}
+			for (int i=0; i<l; i++) {
+				clear(c[low[i]]);
+			}
+		}
+
+		/**
+		 * Updates rank of point b if a dominates it in objectives 0..k
+		 */
+
+		void update(int a, int b, int k)
+		{
+			if (a >= b) {
+				return;
+			}
+			for (int j=1; j<=k; j++) {
+				if (coordinates[j][a] > coordinates[j][b]) {
+					return;
+				}
+			}
+			if (rank[a] >= rank[b]) {
+				rank[b] = rank[a] + 1;
+			}
+		}
+
+		/**
+		 * Median of objective k over the points of two sets (that can be
+		 * the same one)
+		 */
+
+		int median(int [] one, int [] other, int k)
+		{
+			int [] c = coordinates[k];
+			int size = 0;
+			for (int p : one) {
+				buffer[size++] = c[p];
+			}
+			if (other != one) {
+				for (int p : other) {
+					buffer[size++] = c[p];
+				}
+			}
+			// Quickselect
+			int kth = size / 2, from = 0, to = size - 1;
+			while (from < to) {
+				int pivot = buffer[(from + to) >>> 1];
+				int i = from, j = to;
+				while (i <= j) {
+					while (buffer[i] < pivot) {
+						i++;
+					}
+					while (buffer[j] > pivot) {
+						j--;
+					}
+					if (i <= j) {
+						int tmp = buffer[i];
+						buffer[i++] = buffer[j];
+						buffer[j--] = tmp;
+					}
+				}
+				if (kth <= j) {
+					to = j;
+				}
+				else if (kth >= i) {
+					from = i;
+				}
+				else {
+					break;
+				}
+			}
+			return buffer[kth];
+		}
+
+		/**
+		 * Points of a set with objective k below (or above or equal to)
+		 * median, keeping their order.
+		 */
+
+		int [] select(int [] set, int k, int median, boolean below)
+		{
+			int [] c = coordinates[k];
+			int size = 0;
+			for (int p : set) {
+				if ((c[p] < median) == below) {
+					size++;
+				}
+			}
+			int [] result = new int[size];
+			size = 0;
+			for (int p : set) {
+				if ((c[p] < median) == below) {
+					result[size++] = p;
+				}
+			}
+			return result;
+		}
+
+		// Fenwick tree operations (coordinates are 0-based)
+
+		void insert(int coordinate, int value)
+		{
+			for (int i=coordinate+1; i<tree.length; i+=i&-i) {
+				if (tree[i] < value) {
+					tree[i] = value;
+				}
+			}
+		}
+
+		int query(int coordinate)
+		{
+			int max = -1;
+			for (int i=coordinate; i>0; i-=i&-i) {
+				if (tree[i] > max) {
+					max = tree[i];
+				}
+			}
+			return max;
+		}
+
+		void clear(int coordinate)
+		{
+			for (int i=coordinate+1; i<tree.length && tree[i] != -1; i+=i&-i) {
+				tree[i] = -1;
+			}
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.jclec.util.IndexSort;
+
+/**
+ * Efficient non-dominated sort, binary search strategy (ENS-BS), from Zhang
+ * et al. "An efficient approach to non-dominated sorting for evolutionary
+ * multi-objective optimization" (IEEE TEVC, 2015).
+ *
+ * Points are visited in lexicographic order, so a point can only be
+ * dominated by points already assigned to a front. The front of each point
+ * is found by binary search, comparing it only with the members of the
+ * fronts visited. It takes O(MN log N) time on typical populations (O(MN^2)
+ * in the worst case) and O(N) memory.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class ENSNonDominatedSorter implements INonDominatedSorter
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -1927741385502216617L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor.
+	 */
+
+	public ENSNonDominatedSorter()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// INonDominatedSorter interface
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public int [] sort(double [][] objectives)
+	{
+		int size = objectives.length;
+		int [] ranks = new int[size];
+		int [] order = IndexSort.lexicographicSort(objectives);
+		List<IntList> fronts = new ArrayList<IntList>();
+		for (int i=0; i<size; i++) {
+			int p = order[i];
+			// Duplicated points share their front
+			if (i > 0 && IndexSort.compareRows(objectives[order[i-1]], objectives[p]) == 0) {
+				ranks[p] = ranks[order[i-1]];
+				continue;
+			}
+			// First front that has no point dominating p
+			int low = 0, high = fronts.size();
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (isDominated(objectives, fronts.get(middle), p)) {
+					low = middle + 1;
+				}
+				else {
+					high = middle;
+				}
+			}
+			if (low == fronts.size()) {
+				fronts.add(new IntList());
+			}
+			fronts.get(low).add(p);
+			ranks[p] = low;
+		}
+		return ranks;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Checks if a point is dominated by some member of a front. Members
+	 * precede p in lexicographic order and are different from it, so weak
+	 * dominance in objectives 1..M-1 is enough. Last members are the most
+	 * similar to p, so they are checked first.
+	 */
+
+	private static boolean isDominated(double [][] objectives, IntList front, int p)
+	{
+		double [] point = objectives[p];
+		int numberOfObjectives = point.length;
+		for (int f=front.size()-1; f>=0; f--) {
+			double [] other = objectives[front.get(f)];
+			int k = 1;
+			while (k < numberOfObjectives && other[k] <= point[k]) {
+				k++;
+			}
+			if (k == numberOfObjectives) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
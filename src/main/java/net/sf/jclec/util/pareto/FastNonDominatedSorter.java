@@ -0,0 +1,90 @@
+package net.sf.jclec.util.pareto;
+
+/**
+ * Deb's fast non-dominated sort. Every pair of points is compared, so it
+ * takes O(MN^2) time and, in the worst case, O(N^2) memory. It is kept as
+ * a reference implementation.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class FastNonDominatedSorter implements INonDominatedSorter
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 2710475318457722031L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor.
+	 */
+
+	public FastNonDominatedSorter()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// INonDominatedSorter interface
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public int [] sort(double [][] objectives)
+	{
+		int size = objectives.length;
+		// Number of points that dominate each point
+		int [] dominatedBy = new int[size];
+		// Points dominated by each point
+		IntList [] dominated = new IntList[size];
+		for (int i=0; i<size; i++) {
+			dominated[i] = new IntList();
+		}
+		for (int i=0; i<size; i++) {
+			for (int j=i+1; j<size; j++) {
+				int cmp = ParetoFronts.compare(objectives[i], objectives[j]);
+				if (cmp > 0) {
+					dominated[i].add(j);
+					dominatedBy[j]++;
+				}
+				else if (cmp < 0) {
+					dominated[j].add(i);
+					dominatedBy[i]++;
+				}
+			}
+		}
+		// First front
+		int [] ranks = new int[size];
+		IntList front = new IntList();
+		for (int i=0; i<size; i++) {
+			if (dominatedBy[i] == 0) {
+				front.add(i);
+			}
+		}
+		// Next fronts
+		for (int rank=1; front.size() != 0; rank++) {
+			IntList next = new IntList();
+			for (int f=0; f<front.size(); f++) {
+				IntList list = dominated[front.get(f)];
+				for (int d=0; d<list.size(); d++) {
+					int j = list.get(d);
+					if (--dominatedBy[j] == 0) {
+						ranks[j] = rank;
+						next.add(j);
+					}
+				}
+			}
+			front = next;
+		}
+		return ranks;
+	}
+}
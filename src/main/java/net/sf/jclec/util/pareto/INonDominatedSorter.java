@@ -0,0 +1,29 @@
+package net.sf.jclec.util.pareto;
+
+import net.sf.jclec.JCLEC;
+
+/**
+ * Non-dominated sorting of a set of points.
+ *
+ * Points are given as an objective matrix (one row per point, one column
+ * per objective). All objectives are minimized; ParetoFronts.objectives()
+ * builds such a matrix from a list of individuals. Objective values must
+ * not be NaN.
+ *
+ * @author Sebastian Ventura
+ */
+
+public interface INonDominatedSorter extends JCLEC
+{
+	/**
+	 * Sort points by non-domination rank. Rank 0 contains the points that
+	 * are not dominated by any other, rank 1 the points only dominated by
+	 * points in rank 0, and so on. Equal points have the same rank.
+	 *
+	 * @param objectives Objective matrix. It is not modified.
+	 *
+	 * @return Rank of each point
+	 */
+
+	public int [] sort(double [][] objectives);
+}
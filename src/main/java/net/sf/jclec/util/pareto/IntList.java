@@ -0,0 +1,47 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.Arrays;
+
+/**
+ * Growable array of int values, used by non-dominated sorters.
+ *
+ * @author Sebastian Ventura
+ */
+
+final class IntList
+{
+	/** List elements */
+
+	private int [] elements;
+
+	/** List size */
+
+	private int size;
+
+	/**
+	 * Empty constructor.
+	 */
+
+	IntList()
+	{
+		elements = new int[4];
+	}
+
+	void add(int value)
+	{
+		if (size == elements.length) {
+			elements = Arrays.copyOf(elements, 2*size);
+		}
+		elements[size++] = value;
+	}
+
+	int get(int index)
+	{
+		return elements[index];
+	}
+
+	int size()
+	{
+		return size;
+	}
+}
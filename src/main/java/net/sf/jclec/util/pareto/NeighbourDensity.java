@@ -0,0 +1,224 @@
+package net.sf.jclec.util.pareto;
+
+import net.sf.jclec.util.KDTree;
+
+/**
+ * k-nearest neighbour density of a set of points in objective space, as
+ * used by SPEA2 (both for the density term of fitness and for archive
+ * truncation).
+ *
+ * The k nearest neighbours of each point are found with a KD-tree. When a
+ * point is removed, only the points that had it among their neighbours
+ * look for a new one, so a truncation that removes R points out of N takes
+ * about O(R (N + k log N)) time instead of O(R N^2).
+ *
+ * Neighbours are sorted by euclidean distance and, for equal distances, by
+ * index. A point is never a neighbour of itself.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class NeighbourDensity
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Points index */
+
+	private final KDTree tree;
+
+	/** Number of neighbours considered */
+
+	private final int k;
+
+	/** Neighbours of each point */
+
+	private final int [][] neighbours;
+
+	/** Number of neighbours of each point (less than k in small sets) */
+
+	private final int [] numberOfNeighbours;
+
+	/** Distance to the k-th neighbour of each point */
+
+	private final double [] distances;
+
+	/** Points that may have each point as neighbour */
+
+	private final IntList [] reverse;
+
+	/** Neighbour distances buffer */
+
+	private final double [] buffer;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that finds the neighbours of all points.
+	 *
+	 * @param points Objective matrix (one row per point). It must not be
+	 * 		  modified while this object is used.
+	 * @param k Neighbour used to measure density (1 for the nearest one)
+	 */
+
+	public NeighbourDensity(double [][] points, int k)
+	{
+		super();
+		int size = points.length;
+		this.tree = new KDTree(points);
+		this.k = Math.max(0, Math.min(k, size - 1));
+		this.neighbours = new int[size][this.k];
+		this.numberOfNeighbours = new int[size];
+		this.distances = new double[size];
+		this.reverse = new IntList[size];
+		this.buffer = new double[this.k];
+		for (int i=0; i<size; i++) {
+			reverse[i] = new IntList();
+		}
+		for (int i=0; i<size; i++) {
+			update(i);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Number of points not removed.
+	 *
+	 * @return Actual number of points
+	 */
+
+	public int size()
+	{
+		return tree.size();
+	}
+
+	/**
+	 * Checks if a point has not been removed.
+	 *
+	 * @param point Point index
+	 *
+	 * @return true if point has not been removed
+	 */
+
+	public boolean contains(int point)
+	{
+		return tree.contains(point);
+	}
+
+	/**
+	 * Distance from a point to its k-th nearest neighbour (or to its
+	 * farthest neighbour, if there are less than k+1 points left). It is
+	 * 0 if there are no neighbours.
+	 *
+	 * @param point Point index
+	 *
+	 * @return Neighbour distance
+	 */
+
+	public double distance(int point)
+	{
+		return distances[point];
+	}
+
+	/**
+	 * The k-th nearest neighbour of a point (or its farthest neighbour, if
+	 * there are less than k+1 points left). The point itself is returned
+	 * if it has no neighbours.
+	 *
+	 * @param point Point index
+	 *
+	 * @return Neighbour index
+	 */
+
+	public int neighbour(int point)
+	{
+		int count = numberOfNeighbours[point];
+		return count == 0 ? point : neighbours[point][count-1];
+	}
+
+	/**
+	 * Point with the nearest k-th neighbour (the first one, if there are
+	 * several).
+	 *
+	 * @return Index of the most crowded point, or -1 if all points have
+	 * 		   been removed
+	 */
+
+	public int mostCrowded()
+	{
+		int result = -1;
+		for (int i=0; i<distances.length; i++) {
+			if (tree.contains(i) && (result == -1 || distances[i] < distances[result])) {
+				result = i;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Removes a point. Points that had it as neighbour are updated.
+	 *
+	 * @param point Point index
+	 */
+
+	public void remove(int point)
+	{
+		if (!tree.contains(point)) {
+			return;
+		}
+		tree.remove(point);
+		IntList affected = reverse[point];
+		reverse[point] = new IntList();
+		for (int r=0; r<affected.size(); r++) {
+			int other = affected.get(r);
+			if (tree.contains(other) && isNeighbour(other, point)) {
+				update(other);
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Finds the neighbours of a point.
+	 */
+
+	private void update(int point)
+	{
+		int [] list = neighbours[point];
+		int oldCount = numberOfNeighbours[point];
+		int [] old = oldCount == 0 ? null : list.clone();
+		int count = tree.nearest(point, k, list, buffer);
+		numberOfNeighbours[point] = count;
+		distances[point] = count == 0 ? 0.0 : buffer[count-1];
+		// Register point in reverse lists of its new neighbours
+		for (int n=0; n<count; n++) {
+			if (!contains(old, oldCount, list[n])) {
+				reverse[list[n]].add(point);
+			}
+		}
+	}
+
+	private boolean isNeighbour(int point, int other)
+	{
+		return contains(neighbours[point], numberOfNeighbours[point], other);
+	}
+
+	private static boolean contains(int [] list, int count, int value)
+	{
+		for (int i=0; i<count; i++) {
+			if (list[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,143 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.Comparator;
+import java.util.List;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.fitness.ICompositeFitness;
+import net.sf.jclec.fitness.ISimpleFitness;
+import net.sf.jclec.fitness.IValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+
+/**
+ * Pareto dominance utilities over objective matrices (one row per point,
+ * one column per objective, all objectives minimized).
+ *
+ * @author Sebastian Ventura
+ */
+
+public class ParetoFronts
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Static methods only.
+	 */
+
+	private ParetoFronts()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Objective matrix of a list of individuals. Individuals fitness must
+	 * be composite, with IValueFitness components. Components that are
+	 * maximized (those whose comparator is a non inverse
+	 * ValueFitnessComparator) are negated.
+	 *
+	 * @param inds Individuals list
+	 * @param componentComparators Comparators used for fitness components
+	 *
+	 * @return Objective matrix
+	 *
+	 * @throws IllegalArgumentException If some component comparator is not
+	 * 		   a ValueFitnessComparator, or some fitness is not composite
+	 */
+
+	public static final double [][] objectives(List<IIndividual> inds, Comparator<IFitness> [] componentComparators)
+	{
+		int numberOfObjectives = componentComparators.length;
+		// Sign of each objective
+		double [] sign = new double[numberOfObjectives];
+		for (int j=0; j<numberOfObjectives; j++) {
+			if (componentComparators[j] instanceof ValueFitnessComparator) {
+				sign[j] = ((ValueFitnessComparator) componentComparators[j]).isInverse() ? 1.0 : -1.0;
+			}
+			else {
+				throw new IllegalArgumentException
+					("ValueFitnessComparator expected for component " + j);
+			}
+		}
+		// Objective values
+		int size = inds.size();
+		double [][] objectives = new double[size][numberOfObjectives];
+		for (int i=0; i<size; i++) {
+			IFitness fitness = inds.get(i).getFitness();
+			if (!(fitness instanceof ICompositeFitness)) {
+				throw new IllegalArgumentException("ICompositeFitness expected");
+			}
+			ISimpleFitness [] components = ((ICompositeFitness) fitness).getComponents();
+			for (int j=0; j<numberOfObjectives; j++) {
+				objectives[i][j] = sign[j] * ((IValueFitness) components[j]).getValue();
+			}
+		}
+		return objectives;
+	}
+
+	/**
+	 * Pareto comparison of two points.
+	 *
+	 * @param a First point
+	 * @param b Second point
+	 *
+	 * @return 1 if a dominates b, -1 if b dominates a and 0 otherwise
+	 */
+
+	public static final int compare(double [] a, double [] b)
+	{
+		int result = 0;
+		for (int k=0; k<a.length; k++) {
+			if (a[k] < b[k]) {
+				if (result < 0) {
+					return 0;
+				}
+				result = 1;
+			}
+			else if (a[k] > b[k]) {
+				if (result > 0) {
+					return 0;
+				}
+				result = -1;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Groups point indexes by rank.
+	 *
+	 * @param ranks Ranks obtained from a non-dominated sorter
+	 *
+	 * @return Indexes of the points in each front, in increasing order
+	 */
+
+	public static final int [][] fronts(int [] ranks)
+	{
+		int numberOfFronts = 0;
+		for (int rank : ranks) {
+			numberOfFronts = Math.max(numberOfFronts, rank + 1);
+		}
+		int [] sizes = new int[numberOfFronts];
+		for (int rank : ranks) {
+			sizes[rank]++;
+		}
+		int [][] fronts = new int[numberOfFronts][];
+		for (int f=0; f<numberOfFronts; f++) {
+			fronts[f] = new int[sizes[f]];
+			sizes[f] = 0;
+		}
+		for (int i=0; i<ranks.length; i++) {
+			int rank = ranks[i];
+			fronts[rank][sizes[rank]++] = i;
+		}
+		return fronts;
+	}
+}
@@ -0,0 +1,256 @@
+package net.sf.jclec.util.random;
+
+/**
+ * Base implementation of generators that produce 64 random bits per step.
+ *
+ * Doubles have 53 random bits and lie in the open interval (0,1). Integers
+ * in a range are obtained with Lemire's multiply-and-reject method, which
+ * is unbiased and needs no division in almost all calls</p>
+ *
+ * D. Lemire, <CITE>Fast random integer generation in an interval</CITE>,
+ * ACM Transactions on Modeling and Computer Simulation 29(1), 2019
+ * </p>
+ *
+ * Bulk methods fill an array with the same values that consecutive calls
+ * to the single value method would return. Subclasses should override
+ * nextLongs(long[], int), keeping their state in local variables, because
+ * all other bulk methods are built on it.
+ *
+ * @author Sebastian Ventura
+ */
+
+@SuppressWarnings("serial")
+public abstract class AbstractRandGen64 extends AbstractRandGen
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** 2^-53 */
+
+	protected static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
+	/** Size of the buffer used by bulk methods */
+
+	private static final int BUFFER_SIZE = 256;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Buffer of random bits for bulk methods (created when needed) */
+
+	private transient long [] buffer;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor.
+	 */
+
+	protected AbstractRandGen64()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// IRandGen interface
+
+	/**
+	 * Returns a value in the open interval (0,1), with 53 random bits.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	public double raw()
+	{
+		return toDouble(nextLong());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void raw(double [] d, int n)
+	{
+		long [] bits = buffer();
+		for (int i=0; i<n; i+=BUFFER_SIZE) {
+			int size = Math.min(BUFFER_SIZE, n - i);
+			nextLongs(bits, size);
+			for (int j=0; j<size; j++) {
+				d[i+j] = toDouble(bits[j]);
+			}
+		}
+	}
+
+	/**
+	 * Returns an unbiased integer in [lo, hi). If hi is not greater than
+	 * lo, returns the same value as AbstractRandGen.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public int choose(int lo, int hi)
+	{
+		long range = (long) hi - lo;
+		if (range <= 0) {
+			return super.choose(lo, hi);
+		}
+		return (int) (lo + bounded(range));
+	}
+
+	// AbstractRandGen64 methods
+
+	/**
+	 * Next 64 bits value of this generator.
+	 *
+	 * @return Next random long
+	 */
+
+	public abstract long nextLong();
+
+	/**
+	 * Next 32 bits value of this generator (the upper half of nextLong(),
+	 * which are the best bits of all generators in this package).
+	 *
+	 * @return Next random int
+	 */
+
+	public int nextInt()
+	{
+		return (int) (nextLong() >>> 32);
+	}
+
+	/**
+	 * Fill part or all of an array with longs.
+	 *
+	 * @param values Array to be filled
+	 * @param n Number of longs to generate
+	 */
+
+	public void nextLongs(long [] values, int n)
+	{
+		for (int i=0; i<n; i++) {
+			values[i] = nextLong();
+		}
+	}
+
+	/**
+	 * Fill an entire array with longs.
+	 *
+	 * @param values Array to be filled
+	 */
+
+	public final void nextLongs(long [] values)
+	{
+		nextLongs(values, values.length);
+	}
+
+	/**
+	 * Fill part or all of an array with ints.
+	 *
+	 * @param values Array to be filled
+	 * @param n Number of ints to generate
+	 */
+
+	public void nextInts(int [] values, int n)
+	{
+		long [] bits = buffer();
+		for (int i=0; i<n; i+=BUFFER_SIZE) {
+			int size = Math.min(BUFFER_SIZE, n - i);
+			nextLongs(bits, size);
+			for (int j=0; j<size; j++) {
+				values[i+j] = (int) (bits[j] >>> 32);
+			}
+		}
+	}
+
+	/**
+	 * Fill an entire array with ints.
+	 *
+	 * @param values Array to be filled
+	 */
+
+	public final void nextInts(int [] values)
+	{
+		nextInts(values, values.length);
+	}
+
+	/**
+	 * Fill part or all of an array with unbiased integers in [lo, hi).
+	 *
+	 * @param values Array to be filled
+	 * @param n Number of integers to generate
+	 * @param lo Lower limit of range
+	 * @param hi Upper limit of range (greater than lo)
+	 */
+
+	public void choose(int [] values, int n, int lo, int hi)
+	{
+		long range = (long) hi - lo;
+		if (range <= 0) {
+			throw new IllegalArgumentException("Empty range: [" + lo + ", " + hi + ")");
+		}
+		for (int i=0; i<n; i++) {
+			values[i] = (int) (lo + bounded(range));
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------ Class methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Double in (0,1) from the upper 53 bits of a long.
+	 *
+	 * @param bits Random bits
+	 *
+	 * @return Random double
+	 */
+
+	protected static double toDouble(long bits)
+	{
+		return ((bits >>> 11) + 0.5) * DOUBLE_UNIT;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Lemire's method: the upper half of x * range (x being a random 32
+	 * bits value) is in [0, range), and it is unbiased if samples whose
+	 * lower half is below 2^32 mod range are rejected.
+	 *
+	 * @param range Range size, in [1, 2^32)
+	 *
+	 * @return Integer in [0, range)
+	 */
+
+	private long bounded(long range)
+	{
+		long m = (nextLong() >>> 32) * range;
+		if ((m & 0xffffffffL) < range) {
+			long threshold = (0x100000000L - range) % range;
+			while ((m & 0xffffffffL) < threshold) {
+				m = (nextLong() >>> 32) * range;
+			}
+		}
+		return m >>> 32;
+	}
+
+	private long [] buffer()
+	{
+		if (buffer == null) {
+			buffer = new long[BUFFER_SIZE];
+		}
+		return buffer;
+	}
+}
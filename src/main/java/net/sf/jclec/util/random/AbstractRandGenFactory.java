@@ -7,12 +7,15 @@ import org.apache.commons.configuration.Configuration;
 
 /**
  * IRandGenFactory abstract implementation...
+ * 
+ * Seeds of independent streams are taken from the stream-th split of a 
+ * SplitMix64 generator initialized with the factory seed.
  *  
  * @author Sebastian Ventura
  */
 
 @SuppressWarnings("serial")
-public abstract class AbstractRandGenFactory implements IRandGenFactory, IConfigure 
+public abstract class AbstractRandGenFactory implements IStreamRandGenFactory, IConfigure 
 {
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------- Internal variables
@@ -22,6 +25,10 @@ public abstract class AbstractRandGenFactory implements IRandGenFactory, IConfig
 	
 	protected SeedGenerator seedGenerator = new SeedGenerator();
 	
+	/** Seed used to derive independent streams (initial seed) */
+	
+	protected int streamsSeed;
+	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
 	/////////////////////////////////////////////////////////////////
@@ -59,8 +66,22 @@ public abstract class AbstractRandGenFactory implements IRandGenFactory, IConfig
 	public void setSeed(int seed)
 	{
 		seedGenerator.setRow(seed);
+		streamsSeed = seed;
 	}
 
+	/////////////////////////////////////////////////////////////////
+	// ---------------- Implementing IStreamRandGenFactory interface
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	public IRandGen createRandGen(long stream)
+	{
+		return createRandGen(streamSeeds(stream));
+	}
+	
 	/////////////////////////////////////////////////////////////////
 	// ---------------------------- Implementing IConfigure interface
 	/////////////////////////////////////////////////////////////////
@@ -80,4 +101,46 @@ public abstract class AbstractRandGenFactory implements IRandGenFactory, IConfig
 		// Setting seed
 		setSeed(seed);
 	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * Create the generator of an independent stream.
+	 * 
+	 * @param seeds Source of seeds for the new generator (different for
+	 *              each stream)
+	 * 
+	 * @return A new instance of a random generator
+	 */
+	
+	protected abstract IRandGen createRandGen(SplitMix64 seeds);
+	
+	/**
+	 * Source of seeds for a stream.
+	 * 
+	 * @param stream Stream identifier
+	 * 
+	 * @return Seeds generator
+	 */
+	
+	protected SplitMix64 streamSeeds(long stream)
+	{
+		return new SplitMix64(SplitMix64.mix64(streamsSeed)).split(stream);
+	}
+	
+	/**
+	 * Next seed in [1, 2147483398] (valid for all generators in this
+	 * package).
+	 * 
+	 * @param seeds Source of seeds
+	 * 
+	 * @return A positive seed
+	 */
+	
+	protected static int nextSeed(SplitMix64 seeds)
+	{
+		return 1 + (int) ((seeds.nextLong() >>> 1) % 2147483398L);
+	}
 }
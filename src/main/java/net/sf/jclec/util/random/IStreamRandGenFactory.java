@@ -0,0 +1,23 @@
+package net.sf.jclec.util.random;
+
+/**
+ * Random generator factory that also provides independent streams.
+ *
+ * @author Sebastian Ventura
+ */
+
+public interface IStreamRandGenFactory extends IRandGenFactory
+{
+	/**
+	 * Factory method for independent streams. The generator returned only
+	 * depends on the factory seed and the stream identifier (not on the
+	 * generators created before), so each thread, island or task can take
+	 * its own stream and results don't depend on the execution order.
+	 *
+	 * @param stream Stream identifier
+	 *
+	 * @return A new instance of a random generator
+	 */
+
+	public IRandGen createRandGen(long stream);
+}
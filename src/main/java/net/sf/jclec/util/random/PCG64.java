@@ -0,0 +1,199 @@
+package net.sf.jclec.util.random;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * PCG64 (PCG XSL RR 128/64) random generator, with a period of
+ * 2<SUP>128</SUP>. Its state is a 128 bits linear congruential generator,
+ * and outputs are the xor of both state halves, rotated by the six upper
+ * state bits. This is the generator described in</p>
+ *
+ * M. E. O'Neill, <CITE>PCG: A family of simple fast space-efficient
+ * statistically good algorithms for random number generation</CITE>,
+ * Technical report HMC-CS-2014-0905, Harvey Mudd College, 2014
+ * </p>
+ *
+ * Each stream number selects a different LCG increment, so generators
+ * with the same seed and different streams produce different sequences.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class PCG64 extends AbstractRandGen64
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 8176240919435120843L;
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** LCG multiplier (upper half) */
+
+	private static final long MULTIPLIER_HI = 0x2360ed051fc65da4L;
+
+	/** LCG multiplier (lower half) */
+
+	private static final long MULTIPLIER_LO = 0x4385df649fccf645L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Attributes
+	/////////////////////////////////////////////////////////////////
+
+	/** State (upper and lower halves) */
+
+	private long stateHi, stateLo;
+
+	/** Increment (upper and lower halves, always odd) */
+
+	private long incHi, incLo;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that sets the state from a seed, expanded with
+	 * SplitMix64. Uses the first stream.
+	 *
+	 * @param seed Generator seed
+	 */
+
+	public PCG64(long seed)
+	{
+		this(new SplitMix64(seed), 0);
+	}
+
+	/**
+	 * Constructor that sets the initial state and stream, in the same way
+	 * as the reference implementation (pcg64_srandom_r).
+	 *
+	 * @param seedHi Initial state (upper half)
+	 * @param seedLo Initial state (lower half)
+	 * @param streamHi Stream number (upper half)
+	 * @param streamLo Stream number (lower half)
+	 */
+
+	public PCG64(long seedHi, long seedLo, long streamHi, long streamLo)
+	{
+		super();
+		// Increment is (stream << 1) | 1
+		this.incHi = (streamHi << 1) | (streamLo >>> 63);
+		this.incLo = (streamLo << 1) | 1L;
+		this.stateHi = 0;
+		this.stateLo = 0;
+		step();
+		long lo = stateLo + seedLo;
+		stateHi += seedHi + carry(lo, stateLo);
+		stateLo = lo;
+		step();
+	}
+
+	/**
+	 * Constructor that takes the initial state from a seeds source.
+	 *
+	 * @param seeds Source of seeds
+	 * @param stream Stream number
+	 */
+
+	PCG64(SplitMix64 seeds, long stream)
+	{
+		this(seeds.nextLong(), seeds.nextLong(), 0, stream);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// AbstractRandGen64 methods
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public long nextLong()
+	{
+		step();
+		return Long.rotateRight(stateHi ^ stateLo, (int) (stateHi >>> 58));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void nextLongs(long [] values, int n)
+	{
+		long hi = stateHi, lo = stateLo;
+		for (int i=0; i<n; i++) {
+			long mlo = lo * MULTIPLIER_LO;
+			long mhi = multiplyHigh(lo, MULTIPLIER_LO) + lo * MULTIPLIER_HI + hi * MULTIPLIER_LO;
+			lo = mlo + incLo;
+			hi = mhi + incHi + carry(lo, mlo);
+			values[i] = Long.rotateRight(hi ^ lo, (int) (hi >>> 58));
+		}
+		stateHi = hi;
+		stateLo = lo;
+	}
+
+	// java.lang.Object methods
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof PCG64) {
+			PCG64 o = (PCG64) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(stateHi, o.stateHi);
+			eb.append(stateLo, o.stateLo);
+			eb.append(incHi, o.incHi);
+			eb.append(incLo, o.incLo);
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * state = state * MULTIPLIER + increment (mod 2^128)
+	 */
+
+	private void step()
+	{
+		long mlo = stateLo * MULTIPLIER_LO;
+		long mhi = multiplyHigh(stateLo, MULTIPLIER_LO) + stateLo * MULTIPLIER_HI + stateHi * MULTIPLIER_LO;
+		stateLo = mlo + incLo;
+		stateHi = mhi + incHi + carry(stateLo, mlo);
+	}
+
+	/**
+	 * Carry of a 64 bits addition (1 if the unsigned sum is lower than
+	 * one of the addends).
+	 */
+
+	private static long carry(long sum, long addend)
+	{
+		return (sum + Long.MIN_VALUE < addend + Long.MIN_VALUE) ? 1L : 0L;
+	}
+
+	/**
+	 * Upper 64 bits of the unsigned 128 bits product of a and b.
+	 */
+
+	private static long multiplyHigh(long a, long b)
+	{
+		long a0 = a & 0xffffffffL, a1 = a >>> 32;
+		long b0 = b & 0xffffffffL, b1 = b >>> 32;
+		long p01 = a0 * b1, p10 = a1 * b0;
+		long middle = ((a0 * b0) >>> 32) + (p01 & 0xffffffffL) + (p10 & 0xffffffffL);
+		return a1 * b1 + (p01 >>> 32) + (p10 >>> 32) + (middle >>> 32);
+	}
+}
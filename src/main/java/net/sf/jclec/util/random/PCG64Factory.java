@@ -0,0 +1,91 @@
+package net.sf.jclec.util.random;
+
+/**
+ * PCG64 factory. Each generator uses a different stream (LCG increment),
+ * and its initial state is taken from a SplitMix64 generator initialized
+ * with the factory seed.
+ * 
+ * @author Sebastian Ventura
+ */
+
+public final class PCG64Factory extends AbstractRandGenFactory
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+	
+	private static final long serialVersionUID = 2655981736409162557L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+	
+	/** Source of initial states (created from seed when needed) */
+	
+	private SplitMix64 root;
+	
+	/** Stream of the next generator */
+	
+	private long nextStream;
+	
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * Empty constructor.
+	 */
+	
+	public PCG64Factory() 
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------- Setting and getting properties
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Sets the seed and restarts the sequence of generators.
+	 * 
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	public synchronized void setSeed(int seed)
+	{
+		super.setSeed(seed);
+		root = null;
+		nextStream = 0;
+	}
+	
+	/////////////////////////////////////////////////////////////////
+	// ------------------------- Implementing IRandGenFactory methods 
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public synchronized IRandGen createRandGen() 
+	{
+		if (root == null) {
+			root = new SplitMix64(SplitMix64.mix64(~((long) streamsSeed)));
+		}
+		return new PCG64(root.nextLong(), root.nextLong(), 0, nextStream++);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------- Overwriting AbstractRandGenFactory methods 
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	protected IRandGen createRandGen(SplitMix64 seeds) 
+	{
+		return new PCG64(seeds, seeds.nextLong());
+	}
+}
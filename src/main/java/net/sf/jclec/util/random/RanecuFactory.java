@@ -43,4 +43,18 @@ public final class RanecuFactory extends AbstractRandGenFactory
 	{
 		return new Ranecu(seedGenerator.nextSeed(), seedGenerator.nextSeed());
 	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------- Overwriting AbstractRandGenFactory methods 
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	protected IRandGen createRandGen(SplitMix64 seeds) 
+	{
+		return new Ranecu(nextSeed(seeds), nextSeed(seeds));
+	}
 }
@@ -91,4 +91,18 @@ public class RanluxFactory extends AbstractRandGenFactory
 	{
 		return new Ranlux(luxuryLevel, seedGenerator.nextSeed());
 	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------- Overwriting AbstractRandGenFactory methods 
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	protected IRandGen createRandGen(SplitMix64 seeds) 
+	{
+		return new Ranlux(luxuryLevel, nextSeed(seeds));
+	}
 }
@@ -41,4 +41,18 @@ public class RanmarFactory extends AbstractRandGenFactory
 	{
 		return new Ranmar(seedGenerator.nextSeed());
 	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------- Overwriting AbstractRandGenFactory methods 
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	protected IRandGen createRandGen(SplitMix64 seeds) 
+	{
+		return new Ranmar(nextSeed(seeds));
+	}
 }
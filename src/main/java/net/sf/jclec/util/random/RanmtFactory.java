@@ -41,4 +41,18 @@ public class RanmtFactory extends AbstractRandGenFactory
 	{
 		return new Ranmt(seedGenerator.nextSeed());
 	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------- Overwriting AbstractRandGenFactory methods 
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	protected IRandGen createRandGen(SplitMix64 seeds) 
+	{
+		return new Ranmt(nextSeed(seeds));
+	}
 }
@@ -0,0 +1,191 @@
+package net.sf.jclec.util.random;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * SplitMix64 is a splittable random generator with a period of 2<SUP>64</SUP>.
+ * Its state is a 64 bits counter, increased in an odd constant (gamma) in
+ * each call, and outputs are produced by mixing the counter value. This is
+ * the algorithm of java.util.SplittableRandom, described in the paper</p>
+ *
+ * G. L. Steele, D. Lea, C. H. Flood, <CITE>Fast splittable pseudorandom
+ * number generators</CITE>, OOPSLA 2014
+ * </p>
+ *
+ * The split() method returns a new generator (with different counter and
+ * gamma) that is statistically independent from this one. The split(long)
+ * method returns the same generator as the n-th call to split(), without
+ * changing this generator state, so streams can be assigned by index.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class SplitMix64 extends AbstractRandGen64
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 4021745360917264838L;
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Default gamma (odd integer closest to 2^64 / golden ratio) */
+
+	public static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/////////////////////////////////////////////////////////////////
+    // --------------------------------------------------- Attributes
+    /////////////////////////////////////////////////////////////////
+
+	/** Counter */
+
+	private long seed;
+
+	/** Counter increment (odd) */
+
+	private long gamma;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that sets the initial counter value. Uses default gamma.
+	 *
+	 * @param seed Initial counter value
+	 */
+
+	public SplitMix64(long seed)
+	{
+		this(seed, GOLDEN_GAMMA);
+	}
+
+	/**
+	 * Constructor that sets counter and gamma.
+	 *
+	 * @param seed Initial counter value
+	 * @param gamma Counter increment (it is made odd if necessary)
+	 */
+
+	public SplitMix64(long seed, long gamma)
+	{
+		super();
+		this.seed = seed;
+		this.gamma = gamma | 1L;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// AbstractRandGen64 methods
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public long nextLong()
+	{
+		return mix64(seed += gamma);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void nextLongs(long [] values, int n)
+	{
+		long s = seed, g = gamma;
+		for (int i=0; i<n; i++) {
+			values[i] = mix64(s += g);
+		}
+		seed = s;
+	}
+
+	// SplitMix64 methods
+
+	/**
+	 * Returns a new generator, independent from this one. This generator
+	 * advances two positions.
+	 *
+	 * @return A new generator
+	 */
+
+	public SplitMix64 split()
+	{
+		return new SplitMix64(nextLong(), mixGamma(seed += gamma));
+	}
+
+	/**
+	 * Returns the generator that the (index+1)-th call to split() would
+	 * return. This generator state doesn't change.
+	 *
+	 * @param index Stream index
+	 *
+	 * @return A new generator
+	 */
+
+	public SplitMix64 split(long index)
+	{
+		long base = seed + 2 * index * gamma;
+		return new SplitMix64(mix64(base + gamma), mixGamma(base + 2 * gamma));
+	}
+
+	// java.lang.Object methods
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof SplitMix64) {
+			SplitMix64 o = (SplitMix64) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(seed, o.seed);
+			eb.append(gamma, o.gamma);
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------ Class methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Stafford variant 13 of the MurmurHash3 64 bits finalizer.
+	 *
+	 * @param z Value to mix
+	 *
+	 * @return Mixed value
+	 */
+
+	public static long mix64(long z)
+	{
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Gamma for a new generator. Gammas with few bit transitions are
+	 * avoided, because they produce poor sequences.
+	 */
+
+	private static long mixGamma(long z)
+	{
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		int n = Long.bitCount(z ^ (z >>> 1));
+		return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+}
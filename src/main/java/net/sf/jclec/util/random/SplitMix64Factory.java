@@ -0,0 +1,87 @@
+package net.sf.jclec.util.random;
+
+/**
+ * SplitMix64 factory. All generators are splits of a root generator
+ * initialized with the factory seed, so they are statistically independent
+ * from each other (which is not guaranteed for generators seeded from the
+ * SeedGenerator table).
+ * 
+ * @author Sebastian Ventura
+ */
+
+public final class SplitMix64Factory extends AbstractRandGenFactory
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+	
+	private static final long serialVersionUID = -3164929358103746125L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+	
+	/** Root generator (created from seed when needed) */
+	
+	private SplitMix64 root;
+	
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * Empty constructor.
+	 */
+	
+	public SplitMix64Factory() 
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------- Setting and getting properties
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Sets the seed and restarts the sequence of generators.
+	 * 
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	public synchronized void setSeed(int seed)
+	{
+		super.setSeed(seed);
+		root = null;
+	}
+	
+	/////////////////////////////////////////////////////////////////
+	// ------------------------- Implementing IRandGenFactory methods 
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public synchronized IRandGen createRandGen() 
+	{
+		if (root == null) {
+			root = new SplitMix64(SplitMix64.mix64(~((long) streamsSeed)));
+		}
+		return root.split();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------- Overwriting AbstractRandGenFactory methods 
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	protected IRandGen createRandGen(SplitMix64 seeds) 
+	{
+		return seeds;
+	}
+}
@@ -0,0 +1,105 @@
+package net.sf.jclec.util.random;
+
+/**
+ * Factory that hands out the generators of one stream of another factory.
+ *
+ * Each stream has its own sequence of generators (returned by
+ * createRandGen()) and its own substreams (returned by createRandGen(long)),
+ * all of them independent from those of other streams. So several
+ * algorithms that share a factory configuration (for instance, the islands
+ * of an island model) can run with independent generators.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class SplitRandGenFactory implements IStreamRandGenFactory
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -6218640381772524219L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Splitted factory */
+
+	protected final IStreamRandGenFactory factory;
+
+	/** Stream identifier */
+
+	protected final long stream;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** First stream of the splitted factory used by this stream */
+
+	private final long base;
+
+	/** Number of generators created by createRandGen() */
+
+	private long numberOfGenerators;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that sets the splitted factory and the stream.
+	 *
+	 * @param factory Splitted factory
+	 * @param stream Stream identifier
+	 */
+
+	public SplitRandGenFactory(IStreamRandGenFactory factory, long stream)
+	{
+		super();
+		this.factory = factory;
+		this.stream = stream;
+		this.base = SplitMix64.mix64(stream);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Getting properties
+
+	public final IStreamRandGenFactory getFactory()
+	{
+		return factory;
+	}
+
+	public final long getStream()
+	{
+		return stream;
+	}
+
+	// IRandGenFactory interface
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public synchronized IRandGen createRandGen()
+	{
+		// Generators of the sequence use even identifiers
+		return factory.createRandGen(SplitMix64.mix64(base + 2 * numberOfGenerators++));
+	}
+
+	// IStreamRandGenFactory interface
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public IRandGen createRandGen(long substream)
+	{
+		// Substreams use odd identifiers
+		return factory.createRandGen(SplitMix64.mix64(base + 2 * substream + 1));
+	}
+}
@@ -0,0 +1,171 @@
+package net.sf.jclec.util.random;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * xoroshiro128++ random generator, with a period of 2<SUP>128</SUP>-1. It
+ * is the small state (two 64 bits words) version of xoshiro256++, and it
+ * is described in the same paper</p>
+ *
+ * D. Blackman, S. Vigna, <CITE>Scrambled linear pseudorandom number
+ * generators</CITE>, ACM Transactions on Mathematical Software 47(4), 2021
+ * </p>
+ *
+ * The copyAndJump() method returns a copy of this generator and advances
+ * this one 2<SUP>64</SUP> steps, so it can be used to create up to
+ * 2<SUP>64</SUP> non-overlapping sequences.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class Xoroshiro128PlusPlus extends AbstractRandGen64
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 6391207713862145906L;
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Jump polynomial (2^64 steps) */
+
+	private static final long [] JUMP = {0x2bd7a6a6e99c2ddcL, 0x0992ccaf6a6fca05L};
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Attributes
+	/////////////////////////////////////////////////////////////////
+
+	/** State words */
+
+	private long s0, s1;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that sets the state from a seed, expanded with SplitMix64
+	 * (as recommended by the authors).
+	 *
+	 * @param seed Generator seed
+	 */
+
+	public Xoroshiro128PlusPlus(long seed)
+	{
+		this(new SplitMix64(seed));
+	}
+
+	/**
+	 * Constructor that sets the state.
+	 *
+	 * @param s0 First state word
+	 * @param s1 Second state word
+	 *
+	 * @throws IllegalArgumentException If both words are zero
+	 */
+
+	public Xoroshiro128PlusPlus(long s0, long s1)
+	{
+		super();
+		if ((s0 | s1) == 0) {
+			throw new IllegalArgumentException("State must not be zero");
+		}
+		this.s0 = s0;
+		this.s1 = s1;
+	}
+
+	/**
+	 * Constructor that takes the state from a seeds source.
+	 *
+	 * @param seeds Source of seeds
+	 */
+
+	Xoroshiro128PlusPlus(SplitMix64 seeds)
+	{
+		this(seeds.nextLong(), seeds.nextLong());
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// AbstractRandGen64 methods
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public long nextLong()
+	{
+		long a = s0, b = s1;
+		long result = Long.rotateLeft(a + b, 17) + a;
+		b ^= a;
+		s0 = Long.rotateLeft(a, 49) ^ b ^ (b << 21);
+		s1 = Long.rotateLeft(b, 28);
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void nextLongs(long [] values, int n)
+	{
+		long a = s0, b = s1;
+		for (int i=0; i<n; i++) {
+			values[i] = Long.rotateLeft(a + b, 17) + a;
+			b ^= a;
+			a = Long.rotateLeft(a, 49) ^ b ^ (b << 21);
+			b = Long.rotateLeft(b, 28);
+		}
+		s0 = a;
+		s1 = b;
+	}
+
+	// Xoroshiro128PlusPlus methods
+
+	/**
+	 * Returns a copy of this generator, and advances this one 2^64 steps.
+	 *
+	 * @return A generator with the former state of this one
+	 */
+
+	public Xoroshiro128PlusPlus copyAndJump()
+	{
+		Xoroshiro128PlusPlus copy = new Xoroshiro128PlusPlus(s0, s1);
+		long j0 = 0, j1 = 0;
+		for (long word : JUMP) {
+			for (int b=0; b<64; b++) {
+				if ((word & (1L << b)) != 0) {
+					j0 ^= s0;
+					j1 ^= s1;
+				}
+				nextLong();
+			}
+		}
+		s0 = j0;
+		s1 = j1;
+		return copy;
+	}
+
+	// java.lang.Object methods
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof Xoroshiro128PlusPlus) {
+			Xoroshiro128PlusPlus o = (Xoroshiro128PlusPlus) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(s0, o.s0);
+			eb.append(s1, o.s1);
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+}
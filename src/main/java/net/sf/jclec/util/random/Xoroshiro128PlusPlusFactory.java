@@ -0,0 +1,86 @@
+package net.sf.jclec.util.random;
+
+/**
+ * xoroshiro128++ factory. Generators are consecutive jumps (2^64 steps) of a
+ * root generator initialized with the factory seed, so their sequences
+ * never overlap.
+ * 
+ * @author Sebastian Ventura
+ */
+
+public final class Xoroshiro128PlusPlusFactory extends AbstractRandGenFactory
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+	
+	private static final long serialVersionUID = -1593650183462701748L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+	
+	/** Root generator (created from seed when needed) */
+	
+	private Xoroshiro128PlusPlus root;
+	
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * Empty constructor.
+	 */
+	
+	public Xoroshiro128PlusPlusFactory() 
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------- Setting and getting properties
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Sets the seed and restarts the sequence of generators.
+	 * 
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	public synchronized void setSeed(int seed)
+	{
+		super.setSeed(seed);
+		root = null;
+	}
+	
+	/////////////////////////////////////////////////////////////////
+	// ------------------------- Implementing IRandGenFactory methods 
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public synchronized IRandGen createRandGen() 
+	{
+		if (root == null) {
+			root = new Xoroshiro128PlusPlus(SplitMix64.mix64(~((long) streamsSeed)));
+		}
+		return root.copyAndJump();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------- Overwriting AbstractRandGenFactory methods 
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	protected IRandGen createRandGen(SplitMix64 seeds) 
+	{
+		return new Xoroshiro128PlusPlus(seeds);
+	}
+}
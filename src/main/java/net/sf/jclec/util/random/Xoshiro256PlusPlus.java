@@ -0,0 +1,192 @@
+package net.sf.jclec.util.random;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * xoshiro256++ random generator, with a period of 2<SUP>256</SUP>-1. Its
+ * state is four 64 bits words, updated with xor, shift and rotate
+ * operations only. This is the general purpose generator described in</p>
+ *
+ * D. Blackman, S. Vigna, <CITE>Scrambled linear pseudorandom number
+ * generators</CITE>, ACM Transactions on Mathematical Software 47(4), 2021
+ * </p>
+ *
+ * The copyAndJump() method returns a copy of this generator and advances
+ * this one 2<SUP>128</SUP> steps, so it can be used to create up to
+ * 2<SUP>128</SUP> non-overlapping sequences.
+ *
+ * @author Sebastian Ventura
+ */
+
+public class Xoshiro256PlusPlus extends AbstractRandGen64
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -2880351629125087315L;
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Jump polynomial (2^128 steps) */
+
+	private static final long [] JUMP = {
+		0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL, 0x39abdc4529b1661cL
+	};
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Attributes
+	/////////////////////////////////////////////////////////////////
+
+	/** State words */
+
+	private long s0, s1, s2, s3;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that sets the state from a seed, expanded with SplitMix64
+	 * (as recommended by the authors).
+	 *
+	 * @param seed Generator seed
+	 */
+
+	public Xoshiro256PlusPlus(long seed)
+	{
+		this(new SplitMix64(seed));
+	}
+
+	/**
+	 * Constructor that sets the state.
+	 *
+	 * @param s0 First state word
+	 * @param s1 Second state word
+	 * @param s2 Third state word
+	 * @param s3 Fourth state word
+	 *
+	 * @throws IllegalArgumentException If all words are zero
+	 */
+
+	public Xoshiro256PlusPlus(long s0, long s1, long s2, long s3)
+	{
+		super();
+		if ((s0 | s1 | s2 | s3) == 0) {
+			throw new IllegalArgumentException("State must not be zero");
+		}
+		this.s0 = s0;
+		this.s1 = s1;
+		this.s2 = s2;
+		this.s3 = s3;
+	}
+
+	/**
+	 * Constructor that takes the state from a seeds source.
+	 *
+	 * @param seeds Source of seeds
+	 */
+
+	Xoshiro256PlusPlus(SplitMix64 seeds)
+	{
+		this(seeds.nextLong(), seeds.nextLong(), seeds.nextLong(), seeds.nextLong());
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// AbstractRandGen64 methods
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public long nextLong()
+	{
+		long result = Long.rotateLeft(s0 + s3, 23) + s0;
+		long t = s1 << 17;
+		s2 ^= s0;
+		s3 ^= s1;
+		s1 ^= s2;
+		s0 ^= s3;
+		s2 ^= t;
+		s3 = Long.rotateLeft(s3, 45);
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void nextLongs(long [] values, int n)
+	{
+		long a = s0, b = s1, c = s2, d = s3;
+		for (int i=0; i<n; i++) {
+			values[i] = Long.rotateLeft(a + d, 23) + a;
+			long t = b << 17;
+			c ^= a;
+			d ^= b;
+			b ^= c;
+			a ^= d;
+			c ^= t;
+			d = Long.rotateLeft(d, 45);
+		}
+		s0 = a;
+		s1 = b;
+		s2 = c;
+		s3 = d;
+	}
+
+	// Xoshiro256PlusPlus methods
+
+	/**
+	 * Returns a copy of this generator, and advances this one 2^128 steps.
+	 *
+	 * @return A generator with the former state of this one
+	 */
+
+	public Xoshiro256PlusPlus copyAndJump()
+	{
+		Xoshiro256PlusPlus copy = new Xoshiro256PlusPlus(s0, s1, s2, s3);
+		long j0 = 0, j1 = 0, j2 = 0, j3 = 0;
+		for (long word : JUMP) {
+			for (int b=0; b<64; b++) {
+				if ((word & (1L << b)) != 0) {
+					j0 ^= s0;
+					j1 ^= s1;
+					j2 ^= s2;
+					j3 ^= s3;
+				}
+				nextLong();
+			}
+		}
+		s0 = j0;
+		s1 = j1;
+		s2 = j2;
+		s3 = j3;
+		return copy;
+	}
+
+	// java.lang.Object methods
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof Xoshiro256PlusPlus) {
+			Xoshiro256PlusPlus o = (Xoshiro256PlusPlus) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(s0, o.s0);
+			eb.append(s1, o.s1);
+			eb.append(s2, o.s2);
+			eb.append(s3, o.s3);
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+}
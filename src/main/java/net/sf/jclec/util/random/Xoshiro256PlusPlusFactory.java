@@ -0,0 +1,86 @@
+package net.sf.jclec.util.random;
+
+/**
+ * xoshiro256++ factory. Generators are consecutive jumps (2^128 steps) of a
+ * root generator initialized with the factory seed, so their sequences
+ * never overlap.
+ * 
+ * @author Sebastian Ventura
+ */
+
+public final class Xoshiro256PlusPlusFactory extends AbstractRandGenFactory
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+	
+	private static final long serialVersionUID = 7410284613950275187L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+	
+	/** Root generator (created from seed when needed) */
+	
+	private Xoshiro256PlusPlus root;
+	
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * Empty constructor.
+	 */
+	
+	public Xoshiro256PlusPlusFactory() 
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------- Setting and getting properties
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Sets the seed and restarts the sequence of generators.
+	 * 
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	public synchronized void setSeed(int seed)
+	{
+		super.setSeed(seed);
+		root = null;
+	}
+	
+	/////////////////////////////////////////////////////////////////
+	// ------------------------- Implementing IRandGenFactory methods 
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public synchronized IRandGen createRandGen() 
+	{
+		if (root == null) {
+			root = new Xoshiro256PlusPlus(SplitMix64.mix64(~((long) streamsSeed)));
+		}
+		return root.copyAndJump();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------- Overwriting AbstractRandGenFactory methods 
+	/////////////////////////////////////////////////////////////////
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	
+	@Override
+	protected IRandGen createRandGen(SplitMix64 seeds) 
+	{
+		return new Xoshiro256PlusPlus(seeds);
+	}
+}
@@ -0,0 +1,124 @@
+package net.sf.jclec;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.configuration.XMLConfiguration;
+
+public class ExperimentBuilderTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Attributes
+	/////////////////////////////////////////////////////////////////
+
+	/** Experiment file */
+
+	private File jobFile;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ExperimentBuilderTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * All combinations are built, in order, without writing files
+	 */
+
+	public void testExpand() throws Exception
+	{
+		write("<experiment>"
+				+ "<process algorithm-type=\"SG\">"
+				+ "<rand-gen-factory type=\"RanecuFactory\" seed=\"multi\"><seed>1</seed><seed>2</seed><seed>3</seed></rand-gen-factory>"
+				+ "<mutator multi=\"true\">"
+				+ "<mutator type=\"A\" mut-prob=\"multi\"><mut-prob>0.1</mut-prob><mut-prob>0.2</mut-prob></mutator>"
+				+ "<mutator type=\"B\" mut-prob=\"0.5\"/>"
+				+ "</mutator>"
+				+ "</process>"
+				+ "</experiment>");
+		List<String> names = new ArrayList<String>();
+		List<String> values = new ArrayList<String>();
+		for (XMLConfiguration configuration : new ExperimentBuilder().expandExperiment(jobFile.getPath())) {
+			names.add(configuration.getFileName());
+			values.add(configuration.getString("process.mutator[@type]")
+					+ configuration.getString("process.mutator[@mut-prob]")
+					+ "/" + configuration.getString("process.rand-gen-factory[@seed]"));
+			assertEquals(0, configuration.getList("process.rand-gen-factory.seed").size());
+		}
+		String name = jobFile.getName();
+		assertEquals(9, names.size());
+		assertEquals(name + "_0_0_0", names.get(0));
+		assertEquals("A0.1/1", values.get(0));
+		assertEquals(name + "_0_0_1", names.get(1));
+		assertEquals("A0.2/1", values.get(1));
+		assertEquals(name + "_0_1_0", names.get(2));
+		assertEquals("A0.1/2", values.get(2));
+		assertEquals(name + "_1_2", names.get(8));
+		assertEquals("B0.5/3", values.get(8));
+	}
+
+	/**
+	 * Expanded configurations are written on request
+	 */
+
+	public void testWrite() throws Exception
+	{
+		write("<experiment><process population-size=\"multi\">"
+				+ "<population-size>10</population-size><population-size>20</population-size>"
+				+ "</process></experiment>");
+		ExperimentBuilder builder = new ExperimentBuilder();
+		File directory = jobFile.getParentFile();
+		List<File> files = new ArrayList<File>();
+		for (XMLConfiguration configuration : builder.expandExperiment(jobFile.getPath())) {
+			files.add(builder.writeExperiment(configuration, directory));
+		}
+		try {
+			assertEquals(2, files.size());
+			assertEquals(20, new XMLConfiguration(files.get(1)).getInt("process[@population-size]"));
+		}
+		finally {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected void setUp() throws IOException
+	{
+		jobFile = File.createTempFile("jclec", ".xml");
+	}
+
+	@Override
+	protected void tearDown()
+	{
+		jobFile.delete();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private void write(String xml) throws IOException
+	{
+		FileWriter out = new FileWriter(jobFile);
+		out.write(xml);
+		out.close();
+	}
+}
@@ -0,0 +1,172 @@
+package net.sf.jclec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+
+public class ExperimentSchedulerTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Attributes
+	/////////////////////////////////////////////////////////////////
+
+	/** Temporary directory */
+
+	private File directory;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ExperimentSchedulerTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Longest jobs are executed first and each job writes its result
+	 */
+
+	public void testOrder() throws Exception
+	{
+		List<String> jobs = new ArrayList<String>();
+		jobs.add(writeJob("short", 10));
+		jobs.add(writeJob("long", 30));
+		jobs.add(writeJob("medium", 20));
+		ByteArrayOutputStream messages = new ByteArrayOutputStream();
+		ExperimentScheduler scheduler = createScheduler(jobs, 1);
+		scheduler.setProgress(new PrintStream(messages, true));
+		scheduler.run();
+		assertEquals(3, scheduler.getNumberOfFinished());
+		String output = messages.toString();
+		assertTrue(output.indexOf("long") < output.indexOf("medium"));
+		assertTrue(output.indexOf("medium") < output.indexOf("short"));
+		Properties result = readResult(scheduler.resultFile(jobs.get(1)));
+		assertEquals(jobs.get(1), result.getProperty("job"));
+		assertEquals("30", result.getProperty("generations"));
+		assertNotNull(result.getProperty("best-fitness"));
+	}
+
+	/**
+	 * Failed jobs are reported, and only them are executed again
+	 */
+
+	public void testResume() throws Exception
+	{
+		List<String> jobs = new ArrayList<String>();
+		for (int i=0; i<4; i++) {
+			jobs.add(writeJob("job" + i, 10));
+		}
+		jobs.add(new File(directory, "missing.xml").getPath());
+		ExperimentScheduler scheduler = createScheduler(jobs, 3);
+		scheduler.run();
+		assertEquals(4, scheduler.getNumberOfFinished());
+		assertEquals(1, scheduler.getNumberOfFailed());
+		assertFalse(scheduler.resultFile(jobs.get(4)).exists());
+		// Resume
+		assertTrue(scheduler.resultFile(jobs.get(2)).delete());
+		scheduler.run();
+		assertEquals(3, scheduler.getNumberOfSkipped());
+		assertEquals(1, scheduler.getNumberOfFinished());
+		assertEquals(1, scheduler.getNumberOfFailed());
+		assertTrue(scheduler.resultFile(jobs.get(2)).exists());
+		// No temporary files are left
+		for (File file : directory.listFiles()) {
+			assertFalse(file.getName().endsWith(".tmp"));
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected void setUp() throws IOException
+	{
+		directory = File.createTempFile("jclec", "");
+		directory.delete();
+		directory.mkdir();
+	}
+
+	@Override
+	protected void tearDown()
+	{
+		delete(directory);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private ExperimentScheduler createScheduler(List<String> jobs, int workers)
+	{
+		ExperimentScheduler scheduler = new ExperimentScheduler(jobs);
+		scheduler.setNumberOfWorkers(workers);
+		scheduler.setResultsDirectory(directory);
+		scheduler.setProgress(null);
+		return scheduler;
+	}
+
+	private String writeJob(String name, int generations) throws IOException
+	{
+		File file = new File(directory, name + ".xml");
+		FileWriter out = new FileWriter(file);
+		out.write("<experiment>\n"
+				+ "<process algorithm-type=\"net.sf.jclec.algorithm.classic.SGE\">\n"
+				+ "<rand-gen-factory type=\"net.sf.jclec.util.random.RanecuFactory\" seed=\"1000\"/>\n"
+				+ "<population-size>20</population-size>\n"
+				+ "<max-of-generations>" + generations + "</max-of-generations>\n"
+				+ "<species type=\"net.sf.jclec.realarray.RealArrayIndividualSpecies\">\n"
+				+ "<genotype-schema>\n"
+				+ "<locus type=\"net.sf.jclec.util.range.Interval\" left=\"-5.12\" right=\"5.12\" closure=\"closed-closed\"/>\n"
+				+ "<locus type=\"net.sf.jclec.util.range.Interval\" left=\"-5.12\" right=\"5.12\" closure=\"closed-closed\"/>\n"
+				+ "</genotype-schema>\n"
+				+ "</species>\n"
+				+ "<evaluator type=\"net.sf.jclec.realarray.SphereEvaluator\"/>\n"
+				+ "<provider type=\"net.sf.jclec.realarray.RealArrayCreator\"/>\n"
+				+ "<parents-selector type=\"net.sf.jclec.selector.TournamentSelector\" tournament-size=\"2\"/>\n"
+				+ "<recombinator type=\"net.sf.jclec.realarray.rec.BLXAlphaCrossover\" alpha=\"0.5\" rec-prob=\"0.9\"/>\n"
+				+ "<mutator type=\"net.sf.jclec.realarray.mut.RandomMutator\" locus-mut-prob=\"0.1\" mut-prob=\"0.1\"/>\n"
+				+ "</process>\n"
+				+ "</experiment>\n");
+		out.close();
+		return file.getPath();
+	}
+
+	private Properties readResult(File file) throws IOException
+	{
+		Properties properties = new Properties();
+		InputStream in = new FileInputStream(file);
+		try {
+			properties.load(in);
+		}
+		finally {
+			in.close();
+		}
+		return properties;
+	}
+
+	private static void delete(File file)
+	{
+		File [] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
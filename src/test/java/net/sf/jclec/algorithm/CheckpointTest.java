@@ -0,0 +1,166 @@
+package net.sf.jclec.algorithm;
+
+import java.io.File;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.algorithm.classic.SS;
+
+import net.sf.jclec.listener.CheckpointListener;
+
+import net.sf.jclec.realarray.RealArrayCreator;
+import net.sf.jclec.realarray.RealArrayIndividualSpecies;
+import net.sf.jclec.realarray.SphereEvaluator;
+import net.sf.jclec.realarray.mut.RandomMutator;
+import net.sf.jclec.realarray.rec.BLXAlphaCrossover;
+
+import net.sf.jclec.selector.TournamentSelector;
+
+import net.sf.jclec.util.random.RanecuFactory;
+import net.sf.jclec.util.range.Closure;
+import net.sf.jclec.util.range.IRange;
+import net.sf.jclec.util.range.Interval;
+
+public class CheckpointTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Attributes
+	/////////////////////////////////////////////////////////////////
+
+	/** Checkpoint file */
+
+	private File file;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public CheckpointTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * A resumed algorithm ends exactly as the uninterrupted one
+	 */
+
+	public void testResume() throws Exception
+	{
+		PopulationAlgorithm original = createAlgorithm();
+		original.addListener(createListener());
+		original.execute();
+		// Last checkpoint is taken in generation 20
+		PopulationAlgorithm resumed = Checkpoint.read(file);
+		assertEquals(20, resumed.getGeneration());
+		resumed.execute();
+		assertEquals(30, resumed.getGeneration());
+		assertSamePopulation(original, resumed);
+	}
+
+	/**
+	 * A configured algorithm is replaced by its checkpoint, keeping its
+	 * listeners
+	 */
+
+	public void testResumeConfigured() throws Exception
+	{
+		PopulationAlgorithm original = createAlgorithm();
+		original.execute();
+		// No checkpoint
+		file.delete();
+		PopulationAlgorithm configured = createAlgorithm();
+		CheckpointListener listener = createListener();
+		configured.addListener(listener);
+		assertSame(configured, Checkpoint.resume(configured));
+		// Write a checkpoint in generation 10
+		configured.setMaxOfGenerations(11);
+		configured.execute();
+		configured = createAlgorithm();
+		configured.addListener(listener);
+		PopulationAlgorithm resumed = Checkpoint.resume(configured);
+		assertNotSame(configured, resumed);
+		assertEquals(10, resumed.getGeneration());
+		// The restored algorithm keeps its own stopping criteria
+		resumed.setMaxOfGenerations(30);
+		resumed.execute();
+		assertSamePopulation(original, resumed);
+		// Listeners were moved: checkpoint of generation 20 was written
+		assertEquals(20, Checkpoint.read(file).getGeneration());
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected void setUp() throws IOException
+	{
+		file = File.createTempFile("jclec", ".ckp");
+	}
+
+	@Override
+	protected void tearDown()
+	{
+		file.delete();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private CheckpointListener createListener()
+	{
+		CheckpointListener listener = new CheckpointListener();
+		listener.setCheckpointFile(file);
+		listener.setCheckpointFrequency(10);
+		return listener;
+	}
+
+	private void assertSamePopulation(PopulationAlgorithm expected, PopulationAlgorithm actual)
+	{
+		assertEquals(expected.getInhabitants().size(), actual.getInhabitants().size());
+		for (int i=0; i<expected.getInhabitants().size(); i++) {
+			IIndividual e = expected.getInhabitants().get(i);
+			IIndividual a = actual.getInhabitants().get(i);
+			assertEquals(e, a);
+			assertEquals(e.getFitness(), a.getFitness());
+		}
+	}
+
+	private PopulationAlgorithm createAlgorithm()
+	{
+		SS algorithm = new SS();
+		RanecuFactory randGenFactory = new RanecuFactory();
+		randGenFactory.setSeed(1234);
+		algorithm.setRandGenFactory(randGenFactory);
+		IRange [] ranges = new IRange[4];
+		for (int i=0; i<ranges.length; i++) {
+			ranges[i] = new Interval(-5.12, 5.12, Closure.ClosedClosed);
+		}
+		algorithm.setSpecies(new RealArrayIndividualSpecies(ranges));
+		algorithm.setEvaluator(new SphereEvaluator());
+		algorithm.setProvider(new RealArrayCreator());
+		algorithm.setPopulationSize(20);
+		algorithm.setMaxOfGenerations(30);
+		algorithm.setMaxOfEvaluations(Integer.MAX_VALUE);
+		algorithm.setNumberOfParents(2);
+		TournamentSelector selector = new TournamentSelector();
+		selector.setTournamentSize(2);
+		algorithm.setParentsSelector(selector);
+		BLXAlphaCrossover recombinator = new BLXAlphaCrossover();
+		recombinator.setAlpha(0.5);
+		recombinator.setLocusRecProb(1.0);
+		algorithm.setRecombinator(recombinator);
+		RandomMutator mutator = new RandomMutator();
+		mutator.setLocusMutProb(0.1);
+		algorithm.setMutator(mutator);
+		return algorithm;
+	}
+}
@@ -0,0 +1,227 @@
+package net.sf.jclec.algorithm;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.AlgorithmEvent;
+import net.sf.jclec.IAlgorithmListener;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.algorithm.classic.SS;
+
+import net.sf.jclec.fitness.SimpleValueFitness;
+
+import net.sf.jclec.realarray.RealArrayCreator;
+import net.sf.jclec.realarray.RealArrayIndividual;
+import net.sf.jclec.realarray.RealArrayIndividualSpecies;
+import net.sf.jclec.realarray.SphereEvaluator;
+import net.sf.jclec.realarray.mut.RandomMutator;
+import net.sf.jclec.realarray.rec.BLXAlphaCrossover;
+
+import net.sf.jclec.selector.TournamentSelector;
+
+import net.sf.jclec.util.random.RanecuFactory;
+import net.sf.jclec.util.range.Closure;
+import net.sf.jclec.util.range.IRange;
+import net.sf.jclec.util.range.Interval;
+
+public class EvaluationQueueTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public EvaluationQueueTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Submitted batches are evaluated and returned with their parents
+	 */
+
+	public void testQueue()
+	{
+		EvaluationQueue queue = new EvaluationQueue(new SphereEvaluator(), 3);
+		Set<List<IIndividual>> submitted = new HashSet<List<IIndividual>>();
+		for (int i=0; i<3; i++) {
+			List<IIndividual> parents = createIndividuals(2, i);
+			submitted.add(parents);
+			queue.submit(parents, createIndividuals(4, i));
+		}
+		assertTrue(queue.isFull());
+		try {
+			queue.submit(createIndividuals(1, 0), createIndividuals(1, 0));
+			fail("Submission to a full queue");
+		}
+		catch (IllegalStateException e) {
+			// Expected
+		}
+		for (int i=0; i<3; i++) {
+			EvaluationQueue.Batch batch = queue.take();
+			assertTrue(submitted.remove(batch.getParents()));
+			for (IIndividual parent : batch.getParents()) {
+				assertNull(parent.getFitness());
+			}
+			for (IIndividual son : batch.getSons()) {
+				double [] genotype = ((RealArrayIndividual) son).getGenotype();
+				double expected = genotype[0]*genotype[0] + genotype[1]*genotype[1];
+				assertEquals(expected, ((SimpleValueFitness) son.getFitness()).getValue());
+			}
+		}
+		assertEquals(0, queue.size());
+		assertEquals(3, queue.getNumberOfBatches());
+		assertEquals(12, queue.getNumberOfIndividuals());
+		assertTrue(queue.getThroughput() > 0.0);
+		assertTrue(queue.getAverageWaitTime() >= 0.0);
+		try {
+			queue.take();
+			fail("Take from an empty queue");
+		}
+		catch (IllegalStateException e) {
+			// Expected
+		}
+		queue.dispose();
+	}
+
+	/**
+	 * If evaluation is slower than breeding, the algorithm waits in take()
+	 */
+
+	public void testWaitTime()
+	{
+		EvaluationQueue queue = new EvaluationQueue(new SlowEvaluator(), 2);
+		for (int i=0; i<6; i++) {
+			while (!queue.isFull()) {
+				queue.submit(createIndividuals(2, i), createIndividuals(1, i));
+			}
+			queue.take();
+		}
+		// Half of the batches are taken as soon as they are evaluated
+		assertTrue(queue.getAverageWaitTime() >= 0.25 * SlowEvaluator.DELAY);
+		queue.dispose();
+	}
+
+	/**
+	 * Steady state algorithm with asynchronous evaluation
+	 */
+
+	public void testAsynchronousSS()
+	{
+		SS algorithm = new SS();
+		RanecuFactory randGenFactory = new RanecuFactory();
+		randGenFactory.setSeed(123456789);
+		algorithm.setRandGenFactory(randGenFactory);
+		IRange [] ranges = new IRange[4];
+		for (int i=0; i<ranges.length; i++) {
+			ranges[i] = new Interval(-5.12, 5.12, Closure.ClosedClosed);
+		}
+		algorithm.setSpecies(new RealArrayIndividualSpecies(ranges));
+		algorithm.setEvaluator(new SphereEvaluator());
+		algorithm.setProvider(new RealArrayCreator());
+		algorithm.setPopulationSize(20);
+		algorithm.setMaxOfGenerations(300);
+		algorithm.setMaxOfEvaluations(Integer.MAX_VALUE);
+		algorithm.setNumberOfParents(2);
+		TournamentSelector selector = new TournamentSelector();
+		selector.setTournamentSize(2);
+		algorithm.setParentsSelector(selector);
+		BLXAlphaCrossover recombinator = new BLXAlphaCrossover();
+		recombinator.setAlpha(0.5);
+		recombinator.setLocusRecProb(1.0);
+		algorithm.setRecombinator(recombinator);
+		RandomMutator mutator = new RandomMutator();
+		mutator.setLocusMutProb(0.1);
+		algorithm.setMutator(mutator);
+		algorithm.setEvaluationsInFlight(4);
+		final double [] best = new double[2];
+		algorithm.addListener(new IAlgorithmListener() {
+
+			private static final long serialVersionUID = 1L;
+
+			public void algorithmStarted(AlgorithmEvent event)
+			{
+				best[0] = bestFitness(((PopulationAlgorithm) event.getAlgorithm()).getInhabitants());
+			}
+
+			public void iterationCompleted(AlgorithmEvent event)
+			{
+			}
+
+			public void algorithmFinished(AlgorithmEvent event)
+			{
+				best[1] = bestFitness(((PopulationAlgorithm) event.getAlgorithm()).getInhabitants());
+			}
+
+			public void algorithmTerminated(AlgorithmEvent event)
+			{
+			}
+		});
+		algorithm.execute();
+		assertEquals(300, algorithm.getGeneration());
+		assertEquals(20, algorithm.getInhabitants().size());
+		for (IIndividual ind : algorithm.getInhabitants()) {
+			assertNotNull(ind.getFitness());
+		}
+		EvaluationQueue queue = algorithm.getEvaluationQueue();
+		assertEquals(300, queue.getNumberOfBatches());
+		assertTrue(queue.getThroughput() > 0.0);
+		assertTrue(algorithm.getEvaluator().getNumberOfEvaluations() >= 20 + queue.getNumberOfIndividuals());
+		assertTrue(best[1] < best[0]);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private List<IIndividual> createIndividuals(int size, int offset)
+	{
+		List<IIndividual> inds = new ArrayList<IIndividual>();
+		for (int i=0; i<size; i++) {
+			inds.add(new RealArrayIndividual(new double[] {0.5*(i+offset), -0.25*i}));
+		}
+		return inds;
+	}
+
+	private static double bestFitness(List<IIndividual> inds)
+	{
+		double result = Double.MAX_VALUE;
+		for (IIndividual ind : inds) {
+			result = Math.min(result, ((SimpleValueFitness) ind.getFitness()).getValue());
+		}
+		return result;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private classes
+	/////////////////////////////////////////////////////////////////
+
+	/** Takes DELAY milliseconds to evaluate each individual */
+
+	private static class SlowEvaluator extends SphereEvaluator
+	{
+		private static final long serialVersionUID = 1L;
+
+		static final long DELAY = 40;
+
+		@Override
+		public void evaluate(IIndividual ind)
+		{
+			try {
+				Thread.sleep(DELAY);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			super.evaluate(ind);
+		}
+	}
+}
@@ -0,0 +1,298 @@
+package net.sf.jclec.algorithm.island;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.algorithm.PopulationAlgorithm;
+import net.sf.jclec.algorithm.classic.SS;
+import net.sf.jclec.algorithm.multiobjective.NSGA2;
+
+import net.sf.jclec.base.AbstractEvaluator;
+
+import net.sf.jclec.fitness.CompositeValueFitness;
+import net.sf.jclec.fitness.ISimpleFitness;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+
+import net.sf.jclec.realarray.RealArrayCreator;
+import net.sf.jclec.realarray.RealArrayIndividual;
+import net.sf.jclec.realarray.RealArrayIndividualSpecies;
+import net.sf.jclec.realarray.SphereEvaluator;
+import net.sf.jclec.realarray.mut.RandomMutator;
+import net.sf.jclec.realarray.rec.ArithmeticCrossover;
+import net.sf.jclec.realarray.rec.BLXAlphaCrossover;
+
+import net.sf.jclec.selector.TournamentSelector;
+
+import net.sf.jclec.util.random.Ranecu;
+import net.sf.jclec.util.random.RanecuFactory;
+import net.sf.jclec.util.range.Closure;
+import net.sf.jclec.util.range.IRange;
+import net.sf.jclec.util.range.Interval;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+
+public class IslandModelTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public IslandModelTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Destinations of all topologies
+	 */
+
+	public void testTopologies()
+	{
+		assertEquals("[3]", Arrays.toString(new RingTopology().destinations(2, 4, null)));
+		assertEquals("[0]", Arrays.toString(new RingTopology().destinations(3, 4, null)));
+		assertEquals("[]", Arrays.toString(new RingTopology().destinations(0, 1, null)));
+		assertEquals("[0, 1, 3]", Arrays.toString(new FullyConnectedTopology().destinations(2, 4, null)));
+		// 3x3 grid
+		TorusTopology torus = new TorusTopology();
+		assertEquals("[6, 3, 2, 1]", Arrays.toString(torus.destinations(0, 9, null)));
+		assertEquals("[1, 7, 3, 5]", Arrays.toString(torus.destinations(4, 9, null)));
+		// 2x2 grid (repeated neighbours are removed)
+		assertEquals("[2, 1]", Arrays.toString(torus.destinations(0, 4, null)));
+		// 2x3 grid
+		torus.setRows(2);
+		assertEquals("[4, 0, 2]", Arrays.toString(torus.destinations(1, 6, null)));
+		// Random destinations are different from each other and from source
+		RandomTopology random = new RandomTopology();
+		random.setNumberOfDestinations(3);
+		Ranecu randgen = new Ranecu(1234, 5678);
+		for (int i=0; i<100; i++) {
+			int [] destinations = random.destinations(i % 5, 5, randgen);
+			assertEquals(3, destinations.length);
+			for (int j=0; j<destinations.length; j++) {
+				assertTrue(destinations[j] != i % 5);
+				for (int k=0; k<j; k++) {
+					assertTrue(destinations[j] != destinations[k]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Islands with the same seed and different streams have independent
+	 * generators, and the migration stream doesn't change them
+	 */
+
+	public void testIslandStreams()
+	{
+		Set<Double> values = new HashSet<Double>();
+		for (int stream=0; stream<4; stream++) {
+			PopulationAlgorithm island = createIsland(stream);
+			for (int i=0; i<100; i++) {
+				assertTrue(values.add(island.createRandGen().raw()));
+			}
+		}
+		PopulationAlgorithm island = createIsland(0);
+		PopulationAlgorithm migrating = createIsland(0);
+		migrating.createRandGen(IslandModel.MIGRATION_STREAM).raw();
+		for (int i=0; i<10; i++) {
+			assertEquals(island.createRandGen().raw(), migrating.createRandGen().raw());
+		}
+	}
+
+	/**
+	 * Repeated islands of a configured model take different streams
+	 */
+
+	public void testConfigureStreams()
+	{
+		HierarchicalConfiguration settings = new HierarchicalConfiguration();
+		settings.addProperty("island[@type]", NSGA2.class.getName());
+		settings.addProperty("island.rand-gen-factory[@type]", RanecuFactory.class.getName());
+		settings.addProperty("island.rand-gen-factory[@seed]", 1000);
+		settings.addProperty("island.species[@type]", RealArrayIndividualSpecies.class.getName());
+		settings.addProperty("island.species.genotype-schema.locus[@type]", Interval.class.getName());
+		settings.addProperty("island.species.genotype-schema.locus[@left]", -5.12);
+		settings.addProperty("island.species.genotype-schema.locus[@right]", 5.12);
+		settings.addProperty("island.species.genotype-schema.locus[@closure]", "closed-closed");
+		settings.addProperty("island.evaluator[@type]", SphereEvaluator.class.getName());
+		settings.addProperty("island.provider[@type]", RealArrayCreator.class.getName());
+		settings.addProperty("island.population-size", 20);
+		settings.addProperty("island.max-of-generations", 10);
+		settings.addProperty("number-of-islands", 3);
+		IslandModel model = new IslandModel();
+		model.configure(settings);
+		assertEquals(3, model.getIslands().size());
+		Set<Double> values = new HashSet<Double>();
+		for (int i=0; i<3; i++) {
+			PopulationAlgorithm island = model.getIslands().get(i);
+			assertEquals(i, island.getRandGenStream());
+			assertTrue(values.add(island.createRandGen().raw()));
+		}
+	}
+
+	/**
+	 * Islands run concurrently and exchange migrants
+	 */
+
+	public void testExecute()
+	{
+		String [] topologies = {"ring", "torus", "random", "full"};
+		for (String name : topologies) {
+			IslandModel model = new IslandModel();
+			if (name.equals("torus")) {
+				model.setTopology(new TorusTopology());
+			}
+			else if (name.equals("random")) {
+				model.setTopology(new RandomTopology());
+			}
+			else if (name.equals("full")) {
+				model.setTopology(new FullyConnectedTopology());
+			}
+			for (int i=0; i<4; i++) {
+				Migrator migrator = new Migrator();
+				migrator.setMigrationInterval(10);
+				migrator.setNumberOfMigrants(2);
+				model.addIsland(createIsland(i), migrator);
+			}
+			model.execute();
+			// Each island migrates every 10 generations (except the last one)
+			assertEquals(4 * 9, model.getNumberOfMigrations());
+			for (PopulationAlgorithm island : model.getIslands()) {
+				assertEquals(100, island.getGeneration());
+				assertEquals(20, island.getInhabitants().size());
+				for (IIndividual ind : island.getInhabitants()) {
+					assertNotNull(ind.getFitness());
+				}
+			}
+			assertEquals(80, model.getInhabitants().size());
+		}
+	}
+
+	/**
+	 * NSGA2 islands rank immigrants before selecting parents
+	 */
+
+	public void testExecuteNSGA2()
+	{
+		IslandModel model = new IslandModel();
+		model.setTopology(new RingTopology());
+		for (int i=0; i<2; i++) {
+			Migrator migrator = new Migrator();
+			migrator.setMigrationInterval(5);
+			migrator.setNumberOfMigrants(2);
+			model.addIsland(createNSGA2Island(i), migrator);
+		}
+		model.execute();
+		assertEquals(2 * 5, model.getNumberOfMigrations());
+		for (PopulationAlgorithm island : model.getIslands()) {
+			assertEquals(30, island.getGeneration());
+			assertEquals(20, island.getInhabitants().size());
+			assertFalse(((NSGA2) island).gePareto().isEmpty());
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private PopulationAlgorithm createIsland(int stream)
+	{
+		SS algorithm = new SS();
+		algorithm.setRandGenStream(stream);
+		RanecuFactory randGenFactory = new RanecuFactory();
+		randGenFactory.setSeed(1000);
+		algorithm.setRandGenFactory(randGenFactory);
+		IRange [] ranges = new IRange[4];
+		for (int i=0; i<ranges.length; i++) {
+			ranges[i] = new Interval(-5.12, 5.12, Closure.ClosedClosed);
+		}
+		algorithm.setSpecies(new RealArrayIndividualSpecies(ranges));
+		algorithm.setEvaluator(new SphereEvaluator());
+		algorithm.setProvider(new RealArrayCreator());
+		algorithm.setPopulationSize(20);
+		algorithm.setMaxOfGenerations(100);
+		algorithm.setMaxOfEvaluations(Integer.MAX_VALUE);
+		algorithm.setNumberOfParents(2);
+		TournamentSelector selector = new TournamentSelector();
+		selector.setTournamentSize(2);
+		algorithm.setParentsSelector(selector);
+		BLXAlphaCrossover recombinator = new BLXAlphaCrossover();
+		recombinator.setAlpha(0.5);
+		recombinator.setLocusRecProb(1.0);
+		algorithm.setRecombinator(recombinator);
+		RandomMutator mutator = new RandomMutator();
+		mutator.setLocusMutProb(0.1);
+		algorithm.setMutator(mutator);
+		// Asynchronous evaluation keeps population size constant
+		algorithm.setEvaluationsInFlight(2);
+		return algorithm;
+	}
+
+	private PopulationAlgorithm createNSGA2Island(int stream)
+	{
+		NSGA2 algorithm = new NSGA2();
+		algorithm.setRandGenStream(stream);
+		RanecuFactory randGenFactory = new RanecuFactory();
+		randGenFactory.setSeed(1000);
+		algorithm.setRandGenFactory(randGenFactory);
+		IRange [] ranges = new IRange[] {new Interval(-10.0, 10.0, Closure.ClosedClosed)};
+		algorithm.setSpecies(new RealArrayIndividualSpecies(ranges));
+		algorithm.setMaximize(false);
+		algorithm.setEvaluator(new DistancesEvaluator());
+		algorithm.setProvider(new RealArrayCreator());
+		algorithm.setPopulationSize(20);
+		algorithm.setMaxOfGenerations(30);
+		algorithm.setMaxOfEvaluations(Integer.MAX_VALUE);
+		ArithmeticCrossover recombinator = new ArithmeticCrossover();
+		recombinator.setLambda(0.3);
+		recombinator.setLocusRecProb(1.0);
+		algorithm.setRecombinator(recombinator);
+		algorithm.setRecombinationProb(0.9);
+		RandomMutator mutator = new RandomMutator();
+		mutator.setLocusMutProb(1.0);
+		algorithm.setMutator(mutator);
+		algorithm.setMutationProb(0.1);
+		return algorithm;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Squared distances to 0 and 2 (two objectives).
+	 */
+
+	@SuppressWarnings("serial")
+	private static class DistancesEvaluator extends AbstractEvaluator
+	{
+		private static final Comparator<IFitness> COMPARATOR = new ValueFitnessComparator(true);
+
+		@Override
+		protected void evaluate(IIndividual ind)
+		{
+			double x = ((RealArrayIndividual) ind).getGenotype()[0];
+			ISimpleFitness [] components = new ISimpleFitness[2];
+			components[0] = new SimpleValueFitness(x * x);
+			components[1] = new SimpleValueFitness((x - 2.0) * (x - 2.0));
+			ind.setFitness(new CompositeValueFitness(components));
+		}
+
+		public Comparator<IFitness> getComparator()
+		{
+			return COMPARATOR;
+		}
+	}
+}
@@ -0,0 +1,243 @@
+package net.sf.jclec.algorithm.island;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.algorithm.PopulationAlgorithm;
+import net.sf.jclec.algorithm.classic.SS;
+
+import net.sf.jclec.binarray.BinArrayIndividual;
+import net.sf.jclec.fitness.CompositeFitness;
+import net.sf.jclec.fitness.ISimpleFitness;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+import net.sf.jclec.intarray.IntArrayIndividual;
+
+import net.sf.jclec.realarray.RealArrayCreator;
+import net.sf.jclec.realarray.RealArrayIndividual;
+import net.sf.jclec.realarray.RealArrayIndividualSpecies;
+import net.sf.jclec.realarray.SphereEvaluator;
+import net.sf.jclec.realarray.mut.RandomMutator;
+import net.sf.jclec.realarray.rec.BLXAlphaCrossover;
+
+import net.sf.jclec.selector.TournamentSelector;
+
+import net.sf.jclec.util.IndividualCodec;
+import net.sf.jclec.util.random.Ranecu;
+import net.sf.jclec.util.random.RanecuFactory;
+import net.sf.jclec.util.range.Closure;
+import net.sf.jclec.util.range.IRange;
+import net.sf.jclec.util.range.Interval;
+
+public class IslandWorkerTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public IslandWorkerTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Individuals are written and read back without changes
+	 */
+
+	public void testCodec() throws IOException
+	{
+		List<IIndividual> individuals = new ArrayList<IIndividual>();
+		individuals.add(null);
+		individuals.add(new RealArrayIndividual(new double [] {1.5, -2.25, 0}, new SimpleValueFitness(3.5)));
+		individuals.add(new IntArrayIndividual(new int [] {4, 0, -7}));
+		individuals.add(new BinArrayIndividual(new byte [] {1, 0, 0, 1},
+				new CompositeFitness(new ISimpleFitness [] {new SimpleValueFitness(1), new SimpleValueFitness(2)})));
+		// Serialized fitness
+		individuals.add(new RealArrayIndividual(new double [] {0.5}, new AcceptableFitness(0.5)));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		for (IIndividual ind : individuals) {
+			IndividualCodec.write(out, ind);
+		}
+		out.close();
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		for (IIndividual ind : individuals) {
+			IIndividual read = IndividualCodec.read(in);
+			if (ind == null) {
+				assertNull(read);
+			}
+			else {
+				assertEquals(ind, read);
+				assertEquals(ind.getFitness(), read.getFitness());
+				if (ind.getFitness() != null) {
+					assertEquals(ind.getFitness().getClass(), read.getFitness().getClass());
+				}
+			}
+		}
+		assertEquals(-1, in.read());
+	}
+
+	/**
+	 * Islands migrate through the coordinator and report their best
+	 */
+
+	public void testMigration() throws Exception
+	{
+		IslandCoordinator coordinator = new IslandCoordinator(3, new RingTopology(), new ValueFitnessComparator(true), null);
+		int port = coordinator.start();
+		InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+		final IslandWorker [] workers = new IslandWorker[3];
+		Thread [] threads = new Thread[3];
+		for (int i=0; i<workers.length; i++) {
+			Migrator migrator = new Migrator();
+			migrator.setMigrationInterval(10);
+			migrator.setNumberOfMigrants(2);
+			workers[i] = new IslandWorker(createIsland(i), migrator, i, address, IslandWorker.DEFAULT_TIMEOUT);
+			final IslandWorker worker = workers[i];
+			threads[i] = new Thread(new Runnable() {
+				public void run()
+				{
+					worker.run();
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(coordinator.awaitFinished(1000));
+		coordinator.dispose();
+		// Each island migrates every 10 generations (except the last one)
+		assertEquals(3 * 4, coordinator.getNumberOfMigrations());
+		IIndividual best = coordinator.getBestIndividual();
+		assertNotNull(best);
+		for (IslandWorker worker : workers) {
+			assertEquals(0, worker.getNumberOfFailures());
+			PopulationAlgorithm island = worker.getAlgorithm();
+			assertEquals(50, island.getGeneration());
+			assertEquals(20, island.getInhabitants().size());
+			for (IIndividual ind : island.getInhabitants()) {
+				assertTrue(value(ind.getFitness()) >= value(best.getFitness()));
+			}
+		}
+	}
+
+	/**
+	 * Islands go on without immigrants if the coordinator is unreachable
+	 */
+
+	public void testUnreachableCoordinator() throws Exception
+	{
+		IslandCoordinator coordinator = new IslandCoordinator(1, new RingTopology(), new ValueFitnessComparator(true), null);
+		int port = coordinator.start();
+		coordinator.dispose();
+		Migrator migrator = new Migrator();
+		migrator.setMigrationInterval(10);
+		IslandWorker worker = new IslandWorker(createIsland(0), migrator, 0,
+				new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 500);
+		worker.run();
+		assertEquals(50, worker.getAlgorithm().getGeneration());
+		// Four migrations and the final report
+		assertEquals(5, worker.getNumberOfFailures());
+	}
+
+	/**
+	 * Coordinator stops all islands when one of them reaches an acceptable
+	 * individual
+	 */
+
+	public void testStop() throws Exception
+	{
+		IslandCoordinator coordinator = new IslandCoordinator(2, new RingTopology(), new ValueFitnessComparator(true), new Ranecu(1, 2));
+		coordinator.start();
+		List<IIndividual> emigrants = new ArrayList<IIndividual>();
+		emigrants.add(new RealArrayIndividual(new double [] {1}, new SimpleValueFitness(1)));
+		assertTrue(coordinator.migrate(0, emigrants, emigrants.get(0)).isEmpty());
+		assertFalse(coordinator.isStopped());
+		IIndividual acceptable = new RealArrayIndividual(new double [] {0}, new AcceptableFitness(0));
+		List<IIndividual> immigrants = coordinator.migrate(1, new ArrayList<IIndividual>(), acceptable);
+		assertEquals(emigrants, immigrants);
+		assertTrue(coordinator.isStopped());
+		assertSame(acceptable, coordinator.getBestIndividual());
+		coordinator.dispose();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Auxiliary classes
+	/////////////////////////////////////////////////////////////////
+
+	/** Fitness not known by IndividualCodec (it is serialized) */
+
+	private static class AcceptableFitness extends SimpleValueFitness
+	{
+		private static final long serialVersionUID = 1L;
+
+		AcceptableFitness(double value)
+		{
+			super(value);
+		}
+
+		@Override
+		public boolean isAcceptable()
+		{
+			return true;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static double value(IFitness fitness)
+	{
+		return ((SimpleValueFitness) fitness).getValue();
+	}
+
+	private PopulationAlgorithm createIsland(int stream)
+	{
+		SS algorithm = new SS();
+		algorithm.setRandGenStream(stream);
+		RanecuFactory randGenFactory = new RanecuFactory();
+		randGenFactory.setSeed(1000);
+		algorithm.setRandGenFactory(randGenFactory);
+		IRange [] ranges = new IRange[4];
+		for (int i=0; i<ranges.length; i++) {
+			ranges[i] = new Interval(-5.12, 5.12, Closure.ClosedClosed);
+		}
+		algorithm.setSpecies(new RealArrayIndividualSpecies(ranges));
+		algorithm.setEvaluator(new SphereEvaluator());
+		algorithm.setProvider(new RealArrayCreator());
+		algorithm.setPopulationSize(20);
+		algorithm.setMaxOfGenerations(50);
+		algorithm.setMaxOfEvaluations(Integer.MAX_VALUE);
+		algorithm.setNumberOfParents(2);
+		TournamentSelector selector = new TournamentSelector();
+		selector.setTournamentSize(2);
+		algorithm.setParentsSelector(selector);
+		BLXAlphaCrossover recombinator = new BLXAlphaCrossover();
+		recombinator.setAlpha(0.5);
+		recombinator.setLocusRecProb(1.0);
+		algorithm.setRecombinator(recombinator);
+		RandomMutator mutator = new RandomMutator();
+		mutator.setLocusMutProb(0.1);
+		algorithm.setMutator(mutator);
+		algorithm.setEvaluationsInFlight(2);
+		return algorithm;
+	}
+}
@@ -0,0 +1,258 @@
+package net.sf.jclec.algorithm.multiobjective;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.base.AbstractEvaluator;
+
+import net.sf.jclec.fitness.CompositeValueFitness;
+import net.sf.jclec.fitness.ISimpleFitness;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+
+import net.sf.jclec.realarray.RealArrayCreator;
+import net.sf.jclec.realarray.RealArrayIndividual;
+import net.sf.jclec.realarray.RealArrayIndividualSpecies;
+import net.sf.jclec.realarray.mut.RandomMutator;
+import net.sf.jclec.realarray.rec.ArithmeticCrossover;
+
+import net.sf.jclec.selector.TournamentSelector;
+
+import net.sf.jclec.util.random.RanecuFactory;
+import net.sf.jclec.util.range.Closure;
+import net.sf.jclec.util.range.IRange;
+import net.sf.jclec.util.range.Interval;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+
+/**
+ * NSGA2 and SPEA2 executions, minimizing the distances to several points
+ * of the real line. Pareto optimal solutions are those between the first
+ * and the last point.
+ */
+
+public class MultiobjectiveTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public MultiobjectiveTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	public void testNSGA2() throws Exception
+	{
+		NSGA2 algorithm = new NSGA2();
+		algorithm.setMaximize(false);
+		configure(algorithm, 0.0, 2.0);
+		algorithm.execute();
+		assertParetoOptimal(algorithm.gePareto(), 0.0, 2.0);
+	}
+
+	public void testNSGA2ThreeObjectives() throws Exception
+	{
+		NSGA2 algorithm = new NSGA2();
+		algorithm.setMaximize(false);
+		algorithm.setNumberOfObjectives(3);
+		configure(algorithm, 0.0, 2.0, 4.0);
+		algorithm.execute();
+		assertParetoOptimal(algorithm.gePareto(), 0.0, 4.0);
+	}
+
+	public void testSPEA2() throws Exception
+	{
+		SPEA2 algorithm = new SPEA2();
+		algorithm.setExternalPopulationSize(20);
+		algorithm.setKValue(1);
+		configure(algorithm, 0.0, 2.0);
+		TournamentSelector selector = new TournamentSelector();
+		selector.setTournamentSize(2);
+		algorithm.setParentsSelector(selector);
+		algorithm.execute();
+		assertParetoOptimal(algorithm.geExternalPopulation(), 0.0, 2.0);
+	}
+
+	/**
+	 * Each NSGA2 has its own Pareto comparator (several NSGA2 islands run
+	 * at the same time)
+	 */
+
+	public void testParetoComparator()
+	{
+		NSGA2 first = new NSGA2();
+		first.setNumberOfObjectives(2);
+		NSGA2 second = new NSGA2();
+		second.setNumberOfObjectives(3);
+		assertEquals(2, first.paretoComparator.getComponentComparators().length);
+		assertEquals(3, second.paretoComparator.getComponentComparators().length);
+	}
+
+	/**
+	 * Without recombinator and mutator, doGeneration() does nothing (even 
+	 * if their probabilities are set)
+	 */
+
+	public void testGenerationWithoutOperators()
+	{
+		NSGA2 algorithm = new NSGA2();
+		algorithm.setRandGenFactory(new RanecuFactory());
+		algorithm.doGeneration();
+		algorithm.setRecombinationProb(0.9);
+		algorithm.setMutationProb(0.1);
+		algorithm.doGeneration();
+		assertEquals(0.9, algorithm.getRecombinator().getRecProb(), 0);
+		assertEquals(0.1, algorithm.getMutator().getMutProb(), 0);
+	}
+
+	/**
+	 * With only one operator, doGeneration() breeds with it
+	 */
+
+	public void testGenerationWithMutator() throws Exception
+	{
+		NSGA2 algorithm = new NSGA2();
+		algorithm.setMaximize(false);
+		configureProblem(algorithm, 0.0, 2.0);
+		algorithm.setMutationProb(1.0);
+		RandomMutator mutator = new RandomMutator();
+		mutator.setLocusMutProb(1.0);
+		algorithm.setMutator(mutator);
+		algorithm.execute();
+		assertNull(algorithm.getRecombinator());
+		// Initial population and 30 generations of mutated sons
+		assertEquals(40 * 31, algorithm.getEvaluator().getNumberOfEvaluations());
+	}
+
+	/**
+	 * Genetic operators (and their probabilities) are read from configuration
+	 */
+
+	public void testOperatorsSettings()
+	{
+		HierarchicalConfiguration settings = new HierarchicalConfiguration();
+		settings.addProperty("recombinator[@type]", ArithmeticCrossover.class.getName());
+		settings.addProperty("recombinator[@rec-prob]", 0.9);
+		settings.addProperty("recombinator[@lambda]", 0.3);
+		settings.addProperty("mutator[@type]", RandomMutator.class.getName());
+		settings.addProperty("mutator[@mut-prob]", 0.1);
+		SPEA2 algorithm = new SPEA2();
+		algorithm.setRandGenFactory(new RanecuFactory());
+		algorithm.setRecombinatorSettings(settings);
+		algorithm.setMutatorSettings(settings);
+		assertEquals(0.9, algorithm.getRecombinator().getRecProb(), 0);
+		assertEquals(0.3, ((ArithmeticCrossover) algorithm.getRecombinator().getDecorated()).getLambda(), 0);
+		assertEquals(0.1, algorithm.getMutator().getMutProb(), 0);
+		assertTrue(algorithm.getMutator().getDecorated() instanceof RandomMutator);
+	}
+
+	/**
+	 * SPEA2 fills the archive with the best dominated individuals first,
+	 * so sortPopulation() sorts by increasing fitness
+	 */
+
+	public void testSortPopulation()
+	{
+		List<IIndividual> source = new ArrayList<IIndividual>();
+		for (double value : new double [] {2.5, 0.5, 3.0, 1.0}) {
+			source.add(new RealArrayIndividual(new double [] {value}, new SimpleValueFitness(value)));
+		}
+		List<IIndividual> sorted = new SPEA2().sortPopulation(source);
+		assertEquals(source.size(), sorted.size());
+		for (int i=1; i<sorted.size(); i++) {
+			double previous = ((SimpleValueFitness) sorted.get(i-1).getFitness()).getValue();
+			double current = ((SimpleValueFitness) sorted.get(i).getFitness()).getValue();
+			assertTrue(previous <= current);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private void configure(MultiobjectiveAlgorithm algorithm, double... points)
+	{
+		configureProblem(algorithm, points);
+		// Generational replacement: two sons per litter
+		ArithmeticCrossover recombinator = new ArithmeticCrossover();
+		recombinator.setLambda(0.3);
+		recombinator.setLocusRecProb(1.0);
+		RandomMutator mutator = new RandomMutator();
+		mutator.setLocusMutProb(1.0);
+		algorithm.setRecombinator(recombinator);
+		algorithm.setRecombinationProb(0.9);
+		algorithm.setMutator(mutator);
+		algorithm.setMutationProb(0.1);
+	}
+
+	private void configureProblem(MultiobjectiveAlgorithm algorithm, double... points)
+	{
+		RanecuFactory randGenFactory = new RanecuFactory();
+		randGenFactory.setSeed(1234);
+		algorithm.setRandGenFactory(randGenFactory);
+		IRange [] ranges = new IRange[] {new Interval(-10.0, 10.0, Closure.ClosedClosed)};
+		algorithm.setSpecies(new RealArrayIndividualSpecies(ranges));
+		algorithm.setEvaluator(new DistancesEvaluator(points));
+		algorithm.setProvider(new RealArrayCreator());
+		algorithm.setPopulationSize(40);
+		algorithm.setMaxOfGenerations(30);
+		algorithm.setMaxOfEvaluations(Integer.MAX_VALUE);
+	}
+
+	private void assertParetoOptimal(List<IIndividual> front, double from, double to)
+	{
+		assertTrue(front.size() > 1);
+		for (IIndividual ind : front) {
+			double x = ((RealArrayIndividual) ind).getGenotype()[0];
+			assertTrue("Dominated solution: " + x, from - 1.e-2 <= x && x <= to + 1.e-2);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Squared distances to several points (one objective per point).
+	 */
+
+	@SuppressWarnings("serial")
+	private static class DistancesEvaluator extends AbstractEvaluator
+	{
+		private static final Comparator<IFitness> COMPARATOR = new ValueFitnessComparator(true);
+
+		private final double [] points;
+
+		DistancesEvaluator(double [] points)
+		{
+			this.points = points;
+		}
+
+		@Override
+		protected void evaluate(IIndividual ind)
+		{
+			double x = ((RealArrayIndividual) ind).getGenotype()[0];
+			ISimpleFitness [] components = new ISimpleFitness[points.length];
+			for (int i=0; i<points.length; i++) {
+				components[i] = new SimpleValueFitness((x - points[i]) * (x - points[i]));
+			}
+			ind.setFitness(new CompositeValueFitness(components));
+		}
+
+		public Comparator<IFitness> getComparator()
+		{
+			return COMPARATOR;
+		}
+	}
+}
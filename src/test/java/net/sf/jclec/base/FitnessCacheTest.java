@@ -0,0 +1,133 @@
+package net.sf.jclec.base;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.binarray.BinArrayIndividual;
+import net.sf.jclec.exprtree.ExprTree;
+import net.sf.jclec.exprtree.ExprTreeIndividual;
+import net.sf.jclec.exprtree.fun.Add;
+import net.sf.jclec.exprtree.fun.X;
+import net.sf.jclec.exprtree.fun.Y;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.intarray.IntArrayIndividual;
+import net.sf.jclec.realarray.RealArrayIndividual;
+import net.sf.jclec.realarray.SphereEvaluator;
+
+import org.apache.commons.configuration.BaseConfiguration;
+
+public class FitnessCacheTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public FitnessCacheTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Equal individuals have the same hash code, whatever their fitness
+	 */
+
+	public void testHashCode()
+	{
+		assertEquals(new BinArrayIndividual(new byte[] {1, 0, 1}).hashCode(),
+				new BinArrayIndividual(new byte[] {1, 0, 1}, new SimpleValueFitness(1.0)).hashCode());
+		assertEquals(new IntArrayIndividual(new int[] {3, 2, 1}).hashCode(),
+				new IntArrayIndividual(new int[] {3, 2, 1}, new SimpleValueFitness(1.0)).hashCode());
+		assertEquals(new RealArrayIndividual(new double[] {0.5, 1.5}).hashCode(),
+				new RealArrayIndividual(new double[] {0.5, 1.5}, new SimpleValueFitness(1.0)).hashCode());
+		ExprTreeIndividual one = new ExprTreeIndividual(tree());
+		ExprTreeIndividual other = new ExprTreeIndividual(tree(), new SimpleValueFitness(1.0));
+		assertEquals(one, other);
+		assertEquals(one.hashCode(), other.hashCode());
+		assertEquals(one.hashCode(), one.copy().hashCode());
+	}
+
+	/**
+	 * Individuals with cached genotypes are not evaluated again
+	 */
+
+	public void testEvaluate()
+	{
+		SphereEvaluator evaluator = new SphereEvaluator();
+		BaseConfiguration settings = new BaseConfiguration();
+		settings.addProperty("fitness-cache[@size]", 100);
+		evaluator.configure(settings);
+		assertNotNull(evaluator.getFitnessCache());
+		// First batch
+		evaluator.evaluate(individuals(0, 10));
+		assertEquals(10, evaluator.getNumberOfEvaluations());
+		// Second batch shares five genotypes with the first one
+		List<IIndividual> inds = individuals(5, 15);
+		evaluator.evaluate(inds);
+		assertEquals(15, evaluator.getNumberOfEvaluations());
+		assertEquals(5, evaluator.getFitnessCache().getHits());
+		assertEquals(15, evaluator.getFitnessCache().getMisses());
+		// Cached fitnesses are right (and not shared)
+		for (IIndividual ind : inds) {
+			double [] genotype = ((RealArrayIndividual) ind).getGenotype();
+			assertEquals(genotype[0]*genotype[0], ((SimpleValueFitness) ind.getFitness()).getValue());
+		}
+		assertNotSame(inds.get(0).getFitness(), inds.get(1).getFitness());
+	}
+
+	/**
+	 * Least recently used and old entries are evicted
+	 */
+
+	public void testEviction()
+	{
+		FitnessCache cache = new FitnessCache(3, 2);
+		List<IIndividual> inds = individuals(0, 4);
+		for (IIndividual ind : inds) {
+			ind.setFitness(new SimpleValueFitness(1.0));
+		}
+		cache.store(inds.get(0));
+		cache.store(inds.get(1));
+		cache.store(inds.get(2));
+		// Access the first individual, then add a new one
+		assertTrue(cache.lookup(individuals(0, 1).get(0)));
+		cache.store(inds.get(3));
+		assertEquals(3, cache.size());
+		assertFalse(cache.lookup(individuals(1, 2).get(0)));
+		assertTrue(cache.lookup(individuals(0, 1).get(0)));
+		// Entries expire after two batches
+		cache.nextBatch();
+		cache.nextBatch();
+		assertEquals(3, cache.size());
+		cache.nextBatch();
+		assertEquals(0, cache.size());
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private List<IIndividual> individuals(int from, int to)
+	{
+		List<IIndividual> inds = new ArrayList<IIndividual>();
+		for (int i=from; i<to; i++) {
+			inds.add(new RealArrayIndividual(new double[] {i, 0.0}));
+		}
+		return inds;
+	}
+
+	private ExprTree tree()
+	{
+		ExprTree tree = new ExprTree();
+		tree.addBlock(new Add());
+		tree.addBlock(new X());
+		tree.addBlock(new Y());
+		return tree;
+	}
+}
@@ -0,0 +1,124 @@
+package net.sf.jclec.base;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+import net.sf.jclec.realarray.RealArrayIndividual;
+
+public class ParallelEvaluatorTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ParallelEvaluatorTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Unit test for evaluate() method, using all executor types
+	 */
+
+	public void testEvaluate()
+	{
+		String [] executorTypes = {
+				AbstractParallelEvaluator.FIXED_EXECUTOR,
+				AbstractParallelEvaluator.WORK_STEALING_EXECUTOR,
+				AbstractParallelEvaluator.VIRTUAL_EXECUTOR};
+		for (String executorType : executorTypes) {
+			ParallelSphereEvaluator evaluator = new ParallelSphereEvaluator();
+			evaluator.setExecutorType(executorType);
+			evaluator.setNumberOfThreads(3);
+			evaluator.setChunkSize(7);
+			// Several generations share the same executor
+			for (int generation=0; generation<5; generation++) {
+				List<IIndividual> inds = createIndividuals(100);
+				// Already evaluated individuals are not evaluated again
+				inds.get(0).setFitness(new SimpleValueFitness(-1.0));
+				evaluator.evaluate(inds);
+				assertEquals(-1.0, ((SimpleValueFitness) inds.get(0).getFitness()).getValue());
+				for (int i=1; i<inds.size(); i++) {
+					double [] genotype = ((RealArrayIndividual) inds.get(i)).getGenotype();
+					double expected = genotype[0]*genotype[0] + genotype[1]*genotype[1];
+					assertEquals(expected, ((SimpleValueFitness) inds.get(i).getFitness()).getValue());
+				}
+				assertEquals(99 * (generation+1), evaluator.getNumberOfEvaluations());
+			}
+			// After disposing, evaluator can be used again
+			evaluator.dispose();
+			evaluator.evaluate(createIndividuals(10));
+			assertEquals(505, evaluator.getNumberOfEvaluations());
+			evaluator.dispose();
+		}
+	}
+
+	/**
+	 * Exceptions thrown by evaluation tasks reach the caller
+	 */
+
+	public void testEvaluationError()
+	{
+		ParallelSphereEvaluator evaluator = new ParallelSphereEvaluator();
+		evaluator.setChunkSize(1);
+		List<IIndividual> inds = createIndividuals(10);
+		inds.set(5, new RealArrayIndividual(new double[0]));
+		try {
+			evaluator.evaluate(inds);
+			fail("Evaluation error not propagated");
+		}
+		catch (ArrayIndexOutOfBoundsException e) {
+			// Expected
+		}
+		finally {
+			evaluator.dispose();
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private List<IIndividual> createIndividuals(int size)
+	{
+		List<IIndividual> inds = new ArrayList<IIndividual>();
+		for (int i=0; i<size; i++) {
+			inds.add(new RealArrayIndividual(new double[] {0.5*i, -0.25*i}));
+		}
+		return inds;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Evaluator used
+	/////////////////////////////////////////////////////////////////
+
+	private static class ParallelSphereEvaluator extends AbstractParallelEvaluator
+	{
+		private static final long serialVersionUID = 1L;
+
+		private static final Comparator<IFitness> COMPARATOR = new ValueFitnessComparator(true);
+
+		@Override
+		protected void evaluate(IIndividual ind)
+		{
+			double [] genotype = ((RealArrayIndividual) ind).getGenotype();
+			ind.setFitness(new SimpleValueFitness(genotype[0]*genotype[0] + genotype[1]*genotype[1]));
+		}
+
+		public Comparator<IFitness> getComparator()
+		{
+			return COMPARATOR;
+		}
+	}
+}
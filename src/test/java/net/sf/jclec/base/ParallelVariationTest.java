@@ -0,0 +1,146 @@
+package net.sf.jclec.base;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.Population;
+
+import net.sf.jclec.realarray.RealArrayIndividual;
+import net.sf.jclec.realarray.RealArrayIndividualSpecies;
+import net.sf.jclec.realarray.mut.RandomMutator;
+import net.sf.jclec.realarray.rec.BLXAlphaCrossover;
+
+import net.sf.jclec.util.random.IRandGen;
+import net.sf.jclec.util.random.RanecuFactory;
+import net.sf.jclec.util.range.Closure;
+import net.sf.jclec.util.range.IRange;
+import net.sf.jclec.util.range.Interval;
+
+import org.apache.commons.configuration.BaseConfiguration;
+
+public class ParallelVariationTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ParallelVariationTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Sons only depend on the chunk size, not on the number of threads
+	 */
+
+	public void testReproducible()
+	{
+		try {
+			VariationExecutor.setNumberOfThreads(1);
+			List<IIndividual> sequential = breed(5);
+			VariationExecutor.setNumberOfThreads(4);
+			List<IIndividual> parallel = breed(5);
+			assertEquals(32, parallel.size());
+			assertEquals(sequential, parallel);
+			// Another chunk size gives other random streams
+			assertFalse(sequential.equals(breed(3)));
+		}
+		finally {
+			VariationExecutor.setNumberOfThreads(0);
+		}
+	}
+
+	/**
+	 * Chunks keep the order of sequential variation
+	 */
+
+	public void testOrder()
+	{
+		Population context = createContext();
+		BLXAlphaCrossover recombinator = new BLXAlphaCrossover();
+		recombinator.setAlpha(0);
+		recombinator.setLocusRecProb(1.0);
+		recombinator.setChunkSize(2);
+		recombinator.contextualize(context);
+		List<IIndividual> parents = createParents(context, 15);
+		List<IIndividual> sons = recombinator.recombine(parents);
+		// One son per litter (last parent has no partner)
+		assertEquals(7, sons.size());
+		for (int i=0; i<sons.size(); i++) {
+			double son = ((RealArrayIndividual) sons.get(i)).getGenotype()[0];
+			double p0 = ((RealArrayIndividual) parents.get(2*i)).getGenotype()[0];
+			double p1 = ((RealArrayIndividual) parents.get(2*i + 1)).getGenotype()[0];
+			assertTrue(son >= Math.min(p0, p1) && son <= Math.max(p0, p1));
+		}
+	}
+
+	/**
+	 * Chunk size is read from configuration
+	 */
+
+	public void testConfigure()
+	{
+		BaseConfiguration settings = new BaseConfiguration();
+		settings.addProperty("[@locus-mut-prob]", 0.5);
+		settings.addProperty("[@chunk-size]", 8);
+		RandomMutator mutator = new RandomMutator();
+		mutator.configure(settings);
+		assertEquals(8, mutator.getChunkSize());
+		assertEquals(0.5, mutator.getLocusMutProb(), 0);
+		assertEquals(0, new BLXAlphaCrossover().getChunkSize());
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private List<IIndividual> breed(int chunkSize)
+	{
+		Population context = createContext();
+		BLXAlphaCrossover recombinator = new BLXAlphaCrossover();
+		recombinator.setAlpha(0.5);
+		recombinator.setLocusRecProb(1.0);
+		recombinator.setChunkSize(chunkSize);
+		recombinator.contextualize(context);
+		RandomMutator mutator = new RandomMutator();
+		mutator.setLocusMutProb(0.1);
+		mutator.setChunkSize(chunkSize);
+		mutator.contextualize(context);
+		return mutator.mutate(recombinator.recombine(createParents(context, 64)));
+	}
+
+	private List<IIndividual> createParents(Population context, int size)
+	{
+		IRandGen randgen = context.createRandGen();
+		List<IIndividual> parents = new ArrayList<IIndividual>();
+		for (int i=0; i<size; i++) {
+			double [] genotype = new double[100];
+			for (int j=0; j<genotype.length; j++) {
+				genotype[j] = randgen.uniform(-1, 1);
+			}
+			parents.add(new RealArrayIndividual(genotype));
+		}
+		return parents;
+	}
+
+	private Population createContext()
+	{
+		Population context = new Population();
+		RanecuFactory randGenFactory = new RanecuFactory();
+		randGenFactory.setSeed(123);
+		context.setRandGenFactory(randGenFactory);
+		IRange [] ranges = new IRange[100];
+		for (int i=0; i<ranges.length; i++) {
+			ranges[i] = new Interval(-1, 1, Closure.ClosedClosed);
+		}
+		context.setSpecies(new RealArrayIndividualSpecies(ranges));
+		return context;
+	}
+}
@@ -0,0 +1,228 @@
+package net.sf.jclec.base;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.fitness.SimpleValueFitness;
+
+import net.sf.jclec.realarray.RealArrayIndividual;
+import net.sf.jclec.realarray.SphereEvaluator;
+
+public class ProcessEvaluatorTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ProcessEvaluatorTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Worker processes assign the same fitness as the wrapped evaluator
+	 */
+
+	public void testEvaluate()
+	{
+		ProcessEvaluator evaluator = createEvaluator(new SphereEvaluator());
+		try {
+			List<IIndividual> inds = createIndividuals(20, -1);
+			evaluator.evaluate(inds);
+			assertFitness(inds, -1, 0);
+			assertEquals(20, evaluator.getNumberOfEvaluations());
+			// Workers are reused
+			inds = createIndividuals(5, -1);
+			evaluator.evaluate(inds);
+			assertFitness(inds, -1, 0);
+			assertEquals(0, evaluator.getNumberOfFailures());
+		}
+		finally {
+			evaluator.dispose();
+		}
+	}
+
+	/**
+	 * An individual that always kills its worker gets the penalty fitness
+	 */
+
+	public void testCrash()
+	{
+		ProcessEvaluator evaluator = createEvaluator(new CrashEvaluator(null));
+		evaluator.setMaxRetries(1);
+		try {
+			List<IIndividual> inds = createIndividuals(12, 5);
+			evaluator.evaluate(inds);
+			// Worst value of a minimization problem
+			assertFitness(inds, 5, Double.MAX_VALUE);
+			assertEquals(2, evaluator.getNumberOfFailures());
+		}
+		finally {
+			evaluator.dispose();
+		}
+	}
+
+	/**
+	 * Work of a worker that crashes once is queued again
+	 */
+
+	public void testRestart() throws IOException
+	{
+		File marker = File.createTempFile("jclec", ".crashed");
+		marker.delete();
+		ProcessEvaluator evaluator = createEvaluator(new CrashEvaluator(marker.getPath()));
+		try {
+			List<IIndividual> inds = createIndividuals(12, 5);
+			evaluator.evaluate(inds);
+			assertFitness(inds, 5, 13 * 13);
+			assertEquals(1, evaluator.getNumberOfFailures());
+		}
+		finally {
+			evaluator.dispose();
+			marker.delete();
+		}
+	}
+
+	/**
+	 * An evaluation that exceeds the timeout gets the penalty fitness
+	 */
+
+	public void testTimeout()
+	{
+		ProcessEvaluator evaluator = createEvaluator(new HangEvaluator());
+		evaluator.setTimeout(1000);
+		evaluator.setPenalty(1e6);
+		try {
+			List<IIndividual> inds = createIndividuals(12, 5);
+			evaluator.evaluate(inds);
+			assertFitness(inds, 5, 1e6);
+			assertEquals(1, evaluator.getNumberOfTimeouts());
+		}
+		finally {
+			evaluator.dispose();
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Auxiliary classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Kills its process when it evaluates a marked individual (only once
+	 * if a marker file is set).
+	 */
+
+	private static class CrashEvaluator extends SphereEvaluator
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String marker;
+
+		CrashEvaluator(String marker)
+		{
+			this.marker = marker;
+		}
+
+		@Override
+		public void evaluate(IIndividual ind)
+		{
+			if (isMarked(ind)) {
+				try {
+					if (marker == null || new File(marker).createNewFile()) {
+						Runtime.getRuntime().halt(3);
+					}
+				}
+				catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+			super.evaluate(ind);
+		}
+	}
+
+	/** Never finishes the evaluation of a marked individual */
+
+	private static class HangEvaluator extends SphereEvaluator
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void evaluate(IIndividual ind)
+		{
+			while (isMarked(ind)) {
+				try {
+					Thread.sleep(1000);
+				}
+				catch (InterruptedException e) {
+					// Go on sleeping
+				}
+			}
+			super.evaluate(ind);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static boolean isMarked(IIndividual ind)
+	{
+		return ((RealArrayIndividual) ind).getGenotype()[0] == 13;
+	}
+
+	private ProcessEvaluator createEvaluator(SphereEvaluator wrapped)
+	{
+		ProcessEvaluator evaluator = new ProcessEvaluator();
+		evaluator.setEvaluator(wrapped);
+		evaluator.setNumberOfWorkers(2);
+		evaluator.setBatchSize(4);
+		return evaluator;
+	}
+
+	/**
+	 * Individuals with genotype {i, 1}, except the marked one, that has
+	 * genotype {13, 0}.
+	 */
+
+	private List<IIndividual> createIndividuals(int size, int marked)
+	{
+		List<IIndividual> inds = new ArrayList<IIndividual>();
+		for (int i=0; i<size; i++) {
+			if (i == marked) {
+				inds.add(new RealArrayIndividual(new double [] {13, 0}));
+			}
+			else {
+				inds.add(new RealArrayIndividual(new double [] {i, 1}));
+			}
+		}
+		return inds;
+	}
+
+	/**
+	 * Check sphere fitness of all individuals, and the expected fitness
+	 * of the marked one
+	 */
+
+	private void assertFitness(List<IIndividual> inds, int marked, double expected)
+	{
+		for (int i=0; i<inds.size(); i++) {
+			double value = ((SimpleValueFitness) inds.get(i).getFitness()).getValue();
+			if (i == marked) {
+				assertEquals(expected, value, 0);
+			}
+			else {
+				assertEquals(i * i + 1, value, 1e-10);
+			}
+		}
+	}
+}
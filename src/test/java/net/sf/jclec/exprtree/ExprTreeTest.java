@@ -0,0 +1,202 @@
+package net.sf.jclec.exprtree;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.exprtree.fun.Add;
+import net.sf.jclec.exprtree.fun.AbstractPrimitive;
+import net.sf.jclec.exprtree.fun.ExprTreeFunction;
+import net.sf.jclec.exprtree.fun.Mul;
+import net.sf.jclec.exprtree.fun.Sin;
+import net.sf.jclec.exprtree.fun.X;
+import net.sf.jclec.exprtree.fun.Y;
+
+public class ExprTreeTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ExprTreeTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Subtree ends are the same as those obtained by counting sons, also
+	 * after modifying the tree
+	 */
+
+	public void testSubTree()
+	{
+		Random random = new Random(2222);
+		for (int trial=0; trial<100; trial++) {
+			ExprTree tree = createTree(random, 1 + random.nextInt(6));
+			assertSubTrees(tree);
+			// Replace a terminal with a function (subtrees change)
+			int index = tree.size() - 1;
+			tree.setBlock(new Sin(), index);
+			tree.addBlock(new X());
+			assertSubTrees(tree);
+		}
+	}
+
+	/**
+	 * Copies and block ranges keep shared primitives and copy constants
+	 */
+
+	public void testCopy()
+	{
+		Random random = new Random(3333);
+		for (int trial=0; trial<100; trial++) {
+			ExprTree tree = createTree(random, 1 + random.nextInt(6));
+			ExprTree copy = tree.copy();
+			assertEquals(tree, copy);
+			assertEquals(tree.hashCode(), copy.hashCode());
+			assertEquals(tree.toString(), copy.toString());
+			for (int i=0; i<tree.size(); i++) {
+				IPrimitive block = tree.getBlock(i);
+				if (block instanceof Constant) {
+					assertNotSame(block, copy.getBlock(i));
+				}
+				else {
+					assertSame(block, copy.getBlock(i));
+				}
+			}
+			// Copy the first subtree of root
+			if (tree.size() > 1) {
+				ExprTree subtree = new ExprTree();
+				subtree.addBlocks(tree, 1, tree.subTree(1));
+				for (int i=0; i<subtree.size(); i++) {
+					assertEquals(tree.getBlock(i+1), subtree.getBlock(i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Blocks and constants are restored after serialization
+	 */
+
+	public void testSerialization() throws Exception
+	{
+		ExprTree tree = new ExprTree();
+		tree.addBlock(new Add());
+		tree.addBlock(new Constant(2.5));
+		tree.addBlock(new Mul());
+		tree.addBlock(new X());
+		tree.addBlock(new Y());
+		tree.setBlock(new Constant(1.5), 1);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(tree);
+		out.close();
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		ExprTree read = (ExprTree) in.readObject();
+		assertEquals(tree, read);
+		assertEquals(5, read.subTree(0));
+		Double result = new ExprTreeFunction(read).execute(2.0, 3.0);
+		assertEquals(7.5, result, 0.0);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private ExprTree createTree(Random random, int depth)
+	{
+		ExprTree tree = new ExprTree();
+		fillTree(random, tree, depth);
+		return tree;
+	}
+
+	private void fillTree(Random random, ExprTree tree, int depth)
+	{
+		IPrimitive [] functions = {new Add(), new Mul(), new Sin()};
+		if (depth == 1 || random.nextInt(4) == 0) {
+			switch (random.nextInt(3)) {
+				case 0: tree.addBlock(new X()); break;
+				case 1: tree.addBlock(new Y()); break;
+				default: tree.addBlock(new Constant(random.nextInt(10)));
+			}
+		}
+		else {
+			IPrimitive function = functions[random.nextInt(functions.length)];
+			tree.addBlock(function);
+			for (int i=0; i<function.argumentTypes().length; i++) {
+				fillTree(random, tree, depth-1);
+			}
+		}
+	}
+
+	/**
+	 * Checks subtree ends against a son counting loop
+	 */
+
+	private void assertSubTrees(ExprTree tree)
+	{
+		for (int root=0; root<tree.size(); root++) {
+			int end = root, remaining = 1;
+			while (remaining > 0) {
+				remaining += tree.getBlock(end++).argumentTypes().length - 1;
+			}
+			assertEquals(end, tree.subTree(root));
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Internal classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Ephemeral constant (it has state, so it is not interned)
+	 */
+
+	@SuppressWarnings("serial")
+	private static class Constant extends AbstractPrimitive
+	{
+		private final double value;
+
+		Constant(double value)
+		{
+			super(new Class<?> [0], Double.class);
+			this.value = value;
+		}
+
+		@Override
+		public IPrimitive copy()
+		{
+			return new Constant(value);
+		}
+
+		@Override
+		protected void evaluate(ExprTreeFunction context)
+		{
+			push(context, value);
+		}
+
+		public boolean equals(Object other)
+		{
+			return other instanceof Constant && ((Constant) other).value == value;
+		}
+
+		public int hashCode()
+		{
+			return Double.valueOf(value).hashCode();
+		}
+
+		public String toString()
+		{
+			return String.valueOf(value);
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package net.sf.jclec.exprtree.fun;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.exprtree.CompiledExprTree;
+import net.sf.jclec.exprtree.ExprTree;
+import net.sf.jclec.exprtree.IPrimitive;
+
+public class CompiledExprTreeTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public CompiledExprTreeTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Compiled trees return the same values as interpreted ones
+	 */
+
+	public void testExecute()
+	{
+		Random random = new Random(1234);
+		for (int trial=0; trial<200; trial++) {
+			ExprTree tree = new ExprTree();
+			createTree(random, tree, 1 + random.nextInt(6));
+			assertNotNull(tree.compile());
+			ExprTreeFunction function = new ExprTreeFunction(tree);
+			for (int row=0; row<10; row++) {
+				double x = random.nextDouble(), y = random.nextDouble(), z = random.nextDouble();
+				Double expected = function.execute(x, y, z);
+				assertEquals(expected.doubleValue(), function.executeDouble(x, y, z), 0.0);
+			}
+		}
+	}
+
+	/**
+	 * Batch execution returns the same values as row by row execution,
+	 * reusing the buffer pool between calls
+	 */
+
+	public void testExecuteBatch()
+	{
+		Random random = new Random(5678);
+		ExprTreeFunction function = new ExprTreeFunction();
+		for (int trial=0; trial<200; trial++) {
+			ExprTree tree = new ExprTree();
+			createTree(random, tree, 1 + random.nextInt(6));
+			// Some trees cannot be compiled
+			if (trial % 10 == 0) {
+				tree.setBlock(new Two(), tree.size()-1);
+			}
+			function.setCode(tree);
+			assertEquals(trial % 10 != 0, tree.compile() != null && tree.compile().isVectorizable());
+			int rows = random.nextInt(50);
+			double [][] columns = new double[3][rows];
+			for (double [] column : columns) {
+				for (int i=0; i<rows; i++) {
+					column[i] = random.nextDouble();
+				}
+			}
+			double [][] copy = new double[3][];
+			for (int j=0; j<3; j++) {
+				copy[j] = columns[j].clone();
+			}
+			double [] result = new double[rows];
+			function.executeBatch(columns, result);
+			// Arguments are not modified
+			assertTrue(Arrays.deepEquals(copy, columns));
+			for (int i=0; i<rows; i++) {
+				Double expected = function.execute(columns[0][i], columns[1][i], columns[2][i]);
+				assertEquals(expected.doubleValue(), result[i], 0.0);
+			}
+		}
+	}
+
+	/**
+	 * Compiled form is rebuilt when the tree changes, and trees with
+	 * primitives that cannot be compiled are interpreted
+	 */
+
+	public void testInvalidation()
+	{
+		ExprTree tree = new ExprTree();
+		tree.addBlock(new Add());
+		tree.addBlock(new X());
+		tree.addBlock(new Y());
+		ExprTreeFunction function = new ExprTreeFunction(tree);
+		CompiledExprTree compiled = tree.compile();
+		assertSame(compiled, tree.compile());
+		assertEquals(5.0, function.executeDouble(2.0, 3.0), 0.0);
+		// Mutation
+		tree.setBlock(new Div(), 0);
+		assertNotSame(compiled, tree.compile());
+		assertEquals(1.5, function.executeDouble(2.0, 3.0), 0.0);
+		// Copies are compiled again
+		assertNotSame(tree.compile(), tree.copy().compile());
+		// Primitive that cannot be compiled
+		tree.setBlock(new Two(), 2);
+		assertNull(tree.compile());
+		assertEquals(1.0, function.executeDouble(2.0, 3.0), 0.0);
+		// Incomplete tree
+		ExprTree incomplete = new ExprTree();
+		incomplete.addBlock(new Add());
+		incomplete.addBlock(new X());
+		assertNull(incomplete.compile());
+		incomplete.addBlock(new Z());
+		assertNotNull(incomplete.compile());
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private void createTree(Random random, ExprTree tree, int depth)
+	{
+		IPrimitive [] functions = {new Add(), new Sub(), new Mul(), new Div(), new Sin()};
+		IPrimitive [] terminals = {new X(), new Y(), new Z()};
+		if (depth == 1 || random.nextInt(4) == 0) {
+			tree.addBlock(terminals[random.nextInt(terminals.length)]);
+		}
+		else {
+			IPrimitive function = functions[random.nextInt(functions.length)];
+			tree.addBlock(function);
+			for (int i=0; i<function.argumentTypes().length; i++) {
+				createTree(random, tree, depth-1);
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Internal classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constant that is only interpreted
+	 */
+
+	@SuppressWarnings("serial")
+	private static class Two extends AbstractPrimitive
+	{
+		Two()
+		{
+			super(new Class<?> [0], Double.class);
+		}
+
+		@Override
+		protected void evaluate(ExprTreeFunction context)
+		{
+			push(context, 2.0);
+		}
+	}
+}
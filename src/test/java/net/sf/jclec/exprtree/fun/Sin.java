@@ -1,9 +1,8 @@
 package net.sf.jclec.exprtree.fun;
 
-import net.sf.jclec.exprtree.fun.AbstractPrimitive;
-import net.sf.jclec.exprtree.fun.ExprTreeFunction;
+import net.sf.jclec.exprtree.fun.DoubleUnaryPrimitive;
 
-public class Sin extends AbstractPrimitive 
+public class Sin extends DoubleUnaryPrimitive 
 {
 	/** Generated by Eclipse  */
 	
@@ -16,16 +15,13 @@ public class Sin extends AbstractPrimitive
 	
 	public Sin() 
 	{
-		super(new Class<?> [] {Double.class}, Double.class);
+		super();
 	}
 
 	@Override
-	protected void evaluate(ExprTreeFunction context) 
+	protected double apply(double arg1) 
 	{
-		// Get arguments (in context stack)
-		Double arg1 = pop(context);
-		// Push result in context stack
-		push(context, Math.sin(arg1));
+		return Math.sin(arg1);
 	}
 
 	// java.lang.Object methods
@@ -1,9 +1,8 @@
 package net.sf.jclec.exprtree.fun;
 
-import net.sf.jclec.exprtree.fun.AbstractPrimitive;
-import net.sf.jclec.exprtree.fun.ExprTreeFunction;
+import net.sf.jclec.exprtree.fun.DoubleBinaryPrimitive;
 
-public class Sub extends AbstractPrimitive 
+public class Sub extends DoubleBinaryPrimitive 
 {
 	/** Generated by Eclipse  */
 	
@@ -16,17 +15,13 @@ public class Sub extends AbstractPrimitive
 	
 	public Sub() 
 	{
-		super(new Class<?> [] {Double.class, Double.class}, Double.class);
+		super();
 	}
 
 	@Override
-	protected void evaluate(ExprTreeFunction context) 
+	protected double apply(double arg1, double arg2) 
 	{
-		// Get arguments (in context stack)
-		Double arg1 = pop(context);
-		Double arg2 = pop(context);
-		// Push result in context stack
-		push(context, arg1-arg2);
+		return arg1-arg2;
 	}
 
 	// java.lang.Object methods
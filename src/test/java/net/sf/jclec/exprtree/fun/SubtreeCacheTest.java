@@ -0,0 +1,145 @@
+package net.sf.jclec.exprtree.fun;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.exprtree.ExprTree;
+import net.sf.jclec.exprtree.IPrimitive;
+
+public class SubtreeCacheTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public SubtreeCacheTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Cached execution returns the same values as batch execution, and
+	 * shared subtrees are found in cache
+	 */
+
+	public void testExecute()
+	{
+		Random random = new Random(4321);
+		double [][] columns = createColumns(random, 30);
+		List<ExprTree> population = createPopulation(random, 100);
+		SubtreeCache cache = new SubtreeCache(columns, Long.MAX_VALUE);
+		assertSameResults(cache, population, columns);
+		assertTrue(cache.getHits() > 0);
+		assertEquals(0, cache.getEvictions());
+		// Second pass: all trees are found in cache
+		cache.resetStatistics();
+		assertSameResults(cache, population, columns);
+		assertEquals(0, cache.getMisses());
+		assertEquals(1.0, cache.hitRate(), 0.0);
+		// New dataset
+		columns = createColumns(random, 20);
+		cache.setColumns(columns);
+		assertEquals(0, cache.size());
+		assertSameResults(cache, population, columns);
+	}
+
+	/**
+	 * Memory usage is kept within budget
+	 */
+
+	public void testEviction()
+	{
+		Random random = new Random(8765);
+		double [][] columns = createColumns(random, 100);
+		List<ExprTree> population = createPopulation(random, 100);
+		long budget = 20000;
+		SubtreeCache cache = new SubtreeCache(columns, budget);
+		assertSameResults(cache, population, columns);
+		assertTrue(cache.memoryUsage() <= budget);
+		assertTrue(cache.getEvictions() > 0);
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.memoryUsage());
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private void assertSameResults(SubtreeCache cache, List<ExprTree> population, double [][] columns)
+	{
+		int length = columns[0].length;
+		for (ExprTree tree : population) {
+			double [] expected = new double[length];
+			new ExprTreeFunction(tree).executeBatch(columns, expected);
+			double [] result = new double[length];
+			cache.execute(tree, result);
+			for (int i=0; i<length; i++) {
+				assertEquals(expected[i], result[i], 0.0);
+			}
+		}
+	}
+
+	private double [][] createColumns(Random random, int length)
+	{
+		double [][] columns = new double[3][length];
+		for (double [] column : columns) {
+			for (int i=0; i<length; i++) {
+				column[i] = random.nextDouble();
+			}
+		}
+		return columns;
+	}
+
+	/**
+	 * Random trees that share subtrees (taken from a small pool)
+	 */
+
+	private List<ExprTree> createPopulation(Random random, int size)
+	{
+		List<ExprTree> pool = new ArrayList<ExprTree>();
+		for (int i=0; i<10; i++) {
+			ExprTree tree = new ExprTree();
+			createTree(random, tree, 4, null);
+			pool.add(tree);
+		}
+		List<ExprTree> population = new ArrayList<ExprTree>();
+		for (int i=0; i<size; i++) {
+			ExprTree tree = new ExprTree();
+			createTree(random, tree, 3, pool);
+			population.add(tree);
+		}
+		return population;
+	}
+
+	private void createTree(Random random, ExprTree tree, int depth, List<ExprTree> pool)
+	{
+		IPrimitive [] functions = {new Add(), new Sub(), new Mul(), new Div(), new Sin()};
+		IPrimitive [] terminals = {new X(), new Y(), new Z()};
+		if (depth == 1) {
+			if (pool == null) {
+				tree.addBlock(terminals[random.nextInt(terminals.length)]);
+			}
+			else {
+				ExprTree subtree = pool.get(random.nextInt(pool.size()));
+				for (int i=0; i<subtree.size(); i++) {
+					tree.addBlock(subtree.getBlock(i));
+				}
+			}
+		}
+		else {
+			IPrimitive function = functions[random.nextInt(functions.length)];
+			tree.addBlock(function);
+			for (int i=0; i<function.argumentTypes().length; i++) {
+				createTree(random, tree, depth-1, pool);
+			}
+		}
+	}
+}
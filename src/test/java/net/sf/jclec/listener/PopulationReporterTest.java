@@ -0,0 +1,242 @@
+package net.sf.jclec.listener;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.algorithm.PopulationAlgorithm;
+import net.sf.jclec.algorithm.classic.SS;
+
+import net.sf.jclec.fitness.SimpleValueFitness;
+
+import net.sf.jclec.realarray.RealArrayCreator;
+import net.sf.jclec.realarray.RealArrayIndividualSpecies;
+import net.sf.jclec.realarray.SphereEvaluator;
+import net.sf.jclec.realarray.mut.RandomMutator;
+import net.sf.jclec.realarray.rec.BLXAlphaCrossover;
+
+import net.sf.jclec.selector.TournamentSelector;
+
+import net.sf.jclec.util.random.RanecuFactory;
+import net.sf.jclec.util.range.Closure;
+import net.sf.jclec.util.range.IRange;
+import net.sf.jclec.util.range.Interval;
+
+public class PopulationReporterTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Attributes
+	/////////////////////////////////////////////////////////////////
+
+	/** Temporary directory */
+
+	private File directory;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public PopulationReporterTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Asynchronous reports are the same as synchronous ones
+	 */
+
+	public void testAsynchronous() throws Exception
+	{
+		List<String> expected = report("sync", false, 16);
+		// A small queue makes the algorithm wait for the writer
+		List<String> actual = report("async", true, 1);
+		// Skip date line
+		assertSameLines(expected.subList(1, expected.size()), actual.subList(1, actual.size()));
+		assertTrue(actual.contains("Generation 30 Report"));
+		// Complete populations
+		File syncPopulations = find("sync", "");
+		File asyncPopulations = find("async", "");
+		assertEquals(4, asyncPopulations.listFiles().length);
+		assertSameLines(read(new File(syncPopulations, "generation30.individuals.txt")), 
+				read(new File(asyncPopulations, "generation30.individuals.txt")));
+	}
+
+	/**
+	 * A failure in the background writer stops the algorithm (instead of 
+	 * blocking it forever)
+	 */
+
+	public void testAsynchronousFailure() throws Exception
+	{
+		PopulationReporter reporter = new PopulationReporter();
+		reporter.setReportTitle(new File(directory, "failure").getPath());
+		reporter.setReportFrequency(1);
+		reporter.setReportOnCconsole(false);
+		reporter.setReportOnFile(true);
+		reporter.setAsynchronous(true);
+		reporter.setQueueCapacity(1);
+		final PopulationAlgorithm algorithm = createAlgorithm();
+		algorithm.setEvaluator(new SphereEvaluator() 
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void evaluate(IIndividual ind) 
+			{
+				super.evaluate(ind);
+				double value = ((SimpleValueFitness) ind.getFitness()).getValue();
+				ind.setFitness(new SimpleValueFitness(value) 
+				{
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					public String toString() 
+					{
+						throw new IllegalStateException("Fitness can't be reported");
+					}
+				});
+			}
+		});
+		algorithm.addListener(reporter);
+		final Throwable [] failure = new Throwable[1];
+		Thread execution = new Thread()
+		{
+			@Override
+			public void run()
+			{
+				try {
+					algorithm.execute();
+				}
+				catch (Throwable t) {
+					failure[0] = t;
+				}
+			}
+		};
+		execution.setDaemon(true);
+		execution.start();
+		execution.join(30000);
+		assertFalse("Algorithm blocked by a failed writer", execution.isAlive());
+		assertTrue(failure[0] instanceof IllegalStateException);
+		assertEquals("Fitness can't be reported", failure[0].getMessage());
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected void setUp() throws IOException
+	{
+		directory = File.createTempFile("jclec", "");
+		directory.delete();
+		directory.mkdir();
+	}
+
+	@Override
+	protected void tearDown()
+	{
+		delete(directory);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private List<String> report(String name, boolean asynchronous, int queueCapacity) throws IOException
+	{
+		PopulationReporter reporter = new PopulationReporter();
+		reporter.setReportTitle(new File(directory, name).getPath());
+		reporter.setReportFrequency(10);
+		reporter.setReportOnCconsole(false);
+		reporter.setReportOnFile(true);
+		reporter.setSaveCompletePopulation(true);
+		reporter.setAsynchronous(asynchronous);
+		reporter.setQueueCapacity(queueCapacity);
+		PopulationAlgorithm algorithm = createAlgorithm();
+		algorithm.addListener(reporter);
+		algorithm.execute();
+		return read(find(name, ".report.txt"));
+	}
+
+	/**
+	 * Same lines, except for identity hash codes
+	 */
+
+	private void assertSameLines(List<String> expected, List<String> actual)
+	{
+		assertEquals(expected.size(), actual.size());
+		assertFalse(expected.isEmpty());
+		for (int i=0; i<expected.size(); i++) {
+			assertEquals(expected.get(i).replaceAll("@[0-9a-f]+", ""), actual.get(i).replaceAll("@[0-9a-f]+", ""));
+		}
+	}
+
+	private File find(String name, String suffix)
+	{
+		for (File file : directory.listFiles()) {
+			if (file.getName().startsWith(name) && file.getName().endsWith(suffix) 
+					&& (suffix.length() > 0 || file.isDirectory())) {
+				return file;
+			}
+		}
+		throw new AssertionError("Report not found: " + name + suffix);
+	}
+
+	private List<String> read(File file) throws IOException
+	{
+		return Files.readAllLines(file.toPath(), Charset.defaultCharset());
+	}
+
+	private PopulationAlgorithm createAlgorithm()
+	{
+		SS algorithm = new SS();
+		RanecuFactory randGenFactory = new RanecuFactory();
+		randGenFactory.setSeed(1234);
+		algorithm.setRandGenFactory(randGenFactory);
+		IRange [] ranges = new IRange[4];
+		for (int i=0; i<ranges.length; i++) {
+			ranges[i] = new Interval(-5.12, 5.12, Closure.ClosedClosed);
+		}
+		algorithm.setSpecies(new RealArrayIndividualSpecies(ranges));
+		algorithm.setEvaluator(new SphereEvaluator());
+		algorithm.setProvider(new RealArrayCreator());
+		algorithm.setPopulationSize(20);
+		algorithm.setMaxOfGenerations(30);
+		algorithm.setMaxOfEvaluations(Integer.MAX_VALUE);
+		algorithm.setNumberOfParents(2);
+		TournamentSelector selector = new TournamentSelector();
+		selector.setTournamentSize(2);
+		algorithm.setParentsSelector(selector);
+		BLXAlphaCrossover recombinator = new BLXAlphaCrossover();
+		recombinator.setAlpha(0.5);
+		recombinator.setLocusRecProb(1.0);
+		algorithm.setRecombinator(recombinator);
+		RandomMutator mutator = new RandomMutator();
+		mutator.setLocusMutProb(0.1);
+		algorithm.setMutator(mutator);
+		return algorithm;
+	}
+
+	private static void delete(File file)
+	{
+		File [] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
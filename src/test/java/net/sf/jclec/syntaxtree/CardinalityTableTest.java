@@ -0,0 +1,234 @@
+package net.sf.jclec.syntaxtree;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.exprtree.fun.Add;
+import net.sf.jclec.exprtree.fun.Mul;
+import net.sf.jclec.exprtree.fun.X;
+import net.sf.jclec.exprtree.fun.Y;
+import net.sf.jclec.util.random.AbstractRandGen;
+
+public class CardinalityTableTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public CardinalityTableTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Cardinalities are the same as those obtained by enumerating all
+	 * partitions (in tables stored as longs and as BigIntegers)
+	 */
+
+	public void testCardinality()
+	{
+		for (int maxDerivations : new int [] {12, 100}) {
+			CardinalityTable table = createTable(maxDerivations);
+			for (int n=0; n<=Math.min(maxDerivations, 12); n++) {
+				for (String symbol : new String [] {"expr", "op", "arg", "X"}) {
+					assertEquals(referenceCardinality(table, symbol, n), table.cardinality(symbol, n));
+				}
+			}
+		}
+		// Large values do not fit in a long
+		CardinalityTable table = createTable(100);
+		assertTrue(table.cardinality("expr", 90).bitLength() > 63);
+	}
+
+	/**
+	 * Partitions are the same as those selected with a roulette over all
+	 * partitions
+	 */
+
+	public void testSelectPartition()
+	{
+		String [] production = {"op", "expr", "expr"};
+		for (int maxDerivations : new int [] {12, 100}) {
+			CardinalityTable table = createTable(maxDerivations);
+			for (int n=0; n<=10; n++) {
+				List<int []> partitions = partitions(n, production.length);
+				for (int i=0; i<=20; i++) {
+					double random = i / 20.0 - (i == 20 ? 1e-9 : 0.0);
+					int [] expected = roulette(table, production, partitions, random);
+					int [] partition = table.selectPartition(production, n, new Fixed(random));
+					if (expected == null) {
+						assertNull(partition);
+					}
+					else {
+						assertEquals(toString(expected), toString(partition));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Productions are selected in proportion to their cardinality
+	 */
+
+	public void testSelectProduction()
+	{
+		CardinalityTable table = createTable(12);
+		// With 2 derivations, expr can only be expanded as arg
+		for (int i=0; i<10; i++) {
+			assertEquals("arg", table.selectProduction("expr", 2, new Fixed(i / 10.0)).getProduction()[0]);
+		}
+		// With 6 derivations, expr -> arg cannot be used
+		assertEquals("op", table.selectProduction("expr", 6, new Fixed(0.0)).getProduction()[0]);
+		// There are no derivations of expr with 3 derivations
+		assertNull(table.selectProduction("expr", 3, new Fixed(0.5)));
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private CardinalityTable createTable(int maxDerivations)
+	{
+		TerminalNode [] terminals = {
+				new TerminalNode("X", new X()),
+				new TerminalNode("Y", new Y()),
+				new TerminalNode("+", new Add()),
+				new TerminalNode("*", new Mul()),
+		};
+		NonTerminalNode [] nonTerminals = {
+				new NonTerminalNode("expr", new String [] {"arg"}),
+				new NonTerminalNode("expr", new String [] {"op", "expr", "expr"}),
+				new NonTerminalNode("op", new String [] {"+"}),
+				new NonTerminalNode("op", new String [] {"*"}),
+				new NonTerminalNode("arg", new String [] {"X"}),
+				new NonTerminalNode("arg", new String [] {"Y"}),
+		};
+		return new CardinalityTable(terminals, nonTerminals, maxDerivations);
+	}
+
+	/**
+	 * Cardinality obtained by enumerating partitions
+	 */
+
+	private BigInteger referenceCardinality(CardinalityTable table, String symbol, int n)
+	{
+		if (symbol.equals("X")) {
+			return n == 0 ? BigInteger.ONE : BigInteger.ZERO;
+		}
+		if (n == 0) {
+			return BigInteger.ZERO;
+		}
+		String [][] productions;
+		if (symbol.equals("expr")) {
+			productions = new String [][] {{"arg"}, {"op", "expr", "expr"}};
+		}
+		else {
+			productions = new String [][] {{"X"}, {"X"}};
+		}
+		BigInteger result = BigInteger.ZERO;
+		for (String [] production : productions) {
+			for (int [] partition : partitions(n-1, production.length)) {
+				result = result.add(referenceCardinality(table, production, partition));
+			}
+		}
+		return result;
+	}
+
+	private BigInteger referenceCardinality(CardinalityTable table, String [] production, int [] partition)
+	{
+		BigInteger result = BigInteger.ONE;
+		for (int i=0; i<production.length; i++) {
+			result = result.multiply(referenceCardinality(table, production[i], partition[i]));
+		}
+		return result;
+	}
+
+	private int [] roulette(CardinalityTable table, String [] production, List<int []> partitions, double random)
+	{
+		BigInteger [] cumulative = new BigInteger[partitions.size()];
+		BigInteger total = BigInteger.ZERO;
+		for (int i=0; i<cumulative.length; i++) {
+			BigInteger weight = BigInteger.ONE;
+			for (int k=0; k<production.length; k++) {
+				weight = weight.multiply(table.cardinality(production[k], partitions.get(i)[k]));
+			}
+			total = total.add(weight);
+			cumulative[i] = total;
+		}
+		BigDecimal target = new BigDecimal(total).multiply(new BigDecimal(random));
+		for (int i=0; i<cumulative.length; i++) {
+			if (target.compareTo(new BigDecimal(cumulative[i])) < 0) {
+				return partitions.get(i);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * All partitions of total in dimension parts, in lexicographic order
+	 */
+
+	private List<int []> partitions(int total, int dimension)
+	{
+		List<int []> result = new ArrayList<int []>();
+		if (dimension == 1) {
+			result.add(new int [] {total});
+		}
+		else {
+			for (int i=0; i<=total; i++) {
+				for (int [] rest : partitions(total-i, dimension-1)) {
+					int [] partition = new int[dimension];
+					partition[0] = i;
+					System.arraycopy(rest, 0, partition, 1, rest.length);
+					result.add(partition);
+				}
+			}
+		}
+		return result;
+	}
+
+	private String toString(int [] partition)
+	{
+		return java.util.Arrays.toString(partition);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Internal classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Random generator that always returns the same value
+	 */
+
+	@SuppressWarnings("serial")
+	private static class Fixed extends AbstractRandGen
+	{
+		private final double value;
+
+		Fixed(double value)
+		{
+			this.value = value;
+		}
+
+		public double raw()
+		{
+			return value;
+		}
+
+		public void raw(double [] d, int n)
+		{
+			for (int i=0; i<n; i++) {
+				d[i] = value;
+			}
+		}
+	}
+}
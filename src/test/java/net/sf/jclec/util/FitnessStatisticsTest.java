@@ -0,0 +1,131 @@
+package net.sf.jclec.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.fitness.IValueFitness;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+
+import net.sf.jclec.realarray.RealArrayIndividual;
+
+import net.sf.jclec.util.random.Ranecu;
+
+public class FitnessStatisticsTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public FitnessStatisticsTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Same results as IndividualStatistics, for maximization and
+	 * minimization
+	 */
+
+	public void testStatistics()
+	{
+		List<IIndividual> set = createSet(1001, 10);
+		for (boolean inverse : new boolean [] {false, true}) {
+			ValueFitnessComparator comparator = new ValueFitnessComparator(inverse);
+			FitnessStatistics statistics = new FitnessStatistics(set, comparator);
+			assertEquals(1001, statistics.size());
+			assertTrue(statistics.hasValues());
+			assertSame(IndividualStatistics.bestIndividual(set, comparator), set.get(statistics.getBest()));
+			assertSame(IndividualStatistics.worstIndividual(set, comparator), set.get(statistics.getWorst()));
+			assertEquals(value(IndividualStatistics.medianIndividual(set, comparator)), value(set.get(statistics.getMedian())));
+			double [] avgvar = IndividualStatistics.averageFitnessAndFitnessVariance(set);
+			assertEquals(avgvar[0], statistics.getAverage(), 1e-9);
+			assertEquals(avgvar[1], statistics.getVariance(), 1e-9);
+		}
+	}
+
+	/**
+	 * Quantiles and histogram
+	 */
+
+	public void testDistribution()
+	{
+		List<IIndividual> set = createSet(100, 1000);
+		FitnessStatistics statistics = new FitnessStatistics(set, new ValueFitnessComparator());
+		double [] sorted = new double[set.size()];
+		for (int i=0; i<sorted.length; i++) {
+			sorted[i] = value(set.get(i));
+		}
+		Arrays.sort(sorted);
+		assertEquals(sorted[0], statistics.getMinValue());
+		assertEquals(sorted[99], statistics.getMaxValue());
+		assertEquals(sorted[0], statistics.quantile(0.0));
+		assertEquals(sorted[99], statistics.quantile(1.0));
+		assertEquals(sorted[24] + 0.75 * (sorted[25] - sorted[24]), statistics.quantile(0.25), 1e-9);
+		assertEquals((sorted[49] + sorted[50]) / 2, statistics.quantile(0.5), 1e-9);
+		int [] histogram = statistics.histogram(7);
+		int total = 0;
+		for (int count : histogram) {
+			total += count;
+		}
+		assertEquals(100, total);
+		assertTrue(histogram[0] > 0);
+		assertTrue(histogram[6] > 0);
+		// Constant values go to the first bin
+		FitnessStatistics constant = new FitnessStatistics(createSet(10, 1), new ValueFitnessComparator());
+		assertEquals(10, constant.histogram(3)[0]);
+	}
+
+	/**
+	 * Parallel and sequential computations give the same results
+	 */
+
+	public void testParallel()
+	{
+		List<IIndividual> set = createSet(50000, 100);
+		ValueFitnessComparator comparator = new ValueFitnessComparator();
+		FitnessStatistics sequential = new FitnessStatistics(set, comparator);
+		FitnessStatistics parallel = new FitnessStatistics(set, comparator, true);
+		assertEquals(sequential.getBest(), parallel.getBest());
+		assertEquals(sequential.getWorst(), parallel.getWorst());
+		assertEquals(sequential.getMedian(), parallel.getMedian());
+		assertEquals(sequential.getMinValue(), parallel.getMinValue());
+		assertEquals(sequential.getMaxValue(), parallel.getMaxValue());
+		assertEquals(sequential.getAverage(), parallel.getAverage(), 1e-9);
+		assertEquals(sequential.getVariance(), parallel.getVariance(), 1e-6);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Individuals with integer fitness values in [0, range) (so there are
+	 * ties)
+	 */
+
+	private List<IIndividual> createSet(int size, int range)
+	{
+		Ranecu randgen = new Ranecu(1234, 5678);
+		List<IIndividual> set = new ArrayList<IIndividual>();
+		for (int i=0; i<size; i++) {
+			double value = randgen.choose(0, range);
+			set.add(new RealArrayIndividual(new double [] {value}, new SimpleValueFitness(value)));
+		}
+		return set;
+	}
+
+	private double value(IIndividual individual)
+	{
+		return ((IValueFitness) individual.getFitness()).getValue();
+	}
+}
@@ -0,0 +1,167 @@
+package net.sf.jclec.util.monitor;
+
+import java.lang.management.ManagementFactory;
+
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.AlgorithmEvent;
+import net.sf.jclec.IAlgorithmListener;
+
+import net.sf.jclec.algorithm.classic.SS;
+
+import net.sf.jclec.realarray.RealArrayCreator;
+import net.sf.jclec.realarray.RealArrayIndividualSpecies;
+import net.sf.jclec.realarray.SphereEvaluator;
+import net.sf.jclec.realarray.mut.RandomMutator;
+import net.sf.jclec.realarray.rec.BLXAlphaCrossover;
+
+import net.sf.jclec.selector.TournamentSelector;
+
+import net.sf.jclec.util.random.RanecuFactory;
+import net.sf.jclec.util.range.Closure;
+import net.sf.jclec.util.range.IRange;
+import net.sf.jclec.util.range.Interval;
+
+public class AlgorithmMonitorTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public AlgorithmMonitorTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Percentiles of recorded times
+	 */
+
+	public void testTiming()
+	{
+		Timing timing = new Timing();
+		assertEquals(0, timing.percentile(0.5));
+		for (int i=1; i<=1000; i++) {
+			timing.record(1000 * i);
+		}
+		TimingInfo info = timing.snapshot();
+		assertEquals(1000, info.getCount());
+		assertEquals(1000000, info.getMaxTime());
+		assertEquals(500500, info.getMeanTime());
+		assertEquals(500000, info.getP50(), 500000 * 0.125);
+		assertEquals(900000, info.getP90(), 900000 * 0.125);
+		assertEquals(990000, info.getP99(), 990000 * 0.125);
+		assertTrue(info.getP99() <= info.getMaxTime());
+	}
+
+	/**
+	 * A monitored algorithm records phases, operators and listeners times,
+	 * and publishes them while it is running
+	 */
+
+	public void testMonitor() throws Exception
+	{
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = new ObjectName("net.sf.jclec:type=AlgorithmMonitor,name=\"test\"");
+		final int [] generations = new int[1];
+		SS algorithm = createAlgorithm();
+		algorithm.setMonitored(true);
+		algorithm.setMonitorName("test");
+		algorithm.addListener(new IAlgorithmListener() 
+		{
+			private static final long serialVersionUID = 1L;
+
+			public void algorithmStarted(AlgorithmEvent event) {}
+
+			public void iterationCompleted(AlgorithmEvent event) 
+			{
+				try {
+					generations[0] = (Integer) server.getAttribute(name, "Generation");
+					assertTrue(((TabularData) server.getAttribute(name, "Timings")).size() > 0);
+				}
+				catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+
+			public void algorithmFinished(AlgorithmEvent event) {}
+
+			public void algorithmTerminated(AlgorithmEvent event) {}
+		});
+		algorithm.execute();
+		// Read while running
+		assertEquals(29, generations[0]);
+		// Unregistered when finished
+		assertFalse(server.isRegistered(name));
+		AlgorithmMonitor monitor = algorithm.getMonitor();
+		assertEquals(30, monitor.getGeneration());
+		assertEquals(algorithm.getEvaluator().getNumberOfEvaluations(), monitor.getNumberOfEvaluations());
+		assertTrue(monitor.getEvaluationRate() > 0);
+		Map<String, TimingInfo> timings = monitor.getTimings();
+		assertEquals(1, timings.get("phase.init").getCount());
+		assertEquals(30, timings.get("iteration").getCount());
+		for (String phase : new String [] {"selection", "generation", "replacement", "update", "control"}) {
+			assertEquals(30, timings.get("phase." + phase).getCount());
+		}
+		assertEquals(30, timings.get("operator.recombinator.BLXAlphaCrossover").getCount());
+		assertEquals(30, timings.get("operator.mutator.RandomMutator").getCount());
+		assertEquals(1, timings.get("operator.provider.RealArrayCreator").getCount());
+		assertEquals(31, timings.get("operator.evaluator.SphereEvaluator").getCount());
+		assertTrue(timings.get("operator.selector.TournamentSelector").getCount() >= 30);
+		// Listener: 1 start, 29 iterations, 1 finish
+		for (String key : timings.keySet()) {
+			if (key.startsWith("listener.")) {
+				assertEquals(31, timings.get(key).getCount());
+			}
+		}
+		// Not monitored algorithms have no monitor
+		SS other = createAlgorithm();
+		other.execute();
+		assertNull(other.getMonitor());
+		assertNull(AlgorithmMonitor.current());
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private SS createAlgorithm()
+	{
+		SS algorithm = new SS();
+		RanecuFactory randGenFactory = new RanecuFactory();
+		randGenFactory.setSeed(1234);
+		algorithm.setRandGenFactory(randGenFactory);
+		IRange [] ranges = new IRange[4];
+		for (int i=0; i<ranges.length; i++) {
+			ranges[i] = new Interval(-5.12, 5.12, Closure.ClosedClosed);
+		}
+		algorithm.setSpecies(new RealArrayIndividualSpecies(ranges));
+		algorithm.setEvaluator(new SphereEvaluator());
+		algorithm.setProvider(new RealArrayCreator());
+		algorithm.setPopulationSize(20);
+		algorithm.setMaxOfGenerations(30);
+		algorithm.setMaxOfEvaluations(Integer.MAX_VALUE);
+		algorithm.setNumberOfParents(2);
+		TournamentSelector selector = new TournamentSelector();
+		selector.setTournamentSize(2);
+		algorithm.setParentsSelector(selector);
+		BLXAlphaCrossover recombinator = new BLXAlphaCrossover();
+		recombinator.setAlpha(0.5);
+		recombinator.setLocusRecProb(1.0);
+		algorithm.setRecombinator(recombinator);
+		RandomMutator mutator = new RandomMutator();
+		mutator.setLocusMutProb(0.1);
+		algorithm.setMutator(mutator);
+		return algorithm;
+	}
+}
@@ -0,0 +1,154 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.fitness.CompositeFitness;
+import net.sf.jclec.fitness.ISimpleFitness;
+import net.sf.jclec.fitness.IValueFitness;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+import net.sf.jclec.realarray.RealArrayIndividual;
+import net.sf.jclec.util.IndexSort;
+
+public class CrowdingDistanceTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public CrowdingDistanceTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Crowding distances are the same as those obtained by sorting the
+	 * individuals with the component comparators
+	 */
+
+	@SuppressWarnings("unchecked")
+	public void testAssign()
+	{
+		Random random = new Random(2468);
+		for (int trial=0; trial<200; trial++) {
+			int numberOfObjectives = 1 + random.nextInt(3);
+			Comparator<IFitness> [] componentComparators = new Comparator[numberOfObjectives];
+			for (int k=0; k<numberOfObjectives; k++) {
+				componentComparators[k] = new ValueFitnessComparator(random.nextBoolean());
+			}
+			List<IIndividual> front = createFront(random, 1 + random.nextInt(40), numberOfObjectives, trial < 100 ? 4 : 1000);
+			double [][] objectives = ParetoFronts.objectives(front, componentComparators);
+			double [] distances = CrowdingDistance.assign(objectives, IndexSort.identity(front.size()));
+			double [] expected = referenceAssign(front, componentComparators);
+			for (int i=0; i<front.size(); i++) {
+				assertEquals(expected[i], distances[i], 1e-12);
+			}
+		}
+	}
+
+	/**
+	 * Selected points are the first ones after a stable sort by decreasing
+	 * distance
+	 */
+
+	public void testSelect()
+	{
+		Random random = new Random(1357);
+		for (int trial=0; trial<200; trial++) {
+			int size = 1 + random.nextInt(60);
+			final double [] distances = new double[size];
+			for (int i=0; i<size; i++) {
+				distances[i] = random.nextInt(5) == 0 ? Double.MAX_VALUE : random.nextInt(trial < 100 ? 5 : 1000);
+			}
+			List<Integer> expected = new ArrayList<Integer>();
+			for (int i=0; i<size; i++) {
+				expected.add(i);
+			}
+			Collections.sort(expected, new Comparator<Integer>() {
+				public int compare(Integer i, Integer j)
+				{
+					return Double.compare(distances[j], distances[i]);
+				}
+			});
+			int count = 1 + random.nextInt(size);
+			int [] selected = CrowdingDistance.select(distances, count);
+			assertEquals(count, selected.length);
+			for (int i=0; i<count; i++) {
+				assertEquals(expected.get(i).intValue(), selected[i]);
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private List<IIndividual> createFront(Random random, int size, int numberOfObjectives, int values)
+	{
+		List<IIndividual> front = new ArrayList<IIndividual>();
+		for (int i=0; i<size; i++) {
+			ISimpleFitness [] components = new ISimpleFitness[numberOfObjectives];
+			for (int k=0; k<numberOfObjectives; k++) {
+				components[k] = new SimpleValueFitness(random.nextInt(values));
+			}
+			front.add(new RealArrayIndividual(new double[0], new CompositeFitness(components)));
+		}
+		return front;
+	}
+
+	/**
+	 * Crowding distance computed over lists of individuals, sorted with
+	 * the component comparators
+	 */
+
+	private double [] referenceAssign(final List<IIndividual> front, final Comparator<IFitness> [] componentComparators)
+	{
+		int size = front.size();
+		double [] distances = new double[size];
+		for (int k=0; k<componentComparators.length; k++) {
+			final int objective = k;
+			List<Integer> sorted = new ArrayList<Integer>();
+			for (int i=0; i<size; i++) {
+				sorted.add(i);
+			}
+			Collections.sort(sorted, new Comparator<Integer>() {
+				public int compare(Integer i, Integer j)
+				{
+					return componentComparators[objective].compare(component(front, i, objective), component(front, j, objective));
+				}
+			});
+			distances[sorted.get(0)] = Double.MAX_VALUE;
+			distances[sorted.get(size-1)] = Double.MAX_VALUE;
+			double fMin = value(front, sorted.get(0), k);
+			double fMax = value(front, sorted.get(size-1), k);
+			if (fMin != fMax) {
+				for (int i=1; i<size-1; i++) {
+					distances[sorted.get(i)] += Math.abs(value(front, sorted.get(i+1), k) - value(front, sorted.get(i-1), k)) / Math.abs(fMax - fMin);
+				}
+			}
+		}
+		return distances;
+	}
+
+	private IFitness component(List<IIndividual> front, int i, int k)
+	{
+		return ((CompositeFitness) front.get(i).getFitness()).getComponent(k);
+	}
+
+	private double value(List<IIndividual> front, int i, int k)
+	{
+		return ((IValueFitness) component(front, i, k)).getValue();
+	}
+}
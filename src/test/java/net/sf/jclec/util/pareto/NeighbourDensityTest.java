@@ -0,0 +1,168 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class NeighbourDensityTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public NeighbourDensityTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Neighbours are the same as those found by brute force, also after
+	 * removing points
+	 */
+
+	public void testNeighbours()
+	{
+		Random random = new Random(97531);
+		for (int trial=0; trial<40; trial++) {
+			int size = 1 + random.nextInt(80);
+			int dimension = 1 + random.nextInt(3);
+			int k = 1 + random.nextInt(5);
+			double [][] points = createPoints(random, size, dimension, trial < 20 ? 8 : 131072);
+			boolean [] removed = new boolean[size];
+			NeighbourDensity density = new NeighbourDensity(points, k);
+			for (int step=0; step<size; step++) {
+				for (int i=0; i<size; i++) {
+					if (!removed[i]) {
+						int [] expected = bruteForce(points, removed, i, k);
+						assertEquals(expected[0], density.neighbour(i));
+						assertEquals(distance(points, i, expected[0]), density.distance(i), 1e-12);
+					}
+				}
+				int r = random.nextInt(size);
+				density.remove(r);
+				removed[r] = true;
+				assertFalse(density.contains(r));
+			}
+		}
+	}
+
+	/**
+	 * Archive truncation removes the same points as the quadratic one
+	 */
+
+	public void testTruncation()
+	{
+		Random random = new Random(86420);
+		for (int trial=0; trial<30; trial++) {
+			int size = 10 + random.nextInt(100);
+			int target = 1 + random.nextInt(size);
+			int k = 1 + random.nextInt(3);
+			double [][] points = createPoints(random, size, 2, 1048576);
+			// Truncation using neighbour density
+			NeighbourDensity density = new NeighbourDensity(points, k);
+			while (density.size() > target) {
+				density.remove(density.neighbour(density.mostCrowded()));
+			}
+			// Quadratic truncation
+			List<Integer> archive = new ArrayList<Integer>();
+			for (int i=0; i<size; i++) {
+				archive.add(i);
+			}
+			while (archive.size() > target) {
+				int best = -1;
+				int bestNeighbour = -1;
+				double bestDistance = Double.MAX_VALUE;
+				for (int i : archive) {
+					List<Double> distances = new ArrayList<Double>();
+					for (int j : archive) {
+						distances.add(distance(points, i, j));
+					}
+					Collections.sort(distances);
+					double kth = distances.get(Math.min(k, archive.size()-1));
+					if (best == -1 || kth < bestDistance) {
+						best = i;
+						bestDistance = kth;
+						for (int j : archive) {
+							if (j != i && distance(points, i, j) == kth) {
+								bestNeighbour = j;
+							}
+						}
+					}
+				}
+				archive.remove(Integer.valueOf(bestNeighbour));
+			}
+			for (int i=0; i<size; i++) {
+				assertEquals(archive.contains(i), density.contains(i));
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Random points in [0,1). Values are multiples of 1/values, that must
+	 * be a power of two, so equal distances are exactly equal
+	 */
+
+	private double [][] createPoints(Random random, int size, int dimension, int values)
+	{
+		double [][] points = new double[size][dimension];
+		for (double [] point : points) {
+			for (int d=0; d<dimension; d++) {
+				point[d] = random.nextInt(values) / (double) values;
+			}
+		}
+		return points;
+	}
+
+	/**
+	 * k-th nearest neighbour, sorting by distance and index
+	 */
+
+	private int [] bruteForce(double [][] points, boolean [] removed, int point, int k)
+	{
+		List<Integer> others = new ArrayList<Integer>();
+		for (int j=0; j<points.length; j++) {
+			if (j != point && !removed[j]) {
+				others.add(j);
+			}
+		}
+		if (others.isEmpty()) {
+			return new int[] {point};
+		}
+		int [] sorted = new int[others.size()];
+		for (int i=0; i<sorted.length; i++) {
+			sorted[i] = others.get(i);
+		}
+		// Insertion sort (stable, indexes are already sorted)
+		for (int i=1; i<sorted.length; i++) {
+			int value = sorted[i];
+			int j = i - 1;
+			while (j >= 0 && distance(points, point, sorted[j]) > distance(points, point, value)) {
+				sorted[j+1] = sorted[j];
+				j--;
+			}
+			sorted[j+1] = value;
+		}
+		return new int[] {sorted[Math.min(k, sorted.length) - 1]};
+	}
+
+	private double distance(double [][] points, int i, int j)
+	{
+		double distance = 0.0;
+		for (int d=0; d<points[i].length; d++) {
+			double diff = points[i][d] - points[j][d];
+			distance += diff*diff;
+		}
+		return Math.sqrt(distance);
+	}
+}
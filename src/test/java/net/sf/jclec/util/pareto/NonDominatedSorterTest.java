@@ -0,0 +1,152 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.fitness.CompositeFitness;
+import net.sf.jclec.fitness.ISimpleFitness;
+import net.sf.jclec.fitness.ParetoComparator;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+import net.sf.jclec.realarray.RealArrayIndividual;
+
+public class NonDominatedSorterTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public NonDominatedSorterTest(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * All sorters agree with a brute force sort, on random points with
+	 * many ties and duplicates
+	 */
+
+	public void testSort()
+	{
+		INonDominatedSorter [] sorters = {
+				new FastNonDominatedSorter(),
+				new ENSNonDominatedSorter(),
+				new DivideAndConquerNonDominatedSorter()};
+		Random random = new Random(12345);
+		for (int numberOfObjectives=1; numberOfObjectives<=5; numberOfObjectives++) {
+			for (int trial=0; trial<40; trial++) {
+				int size = random.nextInt(120);
+				int values = 1 + random.nextInt(trial < 20 ? 5 : 1000);
+				double [][] objectives = new double[size][numberOfObjectives];
+				for (double [] point : objectives) {
+					for (int k=0; k<numberOfObjectives; k++) {
+						point[k] = random.nextInt(values) - values/2;
+					}
+				}
+				double [][] copy = new double[size][];
+				for (int i=0; i<size; i++) {
+					copy[i] = objectives[i].clone();
+				}
+				int [] expected = bruteForceSort(objectives);
+				for (INonDominatedSorter sorter : sorters) {
+					int [] ranks = sorter.sort(objectives);
+					assertTrue(sorter.getClass().getSimpleName() + ", " + numberOfObjectives + " objectives",
+							Arrays.equals(expected, ranks));
+				}
+				assertTrue(Arrays.deepEquals(copy, objectives));
+			}
+		}
+	}
+
+	/**
+	 * Objective matrix follows ParetoComparator criterion
+	 */
+
+	@SuppressWarnings("unchecked")
+	public void testObjectives()
+	{
+		Comparator<IFitness> [] componentComparators = new Comparator[2];
+		componentComparators[0] = new ValueFitnessComparator(false);
+		componentComparators[1] = new ValueFitnessComparator(true);
+		ParetoComparator comparator = new ParetoComparator();
+		comparator.setComponentComparators(componentComparators);
+		Random random = new Random(54321);
+		List<IIndividual> inds = new ArrayList<IIndividual>();
+		for (int i=0; i<50; i++) {
+			ISimpleFitness [] components = {
+					new SimpleValueFitness(random.nextInt(5)),
+					new SimpleValueFitness(random.nextInt(5))};
+			inds.add(new RealArrayIndividual(new double[0], new CompositeFitness(components)));
+		}
+		double [][] objectives = ParetoFronts.objectives(inds, componentComparators);
+		for (int i=0; i<inds.size(); i++) {
+			for (int j=0; j<inds.size(); j++) {
+				assertEquals(comparator.compare(inds.get(i).getFitness(), inds.get(j).getFitness()),
+						ParetoFronts.compare(objectives[i], objectives[j]));
+			}
+		}
+		int [][] fronts = ParetoFronts.fronts(new int[] {1, 0, 1, 2, 0});
+		assertTrue(Arrays.deepEquals(new int[][] {{1, 4}, {0, 2}, {3}}, fronts));
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Peels non-dominated points until the set is empty
+	 */
+
+	private int [] bruteForceSort(double [][] objectives)
+	{
+		int size = objectives.length;
+		int [] ranks = new int[size];
+		Arrays.fill(ranks, -1);
+		int remaining = size;
+		for (int rank=0; remaining>0; rank++) {
+			List<Integer> front = new ArrayList<Integer>();
+			for (int i=0; i<size; i++) {
+				if (ranks[i] != -1) {
+					continue;
+				}
+				boolean dominated = false;
+				for (int j=0; j<size && !dominated; j++) {
+					dominated = ranks[j] == -1 && dominates(objectives[j], objectives[i]);
+				}
+				if (!dominated) {
+					front.add(i);
+				}
+			}
+			for (int i : front) {
+				ranks[i] = rank;
+			}
+			remaining -= front.size();
+		}
+		return ranks;
+	}
+
+	private boolean dominates(double [] a, double [] b)
+	{
+		boolean better = false;
+		for (int k=0; k<a.length; k++) {
+			if (a[k] > b[k]) {
+				return false;
+			}
+			if (a[k] < b[k]) {
+				better = true;
+			}
+		}
+		return better;
+	}
+}
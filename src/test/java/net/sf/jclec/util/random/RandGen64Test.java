@@ -0,0 +1,151 @@
+package net.sf.jclec.util.random;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+
+public class RandGen64Test extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public RandGen64Test(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Same sequences as the reference implementations
+	 */
+
+	public void testSequences()
+	{
+		Xoshiro256PlusPlus xoshiro = new Xoshiro256PlusPlus(1L, 2L, 3L, 4L);
+		assertEquals(41943041L, xoshiro.nextLong());
+		assertEquals(58720359L, xoshiro.nextLong());
+		assertEquals(3588806011781223L, xoshiro.nextLong());
+		Xoroshiro128PlusPlus xoroshiro = new Xoroshiro128PlusPlus(1L, 2L);
+		assertEquals(393217L, xoroshiro.nextLong());
+		assertEquals(669327710093319L, xoroshiro.nextLong());
+		assertEquals(1732421326133921491L, xoroshiro.nextLong());
+		PCG64 pcg = new PCG64(0x0123456789abcdefL, 0xfedcba9876543210L, 5L, 0x8000000000000007L);
+		assertEquals(-5261185536760095713L, pcg.nextLong());
+		assertEquals(4150441715326791796L, pcg.nextLong());
+		assertEquals(-3109933655835051201L, pcg.nextLong());
+	}
+
+	/**
+	 * Bulk methods return the same values as consecutive calls
+	 */
+
+	public void testBulk()
+	{
+		AbstractRandGen64 [][] pairs = {
+			{new SplitMix64(7L), new SplitMix64(7L)},
+			{new Xoshiro256PlusPlus(7L), new Xoshiro256PlusPlus(7L)},
+			{new Xoroshiro128PlusPlus(7L), new Xoroshiro128PlusPlus(7L)},
+			{new PCG64(7L), new PCG64(7L)}
+		};
+		// Larger than the internal buffer
+		int n = 600;
+		for (AbstractRandGen64 [] pair : pairs) {
+			long [] longs = new long[n];
+			pair[0].nextLongs(longs);
+			for (int i=0; i<n; i++) {
+				assertEquals(longs[i], pair[1].nextLong());
+			}
+			double [] doubles = new double[n];
+			pair[0].raw(doubles);
+			for (int i=0; i<n; i++) {
+				assertEquals(doubles[i], pair[1].raw(), 0);
+				assertTrue(doubles[i] > 0 && doubles[i] < 1);
+			}
+			int [] ints = new int[n];
+			pair[0].nextInts(ints, n - 1);
+			for (int i=0; i<n-1; i++) {
+				assertEquals(ints[i], pair[1].nextInt());
+			}
+			assertEquals(0, ints[n-1]);
+			pair[0].choose(ints, n, -3, 10);
+			for (int i=0; i<n; i++) {
+				assertEquals(ints[i], pair[1].choose(-3, 10));
+			}
+			assertEquals(pair[0], pair[1]);
+		}
+	}
+
+	/**
+	 * Bounded integers are in range and uniform
+	 */
+
+	public void testChoose()
+	{
+		AbstractRandGen64 randgen = new Xoshiro256PlusPlus(11L);
+		int [] counts = new int[3];
+		int n = 30000;
+		for (int i=0; i<n; i++) {
+			counts[randgen.choose(0, 3)]++;
+		}
+		for (int count : counts) {
+			assertEquals(n / 3, count, n / 100);
+		}
+		// Whole int range
+		boolean negative = false, positive = false;
+		for (int i=0; i<100; i++) {
+			int value = randgen.choose(Integer.MIN_VALUE, Integer.MAX_VALUE);
+			assertTrue(value < Integer.MAX_VALUE);
+			negative |= value < 0;
+			positive |= value > 0;
+		}
+		assertTrue(negative && positive);
+		// Empty range
+		assertEquals(5, randgen.choose(5, 5));
+		assertEquals(1, randgen.choose(1));
+	}
+
+	/**
+	 * copyAndJump() returns the former state and changes this one
+	 */
+
+	public void testJump()
+	{
+		Xoshiro256PlusPlus xoshiro = new Xoshiro256PlusPlus(3L);
+		Xoshiro256PlusPlus copy = xoshiro.copyAndJump();
+		assertEquals(new Xoshiro256PlusPlus(3L), copy);
+		assertFalse(copy.equals(xoshiro));
+		assertFalse(copy.nextLong() == xoshiro.nextLong());
+		Xoroshiro128PlusPlus xoroshiro = new Xoroshiro128PlusPlus(3L);
+		Xoroshiro128PlusPlus other = xoroshiro.copyAndJump();
+		assertEquals(new Xoroshiro128PlusPlus(3L), other);
+		assertFalse(other.nextLong() == xoroshiro.nextLong());
+	}
+
+	/**
+	 * Factories are configured as any other rand-gen-factory
+	 */
+
+	public void testFactories()
+	{
+		AbstractRandGenFactory [] factories = {
+			new Xoshiro256PlusPlusFactory(), new Xoroshiro128PlusPlusFactory(), new PCG64Factory()
+		};
+		HierarchicalConfiguration settings = new HierarchicalConfiguration();
+		settings.addProperty("[@seed]", 42);
+		for (AbstractRandGenFactory factory : factories) {
+			factory.configure(settings);
+			assertEquals(42, factory.getSeed());
+			IRandGen first = factory.createRandGen();
+			IRandGen second = factory.createRandGen();
+			double value = first.raw();
+			assertFalse(value == second.raw());
+			// Same seed, same generators
+			factory.configure(settings);
+			assertEquals(value, factory.createRandGen().raw(), 0);
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package net.sf.jclec.util.random;
+
+import junit.framework.TestCase;
+
+public class SplitMix64Test extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public SplitMix64Test(String testName)
+	{
+		super(testName);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Same sequence as java.util.SplittableRandom
+	 */
+
+	public void testSequence()
+	{
+		SplitMix64 randgen = new SplitMix64(1234567L);
+		assertEquals(6457827717110365317L, randgen.nextLong());
+		assertEquals(3203168211198807973L, randgen.nextLong());
+		assertEquals(-8629252141511181193L, randgen.nextLong());
+		assertEquals(4593380528125082431L, randgen.nextLong());
+		assertEquals(-2037821214251327795L, randgen.nextLong());
+		for (int i=0; i<1000; i++) {
+			double value = randgen.raw();
+			assertTrue(value > 0 && value < 1);
+		}
+	}
+
+	/**
+	 * split(n) returns the (n+1)-th split without changing state
+	 */
+
+	public void testSplit()
+	{
+		SplitMix64 randgen = new SplitMix64(99L);
+		SplitMix64 copy = new SplitMix64(99L);
+		SplitMix64 third = randgen.split(2);
+		assertEquals(copy, randgen);
+		randgen.split();
+		randgen.split();
+		assertEquals(randgen.split().nextLong(), third.nextLong());
+		// Splits are different from each other and from parent
+		long parent = copy.nextLong();
+		long first = copy.split(0).nextLong();
+		long second = copy.split(1).nextLong();
+		assertTrue(parent != first && parent != second && first != second);
+	}
+
+	/**
+	 * Streams only depend on factory seed and stream identifier
+	 */
+
+	public void testStreams()
+	{
+		AbstractRandGenFactory [] factories = {
+			new RanecuFactory(), new RanmarFactory(), new RanmtFactory(),
+			new RanluxFactory(), new SplitMix64Factory(), new Xoshiro256PlusPlusFactory(),
+			new Xoroshiro128PlusPlusFactory(), new PCG64Factory()
+		};
+		for (AbstractRandGenFactory factory : factories) {
+			factory.setSeed(321);
+			double [] stream3 = sequence(factory.createRandGen(3));
+			double [] stream4 = sequence(factory.createRandGen(4));
+			assertFalse(stream3[0] == stream4[0]);
+			// Other generators created before don't change streams
+			factory.createRandGen();
+			factory.createRandGen(7);
+			assertEquals(stream4[9], sequence(factory.createRandGen(4))[9], 0);
+			assertEquals(stream3[9], sequence(factory.createRandGen(3))[9], 0);
+			// Another seed gives other streams
+			factory.setSeed(322);
+			assertFalse(stream3[0] == sequence(factory.createRandGen(3))[0]);
+		}
+	}
+
+	/**
+	 * Sequential generators restart with the seed
+	 */
+
+	public void testFactory()
+	{
+		SplitMix64Factory factory = new SplitMix64Factory();
+		factory.setSeed(5);
+		double [] first = sequence(factory.createRandGen());
+		double [] second = sequence(factory.createRandGen());
+		assertFalse(first[0] == second[0]);
+		factory.setSeed(5);
+		assertEquals(first[9], sequence(factory.createRandGen())[9], 0);
+		assertEquals(second[9], sequence(factory.createRandGen())[9], 0);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static double [] sequence(IRandGen randgen)
+	{
+		double [] result = new double[10];
+		randgen.raw(result);
+		return result;
+	}
+}